@@ -0,0 +1,82 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * 记录每个语句实际执行过的不同 SQL 文本. 只在基准开始前的统计轮中安装, 不影响计时.
+ * 
+ */
+@Intercepts({
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+    @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class,
+            RowBounds.class, ResultHandler.class})
+})
+public class DistinctSqlInterceptor implements Interceptor {
+
+    private final Map<String, Set<String>> sqlTexts = new ConcurrentHashMap<String, Set<String>>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        Object parameter = invocation.getArgs()[1];
+
+        Set<String> texts = sqlTexts.get(mappedStatement.getId());
+        if (texts == null) {
+            texts = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            sqlTexts.put(mappedStatement.getId(), texts);
+        }
+        texts.add(mappedStatement.getBoundSql(parameter).getSql());
+
+        return invocation.proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+
+    /**
+     * @return the number of distinct SQL texts by statement id
+     */
+    public Map<String, Integer> getDistinctCounts() {
+        Map<String, Integer> answer = new TreeMap<String, Integer>();
+        for (Map.Entry<String, Set<String>> entry : sqlTexts.entrySet()) {
+            answer.put(entry.getKey(), entry.getValue().size());
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,411 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.xml.ConfigurationParser;
+import org.mybatis.generator.internal.DefaultShellCallback;
+
+/**
+ * 为一个变体生成 BENCH_ITEM 表的 mapper, 编译生成的代码并加载到独立的类加载器中.
+ * 基准代码在编译期看不到生成的类型, 记录和条件对象都通过反射创建.
+ * 
+ */
+public class GeneratedMappers {
+
+    public static final String MAPPER_TYPE = "benchmark.mapper.BenchItemMapper"; //$NON-NLS-1$
+
+    public static final String RECORD_TYPE = "benchmark.model.BenchItem"; //$NON-NLS-1$
+
+    public static final String WHERE_TYPE = "benchmark.model.BenchItemWhere"; //$NON-NLS-1$
+
+    public static final String COLUMN_TYPE = "benchmark.model.BenchItemColumn"; //$NON-NLS-1$
+
+    /** The optional properties of the record, bit i of a null mask is PROPERTIES[i]. */
+    public static final String[] PROPERTIES = {
+        "name", "code", "category", "note", "status", "quantity", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+        "ownerId", "price", "weight", "active", "createdAt", "updatedAt" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+    };
+
+    private static final String DRIVER = "org.hsqldb.jdbcDriver"; //$NON-NLS-1$
+
+    private final GeneratorVariant variant;
+
+    private final String jdbcUrl;
+
+    private final File directory;
+
+    private final ClassLoader classLoader;
+
+    private final Class<?> mapperType;
+
+    private final List<String> warnings;
+
+    private GeneratedMappers(GeneratorVariant variant, String jdbcUrl, File directory,
+            ClassLoader classLoader, List<String> warnings) throws ClassNotFoundException {
+        this.variant = variant;
+        this.jdbcUrl = jdbcUrl;
+        this.directory = directory;
+        this.classLoader = classLoader;
+        this.mapperType = classLoader.loadClass(MAPPER_TYPE);
+        this.warnings = warnings;
+    }
+
+    /**
+     * Creates the schema in a new in-memory database with the given number of
+     * rows, generates the mappers of the variant and compiles them.
+     */
+    public static GeneratedMappers generate(GeneratorVariant variant, int rows) throws Exception {
+        String jdbcUrl = "jdbc:hsqldb:mem:bench_" + variant.name().toLowerCase(Locale.ENGLISH); //$NON-NLS-1$
+        createSchema(jdbcUrl, rows);
+
+        File directory = Files.createTempDirectory("mbg-benchmark-").toFile(); //$NON-NLS-1$
+        List<String> warnings = runGenerator(variant, jdbcUrl, directory);
+
+        File classes = new File(directory, "classes"); //$NON-NLS-1$
+        if (!classes.mkdir()) {
+            throw new IOException("Cannot create " + classes); //$NON-NLS-1$
+        }
+        compile(directory, classes);
+
+        ClassLoader classLoader = new URLClassLoader(new URL[] {classes.toURI().toURL()},
+                GeneratedMappers.class.getClassLoader());
+        return new GeneratedMappers(variant, jdbcUrl, directory, classLoader, warnings);
+    }
+
+    private static void createSchema(String jdbcUrl, int rows) throws Exception {
+        Class.forName(DRIVER);
+        Connection connection = DriverManager.getConnection(jdbcUrl, "sa", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            Statement statement = connection.createStatement();
+            for (String sql : readStatements("schema.sql")) { //$NON-NLS-1$
+                statement.execute(sql);
+            }
+            statement.close();
+
+            PreparedStatement insert = connection.prepareStatement(
+                    "insert into BENCH_ITEM (NAME, CODE, CATEGORY, NOTE, STATUS, QUANTITY, OWNER_ID," //$NON-NLS-1$
+                    + " PRICE, WEIGHT, ACTIVE, CREATED_AT, UPDATED_AT) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"); //$NON-NLS-1$
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < PROPERTIES.length; j++) {
+                    Object value = sampleValue(j, i);
+                    insert.setObject(j + 1, value instanceof Date
+                            ? new Timestamp(((Date) value).getTime()) : value);
+                }
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            insert.close();
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static List<String> readStatements(String resource) throws IOException {
+        InputStream inputStream = GeneratedMappers.class.getResourceAsStream(resource);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8")); //$NON-NLS-1$
+        List<String> answer = new ArrayList<String>();
+        try {
+            StringBuilder sb = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("--") || line.length() == 0) { //$NON-NLS-1$
+                    continue;
+                }
+                if (line.endsWith(";")) { //$NON-NLS-1$
+                    sb.append(line.substring(0, line.length() - 1));
+                    answer.add(sb.toString());
+                    sb.setLength(0);
+                } else {
+                    sb.append(line);
+                    sb.append(' ');
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return answer;
+    }
+
+    private static List<String> runGenerator(GeneratorVariant variant, String jdbcUrl,
+            File directory) throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("jdbcUrl", jdbcUrl); //$NON-NLS-1$
+        properties.setProperty("targetProject", directory.getAbsolutePath()); //$NON-NLS-1$
+        properties.setProperty("clientType", variant.getClientType()); //$NON-NLS-1$
+        properties.setProperty("fixedShapeThreshold", //$NON-NLS-1$
+                Integer.toString(variant.getFixedShapeThreshold()));
+
+        List<String> warnings = new ArrayList<String>();
+        ConfigurationParser parser = new ConfigurationParser(properties, warnings);
+        org.mybatis.generator.config.Configuration configuration = parser.parseConfiguration(
+                GeneratedMappers.class.getResourceAsStream("generatorConfig.xml")); //$NON-NLS-1$
+        MyBatisGenerator generator = new MyBatisGenerator(configuration,
+                new DefaultShellCallback(true), warnings);
+        generator.generate(null);
+        return warnings;
+    }
+
+    private static void compile(File directory, File classes) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException(
+                    "The generated mappers are compiled at runtime, the benchmarks must run on a JDK"); //$NON-NLS-1$
+        }
+
+        List<File> sources = new ArrayList<File>();
+        findSources(directory, sources);
+
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        try {
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+            List<String> options = Arrays.asList("-d", classes.getPath(), //$NON-NLS-1$
+                    "-classpath", System.getProperty("java.class.path"), "-nowarn"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            boolean compiled = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(sources)).call();
+            if (!compiled) {
+                throw new IllegalStateException("The generated mappers do not compile: " //$NON-NLS-1$
+                        + diagnostics.getDiagnostics());
+            }
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private static void findSources(File directory, List<File> sources) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                findSources(file, sources);
+            } else if (file.getName().endsWith(".java")) { //$NON-NLS-1$
+                sources.add(file);
+            }
+        }
+    }
+
+    /**
+     * Builds a new SqlSessionFactory over the database of the variant, loading
+     * the generated mapper the way the variant is meant to be used.
+     */
+    public SqlSessionFactory buildSqlSessionFactory(Interceptor... interceptors) throws IOException {
+        Environment environment = new Environment("benchmark", new JdbcTransactionFactory(), //$NON-NLS-1$
+                new PooledDataSource(DRIVER, jdbcUrl, "sa", "")); //$NON-NLS-1$ //$NON-NLS-2$
+        Configuration configuration = new Configuration(environment);
+        // repeated selects must reach the database
+        configuration.setLocalCacheScope(LocalCacheScope.STATEMENT);
+        for (Interceptor interceptor : interceptors) {
+            configuration.addInterceptor(interceptor);
+        }
+
+        Resources.setDefaultClassLoader(classLoader);
+        if (variant.isAnnotated()) {
+            configuration.addMapper(mapperType);
+        } else {
+            File xml = new File(directory, MAPPER_TYPE.replace('.', File.separatorChar) + ".xml"); //$NON-NLS-1$
+            InputStream inputStream = new FileInputStream(xml);
+            try {
+                new XMLMapperBuilder(inputStream, configuration, xml.toURI().toString(),
+                        configuration.getSqlFragments()).parse();
+            } finally {
+                inputStream.close();
+            }
+        }
+
+        return new SqlSessionFactoryBuilder().build(configuration);
+    }
+
+    public GeneratorVariant getVariant() {
+        return variant;
+    }
+
+    public Class<?> getMapperType() {
+        return mapperType;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    /**
+     * Default methods are included, deprecated ones are not: the deprecated
+     * insert(List) only delegates to inserts.
+     *
+     * @return the only method of the mapper with the name
+     */
+    public Method getMapperMethod(String name) {
+        Method answer = null;
+        for (Method method : mapperType.getMethods()) {
+            if (method.getName().equals(name) && !method.isAnnotationPresent(Deprecated.class)) {
+                if (answer != null) {
+                    throw new IllegalStateException("More than one mapper method " + name); //$NON-NLS-1$
+                }
+                answer = method;
+            }
+        }
+        if (answer == null) {
+            throw new IllegalStateException("No mapper method " + name); //$NON-NLS-1$
+        }
+        return answer;
+    }
+
+    /**
+     * Creates a record with the properties of the mask set.
+     */
+    public Object newRecord(int seed, int mask) throws Exception {
+        Object record = newInstance(RECORD_TYPE);
+        for (int i = 0; i < PROPERTIES.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                setProperty(record, PROPERTIES[i], sampleValue(i, seed));
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Creates a Where with one equality criterion per property.
+     */
+    public Object newWhere(String[] properties, Object[] values) throws Exception {
+        Class<?> whereType = classLoader.loadClass(WHERE_TYPE);
+        Object where = whereType.newInstance();
+        for (int i = 0; i < properties.length; i++) {
+            Method builder = findMethod(whereType, "builder" + capitalize(properties[i])); //$NON-NLS-1$
+            Object criterion = builder.invoke(null, values[i]);
+            findMethod(whereType, "and").invoke(where, criterion); //$NON-NLS-1$
+        }
+        return where;
+    }
+
+    /**
+     * Creates a column selector selecting the given properties.
+     */
+    public Object newColumn(String... properties) throws Exception {
+        Object column = newInstance(COLUMN_TYPE);
+        for (String property : properties) {
+            findMethod(column.getClass(), "setHad" + property).invoke(column, true); //$NON-NLS-1$
+        }
+        return column;
+    }
+
+    public void setProperty(Object bean, String property, Object value) throws Exception {
+        findMethod(bean.getClass(), "set" + capitalize(property)).invoke(bean, value); //$NON-NLS-1$
+    }
+
+    private Object newInstance(String type) throws Exception {
+        return classLoader.loadClass(type).newInstance();
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterTypes().length == 1) {
+                return method;
+            }
+        }
+        throw new IllegalStateException("No method " + name + " in " + type.getName()); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private static String capitalize(String property) {
+        return Character.toUpperCase(property.charAt(0)) + property.substring(1);
+    }
+
+    /**
+     * The value of PROPERTIES[index] in the row with the seed. Owners and
+     * statuses repeat so that the where based statements match a few rows.
+     */
+    public static Object sampleValue(int index, int seed) {
+        switch (index) {
+        case 0:
+            return "item-" + seed; //$NON-NLS-1$
+        case 1:
+            return "C" + seed; //$NON-NLS-1$
+        case 2:
+            return "category-" + (seed % 16); //$NON-NLS-1$
+        case 3:
+            return "note of item " + seed; //$NON-NLS-1$
+        case 4:
+            return seed % 4;
+        case 5:
+            return seed % 100;
+        case 6:
+            return (long) (seed % 50);
+        case 7:
+            return BigDecimal.valueOf(seed % 10000, 2);
+        case 8:
+            return seed * 0.5d;
+        case 9:
+            return seed % 2 == 0;
+        default:
+            return new Date(1500000000000L + seed * 1000L);
+        }
+    }
+
+    /**
+     * Drops the database of the variant.
+     */
+    public void dispose() throws SQLException {
+        Connection connection = DriverManager.getConnection(jdbcUrl, "sa", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            Statement statement = connection.createStatement();
+            statement.execute("shutdown"); //$NON-NLS-1$
+            statement.close();
+        } finally {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+/**
+ * 被比较的生成器选项组合. 每个变体生成一份 mapper, 同一个基准在各变体上的结果可以直接对比.
+ * 
+ */
+public enum GeneratorVariant {
+
+    /** XML mapper, selective statements with one if per column. */
+    XML_DYNAMIC("XMLMAPPER", Integer.MAX_VALUE), //$NON-NLS-1$
+
+    /** XML mapper, selective statements rewritten to a fixed shape. */
+    XML_FIXED_SHAPE("XMLMAPPER", 1), //$NON-NLS-1$
+
+    /** Annotated mapper, selective statements built by the memoizing SqlProvider. */
+    ANNOTATED("ANNOTATEDMAPPER", Integer.MAX_VALUE), //$NON-NLS-1$
+
+    /** Annotated mapper, selective statements rewritten to a fixed shape. */
+    ANNOTATED_FIXED_SHAPE("ANNOTATEDMAPPER", 1); //$NON-NLS-1$
+
+    private final String clientType;
+
+    private final int fixedShapeThreshold;
+
+    private GeneratorVariant(String clientType, int fixedShapeThreshold) {
+        this.clientType = clientType;
+        this.fixedShapeThreshold = fixedShapeThreshold;
+    }
+
+    public String getClientType() {
+        return clientType;
+    }
+
+    public int getFixedShapeThreshold() {
+        return fixedShapeThreshold;
+    }
+
+    public boolean isAnnotated() {
+        return "ANNOTATEDMAPPER".equals(clientType); //$NON-NLS-1$
+    }
+}
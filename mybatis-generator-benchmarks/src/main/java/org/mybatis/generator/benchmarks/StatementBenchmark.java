@@ -0,0 +1,236 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 生成的 mapper 每个语句一次调用的耗时, 用 -prof gc 运行时同时给出每次调用的分配量.
+ * 写语句在回滚的事务中执行, 表的数据在测量期间不变.
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementBenchmark {
+
+    private static final int ROWS = 10000;
+
+    private static final int BATCH_SIZE = 100;
+
+    /** The null masks cycled through by the selective statements. */
+    private static final int[] MASKS = {
+        0xFFF, 0x001, 0x003, 0x00F, 0x0F0, 0x555, 0xAAA, 0x7FF
+    };
+
+    @Param
+    public GeneratorVariant variant;
+
+    private GeneratedMappers mappers;
+
+    private SqlSession session;
+
+    private Object mapper;
+
+    private Method selectByPrimaryKey;
+
+    private Method selectByWhere;
+
+    private Method selectByWhereWitchColumn;
+
+    private Method selectByPrimaryKeysInChunks;
+
+    private Method insert;
+
+    private Method inserts;
+
+    private Method updateByPrimaryKey;
+
+    private Method updateByWhere;
+
+    private Object where;
+
+    private Object column;
+
+    private Object[] records;
+
+    private List<Object> batch;
+
+    private List<Long> keys;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        mappers = GeneratedMappers.generate(variant, ROWS);
+        selectByPrimaryKey = mappers.getMapperMethod("selectByPrimaryKey"); //$NON-NLS-1$
+        selectByWhere = mappers.getMapperMethod("selectByWhere"); //$NON-NLS-1$
+        selectByWhereWitchColumn = mappers.getMapperMethod("selectByWhereWitchColumn"); //$NON-NLS-1$
+        // a default method, the mappers need MyBatis 3.4.2 or later
+        selectByPrimaryKeysInChunks = mappers.getMapperMethod("selectByPrimaryKeysInChunks"); //$NON-NLS-1$
+        insert = mappers.getMapperMethod("insert"); //$NON-NLS-1$
+        inserts = mappers.getMapperMethod("inserts"); //$NON-NLS-1$
+        updateByPrimaryKey = mappers.getMapperMethod("updateByPrimaryKey"); //$NON-NLS-1$
+        updateByWhere = mappers.getMapperMethod("updateByWhere"); //$NON-NLS-1$
+
+        where = mappers.newWhere(new String[] {"ownerId", "status"}, //$NON-NLS-1$ //$NON-NLS-2$
+                new Object[] {7L, 3});
+        column = mappers.newColumn("id", "name", "price"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+        records = new Object[MASKS.length];
+        for (int i = 0; i < MASKS.length; i++) {
+            records[i] = mappers.newRecord(i, MASKS[i]);
+        }
+        batch = new ArrayList<Object>();
+        keys = new ArrayList<Long>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(mappers.newRecord(i, 0xFFF));
+            keys.add((long) (i * (ROWS / BATCH_SIZE) + 1));
+        }
+
+        reportDistinctSql();
+
+        SqlSessionFactory sqlSessionFactory = mappers.buildSqlSessionFactory();
+        session = sqlSessionFactory.openSession(ExecutorType.SIMPLE, false);
+        mapper = session.getMapper(mappers.getMapperType());
+    }
+
+    /**
+     * Runs every statement once per null mask through an instrumented factory
+     * and prints how many different SQL strings each statement produced.
+     */
+    private void reportDistinctSql() throws Exception {
+        DistinctSqlInterceptor interceptor = new DistinctSqlInterceptor();
+        SqlSession instrumented = mappers.buildSqlSessionFactory(interceptor).openSession(false);
+        try {
+            Object instrumentedMapper = instrumented.getMapper(mappers.getMapperType());
+            for (int i = 0; i < MASKS.length; i++) {
+                mappers.setProperty(records[i], "id", null); //$NON-NLS-1$
+                insert.invoke(instrumentedMapper, records[i]);
+                // the where matches several rows, the key must not be in the set clause
+                mappers.setProperty(records[i], "id", null); //$NON-NLS-1$
+                updateByWhere.invoke(instrumentedMapper, records[i], where);
+                mappers.setProperty(records[i], "id", (long) (i + 1)); //$NON-NLS-1$
+                updateByPrimaryKey.invoke(instrumentedMapper, records[i]);
+            }
+            selectByPrimaryKey.invoke(instrumentedMapper, 1L);
+            selectByWhere.invoke(instrumentedMapper, where);
+            selectByWhereWitchColumn.invoke(instrumentedMapper, where, column);
+            selectByPrimaryKeysInChunks.invoke(instrumentedMapper, keys);
+            inserts.invoke(instrumentedMapper, batch);
+        } finally {
+            instrumented.rollback(true);
+            instrumented.close();
+        }
+
+        System.out.println();
+        System.out.println("Distinct SQL per statement, " + variant + ":"); //$NON-NLS-1$ //$NON-NLS-2$
+        for (Map.Entry<String, Integer> entry : interceptor.getDistinctCounts().entrySet()) {
+            System.out.println("  " + entry.getKey() + " = " + entry.getValue()); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        for (String warning : mappers.getWarnings()) {
+            System.out.println("  warning: " + warning); //$NON-NLS-1$
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        session.rollback(true);
+        session.close();
+        mappers.dispose();
+    }
+
+    @TearDown(Level.Iteration)
+    public void rollback() {
+        session.rollback(true);
+    }
+
+    private Object nextRecord() {
+        next = (next + 1) % records.length;
+        return records[next];
+    }
+
+    @Benchmark
+    public Object selectByPrimaryKey() throws Exception {
+        next = (next + 1) % ROWS;
+        return selectByPrimaryKey.invoke(mapper, (long) (next + 1));
+    }
+
+    @Benchmark
+    public Object selectByWhere() throws Exception {
+        return selectByWhere.invoke(mapper, where);
+    }
+
+    @Benchmark
+    public Object selectByWhereWitchColumn() throws Exception {
+        return selectByWhereWitchColumn.invoke(mapper, where, column);
+    }
+
+    @Benchmark
+    public Object selectByPrimaryKeysInChunks() throws Exception {
+        return selectByPrimaryKeysInChunks.invoke(mapper, keys);
+    }
+
+    @Benchmark
+    public Object insert() throws Exception {
+        Object record = nextRecord();
+        mappers.setProperty(record, "id", null); //$NON-NLS-1$
+        return insert.invoke(mapper, record);
+    }
+
+    @Benchmark
+    public Object inserts() throws Exception {
+        return inserts.invoke(mapper, batch);
+    }
+
+    @Benchmark
+    public Object updateByPrimaryKey() throws Exception {
+        Object record = nextRecord();
+        mappers.setProperty(record, "id", (long) (next + 1)); //$NON-NLS-1$
+        return updateByPrimaryKey.invoke(mapper, record);
+    }
+
+    @Benchmark
+    public Object updateByWhere() throws Exception {
+        Object record = nextRecord();
+        mappers.setProperty(record, "id", null); //$NON-NLS-1$
+        return updateByWhere.invoke(mapper, record, where);
+    }
+}
@@ -0,0 +1,36 @@
+--
+--    Copyright 2006-2017 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+-- one table with twelve optional columns of the common types
+drop table BENCH_ITEM if exists;
+
+create table BENCH_ITEM (
+  ID bigint generated by default as identity primary key,
+  NAME varchar(64),
+  CODE varchar(32),
+  CATEGORY varchar(32),
+  NOTE varchar(255),
+  STATUS integer,
+  QUANTITY integer,
+  OWNER_ID bigint,
+  PRICE decimal(12,2),
+  WEIGHT double,
+  ACTIVE boolean,
+  CREATED_AT timestamp,
+  UPDATED_AT timestamp
+);
+
+create index IDX_BENCH_ITEM_OWNER on BENCH_ITEM (OWNER_ID, STATUS);
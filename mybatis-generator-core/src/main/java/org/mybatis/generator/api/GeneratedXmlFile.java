@@ -66,6 +66,15 @@ public class GeneratedXmlFile extends GeneratedFile {
         this.xmlFormatter = xmlFormatter;
     }
 
+    /**
+     * Gets the document.
+     *
+     * @return the document
+     */
+    public Document getDocument() {
+        return document;
+    }
+
     /* (non-Javadoc)
      * @see org.mybatis.generator.api.GeneratedFile#getFormattedContent()
      */
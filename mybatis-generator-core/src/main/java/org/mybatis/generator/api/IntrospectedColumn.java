@@ -81,6 +81,12 @@ public class IntrospectedColumn {
      */
     protected boolean isGeneratedAlways;
 
+    /**
+     * estimated number of distinct values, taken from a single column index.
+     * Null if the column is not indexed alone or the database did not report it
+     */
+    protected Long cardinality;
+
     /**
      * Constructs a Column definition. This object holds all the information
      * about a column that is required to generate Java objects and SQL maps;
@@ -305,6 +311,14 @@ public class IntrospectedColumn {
         return defaultValue;
     }
 
+    public Long getCardinality() {
+        return cardinality;
+    }
+
+    public void setCardinality(Long cardinality) {
+        this.cardinality = cardinality;
+    }
+
     public void setDefaultValue(String defaultValue) {
         this.defaultValue = defaultValue;
     }
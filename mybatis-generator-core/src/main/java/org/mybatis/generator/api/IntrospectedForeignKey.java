@@ -0,0 +1,148 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class holds information about an introspected foreign key (as returned
+ * by DatabaseMetaData.getImportedKeys). The key belongs to the child table, the
+ * parent table is only known if it is introspected in the same context.
+ * Columns are kept in key sequence order.
+ * 
+ */
+public class IntrospectedForeignKey {
+    protected String keyName;
+
+    protected IntrospectedTable childTable;
+
+    protected String parentCatalog;
+
+    protected String parentSchema;
+
+    protected String parentTableName;
+
+    protected IntrospectedTable parentTable;
+
+    protected List<IntrospectedColumn> columns;
+
+    protected List<String> parentColumnNames;
+
+    public IntrospectedForeignKey(String keyName, IntrospectedTable childTable,
+            String parentCatalog, String parentSchema, String parentTableName) {
+        super();
+        this.keyName = keyName;
+        this.childTable = childTable;
+        this.parentCatalog = parentCatalog;
+        this.parentSchema = parentSchema;
+        this.parentTableName = parentTableName;
+        columns = new ArrayList<IntrospectedColumn>();
+        parentColumnNames = new ArrayList<String>();
+    }
+
+    public String getKeyName() {
+        return keyName;
+    }
+
+    public IntrospectedTable getChildTable() {
+        return childTable;
+    }
+
+    public String getParentCatalog() {
+        return parentCatalog;
+    }
+
+    public String getParentSchema() {
+        return parentSchema;
+    }
+
+    public String getParentTableName() {
+        return parentTableName;
+    }
+
+    /**
+     * @return the parent table, or null if it is not introspected in the same
+     *         context
+     */
+    public IntrospectedTable getParentTable() {
+        return parentTable;
+    }
+
+    public void setParentTable(IntrospectedTable parentTable) {
+        this.parentTable = parentTable;
+    }
+
+    /**
+     * @return the referencing columns of the child table
+     */
+    public List<IntrospectedColumn> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * @return the names of the referenced parent columns, in the order of
+     *         {@link #getColumns()}
+     */
+    public List<String> getParentColumnNames() {
+        return Collections.unmodifiableList(parentColumnNames);
+    }
+
+    public void addColumn(IntrospectedColumn introspectedColumn, String parentColumnName) {
+        columns.add(introspectedColumn);
+        parentColumnNames.add(parentColumnName);
+    }
+
+    /**
+     * Calculates the name of the property that holds the child records in the
+     * parent record, for example orderLineList.
+     *
+     * @return the property name
+     */
+    public String getCollectionPropertyName() {
+        String domainObjectName = childTable.getFullyQualifiedTable().getDomainObjectName();
+        StringBuilder sb = new StringBuilder();
+        sb.append(Character.toLowerCase(domainObjectName.charAt(0)));
+        sb.append(domainObjectName.substring(1));
+        sb.append("List"); //$NON-NLS-1$
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(keyName);
+        sb.append('(');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append(columns.get(i).getActualColumnName());
+        }
+        sb.append(") references "); //$NON-NLS-1$
+        sb.append(parentTableName);
+        sb.append('(');
+        for (int i = 0; i < parentColumnNames.size(); i++) {
+            if (i > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append(parentColumnNames.get(i));
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class holds information about an introspected index (as returned by
+ * DatabaseMetaData.getIndexInfo). Columns are kept in index order, so any
+ * leading sub list of the columns can be used by the database for a lookup.
+ * 
+ */
+public class IntrospectedIndex {
+    protected String indexName;
+
+    protected boolean unique;
+
+    protected List<IntrospectedColumn> columns;
+
+    protected Long cardinality;
+
+    public IntrospectedIndex(String indexName, boolean unique) {
+        super();
+        this.indexName = indexName;
+        this.unique = unique;
+        columns = new ArrayList<IntrospectedColumn>();
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    public List<IntrospectedColumn> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    public void addColumn(IntrospectedColumn introspectedColumn) {
+        columns.add(introspectedColumn);
+    }
+
+    /**
+     * Returns the estimated number of distinct keys in the index.
+     *
+     * @return the cardinality, or null if the database did not report it
+     */
+    public Long getCardinality() {
+        return cardinality;
+    }
+
+    public void setCardinality(Long cardinality) {
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Checks if the column is the leading column of this index.
+     *
+     * @param introspectedColumn
+     *            the column
+     * @return true if a lookup on the column alone can use this index
+     */
+    public boolean isLeadingColumn(IntrospectedColumn introspectedColumn) {
+        return !columns.isEmpty() && columns.get(0) == introspectedColumn;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(indexName);
+        sb.append('(');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append(columns.get(i).getActualColumnName());
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+}
@@ -18,13 +18,17 @@ package org.mybatis.generator.api;
 import static org.mybatis.generator.internal.util.StringUtility.isTrue;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.config.Context;
 import org.mybatis.generator.config.GeneratedKey;
 import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
@@ -35,6 +39,7 @@ import org.mybatis.generator.config.PropertyRegistry;
 import org.mybatis.generator.config.SqlMapGeneratorConfiguration;
 import org.mybatis.generator.config.TableConfiguration;
 import org.mybatis.generator.internal.rules.*;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
 
 /**
  * Base class for all code generator implementations. This class provides many
@@ -54,7 +59,11 @@ public abstract class IntrospectedTable {
         /** The IBATI s2. */
         IBATIS2, 
         /** The MYBATI s3. */
-        MYBATIS3
+        MYBATIS3,
+        /** 生成直接使用 JDBC 的 DAO, 不依赖 MyBatis. */
+        JDBC,
+        /** 生成基于 R2DBC 的响应式 Repository, 不依赖 MyBatis. */
+        R2DBC
     }
 
     /**
@@ -123,6 +132,12 @@ public abstract class IntrospectedTable {
         ATTR_INSERT_SELECTIVE_STATEMENT_ID,
 
         ATTR_INSERTS_STATEMENT_ID,
+
+        /** The attr upsert statement id. */
+        ATTR_UPSERT_STATEMENT_ID,
+
+        /** The attr upsert batch statement id. */
+        ATTR_UPSERT_BATCH_STATEMENT_ID,
         
 
         /** The attr select by example statement id. */
@@ -134,6 +149,27 @@ public abstract class IntrospectedTable {
         /** The attr select by example with blobs statement id. */
         ATTR_SELECT_BY_WHERE_WITHOUT_BLOBS_STATEMENT_ID,
 
+        /** The attr select by where cursor statement id. */
+        ATTR_SELECT_BY_WHERE_CURSOR_STATEMENT_ID,
+
+        /** The attr select by where with result handler statement id. */
+        ATTR_SELECT_BY_WHERE_WITH_HANDLER_STATEMENT_ID,
+
+        /** The attr select page after statement id. */
+        ATTR_SELECT_PAGE_AFTER_STATEMENT_ID,
+
+        /** The attr exists by where statement id. */
+        ATTR_EXISTS_BY_WHERE_STATEMENT_ID,
+
+        /** The attr select one by where statement id. */
+        ATTR_SELECT_ONE_BY_WHERE_STATEMENT_ID,
+
+        /** The attr select by primary keys statement id. */
+        ATTR_SELECT_BY_PRIMARY_KEYS_STATEMENT_ID,
+
+        /** The attr delete by primary keys statement id. */
+        ATTR_DELETE_BY_PRIMARY_KEYS_STATEMENT_ID,
+
         /** The attr select by primary key statement id. */
         ATTR_SELECT_BY_PRIMARY_KEY_STATEMENT_ID,
 
@@ -152,6 +188,15 @@ public abstract class IntrospectedTable {
         
         /** The attr update by primary key selective statement id. */
         ATTR_UPDATE_BY_PRIMARY_KEY_SELECTIVE_STATEMENT_ID,
+
+        /** The attr update changed by primary key statement id. */
+        ATTR_UPDATE_CHANGED_BY_PRIMARY_KEY_STATEMENT_ID,
+
+        /** The attr update by primary key with version statement id. */
+        ATTR_UPDATE_BY_PRIMARY_KEY_WITH_VERSION_STATEMENT_ID,
+
+        /** The attr update by where with version statement id. */
+        ATTR_UPDATE_BY_WHERE_WITH_VERSION_STATEMENT_ID,
         
         /** The attr update by primary key with blobs statement id. */
         ATTR_UPDATE_BY_PRIMARY_KEY_WITH_BLOBS_STATEMENT_ID,
@@ -205,6 +250,26 @@ public abstract class IntrospectedTable {
     
     /** The blob columns. */
     protected List<IntrospectedColumn> blobColumns;
+
+    /**
+     * The secondary (non primary key) indexes. Null if index information has
+     * not been retrieved from the database.
+     */
+    protected List<IntrospectedIndex> indexes;
+
+    /**
+     * The size statistics. Null if the database did not report any.
+     */
+    protected TableStatistics statistics;
+
+    /** The foreign keys of this table, this table is the child table. */
+    protected List<IntrospectedForeignKey> foreignKeys;
+
+    /**
+     * The foreign keys of other tables in the context that reference this
+     * table.
+     */
+    protected List<IntrospectedForeignKey> referencingForeignKeys;
     
     /** The target runtime. */
     protected TargetRuntime targetRuntime;
@@ -240,6 +305,8 @@ public abstract class IntrospectedTable {
         primaryKeyColumns = new ArrayList<IntrospectedColumn>();
         baseColumns = new ArrayList<IntrospectedColumn>();
         blobColumns = new ArrayList<IntrospectedColumn>();
+        foreignKeys = new ArrayList<IntrospectedForeignKey>();
+        referencingForeignKeys = new ArrayList<IntrospectedForeignKey>();
         attributes = new HashMap<String, Object>();
         internalAttributes = new HashMap<IntrospectedTable.InternalAttribute, String>();
     }
@@ -416,6 +483,249 @@ public abstract class IntrospectedTable {
         return primaryKeyColumns.size() > 0;
     }
 
+    /**
+     * Returns the secondary indexes of the table. The primary key index is
+     * not included.
+     *
+     * @return the indexes, empty if index information is not available
+     */
+    public List<IntrospectedIndex> getIndexes() {
+        if (indexes == null) {
+            return new ArrayList<IntrospectedIndex>();
+        }
+        return indexes;
+    }
+
+    /**
+     * Sets the secondary indexes of the table.
+     *
+     * @param indexes
+     *            the indexes
+     */
+    public void setIndexes(List<IntrospectedIndex> indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * Checks if index information was retrieved for this table.
+     *
+     * @return true, if the index information is available
+     */
+    public boolean hasIndexInformation() {
+        return indexes != null;
+    }
+
+    /**
+     * Returns the size statistics of the table.
+     *
+     * @return the statistics, or null if the database did not report any
+     */
+    public TableStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Sets the size statistics of the table.
+     *
+     * @param statistics
+     *            the statistics
+     */
+    public void setStatistics(TableStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns the estimated number of rows in the table.
+     *
+     * @return the estimated row count, or -1 if it is unknown
+     */
+    public long getEstimatedRowCount() {
+        if (statistics == null || statistics.getRowCount() == null) {
+            return -1;
+        }
+        return statistics.getRowCount();
+    }
+
+    /**
+     * Returns the foreign keys of this table.
+     *
+     * @return the foreign keys, empty if there are none or the information is
+     *         not available
+     */
+    public List<IntrospectedForeignKey> getForeignKeys() {
+        return foreignKeys;
+    }
+
+    public void addForeignKey(IntrospectedForeignKey foreignKey) {
+        foreignKeys.add(foreignKey);
+    }
+
+    /**
+     * Returns the foreign keys of the tables in the same context that
+     * reference this table.
+     *
+     * @return the referencing foreign keys
+     */
+    public List<IntrospectedForeignKey> getReferencingForeignKeys() {
+        return referencingForeignKeys;
+    }
+
+    public void addReferencingForeignKey(IntrospectedForeignKey foreignKey) {
+        referencingForeignKeys.add(foreignKey);
+    }
+
+    /**
+     * Returns the referencing foreign keys whose child tables are listed in the
+     * joinChildren property of this table. Only the first key of each child
+     * table is returned, the join result map holds one collection per child
+     * table.
+     *
+     * @return the foreign keys to generate join result maps for
+     */
+    public List<IntrospectedForeignKey> getJoinedForeignKeys() {
+        List<IntrospectedForeignKey> answer = new ArrayList<IntrospectedForeignKey>();
+        String joinChildren = getTableConfigurationProperty(PropertyRegistry.TABLE_JOIN_CHILDREN);
+        if (!stringHasValue(joinChildren)) {
+            return answer;
+        }
+
+        Set<IntrospectedTable> childTables = new HashSet<IntrospectedTable>();
+        for (String tableName : joinChildren.split(",")) { //$NON-NLS-1$
+            for (IntrospectedForeignKey foreignKey : referencingForeignKeys) {
+                IntrospectedTable childTable = foreignKey.getChildTable();
+                if (childTable.getFullyQualifiedTable().getIntrospectedTableName()
+                        .equalsIgnoreCase(tableName.trim())
+                        && isJoinable(foreignKey)
+                        && childTables.add(childTable)) {
+                    answer.add(foreignKey);
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Checks if the child table of a foreign key can be joined to this table.
+     * The join takes the physical child table from the shard key of the Where
+     * of this table, so a sharded child table must be sharded by a key column
+     * that references the shard column of this table.
+     *
+     * @param foreignKey
+     *            a foreign key referencing this table
+     * @return true, if the child table is not sharded or sharded by the same
+     *         key
+     */
+    public boolean isJoinable(IntrospectedForeignKey foreignKey) {
+        IntrospectedColumn childShardColumn = foreignKey.getChildTable().getShardColumn();
+        if (childShardColumn == null) {
+            return true;
+        }
+        int index = foreignKey.getColumns().indexOf(childShardColumn);
+        IntrospectedColumn shardColumn = getShardColumn();
+        return index >= 0 && shardColumn != null && shardColumn.getActualColumnName()
+                .equalsIgnoreCase(foreignKey.getParentColumnNames().get(index));
+    }
+
+    /**
+     * Gets the statement id of the finder for a foreign key of this table. The
+     * id is built from the property names of the key columns, for example
+     * selectByParentKeysOrderId.
+     *
+     * @param foreignKey
+     *            the foreign key
+     * @return the statement id
+     */
+    public String getSelectByParentKeysStatementId(IntrospectedForeignKey foreignKey) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("selectByParentKeys"); //$NON-NLS-1$
+        boolean and = false;
+        for (IntrospectedColumn introspectedColumn : foreignKey.getColumns()) {
+            if (and) {
+                sb.append("And"); //$NON-NLS-1$
+            } else {
+                and = true;
+            }
+            String property = introspectedColumn.getJavaProperty();
+            sb.append(Character.toUpperCase(property.charAt(0)));
+            sb.append(property.substring(1));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gets the statement id of the join select of this table with the child
+     * table of a foreign key, for example selectByWhereWithOrderLineList.
+     *
+     * @param foreignKey
+     *            a foreign key referencing this table
+     * @return the statement id
+     */
+    public String getSelectByWhereWithChildrenStatementId(IntrospectedForeignKey foreignKey) {
+        String property = foreignKey.getCollectionPropertyName();
+        return "selectByWhereWith" + Character.toUpperCase(property.charAt(0)) //$NON-NLS-1$
+                + property.substring(1);
+    }
+
+    /**
+     * Gets the id of the join result map of this table with the child table of
+     * a foreign key, for example OrderLineListJoinResultMap.
+     *
+     * @param foreignKey
+     *            a foreign key referencing this table
+     * @return the result map id
+     */
+    public String getJoinResultMapId(IntrospectedForeignKey foreignKey) {
+        String property = foreignKey.getCollectionPropertyName();
+        return Character.toUpperCase(property.charAt(0)) + property.substring(1)
+                + "JoinResultMap"; //$NON-NLS-1$
+    }
+
+    /**
+     * Checks if an equality criterion on the column alone can be answered with
+     * an index - that is, the column is the leading column of the primary key
+     * or of a secondary index.
+     *
+     * @param introspectedColumn
+     *            the column
+     * @return true, if the column is indexed
+     */
+    public boolean isIndexedColumn(IntrospectedColumn introspectedColumn) {
+        if (!primaryKeyColumns.isEmpty()
+                && primaryKeyColumns.get(0) == introspectedColumn) {
+            return true;
+        }
+
+        for (IntrospectedIndex index : getIndexes()) {
+            if (index.isLeadingColumn(introspectedColumn)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if a selective statement must be generated with a fixed shape.
+     * Every optional column doubles the number of SQL texts a selective
+     * statement can produce, each text takes its own entry in the prepared
+     * statement caches. The fixedShapeThreshold table property sets the
+     * number of texts above which the fixed shape alternative is generated.
+     *
+     * @param optionalColumnCount
+     *            the number of columns the statement would guard with an if
+     * @return true, if the fixed shape alternative should be generated
+     */
+    public boolean isFixedShapeRequired(int optionalColumnCount) {
+        String threshold = getTableConfigurationProperty(PropertyRegistry.TABLE_FIXED_SHAPE_THRESHOLD);
+        if (!stringHasValue(threshold)) {
+            return false;
+        }
+
+        // the value has been validated with the configuration
+        return BigInteger.ONE.shiftLeft(optionalColumnCount)
+                .compareTo(BigInteger.valueOf(Long.parseLong(threshold))) > 0;
+    }
+
     /**
      * Gets the base columns.
      *
@@ -806,6 +1116,13 @@ public abstract class IntrospectedTable {
         setCountByExampleStatementId("countByWhere"); //$NON-NLS-1$
         setSelectByWhereStatementId("selectByWhere"); //$NON-NLS-1$
         setSelectWhereWithoutBLOBsStatementId("selectByWhereWithoutBLOBs"); //$NON-NLS-1$
+        setSelectByWhereCursorStatementId("selectByWhereCursor"); //$NON-NLS-1$
+        setSelectByWhereWithHandlerStatementId("selectByWhereWithHandler"); //$NON-NLS-1$
+        setSelectPageAfterStatementId("selectPageAfter"); //$NON-NLS-1$
+        setExistsByWhereStatementId("existsByWhere"); //$NON-NLS-1$
+        setSelectOneByWhereStatementId("selectOneByWhere"); //$NON-NLS-1$
+        setSelectByPrimaryKeysStatementId("selectByPrimaryKeys"); //$NON-NLS-1$
+        setDeleteByPrimaryKeysStatementId("deleteByPrimaryKeys"); //$NON-NLS-1$
         setSelectByPrimaryKeyStatementId("selectByPrimaryKey"); //$NON-NLS-1$
 
         setSelectByWhereWithCustomColumnStatementId("selectByWhereWitchColumn"); //$NON-NLS-1$
@@ -815,12 +1132,17 @@ public abstract class IntrospectedTable {
         setInsertStatementId("insertNoCheck"); //$NON-NLS-1$
         setInsertSelectiveStatementId("insert"); //$NON-NLS-1$
         setInsertsStatementId("inserts"); //$NON-NLS-1$
+        setUpsertStatementId("upsert"); //$NON-NLS-1$
+        setUpsertBatchStatementId("upsertBatch"); //$NON-NLS-1$
 
         setUpdateByWhereStatementId("updateByWhere"); //$NON-NLS-1$
         //setUpdateByWhereSelectiveStatementId("updateByWhereSelective "); //$NON-NLS-1$
        /// setUpdateByWhereWithBLOBsStatementId("updateByWhereWithBLOBs"); //$NON-NLS-1$
         setUpdateByPrimaryKeyStatementId("updateByPrimaryKeyNoCheck"); //$NON-NLS-1$
         setUpdateByPrimaryKeySelectiveStatementId("updateByPrimaryKey"); //$NON-NLS-1$
+        setUpdateChangedByPrimaryKeyStatementId("updateChangedByPrimaryKey"); //$NON-NLS-1$
+        setUpdateByPrimaryKeyWithVersionStatementId("updateByPrimaryKeyWithVersion"); //$NON-NLS-1$
+        setUpdateByWhereWithVersionStatementId("updateByWhereWithVersion"); //$NON-NLS-1$
         //setUpdateByPrimaryKeyWithBLOBsStatementId("updateByPrimaryKeyWithBLOBs"); //$NON-NLS-1$
         setBaseResultMapId("BaseResultMap"); //$NON-NLS-1$
         setResultMapWithBLOBsId("ResultMapWithBLOBs"); //$NON-NLS-1$
@@ -942,6 +1264,39 @@ public abstract class IntrospectedTable {
                         s);
     }
 
+    /**
+     * Sets the update changed by primary key statement id.
+     *
+     * @param s
+     *            the new update changed by primary key statement id
+     */
+    public void setUpdateChangedByPrimaryKeyStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_UPDATE_CHANGED_BY_PRIMARY_KEY_STATEMENT_ID, s);
+    }
+
+    /**
+     * Sets the update by primary key with version statement id.
+     *
+     * @param s
+     *            the new update by primary key with version statement id
+     */
+    public void setUpdateByPrimaryKeyWithVersionStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_UPDATE_BY_PRIMARY_KEY_WITH_VERSION_STATEMENT_ID, s);
+    }
+
+    /**
+     * Sets the update by where with version statement id.
+     *
+     * @param s
+     *            the new update by where with version statement id
+     */
+    public void setUpdateByWhereWithVersionStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_UPDATE_BY_WHERE_WITH_VERSION_STATEMENT_ID, s);
+    }
+
     /**
      * Sets the update by primary key statement id.
      *
@@ -1028,6 +1383,83 @@ public abstract class IntrospectedTable {
                 InternalAttribute.ATTR_SELECT_BY_WHERE_STATEMENT_ID, s);
     }
 
+    /**
+     * Sets the select by where cursor statement id.
+     *
+     * @param s
+     *            the new select by where cursor statement id
+     */
+    public void setSelectByWhereCursorStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_SELECT_BY_WHERE_CURSOR_STATEMENT_ID, s);
+    }
+
+    /**
+     * Sets the select by where with result handler statement id.
+     *
+     * @param s
+     *            the new select by where with result handler statement id
+     */
+    public void setSelectByWhereWithHandlerStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_SELECT_BY_WHERE_WITH_HANDLER_STATEMENT_ID, s);
+    }
+
+    /**
+     * Sets the select page after statement id.
+     *
+     * @param s
+     *            the new select page after statement id
+     */
+    public void setSelectPageAfterStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_SELECT_PAGE_AFTER_STATEMENT_ID, s);
+    }
+
+    /**
+     * Sets the exists by where statement id.
+     *
+     * @param s
+     *            the new exists by where statement id
+     */
+    public void setExistsByWhereStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_EXISTS_BY_WHERE_STATEMENT_ID, s);
+    }
+
+    /**
+     * Sets the select one by where statement id.
+     *
+     * @param s
+     *            the new select one by where statement id
+     */
+    public void setSelectOneByWhereStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_SELECT_ONE_BY_WHERE_STATEMENT_ID, s);
+    }
+
+    /**
+     * Sets the select by primary keys statement id.
+     *
+     * @param s
+     *            the new select by primary keys statement id
+     */
+    public void setSelectByPrimaryKeysStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_SELECT_BY_PRIMARY_KEYS_STATEMENT_ID, s);
+    }
+
+    /**
+     * Sets the delete by primary keys statement id.
+     *
+     * @param s
+     *            the new delete by primary keys statement id
+     */
+    public void setDeleteByPrimaryKeysStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_DELETE_BY_PRIMARY_KEYS_STATEMENT_ID, s);
+    }
+
     /**
      * Sets the insert selective statement id.
      *
@@ -1050,6 +1482,28 @@ public abstract class IntrospectedTable {
                 InternalAttribute.ATTR_INSERTS_STATEMENT_ID, s);
     }
 
+    /**
+     * Sets the upsert statement id.
+     *
+     * @param s
+     *            the new upsert statement id
+     */
+    public void setUpsertStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_UPSERT_STATEMENT_ID, s);
+    }
+
+    /**
+     * Sets the upsert batch statement id.
+     *
+     * @param s
+     *            the new upsert batch statement id
+     */
+    public void setUpsertBatchStatementId(String s) {
+        internalAttributes.put(
+                InternalAttribute.ATTR_UPSERT_BATCH_STATEMENT_ID, s);
+    }
+
     /**
      * Sets the insert statement id.
      *
@@ -1173,6 +1627,36 @@ public abstract class IntrospectedTable {
                 .get(InternalAttribute.ATTR_UPDATE_BY_PRIMARY_KEY_SELECTIVE_STATEMENT_ID);
     }
 
+    /**
+     * Gets the update changed by primary key statement id.
+     *
+     * @return the update changed by primary key statement id
+     */
+    public String getUpdateChangedByPrimaryKeyStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_UPDATE_CHANGED_BY_PRIMARY_KEY_STATEMENT_ID);
+    }
+
+    /**
+     * Gets the update by primary key with version statement id.
+     *
+     * @return the update by primary key with version statement id
+     */
+    public String getUpdateByPrimaryKeyWithVersionStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_UPDATE_BY_PRIMARY_KEY_WITH_VERSION_STATEMENT_ID);
+    }
+
+    /**
+     * Gets the update by where with version statement id.
+     *
+     * @return the update by where with version statement id
+     */
+    public String getUpdateByWhereWithVersionStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_UPDATE_BY_WHERE_WITH_VERSION_STATEMENT_ID);
+    }
+
     /**
      * Gets the update by primary key statement id.
      *
@@ -1256,6 +1740,76 @@ public abstract class IntrospectedTable {
                 .get(InternalAttribute.ATTR_SELECT_BY_WHERE_STATEMENT_ID);
     }
 
+    /**
+     * Gets the select by where cursor statement id.
+     *
+     * @return the select by where cursor statement id
+     */
+    public String getSelectByWhereCursorStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_SELECT_BY_WHERE_CURSOR_STATEMENT_ID);
+    }
+
+    /**
+     * Gets the select by where with result handler statement id.
+     *
+     * @return the select by where with result handler statement id
+     */
+    public String getSelectByWhereWithHandlerStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_SELECT_BY_WHERE_WITH_HANDLER_STATEMENT_ID);
+    }
+
+    /**
+     * Gets the select page after statement id.
+     *
+     * @return the select page after statement id
+     */
+    public String getSelectPageAfterStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_SELECT_PAGE_AFTER_STATEMENT_ID);
+    }
+
+    /**
+     * Gets the exists by where statement id.
+     *
+     * @return the exists by where statement id
+     */
+    public String getExistsByWhereStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_EXISTS_BY_WHERE_STATEMENT_ID);
+    }
+
+    /**
+     * Gets the select one by where statement id.
+     *
+     * @return the select one by where statement id
+     */
+    public String getSelectOneByWhereStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_SELECT_ONE_BY_WHERE_STATEMENT_ID);
+    }
+
+    /**
+     * Gets the select by primary keys statement id.
+     *
+     * @return the select by primary keys statement id
+     */
+    public String getSelectByPrimaryKeysStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_SELECT_BY_PRIMARY_KEYS_STATEMENT_ID);
+    }
+
+    /**
+     * Gets the delete by primary keys statement id.
+     *
+     * @return the delete by primary keys statement id
+     */
+    public String getDeleteByPrimaryKeysStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_DELETE_BY_PRIMARY_KEYS_STATEMENT_ID);
+    }
+
     /**
      * Gets the insert selective statement id.
      *
@@ -1270,6 +1824,52 @@ public abstract class IntrospectedTable {
                 .get(InternalAttribute.ATTR_INSERTS_STATEMENT_ID);
     }
 
+    /**
+     * Gets the upsert statement id.
+     *
+     * @return the upsert statement id
+     */
+    public String getUpsertStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_UPSERT_STATEMENT_ID);
+    }
+
+    /**
+     * Gets the upsert batch statement id.
+     *
+     * @return the upsert batch statement id
+     */
+    public String getUpsertBatchStatementId() {
+        return internalAttributes
+                .get(InternalAttribute.ATTR_UPSERT_BATCH_STATEMENT_ID);
+    }
+
+    /**
+     * Gets the statement id of the finder for an index. The id is built from
+     * the property names of the index columns, for example
+     * selectByUniqueKeyTenantIdAndEmail or selectByIndexPrefixCreatedAt.
+     *
+     * @param index
+     *            the index
+     * @return the statement id
+     */
+    public String getSelectByIndexStatementId(IntrospectedIndex index) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(index.isUnique() ? "selectByUniqueKey" : "selectByIndexPrefix"); //$NON-NLS-1$ //$NON-NLS-2$
+        boolean and = false;
+        for (IntrospectedColumn introspectedColumn : index.getColumns()) {
+            if (and) {
+                sb.append("And"); //$NON-NLS-1$
+            } else {
+                and = true;
+            }
+            String property = introspectedColumn.getJavaProperty();
+            sb.append(Character.toUpperCase(property.charAt(0)));
+            sb.append(property.substring(1));
+        }
+        return sb.toString();
+    }
+
     /**
      * Gets the insert statement id.
      *
@@ -1593,6 +2193,107 @@ public abstract class IntrospectedTable {
                 .get(InternalAttribute.ATTR_ALIASED_FULLY_QUALIFIED_TABLE_NAME_AT_RUNTIME);
     }
 
+    /**
+     * Checks if the rows of the table are split over several physical tables.
+     * The shardColumn table property names the column whose value selects the
+     * physical table, the statements of the mapper get the table name from the
+     * generated shard router.
+     *
+     * @return true, if the statements of the table are routed by a shard key
+     */
+    public boolean isSharded() {
+        return targetRuntime == TargetRuntime.MYBATIS3
+                && getMyBatis3JavaMapperType() != null
+                && getShardColumn() != null;
+    }
+
+    /**
+     * Gets the column named by the shardColumn table property. Range sharding
+     * needs an integral column.
+     *
+     * @return the shard column, or null if the property is not set or does not
+     *         name a usable column
+     */
+    public IntrospectedColumn getShardColumn() {
+        IntrospectedColumn answer = getColumn(
+                getTableConfigurationProperty(PropertyRegistry.TABLE_SHARD_COLUMN));
+        if (answer != null
+                && stringHasValue(getTableConfigurationProperty(PropertyRegistry.TABLE_SHARD_RANGES))
+                && !isIntegralShardColumn(answer)) {
+            return null;
+        }
+        return answer;
+    }
+
+    /**
+     * Checks if the shard key is a whole number. Whole numbers are routed by
+     * their value, other shard keys by their hash code.
+     *
+     * @param column
+     *            the shard column
+     * @return true, if the column holds long, int, short or byte values
+     */
+    public boolean isIntegralShardColumn(IntrospectedColumn column) {
+        String name = column.getFullyQualifiedJavaType().getFullyQualifiedName();
+        return name.equals("long") || name.equals("java.lang.Long") //$NON-NLS-1$ //$NON-NLS-2$
+                || name.equals("int") || name.equals("java.lang.Integer") //$NON-NLS-1$ //$NON-NLS-2$
+                || name.equals("short") || name.equals("java.lang.Short") //$NON-NLS-1$ //$NON-NLS-2$
+                || name.equals("byte") || name.equals("java.lang.Byte"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Gets the type of the shard router, a class in the package of the mapper
+     * named after the record, for example OrderShardRouter.
+     *
+     * @return the shard router type
+     */
+    public String getShardRouterType() {
+        FullyQualifiedJavaType mapperType = new FullyQualifiedJavaType(
+                getMyBatis3JavaMapperType());
+        FullyQualifiedJavaType recordType = new FullyQualifiedJavaType(
+                getBaseRecordType());
+        return mapperType.getPackageName() + '.' + recordType.getShortName()
+                + "ShardRouter"; //$NON-NLS-1$
+    }
+
+    /**
+     * Gets the table name of a statement. For a sharded table the name is an
+     * OGNL expression that calls a method of the shard router when the
+     * statement runs, for example
+     * ${@demo.mapper.OrderShardRouter@table(where.shardKey)}.
+     *
+     * @param routerMethod
+     *            the router method: table, tableOfKeys or tableOfRecords
+     * @param argument
+     *            the OGNL expression of the argument, null to use the shard
+     *            key bound to the current thread
+     * @param aliased
+     *            true to append the table alias
+     * @return the table name at runtime
+     */
+    public String getShardedTableNameAtRuntime(String routerMethod,
+            String argument, boolean aliased) {
+        if (!isSharded()) {
+            return aliased ? getAliasedFullyQualifiedTableNameAtRuntime()
+                    : getFullyQualifiedTableNameAtRuntime();
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("${@"); //$NON-NLS-1$
+        sb.append(getShardRouterType());
+        sb.append('@');
+        sb.append(routerMethod);
+        sb.append('(');
+        sb.append(argument == null ? "null" : argument); //$NON-NLS-1$
+        sb.append(")}"); //$NON-NLS-1$
+        String alias = fullyQualifiedTable.getAlias();
+        if (aliased && stringHasValue(alias)) {
+            sb.append(' ');
+            sb.append(alias);
+        }
+        return sb.toString();
+    }
+
     /**
      * This method can be used to initialize the generators before they will be called.
      * 
@@ -1935,6 +2636,237 @@ public abstract class IntrospectedTable {
         return isTrue(properties.getProperty(PropertyRegistry.ANY_CONSTRUCTOR_BASED));
     }
 
+    /**
+     * Checks if the base record stores its nullable numeric and boolean
+     * properties as primitives plus a null bit mask. Constructor based
+     * records always use wrapper fields.
+     *
+     * @return true, if is compact model
+     */
+    public boolean isCompactModel() {
+        if (isConstructorBased()) {
+            return false;
+        }
+
+        Properties properties;
+
+        if (tableConfiguration.getProperties().containsKey(PropertyRegistry.ANY_COMPACT_MODEL)) {
+            properties = tableConfiguration.getProperties();
+        } else {
+            properties = context.getJavaModelGeneratorConfiguration().getProperties();
+        }
+
+        return isTrue(properties.getProperty(PropertyRegistry.ANY_COMPACT_MODEL));
+    }
+
+    /**
+     * Gets the columns the base record stores as primitive fields. The
+     * position of a column in the list is its bit in the null mask, so at
+     * most 64 columns are compacted, the others keep their wrapper fields.
+     * Columns of the primary key class and of the record with BLOBs class
+     * are not compacted.
+     *
+     * @return the compact columns, empty if compactModel is not enabled
+     */
+    public List<IntrospectedColumn> getCompactColumns() {
+        List<IntrospectedColumn> answer = new ArrayList<IntrospectedColumn>();
+        if (!isCompactModel()) {
+            return answer;
+        }
+
+        for (IntrospectedColumn introspectedColumn : getAllColumns()) {
+            if (getRules().generatePrimaryKeyClass()
+                    && primaryKeyColumns.contains(introspectedColumn)) {
+                continue;
+            }
+            if (getRules().generateRecordWithBLOBsClass()
+                    && introspectedColumn.isBLOBColumn()) {
+                continue;
+            }
+            if (JavaBeansUtil.getCompactPrimitiveType(
+                    introspectedColumn.getFullyQualifiedJavaType()) == null) {
+                continue;
+            }
+            if (answer.size() == Long.SIZE) {
+                break;
+            }
+            answer.add(introspectedColumn);
+        }
+        return answer;
+    }
+
+    /**
+     * Checks if the record tracks which properties were set since it was
+     * created or since its changes were last cleared. Immutable records have
+     * no setters and never track changes.
+     *
+     * @return true, if is track changes
+     */
+    public boolean isTrackChanges() {
+        if (isImmutable()) {
+            return false;
+        }
+
+        Properties properties;
+
+        if (tableConfiguration.getProperties().containsKey(PropertyRegistry.ANY_TRACK_CHANGES)) {
+            properties = tableConfiguration.getProperties();
+        } else {
+            properties = context.getJavaModelGeneratorConfiguration().getProperties();
+        }
+
+        return isTrue(properties.getProperty(PropertyRegistry.ANY_TRACK_CHANGES));
+    }
+
+    /**
+     * Gets the columns whose setters mark a bit in the changed mask of the
+     * record: the non primary key columns that an update may write. The
+     * position of a column in the list is its bit. Changes are not tracked
+     * when there are more than 64 such columns, or when some of them live in
+     * the record with BLOBs class.
+     *
+     * @return the tracked columns, empty if changes are not tracked
+     */
+    public List<IntrospectedColumn> getChangeTrackedColumns() {
+        List<IntrospectedColumn> answer = new ArrayList<IntrospectedColumn>();
+        if (!isTrackChanges()
+                || (getRules().generateRecordWithBLOBsClass() && hasBLOBColumns())) {
+            return answer;
+        }
+
+        IntrospectedColumn versionColumn = getVersionColumn();
+        for (IntrospectedColumn introspectedColumn : getNonPrimaryKeyColumns()) {
+            if (!introspectedColumn.isGeneratedAlways()
+                    && introspectedColumn != versionColumn) {
+                answer.add(introspectedColumn);
+            }
+        }
+        if (answer.size() > Long.SIZE) {
+            answer.clear();
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the column named by the versionColumn table property. Updates by
+     * primary key then increment the column and only match the row if it
+     * still holds the version of the record, updates by where increment it.
+     * The column must be a long or int property outside the primary key.
+     *
+     * @return the version column, or null if the property is not set or does
+     *         not name a usable column
+     */
+    public IntrospectedColumn getVersionColumn() {
+        IntrospectedColumn answer = getColumn(
+                getTableConfigurationProperty(PropertyRegistry.TABLE_VERSION_COLUMN));
+        if (answer == null || primaryKeyColumns.contains(answer)
+                || answer.isGeneratedAlways()) {
+            return null;
+        }
+
+        String name = answer.getFullyQualifiedJavaType().getFullyQualifiedName();
+        if (name.equals("long") || name.equals("java.lang.Long") //$NON-NLS-1$ //$NON-NLS-2$
+                || name.equals("int") || name.equals("java.lang.Integer")) { //$NON-NLS-1$ //$NON-NLS-2$
+            return answer;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the columns named by the incrementColumns table property, the
+     * counters updated in place by incrementXxxByPrimaryKey and
+     * incrementXxxByWhere. Only numeric columns outside the primary key that
+     * are neither generated always nor the version column are used.
+     *
+     * @return the increment columns, in the order of the table
+     */
+    public List<IntrospectedColumn> getIncrementColumns() {
+        List<IntrospectedColumn> answer = new ArrayList<IntrospectedColumn>();
+        String property = getTableConfigurationProperty(PropertyRegistry.TABLE_INCREMENT_COLUMNS);
+        if (!stringHasValue(property)) {
+            return answer;
+        }
+
+        Set<IntrospectedColumn> named = new HashSet<IntrospectedColumn>();
+        for (String name : property.split(",")) { //$NON-NLS-1$
+            IntrospectedColumn introspectedColumn = getColumn(name.trim());
+            if (introspectedColumn != null) {
+                named.add(introspectedColumn);
+            }
+        }
+
+        IntrospectedColumn versionColumn = getVersionColumn();
+        for (IntrospectedColumn introspectedColumn : getNonPrimaryKeyColumns()) {
+            if (named.contains(introspectedColumn)
+                    && !introspectedColumn.isGeneratedAlways()
+                    && introspectedColumn != versionColumn
+                    && isNumeric(introspectedColumn.getFullyQualifiedJavaType())) {
+                answer.add(introspectedColumn);
+            }
+        }
+        return answer;
+    }
+
+    private boolean isNumeric(FullyQualifiedJavaType type) {
+        String name = type.isPrimitive()
+                ? type.getPrimitiveTypeWrapper().getFullyQualifiedName()
+                : type.getFullyQualifiedName();
+        return name.equals("java.lang.Integer") || name.equals("java.lang.Long") //$NON-NLS-1$ //$NON-NLS-2$
+                || name.equals("java.lang.Short") || name.equals("java.lang.Byte") //$NON-NLS-1$ //$NON-NLS-2$
+                || name.equals("java.lang.Double") || name.equals("java.lang.Float") //$NON-NLS-1$ //$NON-NLS-2$
+                || name.equals("java.math.BigDecimal") || name.equals("java.math.BigInteger"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Gets the statement id of the atomic increment of a column by primary
+     * key, for example incrementStockByPrimaryKey.
+     *
+     * @param introspectedColumn
+     *            one of the increment columns
+     * @return the statement id
+     */
+    public String getIncrementByPrimaryKeyStatementId(IntrospectedColumn introspectedColumn) {
+        return getIncrementStatementId(introspectedColumn, "ByPrimaryKey"); //$NON-NLS-1$
+    }
+
+    /**
+     * Gets the statement id of the atomic increment of a column in the rows
+     * matching a where, for example incrementStockByWhere.
+     *
+     * @param introspectedColumn
+     *            one of the increment columns
+     * @return the statement id
+     */
+    public String getIncrementByWhereStatementId(IntrospectedColumn introspectedColumn) {
+        return getIncrementStatementId(introspectedColumn, "ByWhere"); //$NON-NLS-1$
+    }
+
+    private String getIncrementStatementId(IntrospectedColumn introspectedColumn, String suffix) {
+        String property = introspectedColumn.getJavaProperty();
+        StringBuilder sb = new StringBuilder();
+        sb.append("increment"); //$NON-NLS-1$
+        sb.append(Character.toUpperCase(property.charAt(0)));
+        sb.append(property.substring(1));
+        sb.append(suffix);
+        return sb.toString();
+    }
+
+    /**
+     * Gets the type of the result of an update with version check, an enum in
+     * the package of the client named after the record, for example
+     * OrderUpdateResult.
+     *
+     * @return the update result type
+     */
+    public String getUpdateResultType() {
+        FullyQualifiedJavaType mapperType = new FullyQualifiedJavaType(
+                getMyBatis3JavaMapperType());
+        FullyQualifiedJavaType recordType = new FullyQualifiedJavaType(
+                getBaseRecordType());
+        return mapperType.getPackageName() + '.' + recordType.getShortName()
+                + "UpdateResult"; //$NON-NLS-1$
+    }
+
     /**
      * Should return true if an XML generator is required for this table. This method will be called during validation
      * of the configuration, so it should not rely on database introspection. This method simply tells the validator if
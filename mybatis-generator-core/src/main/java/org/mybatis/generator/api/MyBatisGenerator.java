@@ -16,6 +16,7 @@
 package org.mybatis.generator.api;
 
 import static org.mybatis.generator.internal.util.ClassloaderUtility.getCustomClassloader;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.io.BufferedWriter;
@@ -33,6 +34,7 @@ import org.mybatis.generator.codegen.RootClassInfo;
 import org.mybatis.generator.config.Configuration;
 import org.mybatis.generator.config.Context;
 import org.mybatis.generator.config.MergeConstants;
+import org.mybatis.generator.config.PropertyRegistry;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 import org.mybatis.generator.exception.ShellException;
 import org.mybatis.generator.internal.DefaultShellCallback;
@@ -270,6 +272,12 @@ public class MyBatisGenerator {
                     generatedXmlFiles, warnings);
         }
 
+        // now analyze the generated statements, if requested
+        for (Context context : contextsToRun) {
+            context.explainStatements(callback, warnings);
+            context.countStatementShapes(callback, warnings);
+        }
+
         // now save the files
         if (writeFiles) {
             callback.saveStarted(generatedXmlFiles.size()
@@ -285,6 +293,13 @@ public class MyBatisGenerator {
                 writeGeneratedJavaFile(gjf, callback);
             }
 
+            for (Context context : contextsToRun) {
+                writeReport(context.getExplainReport(), context
+                        .getProperty(PropertyRegistry.CONTEXT_EXPLAIN_REPORT_FILE), callback);
+                writeReport(context.getStatementShapeReport(), context
+                        .getProperty(PropertyRegistry.CONTEXT_STATEMENT_SHAPE_REPORT_FILE), callback);
+            }
+
             for (String project : projects) {
                 shellCallback.refreshProject(project);
             }
@@ -368,6 +383,28 @@ public class MyBatisGenerator {
         }
     }
     
+    private void writeReport(String report, String fileName, ProgressCallback callback)
+            throws InterruptedException {
+        if (report == null || !stringHasValue(fileName)) {
+            return;
+        }
+
+        File targetFile = new File(fileName);
+        callback.checkCancel();
+        callback.startTask(getString(
+                "Progress.15", targetFile.getName())); //$NON-NLS-1$
+        try {
+            File directory = targetFile.getAbsoluteFile().getParentFile();
+            if (directory != null && !directory.isDirectory()) {
+                directory.mkdirs();
+            }
+            writeFile(targetFile, report, "UTF-8"); //$NON-NLS-1$
+        } catch (IOException e) {
+            warnings.add(getString("Warning.35", //$NON-NLS-1$
+                    targetFile.getAbsolutePath(), e.getMessage()));
+        }
+    }
+
     /**
      * Writes, or overwrites, the contents of the specified file.
      *
@@ -0,0 +1,97 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+/**
+ * This class holds size statistics of an introspected table. All values are
+ * estimates taken from the database catalog at generation time, and any of
+ * them may be null if the database does not report it. Plugins and generators
+ * can use them to choose different strategies for a small dictionary table
+ * and a large fact table.
+ * 
+ */
+public class TableStatistics {
+    protected Long rowCount;
+
+    protected Long averageRowLength;
+
+    protected Long dataLength;
+
+    protected Long indexLength;
+
+    public TableStatistics() {
+        super();
+    }
+
+    /**
+     * @return the estimated number of rows, or null if unknown
+     */
+    public Long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(Long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * @return the average row length in bytes, or null if unknown
+     */
+    public Long getAverageRowLength() {
+        return averageRowLength;
+    }
+
+    public void setAverageRowLength(Long averageRowLength) {
+        this.averageRowLength = averageRowLength;
+    }
+
+    /**
+     * @return the size of the table data in bytes, or null if unknown
+     */
+    public Long getDataLength() {
+        return dataLength;
+    }
+
+    public void setDataLength(Long dataLength) {
+        this.dataLength = dataLength;
+    }
+
+    /**
+     * @return the size of all indexes of the table in bytes, or null if
+     *         unknown
+     */
+    public Long getIndexLength() {
+        return indexLength;
+    }
+
+    public void setIndexLength(Long indexLength) {
+        this.indexLength = indexLength;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("rows="); //$NON-NLS-1$
+        sb.append(rowCount);
+        sb.append(", avgRowLength="); //$NON-NLS-1$
+        sb.append(averageRowLength);
+        sb.append(", dataLength="); //$NON-NLS-1$
+        sb.append(dataLength);
+        sb.append(", indexLength="); //$NON-NLS-1$
+        sb.append(indexLength);
+        return sb.toString();
+    }
+}
@@ -53,6 +53,9 @@ public class Method extends JavaElement {
     /** The is native. */
     private boolean isNative;
 
+    /** The is default. */
+    private boolean isDefault;
+
     /**
      * Instantiates a new method.
      */
@@ -94,6 +97,7 @@ public class Method extends JavaElement {
         this.returnType = original.returnType;
         this.isNative = original.isNative;
         this.isSynchronized = original.isSynchronized;
+        this.isDefault = original.isDefault;
     }
 
     /**
@@ -187,6 +191,8 @@ public class Method extends JavaElement {
             } else if (bodyLines.size() == 0) {
                 sb.append("abstract "); //$NON-NLS-1$
             }
+        } else if (isDefault()) {
+            sb.append("default "); //$NON-NLS-1$
         }
 
         if (!constructor) {
@@ -419,4 +425,24 @@ public class Method extends JavaElement {
     public void setNative(boolean isNative) {
         this.isNative = isNative;
     }
+
+    /**
+     * Checks if is default. Only meaningful for interface methods, which
+     * must then have body lines (Java 8 and later).
+     *
+     * @return true, if is default
+     */
+    public boolean isDefault() {
+        return isDefault;
+    }
+
+    /**
+     * Sets the default.
+     *
+     * @param isDefault
+     *            the new default
+     */
+    public void setDefault(boolean isDefault) {
+        this.isDefault = isDefault;
+    }
 }
@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc;
+
+import java.util.List;
+
+import org.mybatis.generator.api.ProgressCallback;
+import org.mybatis.generator.codegen.AbstractJavaClientGenerator;
+import org.mybatis.generator.codegen.mybatis3.IntrospectedTableMyBatis3Impl;
+
+/**
+ * targetRuntime="Jdbc" 的实现. 模型类和 Rules 与 MyBatis3 相同,
+ * 客户端换成直接使用 PreparedStatement 的 DAO 类, 不生成 XML.
+ * 
+ */
+public class IntrospectedTableJdbcImpl extends IntrospectedTableMyBatis3Impl {
+
+    public IntrospectedTableJdbcImpl() {
+        super(TargetRuntime.JDBC);
+    }
+
+    @Override
+    protected AbstractJavaClientGenerator createJavaClientGenerator() {
+        if (context.getJavaClientGeneratorConfiguration() == null) {
+            return null;
+        }
+
+        return new JdbcDaoGenerator();
+    }
+
+    @Override
+    protected void calculateXmlMapperGenerator(AbstractJavaClientGenerator javaClientGenerator,
+            List<String> warnings,
+            ProgressCallback progressCallback) {
+        // the DAO carries its own SQL
+        xmlMapperGenerator = null;
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc;
+
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.CompilationUnit;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.codegen.AbstractJavaClientGenerator;
+import org.mybatis.generator.codegen.AbstractXmlGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.AbstractJdbcMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.CountByWhereMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.DeleteByPrimaryKeyMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.DeleteByWhereMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.IncrementMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.InsertMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.InsertsMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.MapRowMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.SelectByPrimaryKeyMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.SelectByWhereMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.SelectPageAfterMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.UpdateByPrimaryKeyMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.UpdateByPrimaryKeyWithVersionMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.UpdateChangedByPrimaryKeyMethodGenerator;
+import org.mybatis.generator.codegen.jdbc.elements.WhereSupportMethodGenerator;
+import org.mybatis.generator.internal.rules.Rules;
+
+/**
+ * 生成直接使用 JDBC 的 DAO 类. SQL 在生成时拼好放在常量中, 参数按下标绑定,
+ * 结果按下标映射, 运行时没有反射、OGNL 和类型处理器. 只生成固定形状的语句,
+ * 插入和更新写入所有列.
+ * <p>
+ * 每个方法从 DataSource 获取并关闭自己的连接, 需要事务时传入感知事务的
+ * DataSource, 例如 Spring 的 TransactionAwareDataSourceProxy.
+ * 生成的代码需要 Java 8.
+ * 
+ */
+public class JdbcDaoGenerator extends AbstractJavaClientGenerator {
+
+    public JdbcDaoGenerator() {
+        super(false);
+    }
+
+    @Override
+    public List<CompilationUnit> getCompilationUnits() {
+        progressCallback.startTask(getString("Progress.21", //$NON-NLS-1$
+                introspectedTable.getFullyQualifiedTable().toString()));
+        CommentGenerator commentGenerator = context.getCommentGenerator();
+
+        FullyQualifiedJavaType type = new FullyQualifiedJavaType(
+                introspectedTable.getDAOInterfaceType());
+        TopLevelClass topLevelClass = new TopLevelClass(type);
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+        commentGenerator.addJavaFileComment(topLevelClass);
+
+        addFields(topLevelClass);
+        addConstructor(topLevelClass);
+        addSetFetchSizeMethod(topLevelClass);
+
+        Rules rules = introspectedTable.getRules();
+        int methodCount = topLevelClass.getMethods().size();
+        if (rules.generateCountByWhere()) {
+            initializeAndExecuteGenerator(new CountByWhereMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateSelectByWhere()) {
+            initializeAndExecuteGenerator(new SelectByWhereMethodGenerator(false), topLevelClass);
+        }
+        if (rules.generateSelectByWhereCursor()) {
+            initializeAndExecuteGenerator(new SelectByWhereMethodGenerator(true), topLevelClass);
+        }
+        if (rules.generateSelectPageAfter()) {
+            initializeAndExecuteGenerator(new SelectPageAfterMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateDeleteByWhere()) {
+            initializeAndExecuteGenerator(new DeleteByWhereMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateIncrementByWhere()) {
+            for (IntrospectedColumn introspectedColumn : introspectedTable.getIncrementColumns()) {
+                initializeAndExecuteGenerator(new IncrementMethodGenerator(introspectedColumn, true), topLevelClass);
+            }
+        }
+        boolean whereUsed = topLevelClass.getMethods().size() > methodCount;
+
+        if (rules.generateSelectByPrimaryKey()) {
+            initializeAndExecuteGenerator(new SelectByPrimaryKeyMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateDeleteByPrimaryKey()) {
+            initializeAndExecuteGenerator(new DeleteByPrimaryKeyMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateInsertNotCheck()) {
+            initializeAndExecuteGenerator(new InsertMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateInserts()) {
+            initializeAndExecuteGenerator(new InsertsMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateUpdateByPrimaryKeySelective()
+                || rules.generateUpdateByPrimaryKeyWithBLOBs()
+                || rules.generateUpdateByPrimaryKeyWithoutBLOBs()) {
+            initializeAndExecuteGenerator(new UpdateByPrimaryKeyMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateUpdateChangedByPrimaryKey()) {
+            initializeAndExecuteGenerator(new UpdateChangedByPrimaryKeyMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateUpdateByPrimaryKeyWithVersion()) {
+            initializeAndExecuteGenerator(new UpdateByPrimaryKeyWithVersionMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateIncrementByPrimaryKey()) {
+            for (IntrospectedColumn introspectedColumn : introspectedTable.getIncrementColumns()) {
+                initializeAndExecuteGenerator(new IncrementMethodGenerator(introspectedColumn, false), topLevelClass);
+            }
+        }
+
+        if (whereUsed) {
+            initializeAndExecuteGenerator(new WhereSupportMethodGenerator(), topLevelClass);
+        }
+        initializeAndExecuteGenerator(new MapRowMethodGenerator(), topLevelClass);
+
+        List<CompilationUnit> answer = new ArrayList<CompilationUnit>();
+        if (context.getPlugins().clientGenerated(null, topLevelClass,
+                introspectedTable)) {
+            answer.add(topLevelClass);
+        }
+
+        return answer;
+    }
+
+    protected void addFields(TopLevelClass topLevelClass) {
+        Field field = new Field("COLUMNS", FullyQualifiedJavaType.getStringInstance()); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("\"" + JdbcFormattingUtilities.getColumnList( //$NON-NLS-1$
+                introspectedTable.getAllColumns()) + "\""); //$NON-NLS-1$
+        topLevelClass.addField(field);
+
+        field = new Field("TABLE", FullyQualifiedJavaType.getStringInstance()); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("\"" + escapeStringForJava( //$NON-NLS-1$
+                introspectedTable.getFullyQualifiedTableNameAtRuntime()) + "\""); //$NON-NLS-1$
+        topLevelClass.addField(field);
+
+        field = new Field("SELECT_SQL", FullyQualifiedJavaType.getStringInstance()); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("\"select \" + COLUMNS + \" from \" + TABLE"); //$NON-NLS-1$
+        topLevelClass.addField(field);
+
+        FullyQualifiedJavaType dataSourceType = new FullyQualifiedJavaType(
+                "javax.sql.DataSource"); //$NON-NLS-1$
+        field = new Field("dataSource", dataSourceType); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setFinal(true);
+        topLevelClass.addField(field);
+        topLevelClass.addImportedType(dataSourceType);
+
+        field = new Field("fetchSize", FullyQualifiedJavaType.getIntInstance()); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        topLevelClass.addField(field);
+    }
+
+    protected void addConstructor(TopLevelClass topLevelClass) {
+        Method method = new Method(topLevelClass.getType().getShortName());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setConstructor(true);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "javax.sql.DataSource"), "dataSource")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("this.dataSource = dataSource;"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+    }
+
+    protected void addSetFetchSizeMethod(TopLevelClass topLevelClass) {
+        Method method = new Method("setFetchSize"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "fetchSize")); //$NON-NLS-1$
+        method.addBodyLine("this.fetchSize = fetchSize;"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "selectByWhere 每次从数据库读取的行数, 0 表示使用驱动的默认值");
+        topLevelClass.addMethod(method);
+    }
+
+    protected void initializeAndExecuteGenerator(
+            AbstractJdbcMethodGenerator methodGenerator,
+            TopLevelClass topLevelClass) {
+        methodGenerator.setContext(context);
+        methodGenerator.setIntrospectedTable(introspectedTable);
+        methodGenerator.setProgressCallback(progressCallback);
+        methodGenerator.setWarnings(warnings);
+        methodGenerator.addClassElements(topLevelClass);
+    }
+
+    @Override
+    public AbstractXmlGenerator getMatchedXMLGenerator() {
+        // the DAO does not need XML
+        return null;
+    }
+}
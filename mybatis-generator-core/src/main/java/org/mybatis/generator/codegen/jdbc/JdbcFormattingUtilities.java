@@ -0,0 +1,74 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc;
+
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+
+/**
+ * JDBC DAO 中 SQL 文本的格式化方法. 生成的 SQL 放在 Java 字符串中,
+ * 不需要 MyBatis 的 #{} 和 ${} 转义.
+ * 
+ */
+public class JdbcFormattingUtilities {
+
+    /**
+     * Utility class - no instances.
+     */
+    private JdbcFormattingUtilities() {
+    }
+
+    /**
+     * @return the column name, delimited if required, escaped for a Java
+     *         string literal
+     */
+    public static String getEscapedColumnName(IntrospectedColumn introspectedColumn) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(introspectedColumn.getActualColumnName());
+        if (introspectedColumn.isColumnNameDelimited()) {
+            sb.insert(0, introspectedColumn.getContext().getBeginningDelimiter());
+            sb.append(introspectedColumn.getContext().getEndingDelimiter());
+        }
+        return escapeStringForJava(sb.toString());
+    }
+
+    /**
+     * @return "VERSION = VERSION + 1", the assignment of an optimistic update
+     */
+    public static String getVersionIncrement(IntrospectedColumn introspectedColumn) {
+        String columnName = getEscapedColumnName(introspectedColumn);
+        return columnName + " = " + columnName + " + 1"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * @return "A, B, C"
+     */
+    public static String getColumnList(List<IntrospectedColumn> columns) {
+        StringBuilder sb = new StringBuilder();
+        Iterator<IntrospectedColumn> iter = columns.iterator();
+        while (iter.hasNext()) {
+            sb.append(getEscapedColumnName(iter.next()));
+            if (iter.hasNext()) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+        }
+        return sb.toString();
+    }
+}
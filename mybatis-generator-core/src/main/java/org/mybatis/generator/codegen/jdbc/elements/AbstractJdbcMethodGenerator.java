@@ -0,0 +1,495 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc.elements;
+
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getSetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+
+import java.sql.Types;
+import java.util.Iterator;
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.codegen.AbstractGenerator;
+import org.mybatis.generator.codegen.jdbc.JdbcFormattingUtilities;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.config.GeneratedKey;
+
+/**
+ * JDBC DAO 方法生成器的基类. 参数按下标绑定, 结果按下标读取,
+ * 每一列的 JDBC 调用在生成时就已确定, 运行时不需要反射和类型处理器.
+ * 
+ */
+public abstract class AbstractJdbcMethodGenerator extends AbstractGenerator {
+
+    /** The name of the DAO constant holding the select list. */
+    public static final String COLUMNS = "COLUMNS"; //$NON-NLS-1$
+
+    /** The name of the DAO constant holding the table name. */
+    public static final String TABLE = "TABLE"; //$NON-NLS-1$
+
+    public AbstractJdbcMethodGenerator() {
+        super();
+    }
+
+    public abstract void addClassElements(TopLevelClass topLevelClass);
+
+    protected FullyQualifiedJavaType getRecordType() {
+        return introspectedTable.getRules().calculateAllFieldsClass();
+    }
+
+    protected FullyQualifiedJavaType getWhereType() {
+        return new FullyQualifiedJavaType(introspectedTable.getWhereType());
+    }
+
+    /**
+     * @return "A = ?, B = ?" or "A = ? and B = ?" depending on the separator
+     */
+    protected String getAssignments(List<IntrospectedColumn> columns, String separator) {
+        StringBuilder sb = new StringBuilder();
+        Iterator<IntrospectedColumn> iter = columns.iterator();
+        while (iter.hasNext()) {
+            sb.append(JdbcFormattingUtilities.getEscapedColumnName(iter.next()));
+            sb.append(" = ?"); //$NON-NLS-1$
+            if (iter.hasNext()) {
+                sb.append(separator);
+            }
+        }
+        return sb.toString();
+    }
+
+    protected boolean hasMethod(TopLevelClass topLevelClass, String name) {
+        for (Method method : topLevelClass.getMethods()) {
+            if (name.equals(method.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a private static final String holding the SQL of a statement.
+     */
+    protected void addSqlField(TopLevelClass topLevelClass, String name,
+            String initializationString) {
+        Field field = new Field(name, FullyQualifiedJavaType.getStringInstance());
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString(initializationString);
+        topLevelClass.addField(field);
+    }
+
+    /**
+     * @return the try-with-resources line opening a connection and preparing
+     *         the statement
+     */
+    protected String getPrepareLine(String sql) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("try (Connection connection = dataSource.getConnection(); "); //$NON-NLS-1$
+        sb.append("PreparedStatement ps = connection.prepareStatement("); //$NON-NLS-1$
+        sb.append(sql);
+        sb.append(")) {"); //$NON-NLS-1$
+        return sb.toString();
+    }
+
+    protected void addJdbcImports(TopLevelClass topLevelClass) {
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.sql.Connection")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.sql.PreparedStatement")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.sql.ResultSet")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.sql.Types")); //$NON-NLS-1$
+    }
+
+    /**
+     * @return the columns written by insert, in parameter order
+     */
+    protected List<IntrospectedColumn> getInsertColumns() {
+        return ListUtilities.removeIdentityAndGeneratedAlwaysColumns(
+                introspectedTable.getAllColumns());
+    }
+
+    /**
+     * Adds INSERT_SQL and, for a JDBC standard generated key, KEY_COLUMNS,
+     * once.
+     */
+    protected void addInsertSqlFields(TopLevelClass topLevelClass) {
+        for (Field field : topLevelClass.getFields()) {
+            if ("INSERT_SQL".equals(field.getName())) { //$NON-NLS-1$
+                return;
+            }
+        }
+
+        List<IntrospectedColumn> columns = getInsertColumns();
+        StringBuilder sb = new StringBuilder();
+        sb.append("\"insert into \" + TABLE + \" ("); //$NON-NLS-1$
+        sb.append(JdbcFormattingUtilities.getColumnList(columns));
+        sb.append(") values ("); //$NON-NLS-1$
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append('?');
+        }
+        sb.append(")\""); //$NON-NLS-1$
+        addSqlField(topLevelClass, "INSERT_SQL", sb.toString()); //$NON-NLS-1$
+
+        IntrospectedColumn keyColumn = getJdbcStandardKeyColumn();
+        if (keyColumn != null) {
+            Field field = new Field("KEY_COLUMNS", new FullyQualifiedJavaType("java.lang.String[]")); //$NON-NLS-1$ //$NON-NLS-2$
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setStatic(true);
+            field.setFinal(true);
+            field.setInitializationString("{ \"" //$NON-NLS-1$
+                    + escapeStringForJava(keyColumn.getActualColumnName()) + "\" }"); //$NON-NLS-1$
+            topLevelClass.addField(field);
+        }
+    }
+
+    /**
+     * Adds the bindInsert method shared by insert and inserts, once.
+     */
+    protected void addBindInsertMethod(TopLevelClass topLevelClass) {
+        if (hasMethod(topLevelClass, "bindInsert")) { //$NON-NLS-1$
+            return;
+        }
+
+        Method method = new Method("bindInsert"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "java.sql.PreparedStatement"), "ps")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(getRecordType(), "record")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+
+        List<IntrospectedColumn> columns = getInsertColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            addBindPropertyLines(method, columns.get(i), "ps", Integer.toString(i + 1), "record"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "按 INSERT_SQL 的参数顺序绑定记录");
+        topLevelClass.addMethod(method);
+    }
+
+    /**
+     * @return the key column of a generated key that the JDBC driver returns,
+     *         null when there is none
+     */
+    protected IntrospectedColumn getJdbcStandardKeyColumn() {
+        GeneratedKey gk = introspectedTable.getGeneratedKey();
+        if (gk == null || !gk.isJdbcStandard()) {
+            return null;
+        }
+        return introspectedTable.getColumn(gk.getColumn());
+    }
+
+    /**
+     * @return the key column of a generated key read with its own statement,
+     *         null when there is none
+     */
+    protected IntrospectedColumn getSelectKeyColumn() {
+        GeneratedKey gk = introspectedTable.getGeneratedKey();
+        if (gk == null || gk.isJdbcStandard()) {
+            return null;
+        }
+        return introspectedTable.getColumn(gk.getColumn());
+    }
+
+    /**
+     * Adds the selectKey method running the configured key statement, once.
+     */
+    protected void addSelectKeyMethod(TopLevelClass topLevelClass) {
+        if (hasMethod(topLevelClass, "selectKey")) { //$NON-NLS-1$
+            return;
+        }
+
+        GeneratedKey gk = introspectedTable.getGeneratedKey();
+        IntrospectedColumn keyColumn = getSelectKeyColumn();
+
+        Method method = new Method("selectKey"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "java.sql.Connection"), "connection")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(getRecordType(), "record")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+        method.addBodyLine("try (Statement statement = connection.createStatement(); " //$NON-NLS-1$
+                + "ResultSet keys = statement.executeQuery(SELECT_KEY_SQL)) {"); //$NON-NLS-1$
+        method.addBodyLine("if (keys.next()) {"); //$NON-NLS-1$
+        addReadLines(method, keyColumn, "keys", "1", "record"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "执行配置的主键语句, 把主键写回记录");
+        addSqlField(topLevelClass, "SELECT_KEY_SQL", //$NON-NLS-1$
+                "\"" + escapeStringForJava(gk.getRuntimeSqlStatement()) + "\""); //$NON-NLS-1$ //$NON-NLS-2$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.sql.Statement")); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+    }
+
+    /**
+     * Adds one parameter per primary key column, the way the mapper
+     * selectByPrimaryKey does for a model without a key class.
+     */
+    protected void addPrimaryKeyParameters(TopLevelClass topLevelClass, Method method) {
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getPrimaryKeyColumns()) {
+            FullyQualifiedJavaType type = introspectedColumn.getFullyQualifiedJavaType();
+            topLevelClass.addImportedType(type);
+            method.addParameter(new Parameter(type, introspectedColumn.getJavaProperty()));
+        }
+    }
+
+    /**
+     * Adds the lines binding the value of the expression to the parameter
+     * at the index.
+     */
+    protected void addBindLines(Method method, IntrospectedColumn introspectedColumn,
+            String statement, String index, String value) {
+        String setter = getBindStatement(introspectedColumn, statement, index, value);
+        if (introspectedColumn.getFullyQualifiedJavaType().isPrimitive()) {
+            method.addBodyLine(setter);
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("if ("); //$NON-NLS-1$
+        sb.append(value);
+        sb.append(" == null) {"); //$NON-NLS-1$
+        method.addBodyLine(sb.toString());
+
+        sb.setLength(0);
+        sb.append(statement);
+        sb.append(".setNull("); //$NON-NLS-1$
+        sb.append(index);
+        sb.append(", Types."); //$NON-NLS-1$
+        sb.append(getTypesName(introspectedColumn));
+        sb.append(");"); //$NON-NLS-1$
+        method.addBodyLine(sb.toString());
+        method.addBodyLine("} else {"); //$NON-NLS-1$
+        method.addBodyLine(setter);
+        method.addBodyLine("}"); //$NON-NLS-1$
+    }
+
+    /**
+     * Adds the lines binding the property of the record.
+     */
+    protected void addBindPropertyLines(Method method, IntrospectedColumn introspectedColumn,
+            String statement, String index, String record) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(record);
+        sb.append('.');
+        sb.append(getGetterMethodName(introspectedColumn.getJavaProperty(),
+                introspectedColumn.getFullyQualifiedJavaType()));
+        sb.append("()"); //$NON-NLS-1$
+        addBindLines(method, introspectedColumn, statement, index, sb.toString());
+    }
+
+    /**
+     * @return the statement binding the value of the expression, which must
+     *         not be null, to the parameter at the index
+     */
+    protected String getBindStatement(IntrospectedColumn introspectedColumn,
+            String statement, String index, String value) {
+        String typeName = getWrapperTypeName(introspectedColumn);
+        String setter;
+        String argument = value;
+        if ("java.lang.String".equals(typeName)) { //$NON-NLS-1$
+            setter = "setString"; //$NON-NLS-1$
+        } else if ("java.lang.Integer".equals(typeName)) { //$NON-NLS-1$
+            setter = "setInt"; //$NON-NLS-1$
+        } else if ("java.lang.Long".equals(typeName)) { //$NON-NLS-1$
+            setter = "setLong"; //$NON-NLS-1$
+        } else if ("java.lang.Short".equals(typeName)) { //$NON-NLS-1$
+            setter = "setShort"; //$NON-NLS-1$
+        } else if ("java.lang.Byte".equals(typeName)) { //$NON-NLS-1$
+            setter = "setByte"; //$NON-NLS-1$
+        } else if ("java.lang.Boolean".equals(typeName)) { //$NON-NLS-1$
+            setter = "setBoolean"; //$NON-NLS-1$
+        } else if ("java.lang.Double".equals(typeName)) { //$NON-NLS-1$
+            setter = "setDouble"; //$NON-NLS-1$
+        } else if ("java.lang.Float".equals(typeName)) { //$NON-NLS-1$
+            setter = "setFloat"; //$NON-NLS-1$
+        } else if ("java.math.BigDecimal".equals(typeName)) { //$NON-NLS-1$
+            setter = "setBigDecimal"; //$NON-NLS-1$
+        } else if ("byte[]".equals(typeName)) { //$NON-NLS-1$
+            setter = "setBytes"; //$NON-NLS-1$
+        } else if ("java.util.Date".equals(typeName)) { //$NON-NLS-1$
+            String sqlType = getSqlDateType(introspectedColumn);
+            setter = "set" + sqlType.substring(sqlType.lastIndexOf('.') + 1); //$NON-NLS-1$
+            argument = "new " + sqlType + "(" + value + ".getTime())"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        } else {
+            setter = "setObject"; //$NON-NLS-1$
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(statement);
+        sb.append('.');
+        sb.append(setter);
+        sb.append('(');
+        sb.append(index);
+        sb.append(", "); //$NON-NLS-1$
+        sb.append(argument);
+        sb.append(");"); //$NON-NLS-1$
+        return sb.toString();
+    }
+
+    /**
+     * Adds the lines reading the column at the index into the property of
+     * the record. SQL NULL leaves the property unset.
+     */
+    protected void addReadLines(Method method, IntrospectedColumn introspectedColumn,
+            String resultSet, String index, String record) {
+        FullyQualifiedJavaType javaType = introspectedColumn.getFullyQualifiedJavaType();
+        String typeName = getWrapperTypeName(introspectedColumn);
+        String setter = getSetterMethodName(introspectedColumn.getJavaProperty());
+        String local = introspectedColumn.getJavaProperty() + "Value"; //$NON-NLS-1$
+
+        String getter = null;
+        String primitive = null;
+        if ("java.lang.String".equals(typeName)) { //$NON-NLS-1$
+            getter = "getString"; //$NON-NLS-1$
+        } else if ("java.math.BigDecimal".equals(typeName)) { //$NON-NLS-1$
+            getter = "getBigDecimal"; //$NON-NLS-1$
+        } else if ("byte[]".equals(typeName)) { //$NON-NLS-1$
+            getter = "getBytes"; //$NON-NLS-1$
+        } else if ("java.lang.Integer".equals(typeName)) { //$NON-NLS-1$
+            primitive = "int"; //$NON-NLS-1$
+        } else if ("java.lang.Long".equals(typeName)) { //$NON-NLS-1$
+            primitive = "long"; //$NON-NLS-1$
+        } else if ("java.lang.Short".equals(typeName)) { //$NON-NLS-1$
+            primitive = "short"; //$NON-NLS-1$
+        } else if ("java.lang.Byte".equals(typeName)) { //$NON-NLS-1$
+            primitive = "byte"; //$NON-NLS-1$
+        } else if ("java.lang.Boolean".equals(typeName)) { //$NON-NLS-1$
+            primitive = "boolean"; //$NON-NLS-1$
+        } else if ("java.lang.Double".equals(typeName)) { //$NON-NLS-1$
+            primitive = "double"; //$NON-NLS-1$
+        } else if ("java.lang.Float".equals(typeName)) { //$NON-NLS-1$
+            primitive = "float"; //$NON-NLS-1$
+        }
+
+        StringBuilder sb = new StringBuilder();
+        if (getter != null) {
+            // the driver returns null for SQL NULL
+            sb.append(record);
+            sb.append('.');
+            sb.append(setter);
+            sb.append('(');
+            sb.append(resultSet);
+            sb.append('.');
+            sb.append(getter);
+            sb.append('(');
+            sb.append(index);
+            sb.append("));"); //$NON-NLS-1$
+            method.addBodyLine(sb.toString());
+        } else if (primitive != null) {
+            getter = "get" + Character.toUpperCase(primitive.charAt(0)) + primitive.substring(1); //$NON-NLS-1$
+            sb.append(primitive);
+            sb.append(' ');
+            sb.append(local);
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(resultSet);
+            sb.append('.');
+            sb.append(getter);
+            sb.append('(');
+            sb.append(index);
+            sb.append(");"); //$NON-NLS-1$
+            method.addBodyLine(sb.toString());
+
+            String assignment = record + '.' + setter + '(' + local + ");"; //$NON-NLS-1$
+            if (javaType.isPrimitive()) {
+                method.addBodyLine(assignment);
+            } else {
+                method.addBodyLine("if (!" + resultSet + ".wasNull()) {"); //$NON-NLS-1$ //$NON-NLS-2$
+                method.addBodyLine(assignment);
+                method.addBodyLine("}"); //$NON-NLS-1$
+            }
+        } else if ("java.util.Date".equals(typeName)) { //$NON-NLS-1$
+            String sqlType = getSqlDateType(introspectedColumn);
+            sb.append(sqlType);
+            sb.append(' ');
+            sb.append(local);
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(resultSet);
+            sb.append(".get"); //$NON-NLS-1$
+            sb.append(sqlType.substring(sqlType.lastIndexOf('.') + 1));
+            sb.append('(');
+            sb.append(index);
+            sb.append(");"); //$NON-NLS-1$
+            method.addBodyLine(sb.toString());
+            method.addBodyLine("if (" + local + " != null) {"); //$NON-NLS-1$ //$NON-NLS-2$
+            // a plain Date, the way MyBatis' DateTypeHandler returns it
+            method.addBodyLine(record + '.' + setter + "(new java.util.Date(" //$NON-NLS-1$
+                    + local + ".getTime()));"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        } else {
+            // JDBC 4.1 converts to any type the driver supports
+            sb.append(record);
+            sb.append('.');
+            sb.append(setter);
+            sb.append('(');
+            sb.append(resultSet);
+            sb.append(".getObject("); //$NON-NLS-1$
+            sb.append(index);
+            sb.append(", "); //$NON-NLS-1$
+            sb.append(javaType.getFullyQualifiedNameWithoutTypeParameters());
+            sb.append(".class));"); //$NON-NLS-1$
+            method.addBodyLine(sb.toString());
+        }
+    }
+
+    private String getWrapperTypeName(IntrospectedColumn introspectedColumn) {
+        FullyQualifiedJavaType javaType = introspectedColumn.getFullyQualifiedJavaType();
+        if (javaType.isPrimitive()) {
+            return javaType.getPrimitiveTypeWrapper().getFullyQualifiedName();
+        }
+        return javaType.getFullyQualifiedName();
+    }
+
+    private String getSqlDateType(IntrospectedColumn introspectedColumn) {
+        switch (introspectedColumn.getJdbcType()) {
+        case Types.DATE:
+            return "java.sql.Date"; //$NON-NLS-1$
+        case Types.TIME:
+            return "java.sql.Time"; //$NON-NLS-1$
+        default:
+            return "java.sql.Timestamp"; //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * @return the name of the java.sql.Types constant of the column
+     */
+    private String getTypesName(IntrospectedColumn introspectedColumn) {
+        String jdbcTypeName = introspectedColumn.getJdbcTypeName();
+        try {
+            Types.class.getField(jdbcTypeName);
+            return jdbcTypeName;
+        } catch (NoSuchFieldException e) {
+            // MyBatis only names, such as CURSOR or UNDEFINED
+            return "OTHER"; //$NON-NLS-1$
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc.elements;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成 countByWhere.
+ * 
+ */
+public class CountByWhereMethodGenerator extends AbstractJdbcMethodGenerator {
+
+    public CountByWhereMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType whereType = getWhereType();
+
+        Method method = new Method(introspectedTable.getCountByExampleStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(new FullyQualifiedJavaType("long")); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+
+        method.addBodyLine("StringBuilder sql = new StringBuilder(\"select count(*) from \").append(TABLE);"); //$NON-NLS-1$
+        method.addBodyLine("appendCriteria(sql, where, false);"); //$NON-NLS-1$
+        method.addBodyLine(getPrepareLine("sql.toString()")); //$NON-NLS-1$
+        method.addBodyLine("bindCriteria(ps, 1, where);"); //$NON-NLS-1$
+        method.addBodyLine("try (ResultSet rs = ps.executeQuery()) {"); //$NON-NLS-1$
+        method.addBodyLine("rs.next();"); //$NON-NLS-1$
+        method.addBodyLine("return rs.getLong(1);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据条件统计记录数");
+
+        if (context.getPlugins().clientCountByExampleMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addJdbcImports(topLevelClass);
+            topLevelClass.addImportedType(whereType);
+            topLevelClass.addMethod(method);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc.elements;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成 deleteByWhere.
+ * 
+ */
+public class DeleteByWhereMethodGenerator extends AbstractJdbcMethodGenerator {
+
+    public DeleteByWhereMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType whereType = getWhereType();
+
+        Method method = new Method(introspectedTable.getDeleteByExampleStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+
+        method.addBodyLine("StringBuilder sql = new StringBuilder(\"delete from \").append(TABLE);"); //$NON-NLS-1$
+        method.addBodyLine("appendCriteria(sql, where, false);"); //$NON-NLS-1$
+        method.addBodyLine(getPrepareLine("sql.toString()")); //$NON-NLS-1$
+        method.addBodyLine("bindCriteria(ps, 1, where);"); //$NON-NLS-1$
+        method.addBodyLine("return ps.executeUpdate();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据条件删除记录, 没有条件时删除全表");
+
+        if (context.getPlugins().clientDeleteByExampleMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addJdbcImports(topLevelClass);
+            topLevelClass.addImportedType(whereType);
+            topLevelClass.addMethod(method);
+        }
+    }
+}
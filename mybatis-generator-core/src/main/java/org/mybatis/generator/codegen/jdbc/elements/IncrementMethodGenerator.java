@@ -0,0 +1,164 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc.elements;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+import org.mybatis.generator.codegen.jdbc.JdbcFormattingUtilities;
+
+/**
+ * 为一个计数列生成原子增减方法 incrementXxxByPrimaryKey 或 incrementXxxByWhere,
+ * floor / ceiling 不为 null 时只更新增减后不越界的行.
+ * 
+ */
+public class IncrementMethodGenerator extends AbstractJdbcMethodGenerator {
+
+    private IntrospectedColumn introspectedColumn;
+
+    private boolean byWhere;
+
+    public IncrementMethodGenerator(IntrospectedColumn introspectedColumn, boolean byWhere) {
+        super();
+        this.introspectedColumn = introspectedColumn;
+        this.byWhere = byWhere;
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType whereType = getWhereType();
+        FullyQualifiedJavaType valueType = introspectedColumn.getFullyQualifiedJavaType();
+        if (valueType.isPrimitive()) {
+            valueType = valueType.getPrimitiveTypeWrapper();
+        }
+        // delta is always required, BigDecimal / BigInteger have no primitive and are checked before binding
+        FullyQualifiedJavaType deltaType = JavaBeansUtil.getCompactPrimitiveType(valueType);
+        boolean checkDelta = deltaType == null;
+        if (checkDelta) {
+            deltaType = valueType;
+        }
+        String columnName = JdbcFormattingUtilities.getEscapedColumnName(introspectedColumn);
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+
+        Method method = new Method(byWhere
+                ? introspectedTable.getIncrementByWhereStatementId(introspectedColumn)
+                : introspectedTable.getIncrementByPrimaryKeyStatementId(introspectedColumn));
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        if (!byWhere) {
+            addPrimaryKeyParameters(topLevelClass, method);
+        }
+        method.addParameter(new Parameter(deltaType, "delta")); //$NON-NLS-1$
+        method.addParameter(new Parameter(valueType, "floor")); //$NON-NLS-1$
+        method.addParameter(new Parameter(valueType, "ceiling")); //$NON-NLS-1$
+        if (byWhere) {
+            method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        }
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+        if (checkDelta) {
+            method.addBodyLine("if (delta == null) {"); //$NON-NLS-1$
+            method.addBodyLine("throw new IllegalArgumentException(\"delta is required\");"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("StringBuilder sql = new StringBuilder(\"update \").append(TABLE).append(\" set "); //$NON-NLS-1$
+        sb.append(columnName);
+        sb.append(" = "); //$NON-NLS-1$
+        sb.append(columnName);
+        sb.append(" + ?"); //$NON-NLS-1$
+        if (versionColumn != null) {
+            // other writers holding the old version must not overwrite the counter
+            sb.append(", "); //$NON-NLS-1$
+            sb.append(JdbcFormattingUtilities.getVersionIncrement(versionColumn));
+        }
+        if (!byWhere) {
+            sb.append(" where "); //$NON-NLS-1$
+            sb.append(getAssignments(introspectedTable.getPrimaryKeyColumns(), " and ")); //$NON-NLS-1$
+        }
+        sb.append("\");"); //$NON-NLS-1$
+        method.addBodyLine(sb.toString());
+
+        // the guards come before the criteria, the where keyword goes to the first condition
+        String floorCondition = columnName + " + ? >= ?"; //$NON-NLS-1$
+        String ceilingCondition = columnName + " + ? <= ?"; //$NON-NLS-1$
+        method.addBodyLine("if (floor != null) {"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\"" + (byWhere ? " where " : " and ") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                + floorCondition + "\");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (ceiling != null) {"); //$NON-NLS-1$
+        if (byWhere) {
+            method.addBodyLine("sql.append(floor != null ? \" and \" : \" where \").append(\"" //$NON-NLS-1$
+                    + ceilingCondition + "\");"); //$NON-NLS-1$
+        } else {
+            method.addBodyLine("sql.append(\" and " + ceilingCondition + "\");"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        method.addBodyLine("}"); //$NON-NLS-1$
+        if (byWhere) {
+            method.addBodyLine("appendCriteria(sql, where, floor != null || ceiling != null);"); //$NON-NLS-1$
+        }
+
+        method.addBodyLine(getPrepareLine("sql.toString()")); //$NON-NLS-1$
+        method.addBodyLine("int index = 1;"); //$NON-NLS-1$
+        method.addBodyLine(getBindStatement(introspectedColumn, "ps", "index++", "delta")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        if (!byWhere) {
+            for (IntrospectedColumn keyColumn : introspectedTable.getPrimaryKeyColumns()) {
+                addBindLines(method, keyColumn, "ps", "index++", keyColumn.getJavaProperty()); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        addBindGuardLines(method, "floor"); //$NON-NLS-1$
+        addBindGuardLines(method, "ceiling"); //$NON-NLS-1$
+        if (byWhere) {
+            method.addBodyLine("bindCriteria(ps, index, where);"); //$NON-NLS-1$
+        }
+        method.addBodyLine("return ps.executeUpdate();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        sb.setLength(0);
+        sb.append(byWhere ? "把符合条件的记录的 " : "把主键对应记录的 "); //$NON-NLS-1$ //$NON-NLS-2$
+        sb.append(introspectedColumn.getActualColumnName());
+        sb.append(" 在一条语句中原子地加上 delta (不能为 null), floor / ceiling 不为 null 时只更新结果不越界的记录, 返回更新的行数"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, sb.toString());
+
+        boolean include;
+        if (byWhere) {
+            include = context.getPlugins().clientUpdateByExampleSelectiveMethodGenerated(
+                    method, topLevelClass, introspectedTable);
+        } else {
+            include = context.getPlugins().clientUpdateByPrimaryKeySelectiveMethodGenerated(
+                    method, topLevelClass, introspectedTable);
+        }
+        if (include) {
+            addJdbcImports(topLevelClass);
+            topLevelClass.addImportedType(valueType);
+            if (byWhere) {
+                topLevelClass.addImportedType(whereType);
+            }
+            topLevelClass.addMethod(method);
+        }
+    }
+
+    private void addBindGuardLines(Method method, String bound) {
+        method.addBodyLine("if (" + bound + " != null) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine(getBindStatement(introspectedColumn, "ps", "index++", "delta")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        method.addBodyLine(getBindStatement(introspectedColumn, "ps", "index++", bound)); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("}"); //$NON-NLS-1$
+    }
+}
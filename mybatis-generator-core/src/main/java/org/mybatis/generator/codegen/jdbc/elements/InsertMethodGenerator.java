@@ -0,0 +1,90 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc.elements;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成 insertNoCheck, 写入所有列, 与 mapper 中的同名方法语义相同.
+ * 配置了 generatedKey 时把生成的主键写回记录.
+ * 
+ */
+public class InsertMethodGenerator extends AbstractJdbcMethodGenerator {
+
+    public InsertMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType recordType = getRecordType();
+        IntrospectedColumn generatedColumn = getJdbcStandardKeyColumn();
+        IntrospectedColumn selectKeyColumn = getSelectKeyColumn();
+        boolean selectKeyBefore = selectKeyColumn != null && !selectKeyColumn.isIdentity();
+
+        Method method = new Method(introspectedTable.getInsertStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(recordType, "record")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+
+        method.addBodyLine("try (Connection connection = dataSource.getConnection()) {"); //$NON-NLS-1$
+        if (selectKeyBefore) {
+            method.addBodyLine("selectKey(connection, record);"); //$NON-NLS-1$
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL"); //$NON-NLS-1$
+        if (generatedColumn != null) {
+            sb.append(", KEY_COLUMNS"); //$NON-NLS-1$
+        }
+        sb.append(")) {"); //$NON-NLS-1$
+        method.addBodyLine(sb.toString());
+        method.addBodyLine("bindInsert(ps, record);"); //$NON-NLS-1$
+        method.addBodyLine("int rows = ps.executeUpdate();"); //$NON-NLS-1$
+        if (generatedColumn != null) {
+            method.addBodyLine("try (ResultSet keys = ps.getGeneratedKeys()) {"); //$NON-NLS-1$
+            method.addBodyLine("if (keys.next()) {"); //$NON-NLS-1$
+            addReadLines(method, generatedColumn, "keys", "1", "record"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        } else if (selectKeyColumn != null && !selectKeyBefore) {
+            method.addBodyLine("selectKey(connection, record);"); //$NON-NLS-1$
+        }
+        method.addBodyLine("return rows;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "插入一条记录, 写入所有列, 为 null 的属性插入 NULL");
+
+        if (context.getPlugins().clientInsertMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addInsertSqlFields(topLevelClass);
+            addBindInsertMethod(topLevelClass);
+            if (selectKeyColumn != null) {
+                addSelectKeyMethod(topLevelClass);
+            }
+            addJdbcImports(topLevelClass);
+            topLevelClass.addImportedType(recordType);
+            topLevelClass.addMethod(method);
+        }
+    }
+}
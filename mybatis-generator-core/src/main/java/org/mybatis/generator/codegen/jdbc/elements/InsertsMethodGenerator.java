@@ -0,0 +1,113 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc.elements;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成批量插入 inserts, 同一条 INSERT_SQL 用 addBatch/executeBatch 执行.
+ * JDBC 标准的生成主键按记录顺序写回; 需要单独查询主键的配置中,
+ * 插入前生成的主键逐条查询, 插入后才能取到的主键不会写回.
+ * 
+ */
+public class InsertsMethodGenerator extends AbstractJdbcMethodGenerator {
+
+    public InsertsMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType recordType = getRecordType();
+        IntrospectedColumn generatedColumn = getJdbcStandardKeyColumn();
+        IntrospectedColumn selectKeyColumn = getSelectKeyColumn();
+        boolean selectKeyBefore = selectKeyColumn != null && !selectKeyColumn.isIdentity();
+
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(recordType);
+
+        Method method = new Method(introspectedTable.getInsertsStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(listType, "records")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+
+        method.addBodyLine("if (records.isEmpty()) {"); //$NON-NLS-1$
+        method.addBodyLine("return 0;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("try (Connection connection = dataSource.getConnection()) {"); //$NON-NLS-1$
+        StringBuilder sb = new StringBuilder();
+        sb.append("try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL"); //$NON-NLS-1$
+        if (generatedColumn != null) {
+            sb.append(", KEY_COLUMNS"); //$NON-NLS-1$
+        }
+        sb.append(")) {"); //$NON-NLS-1$
+        method.addBodyLine(sb.toString());
+
+        sb.setLength(0);
+        sb.append("for ("); //$NON-NLS-1$
+        sb.append(recordType.getShortName());
+        sb.append(" record : records) {"); //$NON-NLS-1$
+        method.addBodyLine(sb.toString());
+        if (selectKeyBefore) {
+            method.addBodyLine("selectKey(connection, record);"); //$NON-NLS-1$
+        }
+        method.addBodyLine("bindInsert(ps, record);"); //$NON-NLS-1$
+        method.addBodyLine("ps.addBatch();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        method.addBodyLine("int rows = 0;"); //$NON-NLS-1$
+        method.addBodyLine("for (int count : ps.executeBatch()) {"); //$NON-NLS-1$
+        method.addBodyLine("rows += count == Statement.SUCCESS_NO_INFO ? 1 : count;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        if (generatedColumn != null) {
+            method.addBodyLine("try (ResultSet keys = ps.getGeneratedKeys()) {"); //$NON-NLS-1$
+            method.addBodyLine("for (int i = 0; i < records.size() && keys.next(); i++) {"); //$NON-NLS-1$
+            sb.setLength(0);
+            sb.append(recordType.getShortName());
+            sb.append(" record = records.get(i);"); //$NON-NLS-1$
+            method.addBodyLine(sb.toString());
+            addReadLines(method, generatedColumn, "keys", "1", "record"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
+        method.addBodyLine("return rows;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "批量插入, 一次 executeBatch 提交所有记录");
+
+        if (context.getPlugins().clientInsertMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addInsertSqlFields(topLevelClass);
+            addBindInsertMethod(topLevelClass);
+            if (selectKeyBefore) {
+                addSelectKeyMethod(topLevelClass);
+            }
+            addJdbcImports(topLevelClass);
+            topLevelClass.addImportedType(new FullyQualifiedJavaType("java.sql.Statement")); //$NON-NLS-1$
+            topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+            topLevelClass.addImportedType(recordType);
+            topLevelClass.addMethod(method);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc.elements;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成 selectByWhere. streaming 为 true 时生成带 Consumer 参数的重载,
+ * 逐行映射并交给 Consumer, 不在内存中保留结果列表.
+ * 
+ */
+public class SelectByWhereMethodGenerator extends AbstractJdbcMethodGenerator {
+
+    private boolean streaming;
+
+    public SelectByWhereMethodGenerator(boolean streaming) {
+        super();
+        this.streaming = streaming;
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType recordType = getRecordType();
+        FullyQualifiedJavaType whereType = getWhereType();
+
+        Method method = new Method(introspectedTable.getSelectByWhereStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+
+        FullyQualifiedJavaType importedType;
+        if (streaming) {
+            importedType = new FullyQualifiedJavaType("java.util.function.Consumer"); //$NON-NLS-1$
+            FullyQualifiedJavaType consumerType = new FullyQualifiedJavaType(
+                    "java.util.function.Consumer<? super " + recordType.getFullyQualifiedName() + ">"); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addParameter(new Parameter(consumerType, "consumer")); //$NON-NLS-1$
+        } else {
+            importedType = FullyQualifiedJavaType.getNewListInstance();
+            FullyQualifiedJavaType returnType = FullyQualifiedJavaType.getNewListInstance();
+            returnType.addTypeArgument(recordType);
+            method.setReturnType(returnType);
+        }
+
+        method.addBodyLine("try (Connection connection = dataSource.getConnection(); " //$NON-NLS-1$
+                + "PreparedStatement ps = prepareSelectByWhere(connection, where); " //$NON-NLS-1$
+                + "ResultSet rs = ps.executeQuery()) {"); //$NON-NLS-1$
+        if (streaming) {
+            method.addBodyLine("while (rs.next()) {"); //$NON-NLS-1$
+            method.addBodyLine("consumer.accept(mapRow(rs));"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        } else {
+            StringBuilder sb = new StringBuilder();
+            sb.append("List<"); //$NON-NLS-1$
+            sb.append(recordType.getShortName());
+            sb.append("> records = new ArrayList<"); //$NON-NLS-1$
+            sb.append(recordType.getShortName());
+            sb.append(">();"); //$NON-NLS-1$
+            method.addBodyLine(sb.toString());
+            method.addBodyLine("while (rs.next()) {"); //$NON-NLS-1$
+            method.addBodyLine("records.add(mapRow(rs));"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("return records;"); //$NON-NLS-1$
+        }
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        if (streaming) {
+            context.getCommentGenerator().addGeneralMethodComment(method,
+                    "根据条件查询, 逐行交给 consumer, 结果集按 fetchSize 分批读取");
+        } else {
+            context.getCommentGenerator().addGeneralMethodComment(method,
+                    "根据条件查询记录列表");
+        }
+
+        if (context.getPlugins().clientSelectByExampleWithBLOBsMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addPrepareSelectByWhereMethod(topLevelClass);
+            addJdbcImports(topLevelClass);
+            topLevelClass.addImportedType(importedType);
+            if (!streaming) {
+                topLevelClass.addImportedType(FullyQualifiedJavaType.getNewArrayListInstance());
+            }
+            topLevelClass.addImportedType(recordType);
+            topLevelClass.addImportedType(whereType);
+            topLevelClass.addMethod(method);
+        }
+    }
+
+    protected void addPrepareSelectByWhereMethod(TopLevelClass topLevelClass) {
+        if (hasMethod(topLevelClass, "prepareSelectByWhere")) { //$NON-NLS-1$
+            return;
+        }
+
+        FullyQualifiedJavaType statementType = new FullyQualifiedJavaType(
+                "java.sql.PreparedStatement"); //$NON-NLS-1$
+        Method method = new Method("prepareSelectByWhere"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setReturnType(statementType);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "java.sql.Connection"), "connection")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(getWhereType(), "where")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+
+        method.addBodyLine("StringBuilder sql = new StringBuilder(\"select \");"); //$NON-NLS-1$
+        method.addBodyLine("if (where != null && where.isDistinct()) {"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\"distinct \");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(COLUMNS).append(\" from \").append(TABLE);"); //$NON-NLS-1$
+        method.addBodyLine("appendCriteria(sql, where, false);"); //$NON-NLS-1$
+        method.addBodyLine("appendOrderByAndLimit(sql, where);"); //$NON-NLS-1$
+        method.addBodyLine("PreparedStatement ps = connection.prepareStatement(sql.toString());"); //$NON-NLS-1$
+        method.addBodyLine("try {"); //$NON-NLS-1$
+        method.addBodyLine("bindLimit(ps, bindCriteria(ps, 1, where), where);"); //$NON-NLS-1$
+        method.addBodyLine("if (fetchSize != 0) {"); //$NON-NLS-1$
+        method.addBodyLine("ps.setFetchSize(fetchSize);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("} catch (SQLException e) {"); //$NON-NLS-1$
+        method.addBodyLine("ps.close();"); //$NON-NLS-1$
+        method.addBodyLine("throw e;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return ps;"); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "拼接并绑定 selectByWhere 的语句");
+        topLevelClass.addMethod(method);
+    }
+}
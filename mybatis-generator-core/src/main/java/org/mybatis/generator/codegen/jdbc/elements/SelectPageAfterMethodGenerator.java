@@ -0,0 +1,120 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc.elements;
+
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.codegen.jdbc.JdbcFormattingUtilities;
+
+/**
+ * 生成按主键游标分页的 selectPageAfter, 与 mapper 中的同名方法相同:
+ * lastKey 为 null 时查询第一页, where 中的 orderBy 和 distinct 会被忽略.
+ * 
+ */
+public class SelectPageAfterMethodGenerator extends AbstractJdbcMethodGenerator {
+
+    public SelectPageAfterMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        FullyQualifiedJavaType recordType = getRecordType();
+        FullyQualifiedJavaType whereType = getWhereType();
+        FullyQualifiedJavaType returnType = FullyQualifiedJavaType.getNewListInstance();
+        returnType.addTypeArgument(recordType);
+
+        Method method = new Method(introspectedTable.getSelectPageAfterStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(returnType);
+        method.addParameter(new Parameter(recordType, "lastKey")); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "pageSize")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+
+        method.addBodyLine("StringBuilder sql = new StringBuilder(SELECT_SQL);"); //$NON-NLS-1$
+        method.addBodyLine("if (lastKey != null) {"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\" where " + getKeysetCondition(keyColumns) + "\");"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("appendCriteria(sql, where, lastKey != null);"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\" order by " + JdbcFormattingUtilities.getColumnList(keyColumns) + " limit ?\");"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine(getPrepareLine("sql.toString()")); //$NON-NLS-1$
+        method.addBodyLine("int index = 1;"); //$NON-NLS-1$
+        method.addBodyLine("if (lastKey != null) {"); //$NON-NLS-1$
+        for (IntrospectedColumn introspectedColumn : keyColumns) {
+            addBindPropertyLines(method, introspectedColumn, "ps", "index++", "lastKey"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("index = bindCriteria(ps, index, where);"); //$NON-NLS-1$
+        method.addBodyLine("ps.setInt(index, pageSize);"); //$NON-NLS-1$
+        method.addBodyLine("try (ResultSet rs = ps.executeQuery()) {"); //$NON-NLS-1$
+        StringBuilder sb = new StringBuilder();
+        sb.append("List<"); //$NON-NLS-1$
+        sb.append(recordType.getShortName());
+        sb.append("> records = new ArrayList<"); //$NON-NLS-1$
+        sb.append(recordType.getShortName());
+        sb.append(">(pageSize);"); //$NON-NLS-1$
+        method.addBodyLine(sb.toString());
+        method.addBodyLine("while (rs.next()) {"); //$NON-NLS-1$
+        method.addBodyLine("records.add(mapRow(rs));"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return records;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "按主键顺序分页查询, lastKey 为上一页最后一条记录(只使用主键属性), 为 null 时查询第一页; where 中的 orderBy 和 distinct 会被忽略");
+
+        if (context.getPlugins().clientSelectByExampleWithBLOBsMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addJdbcImports(topLevelClass);
+            topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+            topLevelClass.addImportedType(FullyQualifiedJavaType.getNewArrayListInstance());
+            topLevelClass.addImportedType(recordType);
+            topLevelClass.addImportedType(whereType);
+            topLevelClass.addMethod(method);
+        }
+    }
+
+    /**
+     * 单列主键生成 id &gt; ?, 联合主键使用行值比较 (a, b) &gt; (?, ?).
+     */
+    private String getKeysetCondition(List<IntrospectedColumn> keyColumns) {
+        if (keyColumns.size() == 1) {
+            return JdbcFormattingUtilities.getEscapedColumnName(keyColumns.get(0)) + " > ?"; //$NON-NLS-1$
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append('(');
+        sb.append(JdbcFormattingUtilities.getColumnList(keyColumns));
+        sb.append(") > ("); //$NON-NLS-1$
+        for (int i = 0; i < keyColumns.size(); i++) {
+            if (i > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append('?');
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+}
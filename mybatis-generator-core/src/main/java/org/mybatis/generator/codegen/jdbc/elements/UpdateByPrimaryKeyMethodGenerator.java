@@ -0,0 +1,101 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc.elements;
+
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.codegen.jdbc.JdbcFormattingUtilities;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+
+/**
+ * 生成 updateByPrimaryKeyNoCheck, 所有非主键列都会写入, 为 null 的属性写成 NULL.
+ * 与 mapper 中的同名方法语义相同, SQL 只有一种.
+ * 
+ */
+public class UpdateByPrimaryKeyMethodGenerator extends AbstractJdbcMethodGenerator {
+
+    public UpdateByPrimaryKeyMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        List<IntrospectedColumn> columns = ListUtilities.removeGeneratedAlwaysColumns(
+                introspectedTable.getNonPrimaryKeyColumns());
+        if (columns.isEmpty()) {
+            // nothing to update
+            return;
+        }
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        columns.remove(versionColumn);
+        FullyQualifiedJavaType recordType = getRecordType();
+
+        Method method = new Method(introspectedTable.getUpdateByPrimaryKeyStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(recordType, "record")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+
+        method.addBodyLine(getPrepareLine("UPDATE_BY_PRIMARY_KEY_SQL")); //$NON-NLS-1$
+        int index = 1;
+        for (IntrospectedColumn introspectedColumn : columns) {
+            addBindPropertyLines(method, introspectedColumn, "ps", Integer.toString(index++), "record"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        for (IntrospectedColumn introspectedColumn : keyColumns) {
+            addBindPropertyLines(method, introspectedColumn, "ps", Integer.toString(index++), "record"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (versionColumn != null) {
+            addBindPropertyLines(method, versionColumn, "ps", Integer.toString(index), "record"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        method.addBodyLine("return ps.executeUpdate();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据主键更新记录的所有列, 为 null 的属性会把列更新为 NULL");
+
+        if (context.getPlugins().clientUpdateByPrimaryKeyWithBLOBsMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("\"update \" + TABLE + \" set "); //$NON-NLS-1$
+            if (versionColumn != null) {
+                sb.append(JdbcFormattingUtilities.getVersionIncrement(versionColumn));
+                if (!columns.isEmpty()) {
+                    sb.append(", "); //$NON-NLS-1$
+                }
+            }
+            sb.append(getAssignments(columns, ", ")); //$NON-NLS-1$
+            sb.append(" where "); //$NON-NLS-1$
+            sb.append(getAssignments(keyColumns, " and ")); //$NON-NLS-1$
+            if (versionColumn != null) {
+                sb.append(" and "); //$NON-NLS-1$
+                sb.append(JdbcFormattingUtilities.getEscapedColumnName(versionColumn));
+                sb.append(" = ?"); //$NON-NLS-1$
+            }
+            sb.append('"');
+            addSqlField(topLevelClass, "UPDATE_BY_PRIMARY_KEY_SQL", sb.toString()); //$NON-NLS-1$
+            addJdbcImports(topLevelClass);
+            topLevelClass.addImportedType(recordType);
+            topLevelClass.addMethod(method);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc.elements;
+
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getSetterMethodName;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成 updateByPrimaryKeyWithVersion, 调用带版本检查的 updateByPrimaryKeyNoCheck,
+ * 没有更新到记录时再按主键查询一次, 区分版本冲突和记录不存在.
+ * 
+ */
+public class UpdateByPrimaryKeyWithVersionMethodGenerator extends AbstractJdbcMethodGenerator {
+
+    public UpdateByPrimaryKeyWithVersionMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        String updateMethod = introspectedTable.getUpdateByPrimaryKeyStatementId();
+        String selectMethod = introspectedTable.getSelectByPrimaryKeyStatementId();
+        if (!hasMethod(topLevelClass, updateMethod) || !hasMethod(topLevelClass, selectMethod)) {
+            // the methods were left out by a plugin
+            return;
+        }
+        FullyQualifiedJavaType recordType = getRecordType();
+        FullyQualifiedJavaType resultType = new FullyQualifiedJavaType(
+                introspectedTable.getUpdateResultType());
+        String result = resultType.getShortName();
+
+        Method method = new Method(introspectedTable.getUpdateByPrimaryKeyWithVersionStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(resultType);
+        method.addParameter(new Parameter(recordType, "record")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        if (!versionColumn.getFullyQualifiedJavaType().isPrimitive()) {
+            // without a version the statement matches no row and would report a conflict
+            method.addBodyLine(String.format("if (record.%s() == null) {", //$NON-NLS-1$
+                    getGetterMethodName(versionColumn.getJavaProperty(),
+                            versionColumn.getFullyQualifiedJavaType())));
+            method.addBodyLine("throw new IllegalArgumentException(\"The version of the record is required\");"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
+        method.addBodyLine(String.format("if (%s(record) > 0) {", updateMethod)); //$NON-NLS-1$
+        if (!introspectedTable.isImmutable()) {
+            method.addBodyLine(String.format("record.%s(record.%s() + 1);", //$NON-NLS-1$
+                    getSetterMethodName(versionColumn.getJavaProperty()),
+                    getGetterMethodName(versionColumn.getJavaProperty(),
+                            versionColumn.getFullyQualifiedJavaType())));
+        }
+        method.addBodyLine(String.format("return %s.UPDATED;", result)); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine(String.format("if (%s(%s) == null) {", //$NON-NLS-1$
+                selectMethod, getPrimaryKeyArguments()));
+        method.addBodyLine(String.format("return %s.NOT_FOUND;", result)); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine(String.format("return %s.CONFLICT;", result)); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据主键更新记录, 记录的版本与数据库中的版本不一致时不更新并返回 CONFLICT, 更新成功后记录的版本加一");
+
+        if (context.getPlugins().clientUpdateByPrimaryKeySelectiveMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            topLevelClass.addImportedType(recordType);
+            topLevelClass.addImportedType(resultType);
+            topLevelClass.addMethod(method);
+        }
+    }
+
+    private String getPrimaryKeyArguments() {
+        StringBuilder sb = new StringBuilder();
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getPrimaryKeyColumns()) {
+            if (sb.length() > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append("record."); //$NON-NLS-1$
+            sb.append(getGetterMethodName(introspectedColumn.getJavaProperty(),
+                    introspectedColumn.getFullyQualifiedJavaType()));
+            sb.append("()"); //$NON-NLS-1$
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc.elements;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成把 Where 对象翻译成 SQL 片段并绑定参数的私有方法, 与 XML 中的
+ * where 子句、order by 和 limit 片段对应.
+ * 
+ */
+public class WhereSupportMethodGenerator extends AbstractJdbcMethodGenerator {
+
+    public WhereSupportMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType whereType = getWhereType();
+        topLevelClass.addImportedType(whereType);
+        FullyQualifiedJavaType statementType = new FullyQualifiedJavaType(
+                "java.sql.PreparedStatement"); //$NON-NLS-1$
+        FullyQualifiedJavaType exceptionType = new FullyQualifiedJavaType(
+                "java.sql.SQLException"); //$NON-NLS-1$
+        FullyQualifiedJavaType sqlType = new FullyQualifiedJavaType(
+                "java.lang.StringBuilder"); //$NON-NLS-1$
+        String criterionType = whereType.getShortName() + ".Criterion"; //$NON-NLS-1$
+
+        Method method = new Method("appendCriteria"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.addParameter(new Parameter(sqlType, "sql")); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType
+                .getBooleanPrimitiveInstance(), "hasCondition")); //$NON-NLS-1$
+        method.addBodyLine("if (where == null) {"); //$NON-NLS-1$
+        method.addBodyLine("return;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("for (" + criterionType + " criterion : where.getCriterion()) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("if (criterion.getParam() == null) {"); //$NON-NLS-1$
+        method.addBodyLine("continue;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(hasCondition ? \" and \" : \" where \");"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(criterion.getParam());"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\" = ?\");"); //$NON-NLS-1$
+        method.addBodyLine("hasCondition = true;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "追加 where 中的等值条件, hasCondition 为 true 时以 and 连接");
+        topLevelClass.addMethod(method);
+
+        method = new Method("bindCriteria"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(statementType, "ps")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "index")); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addException(exceptionType);
+        method.addBodyLine("if (where == null) {"); //$NON-NLS-1$
+        method.addBodyLine("return index;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("for (" + criterionType + " criterion : where.getCriterion()) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("if (criterion.getParam() != null) {"); //$NON-NLS-1$
+        method.addBodyLine("ps.setObject(index++, criterion.getValue());"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return index;"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "从 index 开始绑定 where 中的条件值, 返回下一个参数的下标");
+        topLevelClass.addMethod(method);
+
+        method = new Method("appendOrderByAndLimit"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.addParameter(new Parameter(sqlType, "sql")); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addBodyLine("if (where == null) {"); //$NON-NLS-1$
+        method.addBodyLine("return;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (where.getOrderBy() != null) {"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\" order by \");"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(where.getOrderBy());"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (where.getLimit() != null) {"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\" limit ?\");"); //$NON-NLS-1$
+        method.addBodyLine("if (where.getOffset() != null) {"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\" offset ?\");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "追加 order by 和 limit/offset");
+        topLevelClass.addMethod(method);
+
+        method = new Method("bindLimit"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.addParameter(new Parameter(statementType, "ps")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "index")); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addException(exceptionType);
+        method.addBodyLine("if (where != null && where.getLimit() != null) {"); //$NON-NLS-1$
+        method.addBodyLine("ps.setInt(index++, where.getLimit());"); //$NON-NLS-1$
+        method.addBodyLine("if (where.getOffset() != null) {"); //$NON-NLS-1$
+        method.addBodyLine("ps.setInt(index, where.getOffset());"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "绑定 limit 和 offset");
+        topLevelClass.addMethod(method);
+    }
+}
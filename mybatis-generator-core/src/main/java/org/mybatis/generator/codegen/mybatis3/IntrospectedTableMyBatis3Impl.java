@@ -15,11 +15,15 @@
  */
 package org.mybatis.generator.codegen.mybatis3;
 
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
 import java.util.ArrayList;
 import java.util.List;
 
 import org.mybatis.generator.api.GeneratedJavaFile;
 import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.ProgressCallback;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
@@ -31,6 +35,8 @@ import org.mybatis.generator.codegen.AbstractXmlGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.AnnotatedClientGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.JavaMapperGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.MixedClientGenerator;
+import org.mybatis.generator.codegen.mybatis3.javamapper.ShardRouterGenerator;
+import org.mybatis.generator.codegen.mybatis3.javamapper.UpdateResultGenerator;
 import org.mybatis.generator.codegen.mybatis3.model.*;
 import org.mybatis.generator.codegen.mybatis3.xmlmapper.XMLMapperGenerator;
 import org.mybatis.generator.config.PropertyRegistry;
@@ -56,7 +62,18 @@ public class IntrospectedTableMyBatis3Impl extends IntrospectedTable {
      * Instantiates a new introspected table my batis3 impl.
      */
     public IntrospectedTableMyBatis3Impl() {
-        super(TargetRuntime.MYBATIS3);
+        this(TargetRuntime.MYBATIS3);
+    }
+
+    /**
+     * Instantiates a new introspected table for a runtime that shares the
+     * MyBatis3 models.
+     *
+     * @param targetRuntime
+     *            the target runtime
+     */
+    protected IntrospectedTableMyBatis3Impl(TargetRuntime targetRuntime) {
+        super(targetRuntime);
         javaModelGenerators = new ArrayList<AbstractJavaGenerator>();
         clientGenerators = new ArrayList<AbstractJavaGenerator>();
     }
@@ -122,10 +139,106 @@ public class IntrospectedTableMyBatis3Impl extends IntrospectedTable {
 
         initializeAbstractGenerator(javaGenerator, warnings, progressCallback);
         clientGenerators.add(javaGenerator);
-        
+
+        calculateShardRouterGenerator(warnings, progressCallback);
+        calculateUpdateResultGenerator(warnings, progressCallback);
+        checkIncrementColumns(warnings);
+
         return javaGenerator;
     }
     
+    /**
+     * Adds the generator of the shard router when the table is sharded. The
+     * statements of XML mappers, annotations and SqlProviders all call it.
+     *
+     * @param warnings
+     *            the warnings
+     * @param progressCallback
+     *            the progress callback
+     */
+    protected void calculateShardRouterGenerator(List<String> warnings,
+            ProgressCallback progressCallback) {
+        String shardColumn = getTableConfigurationProperty(PropertyRegistry.TABLE_SHARD_COLUMN);
+        if (!stringHasValue(shardColumn)) {
+            return;
+        }
+
+        if (getShardColumn() == null) {
+            warnings.add(getString("Warning.39", //$NON-NLS-1$
+                    shardColumn, fullyQualifiedTable.toString()));
+            return;
+        }
+
+        if (!isSharded()) {
+            // only the MyBatis3 mappers route statements by the shard key
+            return;
+        }
+
+        AbstractJavaGenerator routerGenerator = new ShardRouterGenerator();
+        initializeAbstractGenerator(routerGenerator, warnings, progressCallback);
+        clientGenerators.add(routerGenerator);
+    }
+
+    /**
+     * Adds the generator of the enum returned by the update with version check
+     * when the table has a version column.
+     *
+     * @param warnings
+     *            the warnings
+     * @param progressCallback
+     *            the progress callback
+     */
+    protected void calculateUpdateResultGenerator(List<String> warnings,
+            ProgressCallback progressCallback) {
+        String versionColumn = getTableConfigurationProperty(PropertyRegistry.TABLE_VERSION_COLUMN);
+        if (!stringHasValue(versionColumn)) {
+            return;
+        }
+
+        if (getVersionColumn() == null) {
+            warnings.add(getString("Warning.41", //$NON-NLS-1$
+                    versionColumn, fullyQualifiedTable.toString()));
+            return;
+        }
+
+        if (!rules.generateUpdateByPrimaryKeyWithVersion()
+                && !rules.generateUpdateByWhereWithVersion()) {
+            return;
+        }
+
+        AbstractJavaGenerator resultGenerator = new UpdateResultGenerator();
+        initializeAbstractGenerator(resultGenerator, warnings, progressCallback);
+        clientGenerators.add(resultGenerator);
+    }
+
+    /**
+     * Reports the columns named by the incrementColumns table property that
+     * cannot be incremented, they get no increment statements.
+     *
+     * @param warnings
+     *            the warnings
+     */
+    protected void checkIncrementColumns(List<String> warnings) {
+        String incrementColumns = getTableConfigurationProperty(PropertyRegistry.TABLE_INCREMENT_COLUMNS);
+        if (!stringHasValue(incrementColumns)) {
+            return;
+        }
+
+        List<IntrospectedColumn> columns = getIncrementColumns();
+        for (String name : incrementColumns.split(",")) { //$NON-NLS-1$
+            name = name.trim();
+            if (name.length() == 0) {
+                continue;
+            }
+            IntrospectedColumn introspectedColumn = getColumn(name);
+            if (introspectedColumn == null || !columns.contains(introspectedColumn)) {
+                warnings.add(getString("Warning.29", name, //$NON-NLS-1$
+                        PropertyRegistry.TABLE_INCREMENT_COLUMNS,
+                        fullyQualifiedTable.toString()));
+            }
+        }
+    }
+
     /**
      * Creates the java client generator.
      *
@@ -17,6 +17,7 @@ package org.mybatis.generator.codegen.mybatis3;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.StringTokenizer;
 
 import org.mybatis.generator.api.IntrospectedColumn;
 
@@ -52,4 +53,53 @@ public class ListUtilities {
         }
         return filteredList;
     }
+
+    /**
+     * Keeps only the columns named in a comma delimited list. The order of the
+     * original list is preserved. Names are matched the same way as
+     * IntrospectedTable.getColumn() - exactly for delimited columns, ignoring
+     * case otherwise.
+     *
+     * @param columns
+     *            the columns to filter
+     * @param columnNames
+     *            comma delimited list of actual column names
+     * @param unmatchedNames
+     *            if not null, names that match no column are added to this list
+     * @return the filtered list
+     */
+    public static List<IntrospectedColumn> retainNamedColumns(List<IntrospectedColumn> columns,
+            String columnNames, List<String> unmatchedNames) {
+        List<IntrospectedColumn> filteredList = new ArrayList<IntrospectedColumn>();
+        StringTokenizer st = new StringTokenizer(columnNames, ","); //$NON-NLS-1$
+        List<String> names = new ArrayList<String>();
+        while (st.hasMoreTokens()) {
+            String name = st.nextToken().trim();
+            if (name.length() > 0) {
+                names.add(name);
+            }
+        }
+
+        boolean[] matched = new boolean[names.size()];
+        for (IntrospectedColumn ic : columns) {
+            for (int i = 0; i < names.size(); i++) {
+                if (ic.isColumnNameDelimited()
+                        ? ic.getActualColumnName().equals(names.get(i))
+                        : ic.getActualColumnName().equalsIgnoreCase(names.get(i))) {
+                    filteredList.add(ic);
+                    matched[i] = true;
+                    break;
+                }
+            }
+        }
+
+        if (unmatchedNames != null) {
+            for (int i = 0; i < names.size(); i++) {
+                if (!matched[i]) {
+                    unmatchedNames.add(names.get(i));
+                }
+            }
+        }
+        return filteredList;
+    }
 }
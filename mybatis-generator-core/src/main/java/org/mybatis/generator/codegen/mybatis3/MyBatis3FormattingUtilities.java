@@ -149,6 +149,28 @@ public class MyBatis3FormattingUtilities {
         }
     }
 
+    /**
+     * Calculates the assignment that increments the version column of an
+     * optimistic update, for example version = version + 1.
+     *
+     * @param introspectedColumn
+     *            the version column
+     * @param aliased
+     *            if the column name should be qualified by the table alias
+     * @return the assignment
+     */
+    public static String getVersionIncrement(
+            IntrospectedColumn introspectedColumn, boolean aliased) {
+        String columnName = aliased ? getAliasedEscapedColumnName(introspectedColumn)
+                : getEscapedColumnName(introspectedColumn);
+        StringBuilder sb = new StringBuilder();
+        sb.append(columnName);
+        sb.append(" = "); //$NON-NLS-1$
+        sb.append(columnName);
+        sb.append(" + 1"); //$NON-NLS-1$
+        return sb.toString();
+    }
+
     /**
      * The aliased column name for a select statement generated by the example clauses. This is not appropriate for
      * selects in SqlMaps because the column is not escaped for MyBatis. If there is a table alias, the value will be
@@ -15,162 +15,141 @@
  */
 package org.mybatis.generator.codegen.mybatis3.javamapper;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.mybatis.generator.api.dom.java.CompilationUnit;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.codegen.AbstractXmlGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.AbstractJavaMapperMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedCountByExampleMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedDeleteByExampleMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedDeleteByPrimaryKeyMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedInsertMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedInsertSelectiveMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedSelectByExampleWithBLOBsMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedSelectByExampleWithoutBLOBsMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedSelectByPrimaryKeyMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedUpdateByExampleSelectiveMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedUpdateByExampleWithBLOBsMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedUpdateByExampleWithoutBLOBsMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedUpdateByPrimaryKeySelectiveMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedUpdateByPrimaryKeyWithBLOBsMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedUpdateByPrimaryKeyWithoutBLOBsMethodGenerator;
-import org.mybatis.generator.config.PropertyRegistry;
-import org.mybatis.generator.internal.util.StringUtility;
+import org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated.AnnotatedStatementMethodGenerator;
+import org.mybatis.generator.codegen.mybatis3.xmlmapper.XMLMapperGenerator;
 
+/**
+ * 生成不需要 XML 的 mapper 接口. 语句仍由 XML mapper 的元素生成器生成, 再转换成方法上的注解,
+ * 因此两种客户端的 SQL 完全一致. 选择性插入和更新语句交给生成的 SqlProvider,
+ * 避免每次调用都重新解析动态 SQL.
+ * 
+ */
 public class AnnotatedClientGenerator extends JavaMapperGenerator {
 
-    public AnnotatedClientGenerator() {
-        super(false);
-    }
+    /** The statements, sql fragments and result maps of the mapper, by id. */
+    private Map<String, XmlElement> mapperElements;
 
-    @Override
-    protected void addCountByWhereMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateCountByWhere()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedCountByExampleMethodGenerator();
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
-        }
-    }
+    /** The ids of the statements already bound to a method. */
+    private Set<String> annotatedStatementIds;
 
-    @Override
-    protected void addDeleteByWhereMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateDeleteByWhere()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedDeleteByExampleMethodGenerator();
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
-        }
-    }
+    /** The ids of the result maps already declared with @Results. */
+    private Set<String> declaredResultMaps;
 
-    @Override
-    protected void addDeleteByPrimaryKeyMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateDeleteByPrimaryKey()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedDeleteByPrimaryKeyMethodGenerator(false);
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
-        }
-    }
+    /** The SqlProvider class of the mapper, empty when no provider is needed. */
+    private List<CompilationUnit> providerUnits;
 
-    @Override
-    protected void addInsertNotCheckMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateInsertNotCheck()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedInsertMethodGenerator(false);
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
-        }
-    }
+    /** The statements built by a method of the SqlProvider. */
+    private Set<String> providerMethods;
 
-    @Override
-    protected void addInsertMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateInsert()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedInsertSelectiveMethodGenerator();
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
-        }
+    public AnnotatedClientGenerator() {
+        super(false);
     }
 
     @Override
-    protected void addSelectByWhereMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateSelectByWhere()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedSelectByExampleWithBLOBsMethodGenerator();
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
-        }
-    }
+    public List<CompilationUnit> getCompilationUnits() {
+        XMLMapperGenerator xmlMapperGenerator = new XMLMapperGenerator();
+        xmlMapperGenerator.setContext(context);
+        xmlMapperGenerator.setIntrospectedTable(introspectedTable);
+        xmlMapperGenerator.setProgressCallback(progressCallback);
+        xmlMapperGenerator.setWarnings(warnings);
 
-    @Override
-    protected void addSelectByWhereWithoutBLOBsMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateSelectByWhereWithoutBLOBs()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedSelectByExampleWithoutBLOBsMethodGenerator();
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        mapperElements = new HashMap<String, XmlElement>();
+        for (Element element : xmlMapperGenerator.getSqlMapElement().getElements()) {
+            if (element instanceof XmlElement) {
+                String id = getId((XmlElement) element);
+                // the first element wins, as it would when MyBatis loads the XML
+                if (id != null && !mapperElements.containsKey(id)) {
+                    mapperElements.put(id, (XmlElement) element);
+                }
+            }
         }
-    }
+        annotatedStatementIds = new HashSet<String>();
+        declaredResultMaps = new HashSet<String>();
 
-    @Override
-    protected void addSelectByPrimaryKeyMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateSelectByPrimaryKey()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedSelectByPrimaryKeyMethodGenerator(false, false);
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        SqlProviderGenerator sqlProviderGenerator = new SqlProviderGenerator();
+        sqlProviderGenerator.setContext(context);
+        sqlProviderGenerator.setIntrospectedTable(introspectedTable);
+        sqlProviderGenerator.setProgressCallback(progressCallback);
+        sqlProviderGenerator.setWarnings(warnings);
+        providerUnits = sqlProviderGenerator.getCompilationUnits();
+        providerMethods = new HashSet<String>();
+        for (CompilationUnit compilationUnit : providerUnits) {
+            for (Method method : ((TopLevelClass) compilationUnit).getMethods()) {
+                if (!method.isStatic()) {
+                    providerMethods.add(method.getName());
+                }
+            }
         }
-    }
 
-    @Override
-    protected void addUpdateByWhereSelectiveMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateUpdateByWhereSelective()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedUpdateByExampleSelectiveMethodGenerator();
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
-        }
+        return super.getCompilationUnits();
     }
 
     @Override
-    protected void addUpdateByWhereWithBLOBsMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateUpdateByExampleWithBLOBs()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedUpdateByExampleWithBLOBsMethodGenerator();
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
-        }
+    protected void addSelectByWhereWithChildrenMethods(Interface interfaze) {
+        // a collection mapped with a column prefix has no annotation form
     }
 
+    /**
+     * Annotates the methods added by a method generator with the statement of
+     * the same id.
+     */
     @Override
-    protected void addUpdateByWhereWithoutBLOBsMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateUpdateByWhereWithoutBLOBs()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedUpdateByExampleWithoutBLOBsMethodGenerator();
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
-        }
-    }
+    protected void initializeAndExecuteGenerator(
+            AbstractJavaMapperMethodGenerator methodGenerator,
+            Interface interfaze) {
+        int methodCount = interfaze.getMethods().size();
+        super.initializeAndExecuteGenerator(methodGenerator, interfaze);
 
-    @Override
-    protected void addUpdateByPrimaryKeySelectiveMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateUpdateByPrimaryKeySelective()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedUpdateByPrimaryKeySelectiveMethodGenerator();
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
-        }
-    }
+        List<Method> methods = interfaze.getMethods();
+        for (int i = methodCount; i < methods.size(); i++) {
+            Method method = methods.get(i);
+            XmlElement statement = mapperElements.get(method.getName());
+            if (method.isDefault() || statement == null
+                    || "sql".equals(statement.getName()) //$NON-NLS-1$
+                    || "resultMap".equals(statement.getName()) //$NON-NLS-1$
+                    || !annotatedStatementIds.add(method.getName())) {
+                continue;
+            }
 
-    @Override
-    protected void addUpdateByPrimaryKeyWithBLOBsMethod(Interface interfaze) {
-        if (introspectedTable.getRules().generateUpdateByPrimaryKeyWithBLOBs()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedUpdateByPrimaryKeyWithBLOBsMethodGenerator();
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
+            AnnotatedStatementMethodGenerator statementGenerator = new AnnotatedStatementMethodGenerator(
+                    method, statement, mapperElements, declaredResultMaps);
+            if (providerMethods.contains(method.getName())) {
+                statementGenerator.setProviderType(new FullyQualifiedJavaType(
+                        introspectedTable.getMyBatis3SqlProviderType()));
+            }
+            super.initializeAndExecuteGenerator(statementGenerator, interfaze);
         }
     }
 
     @Override
-    protected void addUpdateByPrimaryKeyWithoutBLOBsMethod(Interface interfaze) {
-        if (introspectedTable.getRules()
-                .generateUpdateByPrimaryKeyWithoutBLOBs()) {
-            AbstractJavaMapperMethodGenerator methodGenerator = new AnnotatedUpdateByPrimaryKeyWithoutBLOBsMethodGenerator(false);
-            initializeAndExecuteGenerator(methodGenerator, interfaze);
-        }
+    public List<CompilationUnit> getExtraCompilationUnits() {
+        return new ArrayList<CompilationUnit>(providerUnits);
     }
 
-    @Override
-    public List<CompilationUnit> getExtraCompilationUnits() {
-    	boolean useLegacyBuilder = false;
-    	
-    	String prop = context.getJavaClientGeneratorConfiguration().getProperty(PropertyRegistry.CLIENT_USE_LEGACY_BUILDER);
-    	if (StringUtility.stringHasValue(prop)) {
-    		useLegacyBuilder = Boolean.valueOf(prop);
-    	}
-        SqlProviderGenerator sqlProviderGenerator = new SqlProviderGenerator(useLegacyBuilder);
-        sqlProviderGenerator.setContext(context);
-        sqlProviderGenerator.setIntrospectedTable(introspectedTable);
-        sqlProviderGenerator.setProgressCallback(progressCallback);
-        sqlProviderGenerator.setWarnings(warnings);
-        return sqlProviderGenerator.getCompilationUnits();
+    private String getId(XmlElement element) {
+        for (Attribute attribute : element.getAttributes()) {
+            if ("id".equals(attribute.getName())) { //$NON-NLS-1$
+                return attribute.getValue();
+            }
+        }
+        return null;
     }
 
     @Override
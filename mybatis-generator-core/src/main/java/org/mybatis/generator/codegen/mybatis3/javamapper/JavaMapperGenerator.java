@@ -19,9 +19,14 @@ import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedForeignKey;
+import org.mybatis.generator.api.IntrospectedIndex;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.Interface;
@@ -75,24 +80,40 @@ public class JavaMapperGenerator extends AbstractJavaClientGenerator {
             interfaze.addImportedType(fqjt);
         }
         addCountByWhereMethod(interfaze);
+        addExistsByWhereMethod(interfaze);
+        addSelectOneByWhereMethod(interfaze);
         addSelectByWhereMethod(interfaze);
         addSelectByWhereCustomColumnMethod(interfaze);
         addSelectByWhereWithoutBLOBsMethod(interfaze);
+        addSelectByWhereCursorMethod(interfaze);
+        addSelectByWhereWithHandlerMethod(interfaze);
+        addSelectPageAfterMethod(interfaze);
         addSelectByPrimaryKeyMethod(interfaze);
+        addSelectByPrimaryKeysMethod(interfaze);
+        addSelectByIndexMethods(interfaze);
+        addSelectByParentKeysMethods(interfaze);
+        addSelectByWhereWithChildrenMethods(interfaze);
 
         addDeleteByWhereMethod(interfaze);
         addDeleteByPrimaryKeyMethod(interfaze);
+        addDeleteByPrimaryKeysMethod(interfaze);
 
         addInsertNotCheckMethod(interfaze);
         addInsertMethod(interfaze);
         addInsertsMethod(interfaze);
+        addUpsertMethod(interfaze);
+        addUpsertBatchMethod(interfaze);
 
         addUpdateByWhereSelectiveMethod(interfaze);
+        addUpdateByWhereWithVersionMethod(interfaze);
         addUpdateByWhereWithBLOBsMethod(interfaze);
         addUpdateByWhereWithoutBLOBsMethod(interfaze);
         addUpdateByPrimaryKeySelectiveMethod(interfaze);
+        addUpdateChangedByPrimaryKeyMethod(interfaze);
+        addUpdateByPrimaryKeyWithVersionMethod(interfaze);
         addUpdateByPrimaryKeyWithBLOBsMethod(interfaze);
         addUpdateByPrimaryKeyWithoutBLOBsMethod(interfaze);
+        addIncrementMethods(interfaze);
 
 
         List<CompilationUnit> answer = new ArrayList<CompilationUnit>();
@@ -149,6 +170,104 @@ public class JavaMapperGenerator extends AbstractJavaClientGenerator {
         }
     }
 
+    protected void addSelectByWhereCursorMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateSelectByWhereCursor()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new SelectByWhereCursorMethodGenerator(false);
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
+    protected void addSelectByWhereWithHandlerMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateSelectByWhereCursor()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new SelectByWhereCursorMethodGenerator(true);
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
+    protected void addSelectPageAfterMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateSelectPageAfter()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new SelectPageAfterMethodGenerator();
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
+    protected void addExistsByWhereMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateExistsByWhere()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new ExistsByWhereMethodGenerator();
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
+    protected void addSelectOneByWhereMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateSelectOneByWhere()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new SelectOneByWhereMethodGenerator();
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
+    protected void addSelectByPrimaryKeysMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateSelectByPrimaryKeys()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new SelectByPrimaryKeysMethodGenerator();
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
+    protected void addDeleteByPrimaryKeysMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateDeleteByPrimaryKeys()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new DeleteByPrimaryKeysMethodGenerator();
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
+    protected void addSelectByIndexMethods(Interface interfaze) {
+        if (introspectedTable.getRules().generateSelectByIndex()) {
+            Set<String> statementIds = new HashSet<String>();
+            for (IntrospectedIndex index : introspectedTable.getIndexes()) {
+                // indexes on the same columns would produce the same method
+                if (statementIds.add(introspectedTable.getSelectByIndexStatementId(index))) {
+                    AbstractJavaMapperMethodGenerator methodGenerator = new SelectByIndexMethodGenerator(index);
+                    initializeAndExecuteGenerator(methodGenerator, interfaze);
+                }
+            }
+        }
+    }
+
+    protected void addSelectByParentKeysMethods(Interface interfaze) {
+        if (introspectedTable.getRules().generateSelectByParentKeys()) {
+            Set<String> statementIds = new HashSet<String>();
+            for (IntrospectedForeignKey foreignKey : introspectedTable.getForeignKeys()) {
+                // keys on the same columns would produce the same method
+                if (statementIds.add(introspectedTable.getSelectByParentKeysStatementId(foreignKey))) {
+                    AbstractJavaMapperMethodGenerator methodGenerator = new SelectByParentKeysMethodGenerator(foreignKey);
+                    initializeAndExecuteGenerator(methodGenerator, interfaze);
+                }
+            }
+        }
+    }
+
+    protected void addSelectByWhereWithChildrenMethods(Interface interfaze) {
+        if (introspectedTable.getRules().generateJoinResultMap()) {
+            for (IntrospectedForeignKey foreignKey : introspectedTable.getJoinedForeignKeys()) {
+                AbstractJavaMapperMethodGenerator methodGenerator = new SelectByWhereWithChildrenMethodGenerator(foreignKey);
+                initializeAndExecuteGenerator(methodGenerator, interfaze);
+            }
+        }
+    }
+
+    protected void addUpsertMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateUpsert()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new UpsertMethodGenerator(false);
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
+    protected void addUpsertBatchMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateUpsert()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new UpsertMethodGenerator(true);
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
     protected void addSelectByWhereMethod(Interface interfaze) {
         if (introspectedTable.getRules().generateSelectByWhere()) {
             AbstractJavaMapperMethodGenerator methodGenerator = new SelectByWhereMethodGenerator();
@@ -184,6 +303,13 @@ public class JavaMapperGenerator extends AbstractJavaClientGenerator {
         }
     }
 
+    protected void addUpdateByWhereWithVersionMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateUpdateByWhereWithVersion()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new UpdateByWhereWithVersionMethodGenerator();
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
     protected void addUpdateByWhereWithBLOBsMethod(Interface interfaze) {
         if (introspectedTable.getRules().generateUpdateByExampleWithBLOBs()) {
             AbstractJavaMapperMethodGenerator methodGenerator = new UpdateByWhereWithBLOBsMethodGenerator();
@@ -205,6 +331,33 @@ public class JavaMapperGenerator extends AbstractJavaClientGenerator {
         }
     }
 
+    protected void addUpdateChangedByPrimaryKeyMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateUpdateChangedByPrimaryKey()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new UpdateChangedByPrimaryKeyMethodGenerator();
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
+    protected void addUpdateByPrimaryKeyWithVersionMethod(Interface interfaze) {
+        if (introspectedTable.getRules().generateUpdateByPrimaryKeyWithVersion()) {
+            AbstractJavaMapperMethodGenerator methodGenerator = new UpdateByPrimaryKeyWithVersionMethodGenerator();
+            initializeAndExecuteGenerator(methodGenerator, interfaze);
+        }
+    }
+
+    protected void addIncrementMethods(Interface interfaze) {
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getIncrementColumns()) {
+            if (introspectedTable.getRules().generateIncrementByPrimaryKey()) {
+                AbstractJavaMapperMethodGenerator methodGenerator = new IncrementMethodGenerator(introspectedColumn, false);
+                initializeAndExecuteGenerator(methodGenerator, interfaze);
+            }
+            if (introspectedTable.getRules().generateIncrementByWhere()) {
+                AbstractJavaMapperMethodGenerator methodGenerator = new IncrementMethodGenerator(introspectedColumn, true);
+                initializeAndExecuteGenerator(methodGenerator, interfaze);
+            }
+        }
+    }
+
     protected void addUpdateByPrimaryKeyWithBLOBsMethod(Interface interfaze) {
         if (introspectedTable.getRules().generateUpdateByPrimaryKeyWithBLOBs()) {
             AbstractJavaMapperMethodGenerator methodGenerator = new UpdateByPrimaryKeyWithBLOBsMethodGenerator();
@@ -0,0 +1,355 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper;
+
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.CompilationUnit;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.codegen.AbstractJavaGenerator;
+import org.mybatis.generator.config.PropertyRegistry;
+
+/**
+ * 生成分表路由类. XML 映射文件中的语句在执行时通过 OGNL 静态方法调用
+ * ${@XxxShardRouter@table(...)} 得到物理表名, 参数中不带分表键的语句使用
+ * bindShardKey 绑定在当前线程上的分表键.
+ * 
+ */
+public class ShardRouterGenerator extends AbstractJavaGenerator {
+
+    public ShardRouterGenerator() {
+        super();
+    }
+
+    @Override
+    public List<CompilationUnit> getCompilationUnits() {
+        progressCallback.startTask(getString("Progress.23", //$NON-NLS-1$
+                introspectedTable.getFullyQualifiedTable().toString()));
+        CommentGenerator commentGenerator = context.getCommentGenerator();
+
+        FullyQualifiedJavaType type = new FullyQualifiedJavaType(
+                introspectedTable.getShardRouterType());
+        TopLevelClass topLevelClass = new TopLevelClass(type);
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+        topLevelClass.setFinal(true);
+        commentGenerator.addJavaFileComment(topLevelClass);
+
+        addFields(topLevelClass);
+        addConstructor(topLevelClass);
+        addShardMethod(topLevelClass);
+        addTableMethod(topLevelClass);
+        addTableOfKeysMethod(topLevelClass);
+        addTableOfRecordsMethod(topLevelClass);
+        addBindShardKeyMethod(topLevelClass);
+        addTableNamesMethod(topLevelClass);
+
+        List<CompilationUnit> answer = new ArrayList<CompilationUnit>();
+        answer.add(topLevelClass);
+        return answer;
+    }
+
+    private long[] getUpperBounds() {
+        String ranges = introspectedTable
+                .getTableConfigurationProperty(PropertyRegistry.TABLE_SHARD_RANGES);
+        if (!stringHasValue(ranges)) {
+            return null;
+        }
+        // the bounds have been validated with the configuration
+        String[] bounds = ranges.split(","); //$NON-NLS-1$
+        long[] answer = new long[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            answer[i] = Long.parseLong(bounds[i].trim());
+        }
+        return answer;
+    }
+
+    private int getShardCount() {
+        long[] upperBounds = getUpperBounds();
+        if (upperBounds != null) {
+            return upperBounds.length;
+        }
+        return Integer.parseInt(introspectedTable
+                .getTableConfigurationProperty(PropertyRegistry.TABLE_SHARD_COUNT).trim());
+    }
+
+    private String getSuffixFormat() {
+        String format = introspectedTable
+                .getTableConfigurationProperty(PropertyRegistry.TABLE_SHARD_SUFFIX_FORMAT);
+        if (stringHasValue(format)) {
+            return format;
+        }
+        // as many digits as the last shard number needs, at least two
+        int width = Math.max(2, Integer.toString(getShardCount() - 1).length());
+        return "_%0" + width + "d"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * 分表键所在的类: 主键类, 记录类或者包含大字段的记录类.
+     */
+    private FullyQualifiedJavaType getShardKeyHolderType() {
+        IntrospectedColumn shardColumn = introspectedTable.getShardColumn();
+        if (introspectedTable.getRules().generatePrimaryKeyClass()
+                && introspectedTable.getPrimaryKeyColumns().contains(shardColumn)) {
+            return new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+        } else if (introspectedTable.getRules().generateRecordWithBLOBsClass()
+                && introspectedTable.getBLOBColumns().contains(shardColumn)) {
+            return new FullyQualifiedJavaType(introspectedTable.getRecordWithBLOBsType());
+        } else if (introspectedTable.getRules().generateBaseRecordClass()) {
+            return new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        } else {
+            return introspectedTable.getRules().calculateAllFieldsClass();
+        }
+    }
+
+    private void addFields(TopLevelClass topLevelClass) {
+        Field field = new Field("SHARD_COUNT", FullyQualifiedJavaType.getIntInstance()); //$NON-NLS-1$
+        field.addJavaDocLine("/** 分表数量 */"); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PUBLIC);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString(Integer.toString(getShardCount()));
+        topLevelClass.addField(field);
+
+        long[] upperBounds = getUpperBounds();
+        if (upperBounds != null) {
+            StringBuilder sb = new StringBuilder("{ "); //$NON-NLS-1$
+            for (int i = 0; i < upperBounds.length; i++) {
+                if (i > 0) {
+                    sb.append(", "); //$NON-NLS-1$
+                }
+                sb.append(upperBounds[i]);
+                sb.append('L');
+            }
+            sb.append(" }"); //$NON-NLS-1$
+            field = new Field("UPPER_BOUNDS", new FullyQualifiedJavaType("long[]")); //$NON-NLS-1$ //$NON-NLS-2$
+            field.addJavaDocLine("/** 每张分表的分表键上界, 不包含上界本身 */"); //$NON-NLS-1$
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setStatic(true);
+            field.setFinal(true);
+            field.setInitializationString(sb.toString());
+            topLevelClass.addField(field);
+        }
+
+        // the suffix goes inside the delimiters of a delimited table name
+        String table = introspectedTable.getFullyQualifiedTableNameAtRuntime();
+        String format = getSuffixFormat();
+        String endingDelimiter = context.getEndingDelimiter();
+        if (stringHasValue(endingDelimiter) && table.endsWith(endingDelimiter)) {
+            table = table.substring(0, table.length() - endingDelimiter.length());
+            format = format + endingDelimiter;
+        }
+        field = new Field("TABLES", new FullyQualifiedJavaType("String[]")); //$NON-NLS-1$ //$NON-NLS-2$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("tableNames(\"" + escapeStringForJava(table) //$NON-NLS-1$
+                + "\", \"" + escapeStringForJava(format) + "\")"); //$NON-NLS-1$ //$NON-NLS-2$
+        topLevelClass.addField(field);
+
+        FullyQualifiedJavaType threadLocal = new FullyQualifiedJavaType(
+                "java.lang.ThreadLocal<Object>"); //$NON-NLS-1$
+        field = new Field("SHARD_KEY", threadLocal); //$NON-NLS-1$
+        field.addJavaDocLine("/** 绑定在当前线程上的分表键 */"); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("new ThreadLocal<>()"); //$NON-NLS-1$
+        topLevelClass.addField(field);
+    }
+
+    private void addConstructor(TopLevelClass topLevelClass) {
+        Method method = new Method(topLevelClass.getType().getShortName());
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setConstructor(true);
+        method.addBodyLine("super();"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+    }
+
+    private void addShardMethod(TopLevelClass topLevelClass) {
+        IntrospectedColumn shardColumn = introspectedTable.getShardColumn();
+        Method method = new Method("shard"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 返回分表键所在的分表序号"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(),
+                "shardKey")); //$NON-NLS-1$
+        method.addBodyLine("if (shardKey == null) {"); //$NON-NLS-1$
+        method.addBodyLine("throw new IllegalArgumentException(\"shard key " //$NON-NLS-1$
+                + escapeStringForJava(shardColumn.getActualColumnName())
+                + " is null\");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        if (getUpperBounds() != null) {
+            method.addBodyLine("long value = ((Number) shardKey).longValue();"); //$NON-NLS-1$
+            method.addBodyLine("int index = Arrays.binarySearch(UPPER_BOUNDS, value);"); //$NON-NLS-1$
+            method.addBodyLine("// a key equal to an upper bound belongs to the next shard"); //$NON-NLS-1$
+            method.addBodyLine("index = index < 0 ? -index - 1 : index + 1;"); //$NON-NLS-1$
+            method.addBodyLine("if (index == SHARD_COUNT) {"); //$NON-NLS-1$
+            method.addBodyLine("throw new IllegalArgumentException(\"shard key \" + value + \" is beyond the last shard\");"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("return index;"); //$NON-NLS-1$
+            topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Arrays")); //$NON-NLS-1$
+        } else if (introspectedTable.isIntegralShardColumn(shardColumn)) {
+            method.addBodyLine("return (int) Math.floorMod(((Number) shardKey).longValue(), (long) SHARD_COUNT);"); //$NON-NLS-1$
+        } else {
+            method.addBodyLine("return Math.floorMod(shardKey.hashCode(), SHARD_COUNT);"); //$NON-NLS-1$
+        }
+        topLevelClass.addMethod(method);
+    }
+
+    private void addTableMethod(TopLevelClass topLevelClass) {
+        Method method = new Method("table"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 返回分表键所在的物理表, shardKey 为 null 时使用绑定在当前线程上的分表键"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(),
+                "shardKey")); //$NON-NLS-1$
+        method.addBodyLine("Object key = shardKey == null ? SHARD_KEY.get() : shardKey;"); //$NON-NLS-1$
+        method.addBodyLine("if (key == null) {"); //$NON-NLS-1$
+        method.addBodyLine("throw new IllegalStateException(\"no shard key for table " //$NON-NLS-1$
+                + escapeStringForJava(introspectedTable.getFullyQualifiedTable().toString())
+                + ", pass it with the statement or bind it with bindShardKey\");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return TABLES[shard(key)];"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+    }
+
+    private void addTableOfKeysMethod(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType collection = new FullyQualifiedJavaType(
+                "java.util.Collection"); //$NON-NLS-1$
+        topLevelClass.addImportedType(collection);
+        collection = new FullyQualifiedJavaType("java.util.Collection<?>"); //$NON-NLS-1$
+
+        Method method = new Method("tableOfKeys"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 返回一组分表键所在的物理表, 所有的键必须在同一张分表中, 为空时返回任意一张分表"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.addParameter(new Parameter(collection, "keys")); //$NON-NLS-1$
+        method.addBodyLine("String answer = null;"); //$NON-NLS-1$
+        method.addBodyLine("if (keys != null) {"); //$NON-NLS-1$
+        method.addBodyLine("for (Object key : keys) {"); //$NON-NLS-1$
+        addSameShardCheck(method, "key"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        addEmptyBatchLines(method);
+        topLevelClass.addMethod(method);
+    }
+
+    private void addTableOfRecordsMethod(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType holderType = getShardKeyHolderType();
+        topLevelClass.addImportedType(holderType);
+        FullyQualifiedJavaType collection = new FullyQualifiedJavaType(
+                "java.util.Collection"); //$NON-NLS-1$
+        collection.addTypeArgument(new FullyQualifiedJavaType(
+                "? extends " + holderType.getShortName())); //$NON-NLS-1$
+
+        IntrospectedColumn shardColumn = introspectedTable.getShardColumn();
+        Method method = new Method("tableOfRecords"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 返回一组记录所在的物理表, 所有的记录必须在同一张分表中, 为空时返回任意一张分表"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.addParameter(new Parameter(collection, "records")); //$NON-NLS-1$
+        method.addBodyLine("String answer = null;"); //$NON-NLS-1$
+        method.addBodyLine("if (records != null) {"); //$NON-NLS-1$
+        method.addBodyLine("for (" + holderType.getShortName() + " record : records) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        addSameShardCheck(method, "record." //$NON-NLS-1$
+                + getGetterMethodName(shardColumn.getJavaProperty(),
+                        shardColumn.getFullyQualifiedJavaType()) + "()"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        addEmptyBatchLines(method);
+        topLevelClass.addMethod(method);
+    }
+
+    private void addEmptyBatchLines(Method method) {
+        // an empty batch touches no row, the statement only needs a valid table name
+        method.addBodyLine("if (answer == null) {"); //$NON-NLS-1$
+        method.addBodyLine("answer = SHARD_KEY.get() == null ? TABLES[0] : table(null);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return answer;"); //$NON-NLS-1$
+    }
+
+    private void addSameShardCheck(Method method, String shardKey) {
+        method.addBodyLine("String table = table(" + shardKey + ");"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("if (answer == null) {"); //$NON-NLS-1$
+        method.addBodyLine("answer = table;"); //$NON-NLS-1$
+        method.addBodyLine("} else if (!answer.equals(table)) {"); //$NON-NLS-1$
+        method.addBodyLine("throw new IllegalArgumentException(\"the batch spans the shards \" + answer + \" and \" + table + \", split it by shard first\");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+    }
+
+    private void addBindShardKeyMethod(TopLevelClass topLevelClass) {
+        Method method = new Method("bindShardKey"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 把分表键绑定到当前线程上, 供参数中不带分表键的语句使用, 返回之前绑定的分表键."); //$NON-NLS-1$
+        method.addJavaDocLine(" * 用完后应在 finally 中用返回值恢复, 传入 null 解除绑定"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getObjectInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(),
+                "shardKey")); //$NON-NLS-1$
+        method.addBodyLine("Object previous = SHARD_KEY.get();"); //$NON-NLS-1$
+        method.addBodyLine("if (shardKey == null) {"); //$NON-NLS-1$
+        method.addBodyLine("SHARD_KEY.remove();"); //$NON-NLS-1$
+        method.addBodyLine("} else {"); //$NON-NLS-1$
+        method.addBodyLine("SHARD_KEY.set(shardKey);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return previous;"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+    }
+
+    private void addTableNamesMethod(TopLevelClass topLevelClass) {
+        Method method = new Method("tableNames"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(new FullyQualifiedJavaType("String[]")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(),
+                "table")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(),
+                "suffixFormat")); //$NON-NLS-1$
+        method.addBodyLine("String[] answer = new String[SHARD_COUNT];"); //$NON-NLS-1$
+        method.addBodyLine("for (int i = 0; i < SHARD_COUNT; i++) {"); //$NON-NLS-1$
+        method.addBodyLine("answer[i] = table + String.format(suffixFormat, i);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return answer;"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+    }
+}
@@ -28,28 +28,22 @@ import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.codegen.AbstractJavaGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.AbstractJavaProviderMethodGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.ProviderApplyWhereMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.ProviderCountByExampleMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.ProviderDeleteByExampleMethodGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.ProviderInsertSelectiveMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.ProviderSelectByExampleWithBLOBsMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.ProviderSelectByExampleWithoutBLOBsMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.ProviderUpdateByExampleSelectiveMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.ProviderUpdateByExampleWithBLOBsMethodGenerator;
-import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.ProviderUpdateByExampleWithoutBLOBsMethodGenerator;
 import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.ProviderUpdateByPrimaryKeySelectiveMethodGenerator;
+import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.ProviderUpdateChangedByPrimaryKeyMethodGenerator;
+import org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider.ProviderUpdateByWhereMethodGenerator;
 
 /**
+ * 生成选择性插入和更新语句的 SqlProvider. 每种空值组合的 SQL 只拼接一次并缓存,
+ * 之后的调用只计算掩码和查缓存.
  * 
  * @author Jeff Butler
  * 
  */
 public class SqlProviderGenerator extends AbstractJavaGenerator {
 
-	private boolean useLegacyBuilder;
-	
-    public SqlProviderGenerator(boolean useLegacyBuilder) {
+    public SqlProviderGenerator() {
         super();
-        this.useLegacyBuilder = useLegacyBuilder;
     }
 
     @Override
@@ -64,18 +58,10 @@ public class SqlProviderGenerator extends AbstractJavaGenerator {
         topLevelClass.setVisibility(JavaVisibility.PUBLIC);
         commentGenerator.addJavaFileComment(topLevelClass);
 
-        boolean addApplyWhereMethod = false;
-        addApplyWhereMethod |= addCountByExampleMethod(topLevelClass);
-        addApplyWhereMethod |= addDeleteByExampleMethod(topLevelClass);
         addInsertSelectiveMethod(topLevelClass);
-        addApplyWhereMethod |= addSelectByExampleWithBLOBsMethod(topLevelClass);
-        addApplyWhereMethod |= addSelectByExampleWithoutBLOBsMethod(topLevelClass);
-        addApplyWhereMethod |= addUpdateByExampleSelectiveMethod(topLevelClass);
-        addApplyWhereMethod |= addUpdateByExampleWithBLOBsMethod(topLevelClass);
-        addApplyWhereMethod |= addUpdateByExampleWithoutBLOBsMethod(topLevelClass);
         addUpdateByPrimaryKeySelectiveMethod(topLevelClass);
-
-        if (addApplyWhereMethod) {
+        addUpdateChangedByPrimaryKeyMethod(topLevelClass);
+        if (addUpdateByWhereMethod(topLevelClass)) {
             addApplyWhereMethod(topLevelClass);
         }
         
@@ -89,105 +75,47 @@ public class SqlProviderGenerator extends AbstractJavaGenerator {
         return answer;
     }
 
-    protected boolean addCountByExampleMethod(TopLevelClass topLevelClass) {
-        boolean rc = false;
-        if (introspectedTable.getRules().generateCountByWhere()) {
-            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderCountByExampleMethodGenerator(useLegacyBuilder);
-            initializeAndExecuteGenerator(methodGenerator, topLevelClass);
-            rc = true;
-        }
-
-        return rc;
-    }
-
-    protected boolean addDeleteByExampleMethod(TopLevelClass topLevelClass) {
-        boolean rc = false;
-        if (introspectedTable.getRules().generateDeleteByWhere()) {
-            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderDeleteByExampleMethodGenerator(useLegacyBuilder);
-            initializeAndExecuteGenerator(methodGenerator, topLevelClass);
-            rc = true;
-        }
-
-        return rc;
-    }
-
     protected void addInsertSelectiveMethod(TopLevelClass topLevelClass) {
         if (introspectedTable.getRules().generateInsert()) {
-            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderInsertSelectiveMethodGenerator(useLegacyBuilder);
+            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderInsertSelectiveMethodGenerator();
             initializeAndExecuteGenerator(methodGenerator, topLevelClass);
         }
     }
 
-    protected boolean addSelectByExampleWithBLOBsMethod(
+    protected void addUpdateByPrimaryKeySelectiveMethod(
             TopLevelClass topLevelClass) {
-        boolean rc = false;
-        if (introspectedTable.getRules().generateSelectByWhere()) {
-            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderSelectByExampleWithBLOBsMethodGenerator(useLegacyBuilder);
+        if (introspectedTable.getRules().generateUpdateByPrimaryKeySelective()) {
+            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderUpdateByPrimaryKeySelectiveMethodGenerator();
             initializeAndExecuteGenerator(methodGenerator, topLevelClass);
-            rc = true;
         }
-
-        return rc;
     }
 
-    protected boolean addSelectByExampleWithoutBLOBsMethod(
+    protected void addUpdateChangedByPrimaryKeyMethod(
             TopLevelClass topLevelClass) {
-        boolean rc = false;
-        if (introspectedTable.getRules().generateSelectByWhereWithoutBLOBs()) {
-            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderSelectByExampleWithoutBLOBsMethodGenerator(useLegacyBuilder);
+        if (introspectedTable.getRules().generateUpdateChangedByPrimaryKey()) {
+            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderUpdateChangedByPrimaryKeyMethodGenerator();
             initializeAndExecuteGenerator(methodGenerator, topLevelClass);
-            rc = true;
         }
-
-        return rc;
     }
 
-    protected boolean addUpdateByExampleSelectiveMethod(
-            TopLevelClass topLevelClass) {
+    /**
+     * @return true when the provider method was added, it needs the
+     *         applyWhere method
+     */
+    protected boolean addUpdateByWhereMethod(TopLevelClass topLevelClass) {
         boolean rc = false;
         if (introspectedTable.getRules().generateUpdateByWhereSelective()) {
-            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderUpdateByExampleSelectiveMethodGenerator(useLegacyBuilder);
+            int methodCount = topLevelClass.getMethods().size();
+            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderUpdateByWhereMethodGenerator();
             initializeAndExecuteGenerator(methodGenerator, topLevelClass);
-            rc = true;
+            rc = topLevelClass.getMethods().size() > methodCount;
         }
 
         return rc;
     }
 
-    protected boolean addUpdateByExampleWithBLOBsMethod(
-            TopLevelClass topLevelClass) {
-        boolean rc = false;
-        if (introspectedTable.getRules().generateUpdateByExampleWithBLOBs()) {
-            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderUpdateByExampleWithBLOBsMethodGenerator(useLegacyBuilder);
-            initializeAndExecuteGenerator(methodGenerator, topLevelClass);
-            rc = true;
-        }
-
-        return rc;
-    }
-
-    protected boolean addUpdateByExampleWithoutBLOBsMethod(
-            TopLevelClass topLevelClass) {
-        boolean rc = false;
-        if (introspectedTable.getRules().generateUpdateByWhereWithoutBLOBs()) {
-            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderUpdateByExampleWithoutBLOBsMethodGenerator(useLegacyBuilder);
-            initializeAndExecuteGenerator(methodGenerator, topLevelClass);
-            rc = true;
-        }
-
-        return rc;
-    }
-
-    protected void addUpdateByPrimaryKeySelectiveMethod(
-            TopLevelClass topLevelClass) {
-        if (introspectedTable.getRules().generateUpdateByPrimaryKeySelective()) {
-            AbstractJavaProviderMethodGenerator methodGenerator = new ProviderUpdateByPrimaryKeySelectiveMethodGenerator(useLegacyBuilder);
-            initializeAndExecuteGenerator(methodGenerator, topLevelClass);
-        }
-    }
-
     protected void addApplyWhereMethod(TopLevelClass topLevelClass) {
-        AbstractJavaProviderMethodGenerator methodGenerator = new ProviderApplyWhereMethodGenerator(useLegacyBuilder);
+        AbstractJavaProviderMethodGenerator methodGenerator = new ProviderApplyWhereMethodGenerator();
         initializeAndExecuteGenerator(methodGenerator, topLevelClass);
     }
 
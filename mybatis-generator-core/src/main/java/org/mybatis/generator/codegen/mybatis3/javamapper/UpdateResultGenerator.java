@@ -0,0 +1,70 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.dom.java.CompilationUnit;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.TopLevelEnumeration;
+import org.mybatis.generator.codegen.AbstractJavaGenerator;
+
+/**
+ * 生成带版本检查的更新的结果枚举 XxxUpdateResult, 区分更新成功、版本冲突和记录不存在.
+ * 
+ */
+public class UpdateResultGenerator extends AbstractJavaGenerator {
+
+    public UpdateResultGenerator() {
+        super();
+    }
+
+    @Override
+    public List<CompilationUnit> getCompilationUnits() {
+        progressCallback.startTask(getString("Progress.24", //$NON-NLS-1$
+                introspectedTable.getFullyQualifiedTable().toString()));
+        CommentGenerator commentGenerator = context.getCommentGenerator();
+
+        FullyQualifiedJavaType type = new FullyQualifiedJavaType(
+                introspectedTable.getUpdateResultType());
+        TopLevelEnumeration enumeration = new TopLevelEnumeration(type);
+        enumeration.setVisibility(JavaVisibility.PUBLIC);
+        commentGenerator.addJavaFileComment(enumeration);
+
+        enumeration.addJavaDocLine("/**"); //$NON-NLS-1$
+        enumeration.addJavaDocLine(" * " //$NON-NLS-1$
+                + introspectedTable.getUpdateByPrimaryKeyWithVersionStatementId()
+                + " 和 " //$NON-NLS-1$
+                + introspectedTable.getUpdateByWhereWithVersionStatementId()
+                + " 的结果. UPDATED 表示记录已更新, 记录的版本加一;"); //$NON-NLS-1$
+        enumeration.addJavaDocLine(" * CONFLICT 表示记录已被其它写入者修改, 需要重新读取后再更新;"); //$NON-NLS-1$
+        enumeration.addJavaDocLine(" * NOT_FOUND 表示没有符合条件的记录"); //$NON-NLS-1$
+        enumeration.addJavaDocLine(" */"); //$NON-NLS-1$
+
+        enumeration.addEnumConstant("UPDATED"); //$NON-NLS-1$
+        enumeration.addEnumConstant("CONFLICT"); //$NON-NLS-1$
+        enumeration.addEnumConstant("NOT_FOUND"); //$NON-NLS-1$
+
+        List<CompilationUnit> answer = new ArrayList<CompilationUnit>();
+        answer.add(enumeration);
+        return answer;
+    }
+}
@@ -16,14 +16,21 @@
 package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
 
 import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getRenamedColumnNameForResultMap;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
+import java.util.List;
+import java.util.Set;
+
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.codegen.AbstractGenerator;
 import org.mybatis.generator.config.GeneratedKey;
+import org.mybatis.generator.config.PropertyRegistry;
 
 /**
  * 
@@ -102,4 +109,237 @@ public abstract class AbstractJavaMapperMethodGenerator extends
             }
         }
     }
+
+    /**
+     * 主键集合的元素类型, 单列主键为该列的类型, 联合主键为记录类型.
+     *
+     * @return the type of the elements in a primary key collection
+     */
+    protected FullyQualifiedJavaType getPrimaryKeysElementType() {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        if (keyColumns.size() > 1) {
+            return introspectedTable.getRules().calculateAllFieldsClass();
+        } else {
+            return keyColumns.get(0).getFullyQualifiedJavaType();
+        }
+    }
+
+    /**
+     * 生成分批调用 delegate 的 default 方法, 完整的批次有 primaryKeysChunkSize 个主键,
+     * 最后一批用它的最后一个主键补齐到 2 的幂, 因此 in 列表只有对数级的几种语句形状. 需要 Java 8.
+     *
+     * @param delegate
+     *            the method taking the whole primary key collection
+     * @param importedTypes
+     *            the types imported by the mapper
+     * @return the default method
+     */
+    protected Method getChunkedMethod(Method delegate,
+            Set<FullyQualifiedJavaType> importedTypes) {
+        return getChunkedMethod(delegate, getPrimaryKeysElementType(),
+                introspectedTable.getPrimaryKeyColumns(), importedTypes);
+    }
+
+    /**
+     * 生成分批调用 delegate 的 default 方法, 键值集合的元素类型由调用方指定.
+     * 键值列包含分表列时先按分表分组, 每批的键都在同一张分表中.
+     *
+     * @param delegate
+     *            the method taking the whole key collection
+     * @param keyElementType
+     *            the type of the elements in the key collection
+     * @param keyColumns
+     *            the columns of the keys
+     * @param importedTypes
+     *            the types imported by the mapper
+     * @return the default method
+     */
+    protected Method getChunkedMethod(Method delegate,
+            FullyQualifiedJavaType keyElementType, List<IntrospectedColumn> keyColumns,
+            Set<FullyQualifiedJavaType> importedTypes) {
+        String chunkSize = introspectedTable
+                .getTableConfigurationProperty(PropertyRegistry.TABLE_PRIMARY_KEYS_CHUNK_SIZE);
+        if (chunkSize == null) {
+            // the value has been validated with the configuration
+            chunkSize = "500"; //$NON-NLS-1$
+        }
+        String keyType = keyElementType.getShortName();
+        boolean collectsRecords = !delegate.getReturnType().isPrimitive();
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setDefault(true);
+        method.setReturnType(delegate.getReturnType());
+        method.setName(delegate.getName() + "InChunks"); //$NON-NLS-1$
+        method.addParameter(new Parameter(delegate.getParameters().get(0).getType(),
+                "keys")); //$NON-NLS-1$
+        importedTypes.add(FullyQualifiedJavaType.getNewArrayListInstance());
+        importedTypes.add(FullyQualifiedJavaType.getNewListInstance());
+
+        StringBuilder sb = new StringBuilder();
+        if (collectsRecords) {
+            sb.append(delegate.getReturnType().getShortName());
+            sb.append(" answer = new ArrayList<>(keys.size());"); //$NON-NLS-1$
+        } else {
+            sb.append("int answer = 0;"); //$NON-NLS-1$
+        }
+        method.addBodyLine(sb.toString());
+
+        sb.setLength(0);
+        sb.append("List<"); //$NON-NLS-1$
+        sb.append(keyType);
+        sb.append("> chunk = new ArrayList<>("); //$NON-NLS-1$
+        sb.append(chunkSize);
+        sb.append(");"); //$NON-NLS-1$
+        method.addBodyLine(sb.toString());
+
+        String call = collectsRecords ? "answer.addAll(" + delegate.getName() + "(chunk));" //$NON-NLS-1$ //$NON-NLS-2$
+                : "answer += " + delegate.getName() + "(chunk);"; //$NON-NLS-1$ //$NON-NLS-2$
+
+        // the statement of a chunk routes all of its keys to one physical table
+        String shardKey = getShardKey(keyColumns, "key"); //$NON-NLS-1$
+        if (shardKey != null) {
+            FullyQualifiedJavaType routerType = new FullyQualifiedJavaType(
+                    introspectedTable.getShardRouterType());
+            importedTypes.add(FullyQualifiedJavaType.getNewMapInstance());
+            importedTypes.add(new FullyQualifiedJavaType("java.util.LinkedHashMap")); //$NON-NLS-1$
+            method.addBodyLine("Map<String, List<" + keyType //$NON-NLS-1$
+                    + ">> shards = new LinkedHashMap<>();"); //$NON-NLS-1$
+            method.addBodyLine("for (" + keyType + " key : keys) {"); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addBodyLine("shards.computeIfAbsent(" + routerType.getShortName() //$NON-NLS-1$
+                    + ".table(" + shardKey + "), table -> new ArrayList<>()).add(key);"); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("for (List<" + keyType + "> shard : shards.values()) {"); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addBodyLine("for (" + keyType + " key : shard) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        } else {
+            method.addBodyLine("for (" + keyType + " key : keys) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        method.addBodyLine("chunk.add(key);"); //$NON-NLS-1$
+        method.addBodyLine("if (chunk.size() == " + chunkSize + ") {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine(call);
+        method.addBodyLine("chunk.clear();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (!chunk.isEmpty()) {"); //$NON-NLS-1$
+        // a repeated key neither adds rows nor changes the delete count
+        method.addBodyLine("int size = Math.min(Integer.highestOneBit(chunk.size() - 1) << 1, " //$NON-NLS-1$
+                + chunkSize + ");"); //$NON-NLS-1$
+        method.addBodyLine(keyType + " last = chunk.get(chunk.size() - 1);"); //$NON-NLS-1$
+        method.addBodyLine("while (chunk.size() < size) {"); //$NON-NLS-1$
+        method.addBodyLine("chunk.add(last);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine(call);
+        if (shardKey != null) {
+            method.addBodyLine("chunk.clear();"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return answer;"); //$NON-NLS-1$
+
+        return method;
+    }
+
+    /**
+     * 返回从键值变量中取分表键的表达式, 表不分表或键值列不包含分表列时返回 null.
+     * 单列的键值就是分表键, 多列的键值是记录.
+     *
+     * @param keyColumns
+     *            the columns of the key
+     * @param variable
+     *            the variable holding the key
+     * @return the shard key expression, or null
+     */
+    protected String getShardKey(List<IntrospectedColumn> keyColumns, String variable) {
+        IntrospectedColumn shardColumn = introspectedTable.getShardColumn();
+        if (!introspectedTable.isSharded() || !keyColumns.contains(shardColumn)) {
+            return null;
+        }
+        if (keyColumns.size() == 1) {
+            return variable;
+        }
+        return variable + '.' + getGetterMethodName(shardColumn.getJavaProperty(),
+                shardColumn.getFullyQualifiedJavaType()) + "()"; //$NON-NLS-1$
+    }
+
+    /**
+     * 检查主键集合是否能按分表键分组, 即分表键是主键的一列.
+     *
+     * @return true, if the primary keys carry the shard key
+     */
+    protected boolean isShardedByPrimaryKey() {
+        return introspectedTable.isSharded() && introspectedTable
+                .getPrimaryKeyColumns().contains(introspectedTable.getShardColumn());
+    }
+
+    /**
+     * 生成按分表分组调用 delegate 的 default 方法, 每张分表执行一次 delegate.
+     * delegate 的语句要求集合中的元素都在同一张分表中. 需要 Java 8.
+     *
+     * @param delegate
+     *            the method taking a collection of keys or records of one shard
+     * @param elementType
+     *            the type of the elements in the collection
+     * @param importedTypes
+     *            the types imported by the mapper
+     * @return the default method
+     */
+    protected Method getShardedMethod(Method delegate,
+            FullyQualifiedJavaType elementType,
+            Set<FullyQualifiedJavaType> importedTypes) {
+        IntrospectedColumn shardColumn = introspectedTable.getShardColumn();
+        // the router is generated in the package of the mapper
+        FullyQualifiedJavaType routerType = new FullyQualifiedJavaType(
+                introspectedTable.getShardRouterType());
+        Parameter collection = delegate.getParameters().get(0);
+        String elementName = elementType.getShortName();
+        boolean collectsRecords = !delegate.getReturnType().isPrimitive();
+
+        // a single column primary key is the shard key itself
+        String variable;
+        String shardKey;
+        if (elementType.equals(shardColumn.getFullyQualifiedJavaType())) {
+            variable = "key"; //$NON-NLS-1$
+            shardKey = variable;
+        } else {
+            variable = "keys".equals(collection.getName()) ? "key" : "record"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            shardKey = variable + '.' + getGetterMethodName(shardColumn.getJavaProperty(),
+                    shardColumn.getFullyQualifiedJavaType()) + "()"; //$NON-NLS-1$
+        }
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setDefault(true);
+        method.setReturnType(delegate.getReturnType());
+        method.setName(delegate.getName() + "ByShard"); //$NON-NLS-1$
+        method.addParameter(new Parameter(collection.getType(), collection.getName()));
+        importedTypes.add(FullyQualifiedJavaType.getNewArrayListInstance());
+        importedTypes.add(FullyQualifiedJavaType.getNewListInstance());
+        importedTypes.add(FullyQualifiedJavaType.getNewMapInstance());
+        importedTypes.add(new FullyQualifiedJavaType("java.util.LinkedHashMap")); //$NON-NLS-1$
+
+        method.addBodyLine("Map<String, List<" + elementName //$NON-NLS-1$
+                + ">> shards = new LinkedHashMap<>();"); //$NON-NLS-1$
+        method.addBodyLine("for (" + elementName + ' ' + variable + " : " //$NON-NLS-1$ //$NON-NLS-2$
+                + collection.getName() + ") {"); //$NON-NLS-1$
+        method.addBodyLine("shards.computeIfAbsent(" + routerType.getShortName() //$NON-NLS-1$
+                + ".table(" + shardKey + "), table -> new ArrayList<>()).add(" //$NON-NLS-1$ //$NON-NLS-2$
+                + variable + ");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        String call;
+        if (collectsRecords) {
+            method.addBodyLine(delegate.getReturnType().getShortName()
+                    + " answer = new ArrayList<>(" + collection.getName() + ".size());"); //$NON-NLS-1$ //$NON-NLS-2$
+            call = "answer.addAll(" + delegate.getName() + "(shard));"; //$NON-NLS-1$ //$NON-NLS-2$
+        } else {
+            method.addBodyLine("int answer = 0;"); //$NON-NLS-1$
+            call = "answer += " + delegate.getName() + "(shard);"; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        method.addBodyLine("for (List<" + elementName + "> shard : shards.values()) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine(call);
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return answer;"); //$NON-NLS-1$
+
+        return method;
+    }
 }
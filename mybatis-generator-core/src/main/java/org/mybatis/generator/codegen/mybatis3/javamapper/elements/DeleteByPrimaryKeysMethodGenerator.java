@@ -0,0 +1,93 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * 生成按主键集合批量删除的方法 deleteByPrimaryKeys, 以及分批调用它的 default 方法
+ * deleteByPrimaryKeysInChunks.
+ * 
+ */
+public class DeleteByPrimaryKeysMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    public DeleteByPrimaryKeysMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        importedTypes.add(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+
+        FullyQualifiedJavaType keyType = getPrimaryKeysElementType();
+        importedTypes.add(keyType);
+        FullyQualifiedJavaType keysType = new FullyQualifiedJavaType(
+                "java.util.Collection"); //$NON-NLS-1$
+        importedTypes.add(keysType);
+        keysType = new FullyQualifiedJavaType("java.util.Collection"); //$NON-NLS-1$
+        keysType.addTypeArgument(keyType);
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.setName(introspectedTable.getDeleteByPrimaryKeysStatementId());
+        method.addParameter(new Parameter(keysType,
+                "keys", "@Param(\"keys\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据主键集合删除记录,keys 为空时不匹配任何记录");
+
+        addMapperAnnotations(interfaze, method);
+
+        if (context.getPlugins().clientDeleteByPrimaryKeyMethodGenerated(
+                method, interfaze, introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+
+            Method chunked = getChunkedMethod(method, importedTypes);
+            context.getCommentGenerator().addGeneralMethodComment(chunked,
+                    "根据主键集合分批删除记录,最后一批补齐到 2 的幂以限制语句形状");
+            if (context.getPlugins().clientDeleteByPrimaryKeyMethodGenerated(
+                    chunked, interfaze, introspectedTable)) {
+                interfaze.addImportedTypes(importedTypes);
+                interfaze.addMethod(chunked);
+            }
+
+            if (isShardedByPrimaryKey()) {
+                Method sharded = getShardedMethod(method, keyType, importedTypes);
+                context.getCommentGenerator().addGeneralMethodComment(sharded,
+                        "根据主键集合按分表分组删除记录,每张分表执行一次");
+                if (context.getPlugins().clientDeleteByPrimaryKeyMethodGenerated(
+                        sharded, interfaze, introspectedTable)) {
+                    interfaze.addImportedTypes(importedTypes);
+                    interfaze.addMethod(sharded);
+                }
+            }
+        }
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * 生成 existsByWhere 方法, 有匹配记录时返回 true, 没有时返回 false.
+ * 
+ */
+public class ExistsByWhereMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    public ExistsByWhereMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(
+                introspectedTable.getWhereType());
+
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        importedTypes.add(fqjt);
+        importedTypes.add(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        // select exists(...) always returns one row
+        method.setReturnType(FullyQualifiedJavaType.getBooleanPrimitiveInstance());
+        method.setName(introspectedTable.getExistsByWhereStatementId());
+        method.addParameter(new Parameter(fqjt,
+                "where", "@Param(\"where\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据条件判断记录是否存在");
+
+        addMapperAnnotations(interfaze, method);
+
+        if (context.getPlugins().clientCountByExampleMethodGenerated(method,
+                interfaze, introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+    }
+}
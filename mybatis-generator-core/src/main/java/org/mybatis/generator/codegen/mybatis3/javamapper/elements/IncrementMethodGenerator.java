@@ -0,0 +1,113 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+
+/**
+ * 为一个计数列生成原子增减方法, 按主键时为 incrementXxxByPrimaryKey,
+ * 按条件时为 incrementXxxByWhere.
+ * 
+ */
+public class IncrementMethodGenerator extends AbstractJavaMapperMethodGenerator {
+
+    private IntrospectedColumn introspectedColumn;
+
+    private boolean byWhere;
+
+    public IncrementMethodGenerator(IntrospectedColumn introspectedColumn, boolean byWhere) {
+        super();
+        this.introspectedColumn = introspectedColumn;
+        this.byWhere = byWhere;
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        importedTypes.add(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        if (byWhere) {
+            method.setName(introspectedTable.getIncrementByWhereStatementId(introspectedColumn));
+        } else {
+            method.setName(introspectedTable.getIncrementByPrimaryKeyStatementId(introspectedColumn));
+            for (IntrospectedColumn keyColumn : introspectedTable.getPrimaryKeyColumns()) {
+                FullyQualifiedJavaType type = keyColumn.getFullyQualifiedJavaType();
+                importedTypes.add(type);
+                method.addParameter(new Parameter(type, keyColumn.getJavaProperty(),
+                        "@Param(\"" + keyColumn.getJavaProperty() + "\")")); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+
+        FullyQualifiedJavaType valueType = introspectedColumn.getFullyQualifiedJavaType();
+        if (valueType.isPrimitive()) {
+            valueType = valueType.getPrimitiveTypeWrapper();
+        }
+        importedTypes.add(valueType);
+        // delta is always required, BigDecimal / BigInteger have no primitive and are checked in the statement
+        FullyQualifiedJavaType deltaType = JavaBeansUtil.getCompactPrimitiveType(valueType);
+        if (deltaType == null) {
+            deltaType = valueType;
+        }
+        method.addParameter(new Parameter(deltaType, "delta", "@Param(\"delta\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(valueType, "floor", "@Param(\"floor\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(valueType, "ceiling", "@Param(\"ceiling\")")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        StringBuilder sb = new StringBuilder();
+        if (byWhere) {
+            FullyQualifiedJavaType whereType = new FullyQualifiedJavaType(
+                    introspectedTable.getWhereType());
+            importedTypes.add(whereType);
+            method.addParameter(new Parameter(whereType, "where", "@Param(\"where\")")); //$NON-NLS-1$ //$NON-NLS-2$
+            sb.append("把符合条件的记录的 "); //$NON-NLS-1$
+        } else {
+            sb.append("把主键对应记录的 "); //$NON-NLS-1$
+        }
+        sb.append(introspectedColumn.getActualColumnName());
+        sb.append(" 在一条语句中原子地加上 delta (不能为 null), floor / ceiling 不为 null 时只更新结果不越界的记录, 返回更新的行数"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, sb.toString());
+
+        addMapperAnnotations(interfaze, method);
+
+        boolean include;
+        if (byWhere) {
+            include = context.getPlugins().clientUpdateByExampleSelectiveMethodGenerated(
+                    method, interfaze, introspectedTable);
+        } else {
+            include = context.getPlugins().clientUpdateByPrimaryKeySelectiveMethodGenerated(
+                    method, interfaze, introspectedTable);
+        }
+        if (include) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+    }
+}
@@ -39,16 +39,18 @@ public class InsertsMethodGenerator extends
 
         method.setReturnType(FullyQualifiedJavaType.getIntInstance());
         method.setVisibility(JavaVisibility.PUBLIC);
-        method.setName(introspectedTable.getInsertSelectiveStatementId());
+        method.setName(introspectedTable.getInsertsStatementId());
         FullyQualifiedJavaType parameterType_model = new FullyQualifiedJavaType(
                 introspectedTable.getBaseRecordType());
 
         FullyQualifiedJavaType parameterType =new FullyQualifiedJavaType(" java.util.List<"+parameterType_model.getShortName()+">");
         importedTypes.add(parameterType);
+        importedTypes.add(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
 
-        method.addParameter(new Parameter(parameterType, "records")); //$NON-NLS-1$
+        method.addParameter(new Parameter(parameterType, "records", "@Param(\"records\")")); //$NON-NLS-1$ //$NON-NLS-2$
         context.getCommentGenerator().addGeneralMethodComment(method,
-                "批量插入记录,如果字段为NUL,则被过滤掉");
+                "批量插入记录,所有记录使用同一个列清单,生成的主键不回填到记录中");
 
         addMapperAnnotations(interfaze, method);
         
@@ -56,9 +58,49 @@ public class InsertsMethodGenerator extends
                 method, interfaze, introspectedTable)) {
             interfaze.addImportedTypes(importedTypes);
             interfaze.addMethod(method);
+
+            Method legacy = getLegacyMethod(method, parameterType);
+            if (context.getPlugins().clientInsertSelectiveMethodGenerated(
+                    legacy, interfaze, introspectedTable)) {
+                interfaze.addMethod(legacy);
+            }
+
+            if (introspectedTable.isSharded()) {
+                Method sharded = getShardedMethod(method, parameterType_model, importedTypes);
+                context.getCommentGenerator().addGeneralMethodComment(sharded,
+                        "按分表分组批量插入记录,每张分表执行一次");
+                if (context.getPlugins().clientInsertSelectiveMethodGenerated(
+                        sharded, interfaze, introspectedTable)) {
+                    interfaze.addImportedTypes(importedTypes);
+                    interfaze.addMethod(sharded);
+                }
+            }
         }
     }
 
+    /**
+     * 批量插入原来与单条插入同名为 insert, 保留一个委托给 inserts 的过时方法, 方便调用方迁移.
+     *
+     * @param delegate
+     *            the inserts method
+     * @param parameterType
+     *            the type of the record list
+     * @return the deprecated default method
+     */
+    private Method getLegacyMethod(Method delegate, FullyQualifiedJavaType parameterType) {
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setDefault(true);
+        method.addAnnotation("@Deprecated"); //$NON-NLS-1$
+        method.setReturnType(delegate.getReturnType());
+        method.setName(introspectedTable.getInsertSelectiveStatementId());
+        method.addParameter(new Parameter(parameterType, "records")); //$NON-NLS-1$
+        method.addBodyLine("return " + delegate.getName() + "(records);"); //$NON-NLS-1$ //$NON-NLS-2$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "已过时, 请改用 " + delegate.getName()); //$NON-NLS-1$
+        return method;
+    }
+
     public void addMapperAnnotations(Interface interfaze, Method method) {
     }
 }
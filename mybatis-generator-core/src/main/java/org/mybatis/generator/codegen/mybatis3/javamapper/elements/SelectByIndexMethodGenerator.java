@@ -0,0 +1,116 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedIndex;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * 根据一个索引生成查询方法, 唯一索引返回单条记录, 普通索引返回记录列表.
+ * 
+ */
+public class SelectByIndexMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    private IntrospectedIndex index;
+
+    public SelectByIndexMethodGenerator(IntrospectedIndex index) {
+        super();
+        this.index = index;
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        importedTypes.add(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+
+        FullyQualifiedJavaType recordType;
+        if (introspectedTable.getRules().generateRecordWithBLOBsClass()) {
+            recordType = new FullyQualifiedJavaType(introspectedTable
+                    .getRecordWithBLOBsType());
+        } else {
+            // the blob fields must be rolled up into the base class
+            recordType = new FullyQualifiedJavaType(introspectedTable
+                    .getBaseRecordType());
+        }
+        importedTypes.add(recordType);
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        if (index.isUnique()) {
+            method.setReturnType(recordType);
+        } else {
+            FullyQualifiedJavaType returnType = FullyQualifiedJavaType
+                    .getNewListInstance();
+            importedTypes.add(returnType);
+            returnType = FullyQualifiedJavaType.getNewListInstance();
+            returnType.addTypeArgument(recordType);
+            method.setReturnType(returnType);
+        }
+        method.setName(introspectedTable.getSelectByIndexStatementId(index));
+
+        StringBuilder sb = new StringBuilder();
+        for (IntrospectedColumn introspectedColumn : index.getColumns()) {
+            FullyQualifiedJavaType type = introspectedColumn
+                    .getFullyQualifiedJavaType();
+            importedTypes.add(type);
+            sb.setLength(0);
+            sb.append("@Param(\""); //$NON-NLS-1$
+            sb.append(introspectedColumn.getJavaProperty());
+            sb.append("\")"); //$NON-NLS-1$
+            method.addParameter(new Parameter(type, introspectedColumn
+                    .getJavaProperty(), sb.toString()));
+        }
+
+        sb.setLength(0);
+        if (index.isUnique()) {
+            sb.append("根据唯一索引 "); //$NON-NLS-1$
+        } else {
+            sb.append("根据索引 "); //$NON-NLS-1$
+        }
+        sb.append(index.toString());
+        sb.append(" 查询记录"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                sb.toString());
+
+        addMapperAnnotations(interfaze, method);
+
+        boolean include;
+        if (index.isUnique()) {
+            include = context.getPlugins().clientSelectByPrimaryKeyMethodGenerated(
+                    method, interfaze, introspectedTable);
+        } else {
+            include = context.getPlugins().clientSelectByExampleWithBLOBsMethodGenerated(
+                    method, interfaze, introspectedTable);
+        }
+        if (include) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+    }
+}
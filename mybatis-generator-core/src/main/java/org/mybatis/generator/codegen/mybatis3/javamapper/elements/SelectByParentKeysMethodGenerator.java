@@ -0,0 +1,107 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.IntrospectedForeignKey;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * 根据一个外键生成按父表键值集合批量查询子表记录的方法 selectByParentKeysXxx,
+ * 以及分批调用它的 default 方法. 单列外键的集合元素为该列的类型, 多列外键为记录类型.
+ * 
+ */
+public class SelectByParentKeysMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    private IntrospectedForeignKey foreignKey;
+
+    public SelectByParentKeysMethodGenerator(IntrospectedForeignKey foreignKey) {
+        super();
+        this.foreignKey = foreignKey;
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        importedTypes.add(FullyQualifiedJavaType.getNewListInstance());
+        importedTypes.add(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+
+        FullyQualifiedJavaType recordType;
+        if (introspectedTable.getRules().generateRecordWithBLOBsClass()) {
+            recordType = new FullyQualifiedJavaType(introspectedTable
+                    .getRecordWithBLOBsType());
+        } else {
+            // the blob fields must be rolled up into the base class
+            recordType = new FullyQualifiedJavaType(introspectedTable
+                    .getBaseRecordType());
+        }
+        importedTypes.add(recordType);
+
+        FullyQualifiedJavaType keyType;
+        if (foreignKey.getColumns().size() > 1) {
+            keyType = introspectedTable.getRules().calculateAllFieldsClass();
+        } else {
+            keyType = foreignKey.getColumns().get(0).getFullyQualifiedJavaType();
+        }
+        importedTypes.add(keyType);
+        FullyQualifiedJavaType keysType = new FullyQualifiedJavaType(
+                "java.util.Collection"); //$NON-NLS-1$
+        importedTypes.add(keysType);
+        keysType = new FullyQualifiedJavaType("java.util.Collection"); //$NON-NLS-1$
+        keysType.addTypeArgument(keyType);
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        FullyQualifiedJavaType returnType = FullyQualifiedJavaType
+                .getNewListInstance();
+        returnType.addTypeArgument(recordType);
+        method.setReturnType(returnType);
+        method.setName(introspectedTable.getSelectByParentKeysStatementId(foreignKey));
+        method.addParameter(new Parameter(keysType,
+                "keys", "@Param(\"keys\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据外键 " + foreignKey.toString() + " 查询一批父记录的子记录,keys 为空时不匹配任何记录"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        addMapperAnnotations(interfaze, method);
+
+        if (context.getPlugins().clientSelectByExampleWithBLOBsMethodGenerated(
+                method, interfaze, introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+
+            Method chunked = getChunkedMethod(method, keyType,
+                    foreignKey.getColumns(), importedTypes);
+            context.getCommentGenerator().addGeneralMethodComment(chunked,
+                    "根据外键分批查询子记录,最后一批补齐到 2 的幂以限制语句形状");
+            if (context.getPlugins().clientSelectByExampleWithBLOBsMethodGenerated(
+                    chunked, interfaze, introspectedTable)) {
+                interfaze.addImportedTypes(importedTypes);
+                interfaze.addMethod(chunked);
+            }
+        }
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+    }
+}
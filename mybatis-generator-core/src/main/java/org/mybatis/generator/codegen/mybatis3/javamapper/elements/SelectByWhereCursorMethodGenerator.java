@@ -0,0 +1,106 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * 生成流式查询方法 selectByWhereCursor (返回 Cursor) 和 selectByWhereWithHandler (使用 ResultHandler),
+ * 需要 MyBatis 3.4.0 及以上版本.
+ * 
+ */
+public class SelectByWhereCursorMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    private boolean withHandler;
+
+    public SelectByWhereCursorMethodGenerator(boolean withHandler) {
+        super();
+        this.withHandler = withHandler;
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        FullyQualifiedJavaType type = new FullyQualifiedJavaType(
+                introspectedTable.getWhereType());
+        importedTypes.add(type);
+        importedTypes.add(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+
+        FullyQualifiedJavaType recordType;
+        if (introspectedTable.getRules().generateRecordWithBLOBsClass()) {
+            recordType = new FullyQualifiedJavaType(introspectedTable
+                    .getRecordWithBLOBsType());
+        } else {
+            // the blob fields must be rolled up into the base class
+            recordType = new FullyQualifiedJavaType(introspectedTable
+                    .getBaseRecordType());
+        }
+        importedTypes.add(recordType);
+
+        method.addParameter(new Parameter(type,
+                "where", "@Param(\"where\")")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        if (withHandler) {
+            FullyQualifiedJavaType handlerType = new FullyQualifiedJavaType(
+                    "org.apache.ibatis.session.ResultHandler"); //$NON-NLS-1$
+            importedTypes.add(handlerType);
+            handlerType = new FullyQualifiedJavaType(
+                    "org.apache.ibatis.session.ResultHandler"); //$NON-NLS-1$
+            handlerType.addTypeArgument(recordType);
+            method.setName(introspectedTable
+                    .getSelectByWhereWithHandlerStatementId());
+            method.addParameter(new Parameter(handlerType, "handler")); //$NON-NLS-1$
+            context.getCommentGenerator().addGeneralMethodComment(method,
+                    "根据条件流式查询记录,每读取一行回调一次 handler,不在内存中保留结果");
+        } else {
+            FullyQualifiedJavaType returnType = new FullyQualifiedJavaType(
+                    "org.apache.ibatis.cursor.Cursor"); //$NON-NLS-1$
+            importedTypes.add(returnType);
+            returnType = new FullyQualifiedJavaType(
+                    "org.apache.ibatis.cursor.Cursor"); //$NON-NLS-1$
+            returnType.addTypeArgument(recordType);
+            method.setReturnType(returnType);
+            method.setName(introspectedTable
+                    .getSelectByWhereCursorStatementId());
+            context.getCommentGenerator().addGeneralMethodComment(method,
+                    "根据条件流式查询记录,返回的 Cursor 需要在事务或 SqlSession 内遍历并关闭");
+        }
+
+        addMapperAnnotations(interfaze, method);
+
+        if (context.getPlugins()
+                .clientSelectByExampleWithBLOBsMethodGenerated(method, interfaze,
+                        introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+    }
+}
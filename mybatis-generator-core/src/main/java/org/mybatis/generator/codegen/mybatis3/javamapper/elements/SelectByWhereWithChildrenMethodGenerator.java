@@ -0,0 +1,83 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.IntrospectedForeignKey;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * 生成父表与一个子表的连接查询方法 selectByWhereWithXxxList, 返回的父记录中已填充子记录集合.
+ * 
+ */
+public class SelectByWhereWithChildrenMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    private IntrospectedForeignKey foreignKey;
+
+    public SelectByWhereWithChildrenMethodGenerator(IntrospectedForeignKey foreignKey) {
+        super();
+        this.foreignKey = foreignKey;
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        FullyQualifiedJavaType type = new FullyQualifiedJavaType(
+                introspectedTable.getWhereType());
+        importedTypes.add(type);
+        importedTypes.add(FullyQualifiedJavaType.getNewListInstance());
+        importedTypes.add(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+
+        FullyQualifiedJavaType recordType = new FullyQualifiedJavaType(
+                introspectedTable.getBaseRecordType());
+        importedTypes.add(recordType);
+        FullyQualifiedJavaType returnType = FullyQualifiedJavaType
+                .getNewListInstance();
+        returnType.addTypeArgument(recordType);
+        method.setReturnType(returnType);
+        method.setName(introspectedTable
+                .getSelectByWhereWithChildrenStatementId(foreignKey));
+        method.addParameter(new Parameter(type,
+                "where", "@Param(\"where\")")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据条件查询记录,并通过一次连接查询填充 " //$NON-NLS-1$
+                        + foreignKey.getCollectionPropertyName() + " (不含 BLOB 列)"); //$NON-NLS-1$
+
+        addMapperAnnotations(interfaze, method);
+
+        if (context.getPlugins()
+                .clientSelectByExampleWithoutBLOBsMethodGenerated(method, interfaze,
+                        introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+    }
+}
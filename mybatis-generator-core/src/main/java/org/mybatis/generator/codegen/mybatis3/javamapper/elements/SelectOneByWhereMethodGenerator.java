@@ -0,0 +1,80 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * 生成 selectOneByWhere 方法, 返回按条件和排序找到的第一条记录.
+ * 
+ */
+public class SelectOneByWhereMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    public SelectOneByWhereMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        FullyQualifiedJavaType type = new FullyQualifiedJavaType(
+                introspectedTable.getWhereType());
+        importedTypes.add(type);
+        importedTypes.add(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+
+        FullyQualifiedJavaType returnType;
+        if (introspectedTable.getRules().generateRecordWithBLOBsClass()) {
+            returnType = new FullyQualifiedJavaType(introspectedTable
+                    .getRecordWithBLOBsType());
+        } else {
+            // the blob fields must be rolled up into the base class
+            returnType = new FullyQualifiedJavaType(introspectedTable
+                    .getBaseRecordType());
+        }
+        importedTypes.add(returnType);
+        method.setReturnType(returnType);
+        method.setName(introspectedTable.getSelectOneByWhereStatementId());
+        method.addParameter(new Parameter(type,
+                "where", "@Param(\"where\")")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据条件查询第一条记录,没有匹配记录时返回 null");
+
+        addMapperAnnotations(interfaze, method);
+
+        if (context.getPlugins()
+                .clientSelectByExampleWithBLOBsMethodGenerated(method, interfaze,
+                        introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+    }
+}
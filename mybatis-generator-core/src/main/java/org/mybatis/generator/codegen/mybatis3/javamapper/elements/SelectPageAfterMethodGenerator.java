@@ -0,0 +1,94 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * 生成按主键游标分页的方法 selectPageAfter.
+ * 
+ */
+public class SelectPageAfterMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    public SelectPageAfterMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        FullyQualifiedJavaType whereType = new FullyQualifiedJavaType(
+                introspectedTable.getWhereType());
+        importedTypes.add(whereType);
+        importedTypes.add(FullyQualifiedJavaType.getNewListInstance());
+        importedTypes.add(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+
+        FullyQualifiedJavaType recordType;
+        if (introspectedTable.getRules().generateRecordWithBLOBsClass()) {
+            recordType = new FullyQualifiedJavaType(introspectedTable
+                    .getRecordWithBLOBsType());
+        } else {
+            // the blob fields must be rolled up into the base class
+            recordType = new FullyQualifiedJavaType(introspectedTable
+                    .getBaseRecordType());
+        }
+        importedTypes.add(recordType);
+
+        FullyQualifiedJavaType returnType = FullyQualifiedJavaType
+                .getNewListInstance();
+        returnType.addTypeArgument(recordType);
+        method.setReturnType(returnType);
+        method.setName(introspectedTable.getSelectPageAfterStatementId());
+
+        // the key is read from a record, only the primary key properties are used
+        FullyQualifiedJavaType keyType = introspectedTable.getRules()
+                .calculateAllFieldsClass();
+        importedTypes.add(keyType);
+        method.addParameter(new Parameter(keyType,
+                "lastKey", "@Param(\"lastKey\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(whereType,
+                "where", "@Param(\"where\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(),
+                "pageSize", "@Param(\"pageSize\")")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "按主键顺序分页查询, lastKey 为上一页最后一条记录(只使用主键属性), 为 null 时查询第一页; where 中的 orderBy 和 distinct 会被忽略");
+
+        addMapperAnnotations(interfaze, method);
+
+        if (context.getPlugins()
+                .clientSelectByExampleWithBLOBsMethodGenerated(method, interfaze,
+                        introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getSetterMethodName;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * 生成 default 方法 updateByPrimaryKeyWithVersion, 调用带版本检查的 updateByPrimaryKey,
+ * 没有更新到记录时再按主键查询一次, 区分版本冲突和记录不存在.
+ * 
+ */
+public class UpdateByPrimaryKeyWithVersionMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    public UpdateByPrimaryKeyWithVersionMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        FullyQualifiedJavaType parameterType;
+
+        if (introspectedTable.getRules().generateRecordWithBLOBsClass()) {
+            parameterType = new FullyQualifiedJavaType(introspectedTable
+                    .getRecordWithBLOBsType());
+        } else {
+            parameterType = new FullyQualifiedJavaType(introspectedTable
+                    .getBaseRecordType());
+        }
+        importedTypes.add(parameterType);
+
+        FullyQualifiedJavaType resultType = new FullyQualifiedJavaType(
+                introspectedTable.getUpdateResultType());
+        importedTypes.add(resultType);
+        String result = resultType.getShortName();
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setDefault(true);
+        method.setReturnType(resultType);
+        method.setName(introspectedTable
+                .getUpdateByPrimaryKeyWithVersionStatementId());
+        method.addParameter(new Parameter(parameterType, "record")); //$NON-NLS-1$
+
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        if (!versionColumn.getFullyQualifiedJavaType().isPrimitive()) {
+            // without a version the statement matches no row and would report a conflict
+            method.addBodyLine(String.format("if (record.%s() == null) {", //$NON-NLS-1$
+                    getGetterMethodName(versionColumn.getJavaProperty(),
+                            versionColumn.getFullyQualifiedJavaType())));
+            method.addBodyLine("throw new IllegalArgumentException(\"The version of the record is required\");"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
+        method.addBodyLine(String.format("if (%s(record) > 0) {", //$NON-NLS-1$
+                introspectedTable.getUpdateByPrimaryKeySelectiveStatementId()));
+        if (!introspectedTable.isImmutable()) {
+            method.addBodyLine(String.format("record.%s(record.%s() + 1);", //$NON-NLS-1$
+                    getSetterMethodName(versionColumn.getJavaProperty()),
+                    getGetterMethodName(versionColumn.getJavaProperty(),
+                            versionColumn.getFullyQualifiedJavaType())));
+        }
+        method.addBodyLine(String.format("return %s.UPDATED;", result)); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine(String.format("if (%s(%s) == null) {", //$NON-NLS-1$
+                introspectedTable.getSelectByPrimaryKeyStatementId(),
+                getPrimaryKeyArguments()));
+        method.addBodyLine(String.format("return %s.NOT_FOUND;", result)); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine(String.format("return %s.CONFLICT;", result)); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据主键更新记录, 记录的版本与数据库中的版本不一致时不更新并返回 CONFLICT, 更新成功后记录的版本加一");
+
+        if (context.getPlugins()
+                .clientUpdateByPrimaryKeySelectiveMethodGenerated(method,
+                        interfaze, introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+
+    /**
+     * Gets the arguments of selectByPrimaryKey read from the record.
+     */
+    private String getPrimaryKeyArguments() {
+        if (introspectedTable.getRules().generatePrimaryKeyClass()) {
+            // the record extends the key class
+            return "record"; //$NON-NLS-1$
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getPrimaryKeyColumns()) {
+            if (sb.length() > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append("record."); //$NON-NLS-1$
+            sb.append(getGetterMethodName(introspectedColumn.getJavaProperty(),
+                    introspectedColumn.getFullyQualifiedJavaType()));
+            sb.append("()"); //$NON-NLS-1$
+        }
+        return sb.toString();
+    }
+}
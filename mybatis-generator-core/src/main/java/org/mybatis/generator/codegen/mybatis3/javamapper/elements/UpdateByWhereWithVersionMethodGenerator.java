@@ -0,0 +1,100 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getSetterMethodName;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * 生成 default 方法 updateByWhereWithVersion, 调用带版本检查的 updateByWhere,
+ * 没有更新到记录时再按条件计数一次, 区分版本冲突和没有符合条件的记录.
+ * 
+ */
+public class UpdateByWhereWithVersionMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    public UpdateByWhereWithVersionMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        FullyQualifiedJavaType parameterType =
+            introspectedTable.getRules().calculateAllFieldsClass();
+        importedTypes.add(parameterType);
+        FullyQualifiedJavaType whereType = new FullyQualifiedJavaType(
+                introspectedTable.getWhereType());
+        importedTypes.add(whereType);
+
+        FullyQualifiedJavaType resultType = new FullyQualifiedJavaType(
+                introspectedTable.getUpdateResultType());
+        importedTypes.add(resultType);
+        String result = resultType.getShortName();
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setDefault(true);
+        method.setReturnType(resultType);
+        method.setName(introspectedTable.getUpdateByWhereWithVersionStatementId());
+        method.addParameter(new Parameter(parameterType, "record")); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        String version = String.format("record.%s()", //$NON-NLS-1$
+                getGetterMethodName(versionColumn.getJavaProperty(),
+                        versionColumn.getFullyQualifiedJavaType()));
+        if (!versionColumn.getFullyQualifiedJavaType().isPrimitive()) {
+            // without a version the statement would update every matching row
+            method.addBodyLine(String.format("if (%s == null) {", version)); //$NON-NLS-1$
+            method.addBodyLine("throw new IllegalArgumentException(\"The version of the record is required\");"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
+        method.addBodyLine(String.format("if (%s(record, where) > 0) {", //$NON-NLS-1$
+                introspectedTable.getUpdateByWhereStatementId()));
+        if (!introspectedTable.isImmutable()) {
+            method.addBodyLine(String.format("record.%s(%s + 1);", //$NON-NLS-1$
+                    getSetterMethodName(versionColumn.getJavaProperty()), version));
+        }
+        method.addBodyLine(String.format("return %s.UPDATED;", result)); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine(String.format("if (%s(where) == 0) {", //$NON-NLS-1$
+                introspectedTable.getCountByExampleStatementId()));
+        method.addBodyLine(String.format("return %s.NOT_FOUND;", result)); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine(String.format("return %s.CONFLICT;", result)); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据条件更新版本与记录一致的行, 符合条件的行版本都不一致时不更新并返回 CONFLICT, 更新成功后记录的版本加一");
+
+        if (context.getPlugins()
+                .clientUpdateByExampleSelectiveMethodGenerated(method,
+                        interfaze, introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * 生成 updateChangedByPrimaryKey, 只写入记录中调用过 setter 的列.
+ * 
+ */
+public class UpdateChangedByPrimaryKeyMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    public UpdateChangedByPrimaryKeyMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        FullyQualifiedJavaType parameterType = new FullyQualifiedJavaType(
+                introspectedTable.getBaseRecordType());
+        importedTypes.add(parameterType);
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.setName(introspectedTable
+                .getUpdateChangedByPrimaryKeyStatementId());
+        method.addParameter(new Parameter(parameterType, "record")); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据主键 更新记录中修改过的字段, 修改为NULL的字段会更新为NULL, 成功后可调用 record.clearChanges()");
+
+        addMapperAnnotations(interfaze, method);
+
+        if (context.getPlugins()
+                .clientUpdateByPrimaryKeySelectiveMethodGenerated(method,
+                        interfaze, introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+        }
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+    }
+}
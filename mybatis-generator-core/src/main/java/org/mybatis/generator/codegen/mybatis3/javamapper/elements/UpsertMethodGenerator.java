@@ -0,0 +1,93 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+
+/**
+ * 生成 upsert / upsertBatch 方法, 对应 insert ... on duplicate key update 语句.
+ * 
+ */
+public class UpsertMethodGenerator extends AbstractJavaMapperMethodGenerator {
+
+    private boolean isBatch;
+
+    public UpsertMethodGenerator(boolean isBatch) {
+        super();
+        this.isBatch = isBatch;
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        Method method = new Method();
+
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.setVisibility(JavaVisibility.PUBLIC);
+
+        FullyQualifiedJavaType recordType = introspectedTable.getRules()
+                .calculateAllFieldsClass();
+        importedTypes.add(recordType);
+
+        if (isBatch) {
+            method.setName(introspectedTable.getUpsertBatchStatementId());
+            FullyQualifiedJavaType parameterType = FullyQualifiedJavaType
+                    .getNewListInstance();
+            parameterType.addTypeArgument(recordType);
+            importedTypes.add(parameterType);
+            importedTypes.add(new FullyQualifiedJavaType(
+                    "org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+            method.addParameter(new Parameter(parameterType,
+                    "records", "@Param(\"records\")")); //$NON-NLS-1$ //$NON-NLS-2$
+            context.getCommentGenerator().addGeneralMethodComment(method,
+                    "批量插入记录,主键或唯一键冲突时更新已有记录");
+        } else {
+            method.setName(introspectedTable.getUpsertStatementId());
+            method.addParameter(new Parameter(recordType, "record")); //$NON-NLS-1$
+            context.getCommentGenerator().addGeneralMethodComment(method,
+                    "插入一条记录,主键或唯一键冲突时更新已有记录");
+        }
+
+        addMapperAnnotations(interfaze, method);
+
+        if (context.getPlugins().clientInsertMethodGenerated(method, interfaze,
+                introspectedTable)) {
+            interfaze.addImportedTypes(importedTypes);
+            interfaze.addMethod(method);
+
+            if (isBatch && introspectedTable.isSharded()) {
+                Method sharded = getShardedMethod(method, recordType, importedTypes);
+                context.getCommentGenerator().addGeneralMethodComment(sharded,
+                        "按分表分组批量插入或更新记录,每张分表执行一次");
+                if (context.getPlugins().clientInsertMethodGenerated(sharded,
+                        interfaze, introspectedTable)) {
+                    interfaze.addImportedTypes(importedTypes);
+                    interfaze.addMethod(sharded);
+                }
+            }
+        }
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+    }
+}
@@ -0,0 +1,402 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements.annotated;
+
+import static org.mybatis.generator.api.dom.OutputUtilities.javaIndent;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.javamapper.elements.AbstractJavaMapperMethodGenerator;
+
+/**
+ * 把 XML mapper 中与方法同名的语句转换成方法上的注解.
+ * 不含动态标签的语句生成静态 SQL 的 @Select/@Insert/@Update/@Delete, MyBatis 启动时不再解析 XML;
+ * 含动态标签的语句生成 &lt;script&gt; 注解, 引用的 sql 片段在生成时内联.
+ * resultMap 转换成 @Results(id=...), 每个 resultMap 只完整生成一次, 其余语句通过 @ResultMap 引用.
+ * 指定了 SqlProvider 时, 语句改为 @XxxProvider 注解, SQL 由 provider 中同名的方法生成.
+ * 
+ */
+public class AnnotatedStatementMethodGenerator extends
+        AbstractJavaMapperMethodGenerator {
+
+    private Method method;
+
+    private XmlElement statement;
+
+    private Map<String, XmlElement> mapperElements;
+
+    private Set<String> declaredResultMaps;
+
+    private FullyQualifiedJavaType providerType;
+
+    /**
+     * @param method
+     *            the mapper method to annotate
+     * @param statement
+     *            the statement generated for the method by the XML mapper
+     *            generator
+     * @param mapperElements
+     *            the sql fragments and result maps of the mapper, by id
+     * @param declaredResultMaps
+     *            the ids of the result maps already declared with @Results
+     *            in the mapper, shared by all methods of the mapper
+     */
+    public AnnotatedStatementMethodGenerator(Method method, XmlElement statement,
+            Map<String, XmlElement> mapperElements, Set<String> declaredResultMaps) {
+        super();
+        this.method = method;
+        this.statement = statement;
+        this.mapperElements = mapperElements;
+        this.declaredResultMaps = declaredResultMaps;
+    }
+
+    /**
+     * @param providerType
+     *            the SqlProvider class with a method of the same name building
+     *            the statement, null to annotate the statement itself
+     */
+    public void setProviderType(FullyQualifiedJavaType providerType) {
+        this.providerType = providerType;
+    }
+
+    @Override
+    public void addInterfaceElements(Interface interfaze) {
+        addMapperAnnotations(interfaze, method);
+    }
+
+    public void addMapperAnnotations(Interface interfaze, Method method) {
+        String name = statement.getName();
+        String annotationName = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+
+        List<XmlElement> selectKeys = new ArrayList<XmlElement>();
+        XmlElement body = inline(statement, selectKeys);
+
+        if (providerType != null) {
+            addProviderAnnotation(interfaze, annotationName + "Provider"); //$NON-NLS-1$
+        } else {
+            addStatementAnnotation(interfaze, annotationName, body);
+        }
+
+        for (XmlElement selectKey : selectKeys) {
+            addSelectKeyAnnotation(interfaze, selectKey);
+        }
+        addOptionsAnnotation(interfaze);
+
+        String resultMapId = getAttribute(statement, "resultMap"); //$NON-NLS-1$
+        if (resultMapId != null && mapperElements.containsKey(resultMapId)) {
+            addResultMapAnnotations(interfaze, resultMapId);
+        }
+    }
+
+    private void addProviderAnnotation(Interface interfaze, String annotationName) {
+        interfaze.addImportedType(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations." + annotationName)); //$NON-NLS-1$
+        interfaze.addImportedType(providerType);
+        StringBuilder sb = new StringBuilder();
+        sb.append('@');
+        sb.append(annotationName);
+        sb.append("(type="); //$NON-NLS-1$
+        sb.append(providerType.getShortName());
+        sb.append(".class, method=\""); //$NON-NLS-1$
+        sb.append(method.getName());
+        sb.append("\")"); //$NON-NLS-1$
+        method.addAnnotation(sb.toString());
+    }
+
+    private void addStatementAnnotation(Interface interfaze, String annotationName,
+            XmlElement body) {
+        interfaze.addImportedType(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations." + annotationName)); //$NON-NLS-1$
+
+        List<String> lines = new ArrayList<String>();
+        if (isDynamic(body)) {
+            lines.add("<script>"); //$NON-NLS-1$
+            for (Element element : body.getElements()) {
+                for (String line : element.getFormattedContent(0).split("\\r?\\n")) { //$NON-NLS-1$
+                    lines.add(line.trim());
+                }
+            }
+            lines.add("</script>"); //$NON-NLS-1$
+        } else {
+            for (Element element : body.getElements()) {
+                lines.add(unescapeXml(((TextElement) element).getContent().trim()));
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        method.addAnnotation("@" + annotationName + "({"); //$NON-NLS-1$ //$NON-NLS-2$
+        for (int i = 0; i < lines.size(); i++) {
+            sb.setLength(0);
+            javaIndent(sb, 1);
+            sb.append('"');
+            sb.append(escapeStringForJava(lines.get(i)));
+            sb.append('"');
+            if (i < lines.size() - 1) {
+                sb.append(',');
+            }
+            method.addAnnotation(sb.toString());
+        }
+        method.addAnnotation("})"); //$NON-NLS-1$
+    }
+
+    /**
+     * Copies an element, replacing every include with the content of the
+     * referenced sql fragment. Select keys are moved to a separate list, they
+     * become a @SelectKey annotation.
+     */
+    private XmlElement inline(XmlElement element, List<XmlElement> selectKeys) {
+        XmlElement answer = new XmlElement(element.getName());
+        for (Attribute attribute : element.getAttributes()) {
+            answer.addAttribute(attribute);
+        }
+        addInlinedElements(answer, element, selectKeys);
+        return answer;
+    }
+
+    private void addInlinedElements(XmlElement target, XmlElement source,
+            List<XmlElement> selectKeys) {
+        for (Element element : source.getElements()) {
+            if (element instanceof TextElement) {
+                target.addElement(element);
+                continue;
+            }
+
+            XmlElement xmlElement = (XmlElement) element;
+            if ("include".equals(xmlElement.getName())) { //$NON-NLS-1$
+                XmlElement fragment = mapperElements.get(getAttribute(xmlElement, "refid")); //$NON-NLS-1$
+                if (fragment != null) {
+                    addInlinedElements(target, fragment, selectKeys);
+                }
+            } else if ("selectKey".equals(xmlElement.getName())) { //$NON-NLS-1$
+                selectKeys.add(xmlElement);
+            } else {
+                target.addElement(inline(xmlElement, selectKeys));
+            }
+        }
+    }
+
+    private boolean isDynamic(XmlElement body) {
+        for (Element element : body.getElements()) {
+            if (element instanceof XmlElement) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addSelectKeyAnnotation(Interface interfaze, XmlElement selectKey) {
+        interfaze.addImportedType(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.SelectKey")); //$NON-NLS-1$
+        StringBuilder text = new StringBuilder();
+        for (Element element : selectKey.getElements()) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(((TextElement) element).getContent().trim());
+        }
+        FullyQualifiedJavaType resultType = new FullyQualifiedJavaType(
+                getAttribute(selectKey, "resultType")); //$NON-NLS-1$
+        interfaze.addImportedType(resultType);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("@SelectKey(statement=\""); //$NON-NLS-1$
+        sb.append(escapeStringForJava(unescapeXml(text.toString())));
+        sb.append("\", keyProperty=\""); //$NON-NLS-1$
+        sb.append(getAttribute(selectKey, "keyProperty")); //$NON-NLS-1$
+        sb.append("\", before="); //$NON-NLS-1$
+        sb.append("BEFORE".equalsIgnoreCase(getAttribute(selectKey, "order"))); //$NON-NLS-1$ //$NON-NLS-2$
+        sb.append(", resultType="); //$NON-NLS-1$
+        sb.append(resultType.getShortName());
+        sb.append(".class)"); //$NON-NLS-1$
+        method.addAnnotation(sb.toString());
+    }
+
+    private void addOptionsAnnotation(Interface interfaze) {
+        List<String> options = new ArrayList<String>();
+        if ("true".equals(getAttribute(statement, "useGeneratedKeys"))) { //$NON-NLS-1$ //$NON-NLS-2$
+            options.add("useGeneratedKeys=true"); //$NON-NLS-1$
+            addStringOption(options, "keyProperty"); //$NON-NLS-1$
+            addStringOption(options, "keyColumn"); //$NON-NLS-1$
+        }
+
+        String fetchSize = getAttribute(statement, "fetchSize"); //$NON-NLS-1$
+        if (fetchSize != null) {
+            options.add("fetchSize=" + fetchSize); //$NON-NLS-1$
+        }
+
+        String resultSetType = getAttribute(statement, "resultSetType"); //$NON-NLS-1$
+        if (resultSetType != null) {
+            interfaze.addImportedType(new FullyQualifiedJavaType(
+                    "org.apache.ibatis.mapping.ResultSetType")); //$NON-NLS-1$
+            options.add("resultSetType=ResultSetType." //$NON-NLS-1$
+                    + resultSetType.toUpperCase(Locale.ENGLISH));
+        }
+
+        if (options.isEmpty()) {
+            return;
+        }
+
+        interfaze.addImportedType(new FullyQualifiedJavaType(
+                "org.apache.ibatis.annotations.Options")); //$NON-NLS-1$
+        StringBuilder sb = new StringBuilder();
+        sb.append("@Options("); //$NON-NLS-1$
+        for (int i = 0; i < options.size(); i++) {
+            if (i > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append(options.get(i));
+        }
+        sb.append(')');
+        method.addAnnotation(sb.toString());
+    }
+
+    private void addStringOption(List<String> options, String name) {
+        String value = getAttribute(statement, name);
+        if (value != null) {
+            options.add(name + "=\"" + value + '"'); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Declares the result map with @Results the first time it is used, and
+     * refers to it with @ResultMap afterwards. Constructor based result maps
+     * cannot be named in annotations, they are repeated on every method.
+     */
+    private void addResultMapAnnotations(Interface interfaze, String resultMapId) {
+        List<XmlElement> mappings = new ArrayList<XmlElement>();
+        addResultMappings(mapperElements.get(resultMapId), mappings);
+
+        boolean constructorBased = false;
+        for (XmlElement mapping : mappings) {
+            constructorBased |= "idArg".equals(mapping.getName()) //$NON-NLS-1$
+                    || "arg".equals(mapping.getName()); //$NON-NLS-1$
+        }
+
+        if (!constructorBased && !declaredResultMaps.add(resultMapId)) {
+            interfaze.addImportedType(new FullyQualifiedJavaType(
+                    "org.apache.ibatis.annotations.ResultMap")); //$NON-NLS-1$
+            method.addAnnotation("@ResultMap(\"" + resultMapId + "\")"); //$NON-NLS-1$ //$NON-NLS-2$
+            return;
+        }
+
+        interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.type.JdbcType")); //$NON-NLS-1$
+        if (constructorBased) {
+            interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Arg")); //$NON-NLS-1$
+            interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.ConstructorArgs")); //$NON-NLS-1$
+            method.addAnnotation("@ConstructorArgs({"); //$NON-NLS-1$
+        } else {
+            interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Result")); //$NON-NLS-1$
+            interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Results")); //$NON-NLS-1$
+            method.addAnnotation("@Results(id=\"" + resultMapId + "\", value={"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < mappings.size(); i++) {
+            XmlElement mapping = mappings.get(i);
+            sb.setLength(0);
+            javaIndent(sb, 1);
+            sb.append(constructorBased ? "@Arg(column=\"" : "@Result(column=\""); //$NON-NLS-1$ //$NON-NLS-2$
+            sb.append(getAttribute(mapping, "column")); //$NON-NLS-1$
+            sb.append('"');
+            if (constructorBased) {
+                FullyQualifiedJavaType javaType = new FullyQualifiedJavaType(
+                        getAttribute(mapping, "javaType")); //$NON-NLS-1$
+                interfaze.addImportedType(javaType);
+                sb.append(", javaType="); //$NON-NLS-1$
+                sb.append(javaType.getShortName());
+                sb.append(".class"); //$NON-NLS-1$
+            } else {
+                sb.append(", property=\""); //$NON-NLS-1$
+                sb.append(getAttribute(mapping, "property")); //$NON-NLS-1$
+                sb.append('"');
+            }
+
+            String typeHandler = getAttribute(mapping, "typeHandler"); //$NON-NLS-1$
+            if (typeHandler != null) {
+                FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(typeHandler);
+                interfaze.addImportedType(fqjt);
+                sb.append(", typeHandler="); //$NON-NLS-1$
+                sb.append(fqjt.getShortName());
+                sb.append(".class"); //$NON-NLS-1$
+            }
+
+            sb.append(", jdbcType=JdbcType."); //$NON-NLS-1$
+            sb.append(getAttribute(mapping, "jdbcType")); //$NON-NLS-1$
+            if (mapping.getName().startsWith("id")) { //$NON-NLS-1$
+                sb.append(", id=true"); //$NON-NLS-1$
+            }
+            sb.append(')');
+            if (i < mappings.size() - 1) {
+                sb.append(',');
+            }
+            method.addAnnotation(sb.toString());
+        }
+        method.addAnnotation("})"); //$NON-NLS-1$
+    }
+
+    /**
+     * Collects the id/result (or idArg/arg) mappings of a result map, the
+     * mappings of an extended result map first.
+     */
+    private void addResultMappings(XmlElement resultMap, List<XmlElement> mappings) {
+        String parentId = getAttribute(resultMap, "extends"); //$NON-NLS-1$
+        if (parentId != null && mapperElements.containsKey(parentId)) {
+            addResultMappings(mapperElements.get(parentId), mappings);
+        }
+
+        for (Element element : resultMap.getElements()) {
+            if (!(element instanceof XmlElement)) {
+                continue;
+            }
+            XmlElement xmlElement = (XmlElement) element;
+            if ("constructor".equals(xmlElement.getName())) { //$NON-NLS-1$
+                addResultMappings(xmlElement, mappings);
+            } else if (getAttribute(xmlElement, "column") != null) { //$NON-NLS-1$
+                mappings.add(xmlElement);
+            }
+        }
+    }
+
+    private static String getAttribute(XmlElement element, String name) {
+        for (Attribute attribute : element.getAttributes()) {
+            if (name.equals(attribute.getName())) {
+                return attribute.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Static annotation SQL is not parsed as XML, the entities written by the
+     * XML element generators must be replaced.
+     */
+    private static String unescapeXml(String s) {
+        return s.replace("&lt;", "<").replace("&gt;", ">") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                .replace("&quot;", "\"").replace("&amp;", "&"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+}
@@ -15,30 +15,143 @@
  */
 package org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider;
 
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getVersionIncrement;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.codegen.AbstractGenerator;
 
 /**
+ * SqlProvider 方法生成器的基类. 选择性语句的 SQL 文本只取决于哪些列为 null,
+ * 生成的方法先算出非 null 列的位掩码, 再用掩码从缓存中取 SQL, 每种掩码只拼接一次.
  * 
  * @author Jeff Butler
  */
 public abstract class AbstractJavaProviderMethodGenerator extends
         AbstractGenerator {
 
-    protected static final FullyQualifiedJavaType NEW_BUILDER_IMPORT = new FullyQualifiedJavaType("org.apache.ibatis.jdbc.SQL"); //$NON-NLS-1$
-    protected boolean useLegacyBuilder;
-    protected final String builderPrefix;
-    
-    public AbstractJavaProviderMethodGenerator(boolean useLegacyBuilder) {
+    /** The most optional columns a null mask of type long can describe. */
+    public static final int MAX_MASK_COLUMNS = 64;
+
+    public AbstractJavaProviderMethodGenerator() {
         super();
-        this.useLegacyBuilder = useLegacyBuilder;
-        if (useLegacyBuilder) {
-        	builderPrefix = ""; //$NON-NLS-1$
+    }
+
+    public abstract void addClassElements(TopLevelClass topLevelClass);
+
+    /**
+     * 参数为单条记录的语句使用的表名. 分表时为调用分表路由的 ${} 表达式,
+     * MyBatis 在执行 Provider 返回的 SQL 时计算它, 因此缓存的 SQL 不受影响.
+     */
+    protected String getTableNameByRecord() {
+        IntrospectedColumn shardColumn = introspectedTable.getShardColumn();
+        return introspectedTable.getShardedTableNameAtRuntime("table", //$NON-NLS-1$
+                shardColumn == null ? null : shardColumn.getJavaProperty(), false);
+    }
+
+    /**
+     * A column is optional when its value can be null. Primitive columns are
+     * always part of the statement.
+     */
+    protected boolean isOptional(IntrospectedColumn introspectedColumn) {
+        return !introspectedColumn.getFullyQualifiedJavaType().isPrimitive();
+    }
+
+    /**
+     * Adds the static cache of SQL texts by null mask.
+     */
+    protected void addCacheField(TopLevelClass topLevelClass, String fieldName) {
+        FullyQualifiedJavaType mapType = new FullyQualifiedJavaType(
+                "java.util.concurrent.ConcurrentMap<Long, String>"); //$NON-NLS-1$
+        Field field = new Field(fieldName, mapType);
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("new ConcurrentHashMap<Long, String>()"); //$NON-NLS-1$
+        topLevelClass.addField(field);
+        topLevelClass.addImportedType(new FullyQualifiedJavaType(
+                "java.util.concurrent.ConcurrentMap")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType(
+                "java.util.concurrent.ConcurrentHashMap")); //$NON-NLS-1$
+    }
+
+    /**
+     * Adds the lines computing the null mask of a record: bit i is set when
+     * the i-th optional column is not null.
+     */
+    protected void addNullMaskLines(Method method,
+            List<IntrospectedColumn> optionalColumns, String recordName) {
+        method.addBodyLine("long mask = 0L;"); //$NON-NLS-1$
+        for (int i = 0; i < optionalColumns.size(); i++) {
+            IntrospectedColumn introspectedColumn = optionalColumns.get(i);
+            method.addBodyLine(String.format("if (%s.%s() != null) {", //$NON-NLS-1$
+                    recordName,
+                    getGetterMethodName(introspectedColumn.getJavaProperty(),
+                            introspectedColumn.getFullyQualifiedJavaType())));
+            method.addBodyLine(String.format("mask |= %s;", getBit(i))); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Adds the lines looking up the SQL text of the mask, building and caching
+     * it on the first call. Leaves the text in the local variable sql.
+     */
+    protected void addCachedSqlLines(Method method, String cacheName,
+            String buildMethodName) {
+        method.addBodyLine(String.format("String sql = %s.get(mask);", cacheName)); //$NON-NLS-1$
+        method.addBodyLine("if (sql == null) {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("sql = %s(mask);", buildMethodName)); //$NON-NLS-1$
+        method.addBodyLine(String.format("%s.putIfAbsent(mask, sql);", cacheName)); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+    }
+
+    /**
+     * Creates the private static method building the SQL text of a mask.
+     */
+    protected Method newBuildMethod(String name) {
+        Method method = new Method(name);
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.addParameter(new Parameter(
+                new FullyQualifiedJavaType("long"), "mask")); //$NON-NLS-1$ //$NON-NLS-2$
+        return method;
+    }
+
+    /**
+     * Adds the lines that start the set clause of an update. With a version
+     * column the clause starts with its increment and the separator is
+     * already a comma.
+     */
+    protected void addSetStartLines(Method buildMethod, String tableName,
+            IntrospectedColumn versionColumn, boolean aliased) {
+        if (versionColumn == null) {
+            buildMethod.addBodyLine(String.format("StringBuilder sql = new StringBuilder(\"update %s set \");", //$NON-NLS-1$
+                    escapeStringForJava(tableName)));
+            buildMethod.addBodyLine("String separator = \"\";"); //$NON-NLS-1$
         } else {
-        	builderPrefix = "sql."; //$NON-NLS-1$
+            buildMethod.addBodyLine(String.format("StringBuilder sql = new StringBuilder(\"update %s set %s\");", //$NON-NLS-1$
+                    escapeStringForJava(tableName),
+                    escapeStringForJava(getVersionIncrement(versionColumn, aliased))));
+            buildMethod.addBodyLine("String separator = \", \";"); //$NON-NLS-1$
         }
     }
-    
-    public abstract void addClassElements(TopLevelClass topLevelClass);
+
+    protected String getMaskTest(int bit) {
+        return String.format("if ((mask & %s) != 0) {", getBit(bit)); //$NON-NLS-1$
+    }
+
+    private String getBit(int bit) {
+        return "(1L << " + bit + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
 }
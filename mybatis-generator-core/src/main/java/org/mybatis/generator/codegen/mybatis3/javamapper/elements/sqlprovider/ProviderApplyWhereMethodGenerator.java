@@ -15,174 +15,60 @@
  */
 package org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider;
 
-import java.util.Set;
-import java.util.TreeSet;
-
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 
+/**
+ * 把 Where 对象的条件追加到 SQL 后面, 与 XML mapper 的 Where_Clause 片段等价.
+ * 条件的值仍然以参数绑定, 只有列名直接拼接.
+ * 
+ */
 public class ProviderApplyWhereMethodGenerator extends
         AbstractJavaProviderMethodGenerator {
 
-    private static final String[] BEGINNING_METHOD_LINES = {
-        "if (example == null) {", //$NON-NLS-1$
-        "return;", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "", //$NON-NLS-1$
-        "String parmPhrase1;", //$NON-NLS-1$
-        "String parmPhrase1_th;", //$NON-NLS-1$
-        "String parmPhrase2;", //$NON-NLS-1$
-        "String parmPhrase2_th;", //$NON-NLS-1$
-        "String parmPhrase3;", //$NON-NLS-1$
-        "String parmPhrase3_th;", //$NON-NLS-1$
-        "if (includeExamplePhrase) {", //$NON-NLS-1$
-        "parmPhrase1 = \"%s #{example.oredCriteria[%d].allCriteria[%d].value}\";", //$NON-NLS-1$
-        "parmPhrase1_th = \"%s #{example.oredCriteria[%d].allCriteria[%d].value,typeHandler=%s}\";", //$NON-NLS-1$
-        "parmPhrase2 = \"%s #{example.oredCriteria[%d].allCriteria[%d].value} and #{example.oredCriteria[%d].criteria[%d].secondValue}\";", //$NON-NLS-1$
-        "parmPhrase2_th = \"%s #{example.oredCriteria[%d].allCriteria[%d].value,typeHandler=%s} and #{example.oredCriteria[%d].criteria[%d].secondValue,typeHandler=%s}\";", //$NON-NLS-1$
-        "parmPhrase3 = \"#{example.oredCriteria[%d].allCriteria[%d].value[%d]}\";", //$NON-NLS-1$
-        "parmPhrase3_th = \"#{example.oredCriteria[%d].allCriteria[%d].value[%d],typeHandler=%s}\";", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
-        "parmPhrase1 = \"%s #{oredCriteria[%d].allCriteria[%d].value}\";", //$NON-NLS-1$
-        "parmPhrase1_th = \"%s #{oredCriteria[%d].allCriteria[%d].value,typeHandler=%s}\";", //$NON-NLS-1$
-        "parmPhrase2 = \"%s #{oredCriteria[%d].allCriteria[%d].value} and #{oredCriteria[%d].criteria[%d].secondValue}\";", //$NON-NLS-1$
-        "parmPhrase2_th = \"%s #{oredCriteria[%d].allCriteria[%d].value,typeHandler=%s} and #{oredCriteria[%d].criteria[%d].secondValue,typeHandler=%s}\";", //$NON-NLS-1$
-        "parmPhrase3 = \"#{oredCriteria[%d].allCriteria[%d].value[%d]}\";", //$NON-NLS-1$
-        "parmPhrase3_th = \"#{oredCriteria[%d].allCriteria[%d].value[%d],typeHandler=%s}\";", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "", //$NON-NLS-1$
-        "StringBuilder sb = new StringBuilder();", //$NON-NLS-1$
-        "List<Criteria> oredCriteria = example.getOredCriteria();", //$NON-NLS-1$
-        "boolean firstCriteria = true;", //$NON-NLS-1$
-        "for (int i = 0; i < oredCriteria.size(); i++) {", //$NON-NLS-1$
-        "Criteria criteria = oredCriteria.get(i);", //$NON-NLS-1$
-        "if (criteria.isValid()) {", //$NON-NLS-1$
-        "if (firstCriteria) {", //$NON-NLS-1$
-        "firstCriteria = false;", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
-        "sb.append(\" or \");", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "", //$NON-NLS-1$        
-        "sb.append('(');", //$NON-NLS-1$
-        "List<Criterion> criterions = criteria.getAllCriteria();", //$NON-NLS-1$
-        "boolean firstCriterion = true;", //$NON-NLS-1$
-        "for (int j = 0; j < criterions.size(); j++) {", //$NON-NLS-1$
-        "Criterion criterion = criterions.get(j);", //$NON-NLS-1$
-        "if (firstCriterion) {", //$NON-NLS-1$
-        "firstCriterion = false;", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
-        "sb.append(\" and \");", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "", //$NON-NLS-1$
-        "if (criterion.isNoValue()) {", //$NON-NLS-1$
-        "sb.append(criterion.getCondition());", //$NON-NLS-1$
-        "} else if (criterion.isSingleValue()) {", //$NON-NLS-1$
-        "if (criterion.getTypeHandler() == null) {", //$NON-NLS-1$
-        "sb.append(String.format(parmPhrase1, criterion.getCondition(), i, j));", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
-        "sb.append(String.format(parmPhrase1_th, criterion.getCondition(), i, j,criterion.getTypeHandler()));", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "} else if (criterion.isBetweenValue()) {", //$NON-NLS-1$
-        "if (criterion.getTypeHandler() == null) {", //$NON-NLS-1$
-        "sb.append(String.format(parmPhrase2, criterion.getCondition(), i, j, i, j));", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
-        "sb.append(String.format(parmPhrase2_th, criterion.getCondition(), i, j, criterion.getTypeHandler(), i, j, criterion.getTypeHandler()));", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "} else if (criterion.isListValue()) {", //$NON-NLS-1$
-        "sb.append(criterion.getCondition());", //$NON-NLS-1$
-        "sb.append(\" (\");", //$NON-NLS-1$
-        "List<?> listItems = (List<?>) criterion.getValue();", //$NON-NLS-1$
-        "boolean comma = false;", //$NON-NLS-1$
-        "for (int k = 0; k < listItems.size(); k++) {", //$NON-NLS-1$
-        "if (comma) {", //$NON-NLS-1$
-        "sb.append(\", \");", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
-        "comma = true;", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "if (criterion.getTypeHandler() == null) {", //$NON-NLS-1$
-        "sb.append(String.format(parmPhrase3, i, j, k));", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
-        "sb.append(String.format(parmPhrase3_th, i, j, k, criterion.getTypeHandler()));", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "sb.append(')');", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "sb.append(')');", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "}", //$NON-NLS-1$
-        "" //$NON-NLS-1$
-    };
-    
-    private static final String[] LEGACY_ENDING_METHOD_LINES = {
-        "if (sb.length() > 0) {", //$NON-NLS-1$
-        "WHERE(sb.toString());", //$NON-NLS-1$
-        "}" //$NON-NLS-1$
-    };
-    
-    private static final String[] ENDING_METHOD_LINES = {
-        "if (sb.length() > 0) {", //$NON-NLS-1$
-        "sql.WHERE(sb.toString());", //$NON-NLS-1$
-        "}" //$NON-NLS-1$
-    };
-    
-    public ProviderApplyWhereMethodGenerator(boolean useLegacyBuilder) {
-        super(useLegacyBuilder);
+    public ProviderApplyWhereMethodGenerator() {
+        super();
     }
 
     @Override
     public void addClassElements(TopLevelClass topLevelClass) {
-        Set<String> staticImports = new TreeSet<String>();
-        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
-
-        if (useLegacyBuilder) {
-        	staticImports.add("org.apache.ibatis.jdbc.SqlBuilder.WHERE"); //$NON-NLS-1$
-        } else {
-        	importedTypes.add(NEW_BUILDER_IMPORT);
-        }
-        
-        importedTypes.add(new FullyQualifiedJavaType(
-                "java.util.List")); //$NON-NLS-1$
-        
-        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(introspectedTable.getWhereType());
-        importedTypes.add(fqjt);
-        importedTypes.add(new FullyQualifiedJavaType(
-                String.format("%s.Criteria", fqjt.getFullyQualifiedName()))); //$NON-NLS-1$
-        importedTypes.add(new FullyQualifiedJavaType(
-                String.format("%s.Criterion", fqjt.getFullyQualifiedName()))); //$NON-NLS-1$
+        FullyQualifiedJavaType where = new FullyQualifiedJavaType(
+                introspectedTable.getWhereType());
+        String criterionType = where.getShortName() + ".Criterion"; //$NON-NLS-1$
 
         Method method = new Method("applyWhere"); //$NON-NLS-1$
-        method.setVisibility(JavaVisibility.PROTECTED);
-        if (!useLegacyBuilder) {
-            method.addParameter(new Parameter(NEW_BUILDER_IMPORT, "sql")); //$NON-NLS-1$
-        }
-        method.addParameter(new Parameter(fqjt, "example")); //$NON-NLS-1$
-        method.addParameter(new Parameter(FullyQualifiedJavaType.getBooleanPrimitiveInstance(), "includeExamplePhrase")); //$NON-NLS-1$
-        
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "java.lang.StringBuilder"), "sql")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(where, "where")); //$NON-NLS-1$
+
         context.getCommentGenerator().addGeneralMethodComment(method,
                 introspectedTable);
-        
-        for (String methodLine : BEGINNING_METHOD_LINES) {
-            method.addBodyLine(methodLine);
-        }
-        
-        if (useLegacyBuilder) {
-        	for (String methodLine : LEGACY_ENDING_METHOD_LINES) {
-        		method.addBodyLine(methodLine);
-        	}
-        } else {
-        	for (String methodLine : ENDING_METHOD_LINES) {
-        		method.addBodyLine(methodLine);
-        	}
-        }
-        
-        if (context.getPlugins().providerApplyWhereMethodGenerated(method, topLevelClass,
-                introspectedTable)) {
-            topLevelClass.addStaticImports(staticImports);
-            topLevelClass.addImportedTypes(importedTypes);
+
+        method.addBodyLine("boolean first = true;"); //$NON-NLS-1$
+        method.addBodyLine(String.format("List<%s> criterions = where.getCriterion();", //$NON-NLS-1$
+                criterionType));
+        method.addBodyLine("for (int i = 0; i < criterions.size(); i++) {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("%s criterion = criterions.get(i);", //$NON-NLS-1$
+                criterionType));
+        method.addBodyLine("if (criterion.getParam() == null) {"); //$NON-NLS-1$
+        method.addBodyLine("continue;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(first ? \" where \" : \" and \");"); //$NON-NLS-1$
+        method.addBodyLine("first = false;"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(criterion.getParam());"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\"=#{where.criterion[\").append(i).append(\"].value,jdbcType=\");"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(criterion.getJdbcType()).append('}');"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        if (context.getPlugins().providerApplyWhereMethodGenerated(method,
+                topLevelClass, introspectedTable)) {
+            topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+            topLevelClass.addImportedType(where);
             topLevelClass.addMethod(method);
         }
     }
@@ -17,11 +17,10 @@ package org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider;
 
 import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getEscapedColumnName;
 import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
-import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
 import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
 
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
@@ -39,30 +38,33 @@ import org.mybatis.generator.codegen.mybatis3.ListUtilities;
 public class ProviderInsertSelectiveMethodGenerator extends
         AbstractJavaProviderMethodGenerator {
 
-	public ProviderInsertSelectiveMethodGenerator(boolean useLegacyBuilder) {
-        super(useLegacyBuilder);
+    public ProviderInsertSelectiveMethodGenerator() {
+        super();
     }
 
     @Override
     public void addClassElements(TopLevelClass topLevelClass) {
-        Set<String> staticImports = new TreeSet<String>();
-        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
-        
-        if (useLegacyBuilder) {
-        	staticImports.add("org.apache.ibatis.jdbc.SqlBuilder.BEGIN"); //$NON-NLS-1$
-        	staticImports.add("org.apache.ibatis.jdbc.SqlBuilder.INSERT_INTO"); //$NON-NLS-1$
-        	staticImports.add("org.apache.ibatis.jdbc.SqlBuilder.SQL"); //$NON-NLS-1$
-        	staticImports.add("org.apache.ibatis.jdbc.SqlBuilder.VALUES"); //$NON-NLS-1$
-        } else {
-        	importedTypes.add(NEW_BUILDER_IMPORT);
+        List<IntrospectedColumn> columns = ListUtilities
+                .removeIdentityAndGeneratedAlwaysColumns(introspectedTable.getAllColumns());
+        List<IntrospectedColumn> optionalColumns = new ArrayList<IntrospectedColumn>();
+        for (IntrospectedColumn introspectedColumn : columns) {
+            // a sequence column is always inserted, its value is selected
+            // before the statement is built
+            if (isOptional(introspectedColumn) && !introspectedColumn.isSequenceColumn()) {
+                optionalColumns.add(introspectedColumn);
+            }
+        }
+        if (optionalColumns.size() > MAX_MASK_COLUMNS
+                || introspectedTable.isFixedShapeRequired(optionalColumns.size())) {
+            // the statement is left to the mapper
+            return;
         }
 
         FullyQualifiedJavaType fqjt = introspectedTable.getRules()
             .calculateAllFieldsClass();
-        importedTypes.add(fqjt);
 
-        Method method = new Method(
-                introspectedTable.getInsertSelectiveStatementId());
+        String statementId = introspectedTable.getInsertSelectiveStatementId();
+        Method method = new Method(statementId);
         method.setVisibility(JavaVisibility.PUBLIC);
         method.setReturnType(FullyQualifiedJavaType.getStringInstance());
         method.addParameter(new Parameter(fqjt, "record")); //$NON-NLS-1$
@@ -70,48 +72,40 @@ public class ProviderInsertSelectiveMethodGenerator extends
         context.getCommentGenerator().addGeneralMethodComment(method,
                 introspectedTable);
 
-        if (useLegacyBuilder) {
-        	method.addBodyLine("BEGIN();"); //$NON-NLS-1$
-        } else {
-        	method.addBodyLine("SQL sql = new SQL();"); //$NON-NLS-1$
-        }
+        String cacheName = "INSERT_SQL"; //$NON-NLS-1$
+        String buildMethodName = "build" + Character.toUpperCase(statementId.charAt(0)) //$NON-NLS-1$
+                + statementId.substring(1);
+        addNullMaskLines(method, optionalColumns, "record"); //$NON-NLS-1$
+        addCachedSqlLines(method, cacheName, buildMethodName);
+        method.addBodyLine("return sql;"); //$NON-NLS-1$
 
-    	method.addBodyLine(String.format("%sINSERT_INTO(\"%s\");", //$NON-NLS-1$
-                builderPrefix,
-    			escapeStringForJava(introspectedTable.getFullyQualifiedTableNameAtRuntime())));
-    	
-        for (IntrospectedColumn introspectedColumn : ListUtilities.removeIdentityAndGeneratedAlwaysColumns(introspectedTable.getAllColumns())) {
-            
-            method.addBodyLine(""); //$NON-NLS-1$
-            if (!introspectedColumn.getFullyQualifiedJavaType().isPrimitive()
-                    && !introspectedColumn.isSequenceColumn()) {
-                method.addBodyLine(String.format("if (record.%s() != null) {", //$NON-NLS-1$
-                    getGetterMethodName(introspectedColumn.getJavaProperty(),
-                            introspectedColumn.getFullyQualifiedJavaType())));
+        Method buildMethod = newBuildMethod(buildMethodName);
+        buildMethod.addBodyLine(String.format("StringBuilder sql = new StringBuilder(\"insert into %s (\");", //$NON-NLS-1$
+                escapeStringForJava(getTableNameByRecord())));
+        buildMethod.addBodyLine("StringBuilder values = new StringBuilder(\") values (\");"); //$NON-NLS-1$
+        buildMethod.addBodyLine("String separator = \"\";"); //$NON-NLS-1$
+        for (IntrospectedColumn introspectedColumn : columns) {
+            int bit = optionalColumns.indexOf(introspectedColumn);
+            if (bit >= 0) {
+                buildMethod.addBodyLine(getMaskTest(bit));
             }
-          	method.addBodyLine(String.format("%sVALUES(\"%s\", \"%s\");", //$NON-NLS-1$
-          			builderPrefix,
-          			escapeStringForJava(getEscapedColumnName(introspectedColumn)),
+            buildMethod.addBodyLine(String.format("sql.append(separator).append(\"%s\");", //$NON-NLS-1$
+                    escapeStringForJava(getEscapedColumnName(introspectedColumn))));
+            buildMethod.addBodyLine(String.format("values.append(separator).append(\"%s\");", //$NON-NLS-1$
                     getParameterClause(introspectedColumn)));
-
-          	if (!introspectedColumn.getFullyQualifiedJavaType().isPrimitive()
-                    && !introspectedColumn.isSequenceColumn()) {
-                method.addBodyLine("}"); //$NON-NLS-1$
+            buildMethod.addBodyLine("separator = \", \";"); //$NON-NLS-1$
+            if (bit >= 0) {
+                buildMethod.addBodyLine("}"); //$NON-NLS-1$
             }
         }
-        
-        method.addBodyLine(""); //$NON-NLS-1$
-        if (useLegacyBuilder) {
-        	method.addBodyLine("return SQL();"); //$NON-NLS-1$
-        } else {
-        	method.addBodyLine("return sql.toString();"); //$NON-NLS-1$
-        }
-        
+        buildMethod.addBodyLine("return sql.append(values).append(')').toString();"); //$NON-NLS-1$
+
         if (context.getPlugins().providerInsertSelectiveMethodGenerated(method, topLevelClass,
                 introspectedTable)) {
-            topLevelClass.addStaticImports(staticImports);
-            topLevelClass.addImportedTypes(importedTypes);
+            addCacheField(topLevelClass, cacheName);
+            topLevelClass.addImportedType(fqjt);
             topLevelClass.addMethod(method);
+            topLevelClass.addMethod(buildMethod);
         }
     }
 }
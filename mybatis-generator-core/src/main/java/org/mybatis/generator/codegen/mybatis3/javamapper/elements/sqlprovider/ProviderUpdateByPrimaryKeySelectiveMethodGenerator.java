@@ -17,11 +17,10 @@ package org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider;
 
 import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getEscapedColumnName;
 import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
-import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
 import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
 
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
@@ -39,29 +38,32 @@ import org.mybatis.generator.codegen.mybatis3.ListUtilities;
 public class ProviderUpdateByPrimaryKeySelectiveMethodGenerator extends
         AbstractJavaProviderMethodGenerator {
 
-    public ProviderUpdateByPrimaryKeySelectiveMethodGenerator(boolean useLegacyBuilder) {
-        super(useLegacyBuilder);
+    public ProviderUpdateByPrimaryKeySelectiveMethodGenerator() {
+        super();
     }
 
     @Override
     public void addClassElements(TopLevelClass topLevelClass) {
-        Set<String> staticImports = new TreeSet<String>();
-        Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
-
-        if (useLegacyBuilder) {
-        	staticImports.add("org.apache.ibatis.jdbc.SqlBuilder.BEGIN"); //$NON-NLS-1$
-        	staticImports.add("org.apache.ibatis.jdbc.SqlBuilder.UPDATE"); //$NON-NLS-1$
-        	staticImports.add("org.apache.ibatis.jdbc.SqlBuilder.SET"); //$NON-NLS-1$
-        	staticImports.add("org.apache.ibatis.jdbc.SqlBuilder.SQL"); //$NON-NLS-1$
-        	staticImports.add("org.apache.ibatis.jdbc.SqlBuilder.WHERE"); //$NON-NLS-1$
-        } else {
-        	importedTypes.add(NEW_BUILDER_IMPORT);
+        List<IntrospectedColumn> columns = ListUtilities
+                .removeGeneratedAlwaysColumns(introspectedTable.getNonPrimaryKeyColumns());
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        columns.remove(versionColumn);
+        List<IntrospectedColumn> optionalColumns = new ArrayList<IntrospectedColumn>();
+        for (IntrospectedColumn introspectedColumn : columns) {
+            if (isOptional(introspectedColumn)) {
+                optionalColumns.add(introspectedColumn);
+            }
+        }
+        if (optionalColumns.size() > MAX_MASK_COLUMNS
+                || introspectedTable.isFixedShapeRequired(columns.size())) {
+            // the statement is left to the mapper
+            return;
         }
 
         FullyQualifiedJavaType fqjt = introspectedTable.getRules().calculateAllFieldsClass();
-        importedTypes.add(fqjt);
         
-        Method method = new Method(introspectedTable.getUpdateByPrimaryKeySelectiveStatementId());
+        String statementId = introspectedTable.getUpdateByPrimaryKeySelectiveStatementId();
+        Method method = new Method(statementId);
         method.setReturnType(FullyQualifiedJavaType.getStringInstance());
         method.setVisibility(JavaVisibility.PUBLIC);
         method.addParameter(new Parameter(fqjt, "record")); //$NON-NLS-1$
@@ -69,56 +71,51 @@ public class ProviderUpdateByPrimaryKeySelectiveMethodGenerator extends
         context.getCommentGenerator().addGeneralMethodComment(method,
                 introspectedTable);
 
-        if (useLegacyBuilder) {
-        	method.addBodyLine("BEGIN();"); //$NON-NLS-1$
-        } else {
-        	method.addBodyLine("SQL sql = new SQL();"); //$NON-NLS-1$
-        }
-        
-        method.addBodyLine(String.format("%sUPDATE(\"%s\");", //$NON-NLS-1$
-                builderPrefix,
-        		escapeStringForJava(introspectedTable.getFullyQualifiedTableNameAtRuntime())));
-        method.addBodyLine(""); //$NON-NLS-1$
-        
-        for (IntrospectedColumn introspectedColumn : ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getNonPrimaryKeyColumns())) {
-            if (!introspectedColumn.getFullyQualifiedJavaType().isPrimitive()) {
-                method.addBodyLine(String.format("if (record.%s() != null) {", //$NON-NLS-1$
-                    getGetterMethodName(introspectedColumn.getJavaProperty(),
-                            introspectedColumn.getFullyQualifiedJavaType())));
-            }
+        String cacheName = "UPDATE_BY_PRIMARY_KEY_SQL"; //$NON-NLS-1$
+        String buildMethodName = "build" + Character.toUpperCase(statementId.charAt(0)) //$NON-NLS-1$
+                + statementId.substring(1);
+        addNullMaskLines(method, optionalColumns, "record"); //$NON-NLS-1$
+        addCachedSqlLines(method, cacheName, buildMethodName);
+        method.addBodyLine("return sql;"); //$NON-NLS-1$
 
-            method.addBodyLine(String.format("%sSET(\"%s = %s\");", //$NON-NLS-1$
-            		builderPrefix,
-            		escapeStringForJava(getEscapedColumnName(introspectedColumn)),
+        Method buildMethod = newBuildMethod(buildMethodName);
+        addSetStartLines(buildMethod, getTableNameByRecord(), versionColumn, false);
+        for (IntrospectedColumn introspectedColumn : columns) {
+            int bit = optionalColumns.indexOf(introspectedColumn);
+            if (bit >= 0) {
+                buildMethod.addBodyLine(getMaskTest(bit));
+            }
+            buildMethod.addBodyLine(String.format("sql.append(separator).append(\"%s = %s\");", //$NON-NLS-1$
+                    escapeStringForJava(getEscapedColumnName(introspectedColumn)),
                     getParameterClause(introspectedColumn)));
-                
-            if (!introspectedColumn.getFullyQualifiedJavaType().isPrimitive()) {
-                method.addBodyLine("}"); //$NON-NLS-1$
+            buildMethod.addBodyLine("separator = \", \";"); //$NON-NLS-1$
+            if (bit >= 0) {
+                buildMethod.addBodyLine("}"); //$NON-NLS-1$
             }
-
-            method.addBodyLine(""); //$NON-NLS-1$
         }
 
+        StringBuilder sb = new StringBuilder();
         for (IntrospectedColumn introspectedColumn : introspectedTable.getPrimaryKeyColumns()) {
-            method.addBodyLine(String.format("%sWHERE(\"%s = %s\");", //$NON-NLS-1$
-            		builderPrefix,
-            		escapeStringForJava(getEscapedColumnName(introspectedColumn)),
-                    getParameterClause(introspectedColumn)));
+            sb.append(sb.length() == 0 ? " where " : " and "); //$NON-NLS-1$ //$NON-NLS-2$
+            sb.append(getEscapedColumnName(introspectedColumn));
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(getParameterClause(introspectedColumn));
         }
-        
-        method.addBodyLine(""); //$NON-NLS-1$
-        
-        if (useLegacyBuilder) {
-        	method.addBodyLine("return SQL();"); //$NON-NLS-1$
-        } else {
-        	method.addBodyLine("return sql.toString();"); //$NON-NLS-1$
+        if (versionColumn != null) {
+            sb.append(" and "); //$NON-NLS-1$
+            sb.append(getEscapedColumnName(versionColumn));
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(getParameterClause(versionColumn));
         }
+        buildMethod.addBodyLine(String.format("return sql.append(\"%s\").toString();", //$NON-NLS-1$
+                escapeStringForJava(sb.toString())));
 
         if (context.getPlugins().providerUpdateByPrimaryKeySelectiveMethodGenerated(method, topLevelClass,
                 introspectedTable)) {
-            topLevelClass.addStaticImports(staticImports);
-            topLevelClass.addImportedTypes(importedTypes);
+            addCacheField(topLevelClass, cacheName);
+            topLevelClass.addImportedType(fqjt);
             topLevelClass.addMethod(method);
+            topLevelClass.addMethod(buildMethod);
         }
     }
 }
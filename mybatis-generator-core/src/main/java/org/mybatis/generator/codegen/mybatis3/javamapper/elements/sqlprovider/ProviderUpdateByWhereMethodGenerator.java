@@ -0,0 +1,151 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider;
+
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getAliasedEscapedColumnName;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.AbstractXmlElementGenerator;
+
+/**
+ * 按条件选择性更新. set 部分按记录的空值掩码缓存, 条件部分由 applyWhere 追加.
+ * 
+ */
+public class ProviderUpdateByWhereMethodGenerator extends
+        AbstractJavaProviderMethodGenerator {
+
+    public ProviderUpdateByWhereMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        List<IntrospectedColumn> columns = ListUtilities
+                .removeGeneratedAlwaysColumns(introspectedTable.getAllColumns());
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        columns.remove(versionColumn);
+        List<IntrospectedColumn> optionalColumns = new ArrayList<IntrospectedColumn>();
+        for (IntrospectedColumn introspectedColumn : columns) {
+            if (isOptional(introspectedColumn)) {
+                optionalColumns.add(introspectedColumn);
+            }
+        }
+        if (optionalColumns.size() > MAX_MASK_COLUMNS
+                || introspectedTable.isFixedShapeRequired(columns.size())) {
+            // the statement is left to the mapper
+            return;
+        }
+
+        String statementId = introspectedTable.getUpdateByWhereStatementId();
+        Method method = new Method(statementId);
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("java.util.Map<java.lang.String, java.lang.Object>"), //$NON-NLS-1$
+                "parameter")); //$NON-NLS-1$
+        
+        FullyQualifiedJavaType record =
+            introspectedTable.getRules().calculateAllFieldsClass();
+        method.addBodyLine(String.format("%s record = (%s) parameter.get(\"record\");", //$NON-NLS-1$
+                record.getShortName(), record.getShortName()));
+
+        FullyQualifiedJavaType where =
+            new FullyQualifiedJavaType(introspectedTable.getWhereType());
+        method.addBodyLine(String.format("%s where = (%s) parameter.get(\"where\");", //$NON-NLS-1$
+                where.getShortName(), where.getShortName()));
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                introspectedTable);
+
+        String cacheName = "UPDATE_BY_WHERE_SQL"; //$NON-NLS-1$
+        String buildMethodName = "build" + Character.toUpperCase(statementId.charAt(0)) //$NON-NLS-1$
+                + statementId.substring(1);
+        addNullMaskLines(method, optionalColumns, "record"); //$NON-NLS-1$
+        addCachedSqlLines(method, cacheName, buildMethodName);
+        if (versionColumn == null) {
+            method.addBodyLine("if (where == null || where.getCriterion().isEmpty()) {"); //$NON-NLS-1$
+            method.addBodyLine("return sql;"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("StringBuilder sb = new StringBuilder(sql);"); //$NON-NLS-1$
+            method.addBodyLine("applyWhere(sb, where);"); //$NON-NLS-1$
+        } else {
+            addVersionedWhereLines(method, versionColumn);
+        }
+        method.addBodyLine("return sb.toString();"); //$NON-NLS-1$
+
+        Method buildMethod = newBuildMethod(buildMethodName);
+        addSetStartLines(buildMethod, introspectedTable.getShardedTableNameAtRuntime("table", //$NON-NLS-1$
+                AbstractXmlElementGenerator.WHERE_SHARD_KEY, true), versionColumn, true);
+        for (IntrospectedColumn introspectedColumn : columns) {
+            int bit = optionalColumns.indexOf(introspectedColumn);
+            if (bit >= 0) {
+                buildMethod.addBodyLine(getMaskTest(bit));
+            }
+            buildMethod.addBodyLine(String.format("sql.append(separator).append(\"%s = %s\");", //$NON-NLS-1$
+                    escapeStringForJava(getAliasedEscapedColumnName(introspectedColumn)),
+                    getParameterClause(introspectedColumn, "record."))); //$NON-NLS-1$
+            buildMethod.addBodyLine("separator = \", \";"); //$NON-NLS-1$
+            if (bit >= 0) {
+                buildMethod.addBodyLine("}"); //$NON-NLS-1$
+            }
+        }
+        buildMethod.addBodyLine("return sql.toString();"); //$NON-NLS-1$
+
+        if (context.getPlugins().providerUpdateByExampleSelectiveMethodGenerated(method, topLevelClass,
+                introspectedTable)) {
+            addCacheField(topLevelClass, cacheName);
+            topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Map")); //$NON-NLS-1$
+            topLevelClass.addImportedType(record);
+            topLevelClass.addImportedType(where);
+            topLevelClass.addMethod(method);
+            topLevelClass.addMethod(buildMethod);
+        }
+    }
+
+    /**
+     * 条件之后追加版本检查: 记录带有版本时只更新版本一致的行, 不带版本时是不检查版本的批量更新.
+     */
+    private void addVersionedWhereLines(Method method, IntrospectedColumn versionColumn) {
+        String version = "record." + getGetterMethodName(versionColumn.getJavaProperty(), //$NON-NLS-1$
+                versionColumn.getFullyQualifiedJavaType()) + "()"; //$NON-NLS-1$
+        boolean primitive = versionColumn.getFullyQualifiedJavaType().isPrimitive();
+        method.addBodyLine("StringBuilder sb = new StringBuilder(sql);"); //$NON-NLS-1$
+        method.addBodyLine("if (where != null) {"); //$NON-NLS-1$
+        method.addBodyLine("applyWhere(sb, where);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        if (!primitive) {
+            method.addBodyLine("if (" + version + " != null) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        method.addBodyLine("sb.append(sb.length() == sql.length() ? \" where \" : \" and \");"); //$NON-NLS-1$
+        method.addBodyLine(String.format("sb.append(\"%s = %s\");", //$NON-NLS-1$
+                escapeStringForJava(getAliasedEscapedColumnName(versionColumn)),
+                getParameterClause(versionColumn, "record."))); //$NON-NLS-1$
+        if (!primitive) {
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
+    }
+}
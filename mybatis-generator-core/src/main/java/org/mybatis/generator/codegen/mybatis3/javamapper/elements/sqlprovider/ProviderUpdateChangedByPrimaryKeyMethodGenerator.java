@@ -0,0 +1,113 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider;
+
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getEscapedColumnName;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.CHANGED_MASK_FIELD;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * updateChangedByPrimaryKey 的 SQL 只取决于记录的 changedMask, 直接用它作为缓存的键.
+ * 
+ */
+public class ProviderUpdateChangedByPrimaryKeyMethodGenerator extends
+        AbstractJavaProviderMethodGenerator {
+
+    public ProviderUpdateChangedByPrimaryKeyMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        List<IntrospectedColumn> columns = introspectedTable.getChangeTrackedColumns();
+        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(
+                introspectedTable.getBaseRecordType());
+
+        String statementId = introspectedTable.getUpdateChangedByPrimaryKeyStatementId();
+        Method method = new Method(statementId);
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addParameter(new Parameter(fqjt, "record")); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                introspectedTable);
+
+        String cacheName = "UPDATE_CHANGED_BY_PRIMARY_KEY_SQL"; //$NON-NLS-1$
+        String buildMethodName = "build" + Character.toUpperCase(statementId.charAt(0)) //$NON-NLS-1$
+                + statementId.substring(1);
+        method.addBodyLine(String.format("long mask = record.%s();", //$NON-NLS-1$
+                getGetterMethodName(CHANGED_MASK_FIELD, new FullyQualifiedJavaType("long")))); //$NON-NLS-1$
+        addCachedSqlLines(method, cacheName, buildMethodName);
+        method.addBodyLine("return sql;"); //$NON-NLS-1$
+
+        Method buildMethod = newBuildMethod(buildMethodName);
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        addSetStartLines(buildMethod, getTableNameByRecord(), versionColumn, false);
+        if (versionColumn == null) {
+            // nothing changed, a self assignment keeps the statement valid
+            IntrospectedColumn firstKeyColumn = introspectedTable.getPrimaryKeyColumns().get(0);
+            buildMethod.addBodyLine("if (mask == 0L) {"); //$NON-NLS-1$
+            buildMethod.addBodyLine(String.format("sql.append(\"%s = %s\");", //$NON-NLS-1$
+                    escapeStringForJava(getEscapedColumnName(firstKeyColumn)),
+                    escapeStringForJava(getEscapedColumnName(firstKeyColumn))));
+            buildMethod.addBodyLine("}"); //$NON-NLS-1$
+        }
+        for (int bit = 0; bit < columns.size(); bit++) {
+            IntrospectedColumn introspectedColumn = columns.get(bit);
+            buildMethod.addBodyLine(getMaskTest(bit));
+            buildMethod.addBodyLine(String.format("sql.append(separator).append(\"%s = %s\");", //$NON-NLS-1$
+                    escapeStringForJava(getEscapedColumnName(introspectedColumn)),
+                    getParameterClause(introspectedColumn)));
+            buildMethod.addBodyLine("separator = \", \";"); //$NON-NLS-1$
+            buildMethod.addBodyLine("}"); //$NON-NLS-1$
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getPrimaryKeyColumns()) {
+            sb.append(sb.length() == 0 ? " where " : " and "); //$NON-NLS-1$ //$NON-NLS-2$
+            sb.append(getEscapedColumnName(introspectedColumn));
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(getParameterClause(introspectedColumn));
+        }
+        if (versionColumn != null) {
+            sb.append(" and "); //$NON-NLS-1$
+            sb.append(getEscapedColumnName(versionColumn));
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(getParameterClause(versionColumn));
+        }
+        buildMethod.addBodyLine(String.format("return sql.append(\"%s\").toString();", //$NON-NLS-1$
+                escapeStringForJava(sb.toString())));
+
+        if (context.getPlugins().providerUpdateByPrimaryKeySelectiveMethodGenerated(method, topLevelClass,
+                introspectedTable)) {
+            addCacheField(topLevelClass, cacheName);
+            topLevelClass.addImportedType(fqjt);
+            topLevelClass.addMethod(method);
+            topLevelClass.addMethod(buildMethod);
+        }
+    }
+}
@@ -15,9 +15,17 @@
  */
 package org.mybatis.generator.codegen.mybatis3.model;
 
+import static org.mybatis.generator.internal.util.JavaBeansUtil.CHANGED_MASK_FIELD;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getBitLiteral;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getCompactJavaBeansField;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getCompactJavaBeansGetter;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getCompactJavaBeansSetter;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
 import static org.mybatis.generator.internal.util.JavaBeansUtil.getJavaBeansField;
 import static org.mybatis.generator.internal.util.JavaBeansUtil.getJavaBeansGetter;
 import static org.mybatis.generator.internal.util.JavaBeansUtil.getJavaBeansSetter;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getNullMaskField;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getSetterMethodName;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.util.ArrayList;
@@ -26,6 +34,7 @@ import java.util.List;
 import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.FullyQualifiedTable;
 import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedForeignKey;
 import org.mybatis.generator.api.Plugin;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.Field;
@@ -79,6 +88,20 @@ public class BaseRecordGenerator extends AbstractJavaGenerator {
             }
         }
         
+        List<IntrospectedColumn> compactColumns = introspectedTable.getCompactColumns();
+        if (!compactColumns.isEmpty()) {
+            Field field = getNullMaskField(compactColumns, context, introspectedTable);
+            topLevelClass.addField(field);
+        }
+
+        List<IntrospectedColumn> trackedColumns = introspectedTable.getChangeTrackedColumns();
+        if (!trackedColumns.isEmpty()) {
+            addChangedMaskField(topLevelClass);
+        } else if (introspectedTable.isTrackChanges()) {
+            warnings.add(getString("Warning.40", //$NON-NLS-1$
+                    introspectedTable.getFullyQualifiedTable().toString()));
+        }
+
         String rootClass = getRootClass();
         for (IntrospectedColumn introspectedColumn : introspectedColumns) {
             if (RootClassInfo.getInstance(rootClass, warnings)
@@ -86,7 +109,10 @@ public class BaseRecordGenerator extends AbstractJavaGenerator {
                 continue;
             }
 
-            Field field = getJavaBeansField(introspectedColumn, context, introspectedTable);
+            int bit = compactColumns.indexOf(introspectedColumn);
+            Field field = bit == -1
+                    ? getJavaBeansField(introspectedColumn, context, introspectedTable)
+                    : getCompactJavaBeansField(introspectedColumn, context, introspectedTable);
             if (plugins.modelFieldGenerated(field, topLevelClass,
                     introspectedColumn, introspectedTable,
                     Plugin.ModelClassType.BASE_RECORD)) {
@@ -94,7 +120,9 @@ public class BaseRecordGenerator extends AbstractJavaGenerator {
                 topLevelClass.addImportedType(field.getType());
             }
 
-            Method method = getJavaBeansGetter(introspectedColumn, context, introspectedTable);
+            Method method = bit == -1
+                    ? getJavaBeansGetter(introspectedColumn, context, introspectedTable)
+                    : getCompactJavaBeansGetter(introspectedColumn, bit, context, introspectedTable);
             if (plugins.modelGetterMethodGenerated(method, topLevelClass,
                     introspectedColumn, introspectedTable,
                     Plugin.ModelClassType.BASE_RECORD)) {
@@ -102,7 +130,14 @@ public class BaseRecordGenerator extends AbstractJavaGenerator {
             }
 
             if (!introspectedTable.isImmutable()) {
-                method = getJavaBeansSetter(introspectedColumn, context, introspectedTable);
+                method = bit == -1
+                        ? getJavaBeansSetter(introspectedColumn, context, introspectedTable)
+                        : getCompactJavaBeansSetter(introspectedColumn, bit, context, introspectedTable);
+                int changedBit = trackedColumns.indexOf(introspectedColumn);
+                if (changedBit != -1) {
+                    method.addBodyLine(CHANGED_MASK_FIELD + " |= " //$NON-NLS-1$
+                            + getBitLiteral(changedBit) + ';');
+                }
                 if (plugins.modelSetterMethodGenerated(method, topLevelClass,
                         introspectedColumn, introspectedTable,
                         Plugin.ModelClassType.BASE_RECORD)) {
@@ -111,6 +146,16 @@ public class BaseRecordGenerator extends AbstractJavaGenerator {
             }
         }
 
+        if (!trackedColumns.isEmpty()) {
+            addChangedMaskMethods(topLevelClass);
+        }
+
+        if (introspectedTable.getRules().generateJoinResultMap()) {
+            for (IntrospectedForeignKey foreignKey : introspectedTable.getJoinedForeignKeys()) {
+                addChildCollectionProperty(topLevelClass, foreignKey);
+            }
+        }
+
         List<CompilationUnit> answer = new ArrayList<CompilationUnit>();
         if (context.getPlugins().modelBaseRecordClassGenerated(
                 topLevelClass, introspectedTable)) {
@@ -119,6 +164,80 @@ public class BaseRecordGenerator extends AbstractJavaGenerator {
         return answer;
     }
 
+    /**
+     * 添加记录已修改属性的位掩码, 每个可更新的非主键属性占一位, 由 setter 置位.
+     */
+    private void addChangedMaskField(TopLevelClass topLevelClass) {
+        Field field = new Field();
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setType(new FullyQualifiedJavaType("long")); //$NON-NLS-1$
+        field.setName(CHANGED_MASK_FIELD);
+        context.getCommentGenerator().addFieldComment(field, introspectedTable);
+        topLevelClass.addField(field);
+    }
+
+    /**
+     * 添加读取和清空已修改属性位掩码的方法, updateChangedByPrimaryKey 只写入掩码中的列.
+     */
+    private void addChangedMaskMethods(TopLevelClass topLevelClass) {
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(new FullyQualifiedJavaType("long")); //$NON-NLS-1$
+        method.setName(getGetterMethodName(CHANGED_MASK_FIELD, method.getReturnType()));
+        method.addBodyLine("return " + CHANGED_MASK_FIELD + ';'); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "创建或上次 clearChanges 之后调用过 setter 的非主键属性, 每个属性占一位"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setName("clearChanges"); //$NON-NLS-1$
+        method.addBodyLine(CHANGED_MASK_FIELD + " = 0L;"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "清空已修改属性, 查询出的记录或更新成功后调用"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+    }
+
+    /**
+     * 添加保存子表记录的集合属性, 由连接查询 selectByWhereWithXxxList 填充.
+     */
+    private void addChildCollectionProperty(TopLevelClass topLevelClass,
+            IntrospectedForeignKey foreignKey) {
+        String property = foreignKey.getCollectionPropertyName();
+        FullyQualifiedJavaType childType = new FullyQualifiedJavaType(
+                foreignKey.getChildTable().getBaseRecordType());
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        topLevelClass.addImportedType(listType);
+        topLevelClass.addImportedType(childType);
+        listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(childType);
+
+        Field field = new Field();
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setType(listType);
+        field.setName(property);
+        context.getCommentGenerator().addFieldComment(field, introspectedTable);
+        topLevelClass.addField(field);
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(listType);
+        method.setName(getGetterMethodName(property, listType));
+        method.addBodyLine("return " + property + ';'); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        topLevelClass.addMethod(method);
+
+        if (!introspectedTable.isImmutable()) {
+            method = new Method();
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setName(getSetterMethodName(property));
+            method.addParameter(new Parameter(listType, property));
+            method.addBodyLine("this." + property + " = " + property + ';'); //$NON-NLS-1$ //$NON-NLS-2$
+            context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+            topLevelClass.addMethod(method);
+        }
+    }
+
     private FullyQualifiedJavaType getSuperClass() {
         FullyQualifiedJavaType superClass;
         if (introspectedTable.getRules().generatePrimaryKeyClass()) {
@@ -15,6 +15,7 @@
  */
 package org.mybatis.generator.codegen.mybatis3.model;
 
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.util.ArrayList;
@@ -32,6 +33,7 @@ import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.codegen.AbstractJavaGenerator;
+import org.mybatis.generator.config.PropertyRegistry;
 
 /**
  *
@@ -127,6 +129,41 @@ public class WhereGenerator extends AbstractJavaGenerator {
         commentGenerator.addGeneralMethodComment(method, "是否会设置 distinct 属性");
         topLevelClass.addMethod(method);
 
+        // add fields, getters, setters for limit and offset
+        addPagingField(topLevelClass, commentGenerator, whereClasstype,
+                "limit", "最多返回的记录数, 为 null 时不限制"); //$NON-NLS-1$
+        addPagingField(topLevelClass, commentGenerator, whereClasstype,
+                "offset", "跳过的记录数, 只在设置了 limit 时生效"); //$NON-NLS-1$
+
+        method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setName("page"); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType
+                .getIntInstance(), "pageNum")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType
+                .getIntInstance(), "pageSize")); //$NON-NLS-1$
+        method.addBodyLine("if (pageNum <= 0 || pageSize <= 0) {"); //$NON-NLS-1$
+        method.addBodyLine("throw new IllegalArgumentException(\"pageNum and pageSize must be positive: \" + pageNum + \", \" + pageSize);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        // the product of two ints overflows before a deep page is reached
+        method.addBodyLine("long offset = (pageNum - 1L) * pageSize;"); //$NON-NLS-1$
+        method.addBodyLine("if (offset > Integer.MAX_VALUE) {"); //$NON-NLS-1$
+        method.addBodyLine("throw new IllegalArgumentException(\"The offset of page \" + pageNum + \" exceeds Integer.MAX_VALUE\");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("this.limit = pageSize;"); //$NON-NLS-1$
+        method.addBodyLine("this.offset = (int) offset;"); //$NON-NLS-1$
+        method.addBodyLine("return this;"); //$NON-NLS-1$
+        method.setReturnType(whereClasstype);
+        commentGenerator.addGeneralMethodComment(method, "按页设置 limit 和 offset, pageNum 和 pageSize 必须为正数, pageNum 从 1 开始");
+        topLevelClass.addMethod(method);
+
+        IntrospectedColumn shardColumn = introspectedTable.isSharded()
+                ? introspectedTable.getShardColumn() : null;
+        if (shardColumn != null) {
+            addShardKeyField(topLevelClass, commentGenerator, whereClasstype,
+                    shardColumn);
+        }
+
         // add field and methods for the list of ored criteria
         field = new Field();
         field.setVisibility(JavaVisibility.PROTECTED);
@@ -164,11 +201,25 @@ public class WhereGenerator extends AbstractJavaGenerator {
         method.addBodyLine("criterions.clear();"); //$NON-NLS-1$
         method.addBodyLine("orderBy = null;"); //$NON-NLS-1$
         method.addBodyLine("distinct = false;"); //$NON-NLS-1$
+        method.addBodyLine("limit = null;"); //$NON-NLS-1$
+        method.addBodyLine("offset = null;"); //$NON-NLS-1$
+        if (shardColumn != null) {
+            method.addBodyLine("shardKey = null;"); //$NON-NLS-1$
+        }
         commentGenerator.addGeneralMethodComment(method, "清除所有参数");
         topLevelClass.addMethod(method);
 
+        // without index information every column is treated as indexed
+        boolean omitUnindexed = introspectedTable.hasIndexInformation()
+                && isTrue(introspectedTable
+                        .getTableConfigurationProperty(PropertyRegistry.TABLE_OMIT_UNINDEXED_CRITERIA));
         for (IntrospectedColumn introspectedColumn : introspectedTable.getAllColumns()) {
-            builderColumnCriterion(introspectedColumn, topLevelClass, commentGenerator, criterion);
+            boolean indexed = !introspectedTable.hasIndexInformation()
+                    || introspectedTable.isIndexedColumn(introspectedColumn);
+            if (!indexed && omitUnindexed) {
+                continue;
+            }
+            builderColumnCriterion(introspectedColumn, topLevelClass, commentGenerator, criterion, indexed);
         }
 
         topLevelClass.addInnerClass(criterion);
@@ -181,8 +232,80 @@ public class WhereGenerator extends AbstractJavaGenerator {
         return answer;
     }
 
+    private void addPagingField(TopLevelClass topLevelClass, CommentGenerator commentGenerator,
+                                FullyQualifiedJavaType whereClasstype, String name, String remark) {
+        FullyQualifiedJavaType integerType = new FullyQualifiedJavaType("java.lang.Integer"); //$NON-NLS-1$
+        StringBuilder sb = new StringBuilder();
+        sb.append(Character.toUpperCase(name.charAt(0)));
+        sb.append(name.substring(1));
+
+        Field field = new Field();
+        field.setVisibility(JavaVisibility.PROTECTED);
+        field.setType(integerType);
+        field.setName(name);
+        commentGenerator.addFieldComment(field, remark);
+        topLevelClass.addField(field);
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setName("set" + sb.toString()); //$NON-NLS-1$
+        method.addParameter(new Parameter(integerType, name));
+        method.addBodyLine("this." + name + " = " + name + ";"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        method.addBodyLine("return this;"); //$NON-NLS-1$
+        method.setReturnType(whereClasstype);
+        commentGenerator.addGeneralMethodComment(method, "设置" + remark);
+        topLevelClass.addMethod(method);
+
+        method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(integerType);
+        method.setName("get" + sb.toString()); //$NON-NLS-1$
+        method.addBodyLine("return " + name + ";"); //$NON-NLS-1$ //$NON-NLS-2$
+        commentGenerator.addGeneralMethodComment(method, "获取" + remark);
+        topLevelClass.addMethod(method);
+    }
+
+    /**
+     * 分表时添加 shardKey 属性, 按条件的语句由它决定物理表.
+     */
+    private void addShardKeyField(TopLevelClass topLevelClass, CommentGenerator commentGenerator,
+                                  FullyQualifiedJavaType whereClasstype, IntrospectedColumn shardColumn) {
+        FullyQualifiedJavaType type = shardColumn.getFullyQualifiedJavaType();
+        if (type.isPrimitive()) {
+            type = type.getPrimitiveTypeWrapper();
+        }
+        topLevelClass.addImportedType(type);
+        String remark = "分表键, 即 " + shardColumn.getActualColumnName() + " 的值, 决定查询哪个分表"; //$NON-NLS-1$ //$NON-NLS-2$
+
+        Field field = new Field();
+        field.setVisibility(JavaVisibility.PROTECTED);
+        field.setType(type);
+        field.setName("shardKey"); //$NON-NLS-1$
+        commentGenerator.addFieldComment(field, remark);
+        topLevelClass.addField(field);
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setName("setShardKey"); //$NON-NLS-1$
+        method.addParameter(new Parameter(type, "shardKey")); //$NON-NLS-1$
+        method.addBodyLine("this.shardKey = shardKey;"); //$NON-NLS-1$
+        method.addBodyLine("return this;"); //$NON-NLS-1$
+        method.setReturnType(whereClasstype);
+        commentGenerator.addGeneralMethodComment(method, "设置" + remark);
+        topLevelClass.addMethod(method);
+
+        method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(type);
+        method.setName("getShardKey"); //$NON-NLS-1$
+        method.addBodyLine("return shardKey;"); //$NON-NLS-1$
+        commentGenerator.addGeneralMethodComment(method, "获取" + remark);
+        topLevelClass.addMethod(method);
+    }
+
     private void builderColumnCriterion(IntrospectedColumn introspectedColumn, TopLevelClass topLevelClass,
-                                        CommentGenerator commentGenerator, InnerClass criterionClass) {
+                                        CommentGenerator commentGenerator, InnerClass criterionClass,
+                                        boolean indexed) {
 
         Method method = new Method();
         method.setVisibility(JavaVisibility.PUBLIC);
@@ -205,7 +328,12 @@ public class WhereGenerator extends AbstractJavaGenerator {
         method.setReturnType(criterionClass.getType());
         method.addBodyLine("return new "
                 + criterionClass.getType() + "(\"" + introspectedColumn.getActualColumnName() + "\",value,\"" + introspectedColumn.getJdbcTypeName() + "\");"); //$NON-NLS-1$
-        commentGenerator.addGeneralMethodComment(method, "添加条件--" + introspectedColumn.getRemarks());
+        if (indexed) {
+            commentGenerator.addGeneralMethodComment(method, "添加条件--" + introspectedColumn.getRemarks());
+        } else {
+            commentGenerator.addGeneralMethodComment(method, "添加条件--" + introspectedColumn.getRemarks()
+                    + " (该列不是任何索引的首列, 单独使用会导致全表扫描)");
+        }
         topLevelClass.addMethod(method);
 
     }
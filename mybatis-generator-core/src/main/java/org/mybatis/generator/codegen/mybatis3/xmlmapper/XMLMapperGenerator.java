@@ -17,7 +17,13 @@ package org.mybatis.generator.codegen.mybatis3.xmlmapper;
 
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedForeignKey;
+import org.mybatis.generator.api.IntrospectedIndex;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.Document;
 import org.mybatis.generator.api.dom.xml.XmlElement;
@@ -36,7 +42,7 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
         super();
     }
 
-    protected XmlElement getSqlMapElement() {
+    public XmlElement getSqlMapElement() {
         FullyQualifiedTable table = introspectedTable.getFullyQualifiedTable();
         progressCallback.startTask(getString(
                 "Progress.12", table.toString())); //$NON-NLS-1$
@@ -49,30 +55,45 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
 
         addResultMapElement(answer);
         addResultMapWithBLOBSElement(answer);
+        addJoinResultMapElements(answer);
         addCustomColumnListElement(answer);
         addWhereClauseElement(answer);
         addBaseColumnListElement(answer);
         addBlobColumnListElement(answer);
 
         addCountByWhereElement(answer);
+        addExistsByWhereElement(answer);
+        addSelectOneByWhereElement(answer);
         addSelectByWhereElement(answer);
         addSelectByWhereWitchColumnElement(answer);
         addSelectByWhereWithoutBLOBsElement(answer);
+        addSelectByWhereCursorElement(answer);
+        addSelectByWhereWithHandlerElement(answer);
+        addSelectPageAfterElement(answer);
         addSelectByPrimaryKeyElement(answer);
+        addSelectByPrimaryKeysElement(answer);
+        addSelectByIndexElements(answer);
+        addSelectByParentKeysElements(answer);
+        addSelectByWhereWithChildrenElements(answer);
 
         addDeleteByWhereElement(answer);
         addDeleteByPrimaryKeyElement(answer);
+        addDeleteByPrimaryKeysElement(answer);
 
         addInsertNotCheckElement(answer);
         addInsertElement(answer);
         addInserstElement(answer);
+        addUpsertElement(answer);
+        addUpsertBatchElement(answer);
 
         addUpdateByWhereElement(answer);
         addUpdateByWhereWithBLOBsElement(answer);
         addUpdateByWhereWithoutBLOBsElement(answer);
         addUpdateByPrimaryKeySelectiveElement(answer);
+        addUpdateChangedByPrimaryKeyElement(answer);
         addUpdateByPrimaryKeyWithBLOBsElement(answer);
         addUpdateByPrimaryKeyWithoutBLOBsElement(answer);
+        addIncrementElements(answer);
         //addMyBatis3UpdateByExampleWhereClauseElement(answer);
 
         return answer;
@@ -198,6 +219,113 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
     }
 
 
+    protected void addSelectByWhereCursorElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateSelectByWhereCursor()) {
+            AbstractXmlElementGenerator elementGenerator = new SelectByWhereCursorElementGenerator(false);
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
+    protected void addSelectByWhereWithHandlerElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateSelectByWhereCursor()) {
+            AbstractXmlElementGenerator elementGenerator = new SelectByWhereCursorElementGenerator(true);
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
+    protected void addSelectPageAfterElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateSelectPageAfter()) {
+            AbstractXmlElementGenerator elementGenerator = new SelectPageAfterElementGenerator();
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
+    protected void addExistsByWhereElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateExistsByWhere()) {
+            AbstractXmlElementGenerator elementGenerator = new ExistsByWhereElementGenerator();
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
+    protected void addSelectOneByWhereElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateSelectOneByWhere()) {
+            AbstractXmlElementGenerator elementGenerator = new SelectOneByWhereElementGenerator();
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
+    protected void addSelectByPrimaryKeysElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateSelectByPrimaryKeys()) {
+            AbstractXmlElementGenerator elementGenerator = new SelectByPrimaryKeysElementGenerator();
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
+    protected void addDeleteByPrimaryKeysElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateDeleteByPrimaryKeys()) {
+            AbstractXmlElementGenerator elementGenerator = new DeleteByPrimaryKeysElementGenerator();
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
+    protected void addSelectByIndexElements(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateSelectByIndex()) {
+            Set<String> statementIds = new HashSet<String>();
+            for (IntrospectedIndex index : introspectedTable.getIndexes()) {
+                // indexes on the same columns would produce the same statement
+                if (statementIds.add(introspectedTable.getSelectByIndexStatementId(index))) {
+                    AbstractXmlElementGenerator elementGenerator = new SelectByIndexElementGenerator(index);
+                    initializeAndExecuteGenerator(elementGenerator, parentElement);
+                }
+            }
+        }
+    }
+
+    protected void addSelectByParentKeysElements(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateSelectByParentKeys()) {
+            Set<String> statementIds = new HashSet<String>();
+            for (IntrospectedForeignKey foreignKey : introspectedTable.getForeignKeys()) {
+                // keys on the same columns would produce the same statement
+                if (statementIds.add(introspectedTable.getSelectByParentKeysStatementId(foreignKey))) {
+                    AbstractXmlElementGenerator elementGenerator = new SelectByParentKeysElementGenerator(foreignKey);
+                    initializeAndExecuteGenerator(elementGenerator, parentElement);
+                }
+            }
+        }
+    }
+
+    protected void addJoinResultMapElements(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateJoinResultMap()) {
+            for (IntrospectedForeignKey foreignKey : introspectedTable.getJoinedForeignKeys()) {
+                AbstractXmlElementGenerator elementGenerator = new JoinResultMapElementGenerator(foreignKey);
+                initializeAndExecuteGenerator(elementGenerator, parentElement);
+            }
+        }
+    }
+
+    protected void addSelectByWhereWithChildrenElements(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateJoinResultMap()) {
+            for (IntrospectedForeignKey foreignKey : introspectedTable.getJoinedForeignKeys()) {
+                AbstractXmlElementGenerator elementGenerator = new SelectByWhereWithChildrenElementGenerator(foreignKey);
+                initializeAndExecuteGenerator(elementGenerator, parentElement);
+            }
+        }
+    }
+
+    protected void addUpsertElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateUpsert()) {
+            AbstractXmlElementGenerator elementGenerator = new UpsertElementGenerator(false);
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
+    protected void addUpsertBatchElement(XmlElement parentElement) {
+        if (introspectedTable.getRules().generateUpsert()) {
+            AbstractXmlElementGenerator elementGenerator = new UpsertElementGenerator(true);
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
     protected void addCountByWhereElement(XmlElement parentElement) {
         if (introspectedTable.getRules().generateCountByWhere()) {
             AbstractXmlElementGenerator elementGenerator = new CountByWhereElementGenerator();
@@ -235,6 +363,27 @@ public class XMLMapperGenerator extends AbstractXmlGenerator {
         }
     }
 
+    protected void addUpdateChangedByPrimaryKeyElement(
+            XmlElement parentElement) {
+        if (introspectedTable.getRules().generateUpdateChangedByPrimaryKey()) {
+            AbstractXmlElementGenerator elementGenerator = new UpdateChangedByPrimaryKeyElementGenerator();
+            initializeAndExecuteGenerator(elementGenerator, parentElement);
+        }
+    }
+
+    protected void addIncrementElements(XmlElement parentElement) {
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getIncrementColumns()) {
+            if (introspectedTable.getRules().generateIncrementByPrimaryKey()) {
+                AbstractXmlElementGenerator elementGenerator = new IncrementElementGenerator(introspectedColumn, false);
+                initializeAndExecuteGenerator(elementGenerator, parentElement);
+            }
+            if (introspectedTable.getRules().generateIncrementByWhere()) {
+                AbstractXmlElementGenerator elementGenerator = new IncrementElementGenerator(introspectedColumn, true);
+                initializeAndExecuteGenerator(elementGenerator, parentElement);
+            }
+        }
+    }
+
     protected void addUpdateByPrimaryKeyWithBLOBsElement(
             XmlElement parentElement) {
         if (introspectedTable.getRules().generateUpdateByPrimaryKeyWithBLOBs()) {
@@ -15,11 +15,15 @@
  */
 package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
 
+import java.util.Iterator;
+import java.util.List;
+
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.TextElement;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.codegen.AbstractGenerator;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
 import org.mybatis.generator.config.GeneratedKey;
 
 /**
@@ -28,6 +32,9 @@ import org.mybatis.generator.config.GeneratedKey;
  * 
  */
 public abstract class AbstractXmlElementGenerator extends AbstractGenerator {
+    /** the OGNL expression of the shard key of statements with a where parameter */
+    public static final String WHERE_SHARD_KEY = "where == null ? null : where.shardKey"; //$NON-NLS-1$
+
     public abstract void addElements(XmlElement parentElement);
 
     public AbstractXmlElementGenerator() {
@@ -62,6 +69,103 @@ public abstract class AbstractXmlElementGenerator extends AbstractGenerator {
         return answer;
     }
 
+    /**
+     * 参数中带有 where 对象的语句使用的表名, 分表时由 where.shardKey 决定物理表.
+     *
+     * @param aliased
+     *            true to append the table alias
+     * @return the table name at runtime
+     */
+    protected String getTableNameByWhere(boolean aliased) {
+        return introspectedTable.getShardedTableNameAtRuntime("table", //$NON-NLS-1$
+                WHERE_SHARD_KEY, aliased);
+    }
+
+    /**
+     * 参数中包含某些列的语句使用的表名. 分表列在其中时由对应的参数决定物理表,
+     * 否则使用绑定在当前线程上的分表键.
+     *
+     * @param columns
+     *            the columns available as parameters
+     * @param prefix
+     *            the prefix of the parameter properties, empty if the record
+     *            itself is the parameter
+     * @param aliased
+     *            true to append the table alias
+     * @return the table name at runtime
+     */
+    protected String getTableNameByColumns(List<IntrospectedColumn> columns,
+            String prefix, boolean aliased) {
+        IntrospectedColumn shardColumn = introspectedTable.getShardColumn();
+        String argument = null;
+        if (shardColumn != null && columns.contains(shardColumn)) {
+            argument = prefix + shardColumn.getJavaProperty();
+        }
+        return introspectedTable.getShardedTableNameAtRuntime("table", //$NON-NLS-1$
+                argument, aliased);
+    }
+
+    /**
+     * 参数为单条记录的语句使用的表名.
+     *
+     * @return the table name at runtime
+     */
+    protected String getTableNameByRecord() {
+        return getTableNameByColumns(introspectedTable.getAllColumns(), "", false); //$NON-NLS-1$
+    }
+
+    /**
+     * 参数为 records 列表的批量语句使用的表名, 列表中的记录必须属于同一个分表.
+     *
+     * @return the table name at runtime
+     */
+    protected String getTableNameByRecords() {
+        return introspectedTable.getShardedTableNameAtRuntime("tableOfRecords", //$NON-NLS-1$
+                "records", false); //$NON-NLS-1$
+    }
+
+    /**
+     * 按主键的语句使用的表名. 单列主键的参数就是主键值本身, 多列主键以属性名传入.
+     *
+     * @param aliased
+     *            true to append the table alias
+     * @return the table name at runtime
+     */
+    protected String getTableNameByPrimaryKey(boolean aliased) {
+        List<IntrospectedColumn> primaryKeyColumns = introspectedTable.getPrimaryKeyColumns();
+        if (primaryKeyColumns.size() == 1
+                && !introspectedTable.getRules().generatePrimaryKeyClass()
+                && primaryKeyColumns.contains(introspectedTable.getShardColumn())) {
+            return introspectedTable.getShardedTableNameAtRuntime("table", //$NON-NLS-1$
+                    "_parameter", aliased); //$NON-NLS-1$
+        }
+        return getTableNameByColumns(primaryKeyColumns, "", aliased); //$NON-NLS-1$
+    }
+
+    /**
+     * 参数为 keys 集合的语句使用的表名, 集合中的键必须属于同一个分表.
+     * 单列时集合元素为键值, 多列时为记录对象.
+     *
+     * @param keyColumns
+     *            the key columns
+     * @param aliased
+     *            true to append the table alias
+     * @return the table name at runtime
+     */
+    protected String getTableNameByKeys(List<IntrospectedColumn> keyColumns,
+            boolean aliased) {
+        if (!keyColumns.contains(introspectedTable.getShardColumn())) {
+            return introspectedTable.getShardedTableNameAtRuntime("table", //$NON-NLS-1$
+                    null, aliased);
+        } else if (keyColumns.size() == 1) {
+            return introspectedTable.getShardedTableNameAtRuntime("tableOfKeys", //$NON-NLS-1$
+                    "keys", aliased); //$NON-NLS-1$
+        } else {
+            return introspectedTable.getShardedTableNameAtRuntime("tableOfRecords", //$NON-NLS-1$
+                    "keys", aliased); //$NON-NLS-1$
+        }
+    }
+
     protected XmlElement getBaseColumnListElement() {
         XmlElement answer = new XmlElement("include"); //$NON-NLS-1$
         answer.addAttribute(new Attribute("refid", //$NON-NLS-1$
@@ -95,6 +199,186 @@ public abstract class AbstractXmlElementGenerator extends AbstractGenerator {
         return ifElement;
     }
 
+    /**
+     * 生成 where 参数中等值条件的 foreach, 条件之间以 and 连接, 不含 where 关键字.
+     *
+     * @return the foreach element
+     */
+    protected XmlElement getCriteriaElement() {
+        XmlElement outerForEachElement = new XmlElement("foreach"); //$NON-NLS-1$
+        outerForEachElement.addAttribute(new Attribute(
+                "collection", "where.criterion")); //$NON-NLS-1$ //$NON-NLS-2$
+        outerForEachElement.addAttribute(new Attribute("item", "criteria")); //$NON-NLS-1$ //$NON-NLS-2$
+        outerForEachElement.addAttribute(new Attribute("separator", " and ")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", "criteria.param!= null")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("${"); //$NON-NLS-1$
+        sb.append("criteria.param");
+        sb.append("}");
+        sb.append("=");
+        sb.append("#{"); //$NON-NLS-1$
+        sb.append("criteria.value");
+        sb.append(",jdbcType=${criteria.jdbcType}"); //$NON-NLS-1$
+        sb.append("}");
+
+        ifElement.addElement(new TextElement(sb.toString()));
+        outerForEachElement.addElement(ifElement);
+        return outerForEachElement;
+    }
+
+    /**
+     * 生成分页子句, 只有设置了 where.limit 时才输出 limit, offset 嵌套在其中.
+     *
+     * @return the limit / offset element
+     */
+    protected XmlElement getLimitElement() {
+        XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", "where != null and where.limit != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        ifElement.addElement(new TextElement("limit #{where.limit}")); //$NON-NLS-1$
+
+        XmlElement offsetElement = new XmlElement("if"); //$NON-NLS-1$
+        offsetElement.addAttribute(new Attribute("test", "where.offset != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        offsetElement.addElement(new TextElement("offset #{where.offset}")); //$NON-NLS-1$
+        ifElement.addElement(offsetElement);
+
+        return ifElement;
+    }
+
+    /**
+     * 生成按主键集合匹配的条件, 单列主键使用 in, 联合主键使用行值 in.
+     * 参数名为 keys, 联合主键时集合元素为记录对象.
+     *
+     * @param answer
+     *            the statement element to append the where clause to
+     * @param aliased
+     *            true if the statement refers to the table by its alias
+     */
+    protected void addPrimaryKeysInClause(XmlElement answer, boolean aliased) {
+        addKeysInClause(answer, introspectedTable.getPrimaryKeyColumns(), aliased);
+    }
+
+    /**
+     * 生成按键值集合匹配的条件, 单列使用 in, 多列使用行值 in.
+     * 参数名为 keys, 多列时集合元素为记录对象. 空集合会生成非法的 in (), 此时改为不匹配任何行.
+     *
+     * @param answer
+     *            the statement element to append the where clause to
+     * @param keyColumns
+     *            the key columns, for example a primary key or a foreign key
+     * @param aliased
+     *            true if the statement refers to the table by its alias
+     */
+    protected void addKeysInClause(XmlElement answer,
+            List<IntrospectedColumn> keyColumns, boolean aliased) {
+        boolean composite = keyColumns.size() > 1;
+
+        StringBuilder columns = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        Iterator<IntrospectedColumn> iter = keyColumns.iterator();
+        while (iter.hasNext()) {
+            IntrospectedColumn introspectedColumn = iter.next();
+            if (aliased) {
+                columns.append(MyBatis3FormattingUtilities
+                        .getAliasedEscapedColumnName(introspectedColumn));
+            } else {
+                columns.append(MyBatis3FormattingUtilities
+                        .getEscapedColumnName(introspectedColumn));
+            }
+            if (composite) {
+                values.append(MyBatis3FormattingUtilities
+                        .getParameterClause(introspectedColumn, "key.")); //$NON-NLS-1$
+            } else {
+                // the collection holds the key values themselves
+                values.append("#{key,jdbcType="); //$NON-NLS-1$
+                values.append(introspectedColumn.getJdbcTypeName());
+                values.append('}');
+            }
+            if (iter.hasNext()) {
+                columns.append(", "); //$NON-NLS-1$
+                values.append(", "); //$NON-NLS-1$
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("where "); //$NON-NLS-1$
+        if (composite) {
+            sb.append('(');
+            sb.append(columns);
+            sb.append(')');
+        } else {
+            sb.append(columns);
+        }
+        sb.append(" in"); //$NON-NLS-1$
+
+        XmlElement chooseElement = new XmlElement("choose"); //$NON-NLS-1$
+        XmlElement whenElement = new XmlElement("when"); //$NON-NLS-1$
+        whenElement.addAttribute(new Attribute("test", "keys == null or keys.isEmpty()")); //$NON-NLS-1$ //$NON-NLS-2$
+        whenElement.addElement(new TextElement("where 1 = 0")); //$NON-NLS-1$
+        chooseElement.addElement(whenElement);
+        XmlElement otherwiseElement = new XmlElement("otherwise"); //$NON-NLS-1$
+        otherwiseElement.addElement(new TextElement(sb.toString()));
+        chooseElement.addElement(otherwiseElement);
+        answer.addElement(chooseElement);
+
+        XmlElement forEachElement = new XmlElement("foreach"); //$NON-NLS-1$
+        forEachElement.addAttribute(new Attribute("collection", "keys")); //$NON-NLS-1$ //$NON-NLS-2$
+        forEachElement.addAttribute(new Attribute("item", "key")); //$NON-NLS-1$ //$NON-NLS-2$
+        forEachElement.addAttribute(new Attribute("open", "(")); //$NON-NLS-1$ //$NON-NLS-2$
+        forEachElement.addAttribute(new Attribute("separator", ",")); //$NON-NLS-1$ //$NON-NLS-2$
+        forEachElement.addAttribute(new Attribute("close", ")")); //$NON-NLS-1$ //$NON-NLS-2$
+        if (composite) {
+            forEachElement.addElement(new TextElement("(" + values + ")")); //$NON-NLS-1$ //$NON-NLS-2$
+        } else {
+            forEachElement.addElement(new TextElement(values.toString()));
+        }
+        otherwiseElement.addElement(forEachElement);
+    }
+
+    /**
+     * 生成选择性更新的固定形态赋值 col = coalesce(#{prop}, col),
+     * 参数为 null 时保留原值, 与 &lt;if test="prop != null"&gt; 语义相同, 但 SQL 文本只有一种.
+     *
+     * @param introspectedColumn
+     *            the column to update
+     * @param prefix
+     *            the prefix of the parameter property, may be null
+     * @param aliased
+     *            true if the statement refers to the table by its alias
+     * @return the assignment, followed by a comma for the set element to trim
+     */
+    protected String getCoalescedAssignment(IntrospectedColumn introspectedColumn,
+            String prefix, boolean aliased) {
+        String columnName = aliased ? MyBatis3FormattingUtilities
+                .getAliasedEscapedColumnName(introspectedColumn)
+                : MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn);
+        StringBuilder sb = new StringBuilder();
+        sb.append(columnName);
+        sb.append(" = coalesce("); //$NON-NLS-1$
+        sb.append(MyBatis3FormattingUtilities.getParameterClause(
+                introspectedColumn, prefix));
+        sb.append(", "); //$NON-NLS-1$
+        sb.append(columnName);
+        sb.append("),"); //$NON-NLS-1$
+        return sb.toString();
+    }
+
+    /**
+     * Gets the condition that an update by primary key only matches the row
+     * while it still holds the version of the record.
+     */
+    protected String getVersionCondition(IntrospectedColumn versionColumn) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("  and "); //$NON-NLS-1$
+        sb.append(MyBatis3FormattingUtilities.getEscapedColumnName(versionColumn));
+        sb.append(" = "); //$NON-NLS-1$
+        sb.append(MyBatis3FormattingUtilities.getParameterClause(versionColumn));
+        return sb.toString();
+    }
+
     protected XmlElement getUpdateByExampleIncludeElement() {
         XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
         ifElement.addAttribute(new Attribute("test", "where != null")); //$NON-NLS-1$ //$NON-NLS-2$
@@ -45,8 +45,7 @@ public class CountByWhereElementGenerator extends AbstractXmlElementGenerator {
 
         StringBuilder sb = new StringBuilder();
         sb.append("select count(*) from "); //$NON-NLS-1$
-        sb.append(introspectedTable
-                .getAliasedFullyQualifiedTableNameAtRuntime());
+        sb.append(getTableNameByWhere(true));
         answer.addElement(new TextElement(sb.toString()));
         answer.addElement(getWhereIncludeElement());
 
@@ -48,8 +48,18 @@ public class CustomColumnListElementGenerator extends AbstractXmlElementGenerato
         XmlElement insertTrimElement = new XmlElement("trim"); //$NON-NLS-1$
         insertTrimElement.addAttribute(new Attribute("suffixOverrides", ",")); //$NON-NLS-1$ //$NON-NLS-2$
         answer.addElement(insertTrimElement);
+        // with a fixed shape every non BLOB column is selected, only the
+        // expensive BLOB columns stay optional
+        boolean fixedShape = introspectedTable.isFixedShapeRequired(
+                introspectedTable.getAllColumns().size());
         for (IntrospectedColumn introspectedColumn : introspectedTable
                 .getAllColumns()) {
+            if (fixedShape && !introspectedColumn.isBLOBColumn()) {
+                insertTrimElement.addElement(new TextElement(
+                        introspectedColumn.getActualColumnName() + ','));
+                continue;
+            }
+
             XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
             sb.setLength(0);
             sb.append("column." + getGetterMethodName("Had" + introspectedColumn.getJavaProperty()+"()", fqjtBoolean));
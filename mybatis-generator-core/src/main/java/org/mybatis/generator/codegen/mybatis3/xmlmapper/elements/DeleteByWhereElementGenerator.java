@@ -45,8 +45,7 @@ public class DeleteByWhereElementGenerator extends
 
         StringBuilder sb = new StringBuilder();
         sb.append("delete from "); //$NON-NLS-1$
-        sb.append(introspectedTable
-                .getAliasedFullyQualifiedTableNameAtRuntime());
+        sb.append(getTableNameByWhere(true));
         answer.addElement(new TextElement(sb.toString()));
         answer.addElement(getWhereIncludeElement());
 
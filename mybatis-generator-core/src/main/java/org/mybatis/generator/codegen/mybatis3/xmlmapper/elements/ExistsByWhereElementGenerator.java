@@ -0,0 +1,59 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+/**
+ * 生成 existsByWhere 语句: select exists(select 1 from table where ... limit 1),
+ * 数据库找到第一条匹配记录后即可返回, 不需要像 count(*) 一样统计全部匹配记录.
+ * 结果总是一行 true 或 false, 所以 mapper 方法可以返回 boolean.
+ * 
+ */
+public class ExistsByWhereElementGenerator extends AbstractXmlElementGenerator {
+
+    public ExistsByWhereElementGenerator() {
+        super();
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("select"); //$NON-NLS-1$
+
+        String fqjt = introspectedTable.getWhereType();
+
+        answer.addAttribute(new Attribute(
+                "id", introspectedTable.getExistsByWhereStatementId())); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("parameterType", fqjt)); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("resultType", "java.lang.Boolean")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        context.getCommentGenerator().addComment(answer);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("select exists(select 1 from "); //$NON-NLS-1$
+        sb.append(getTableNameByWhere(true));
+        answer.addElement(new TextElement(sb.toString()));
+        answer.addElement(getWhereIncludeElement());
+        answer.addElement(new TextElement("limit 1)")); //$NON-NLS-1$
+
+        if (context.getPlugins().sqlMapCountByExampleElementGenerated(
+                answer, introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+
+/**
+ * 为一个计数列生成原子增减语句 set col = col + #{delta}, 按主键时生成
+ * incrementXxxByPrimaryKey, 按条件时生成 incrementXxxByWhere.
+ * floor / ceiling 不为 null 时只更新增减后不越界的行.
+ * 
+ */
+public class IncrementElementGenerator extends AbstractXmlElementGenerator {
+
+    private IntrospectedColumn introspectedColumn;
+
+    private boolean byWhere;
+
+    public IncrementElementGenerator(IntrospectedColumn introspectedColumn, boolean byWhere) {
+        super();
+        this.introspectedColumn = introspectedColumn;
+        this.byWhere = byWhere;
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("update"); //$NON-NLS-1$
+
+        if (byWhere) {
+            answer.addAttribute(new Attribute("id", //$NON-NLS-1$
+                    introspectedTable.getIncrementByWhereStatementId(introspectedColumn)));
+        } else {
+            answer.addAttribute(new Attribute("id", //$NON-NLS-1$
+                    introspectedTable.getIncrementByPrimaryKeyStatementId(introspectedColumn)));
+        }
+
+        context.getCommentGenerator().addComment(answer);
+
+        FullyQualifiedJavaType valueType = introspectedColumn.getFullyQualifiedJavaType();
+        if (!valueType.isPrimitive() && JavaBeansUtil.getCompactPrimitiveType(valueType) == null) {
+            // BigDecimal / BigInteger deltas cannot be primitive in the mapper, a null would set the counter to null
+            XmlElement bindElement = new XmlElement("bind"); //$NON-NLS-1$
+            bindElement.addAttribute(new Attribute("name", "delta")); //$NON-NLS-1$ //$NON-NLS-2$
+            bindElement.addAttribute(new Attribute("value", //$NON-NLS-1$
+                    "@java.util.Objects@requireNonNull(delta, 'delta is required')")); //$NON-NLS-1$
+            answer.addElement(bindElement);
+        }
+
+        String columnName = byWhere ? MyBatis3FormattingUtilities
+                .getAliasedEscapedColumnName(introspectedColumn)
+                : MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn);
+        String delta = getParameterClause("delta"); //$NON-NLS-1$
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("update "); //$NON-NLS-1$
+        if (byWhere) {
+            sb.append(getTableNameByWhere(true));
+        } else {
+            sb.append(getTableNameByColumns(introspectedTable.getPrimaryKeyColumns(),
+                    "", false)); //$NON-NLS-1$
+        }
+        answer.addElement(new TextElement(sb.toString()));
+
+        sb.setLength(0);
+        sb.append("set "); //$NON-NLS-1$
+        sb.append(columnName);
+        sb.append(" = "); //$NON-NLS-1$
+        sb.append(columnName);
+        sb.append(" + "); //$NON-NLS-1$
+        sb.append(delta);
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        if (versionColumn != null) {
+            // other writers holding the old version must not overwrite the counter
+            sb.append(", "); //$NON-NLS-1$
+            sb.append(MyBatis3FormattingUtilities.getVersionIncrement(versionColumn, byWhere));
+        }
+        answer.addElement(new TextElement(sb.toString()));
+
+        XmlElement whereElement;
+        if (byWhere) {
+            whereElement = new XmlElement("where"); //$NON-NLS-1$
+            XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+            ifElement.addAttribute(new Attribute("test", "where != null")); //$NON-NLS-1$ //$NON-NLS-2$
+            ifElement.addElement(getCriteriaElement());
+            whereElement.addElement(ifElement);
+            answer.addElement(whereElement);
+        } else {
+            whereElement = answer;
+            boolean and = false;
+            for (IntrospectedColumn keyColumn : introspectedTable.getPrimaryKeyColumns()) {
+                sb.setLength(0);
+                if (and) {
+                    sb.append("  and "); //$NON-NLS-1$
+                } else {
+                    sb.append("where "); //$NON-NLS-1$
+                    and = true;
+                }
+
+                sb.append(MyBatis3FormattingUtilities.getEscapedColumnName(keyColumn));
+                sb.append(" = "); //$NON-NLS-1$
+                sb.append(MyBatis3FormattingUtilities.getParameterClause(keyColumn));
+                answer.addElement(new TextElement(sb.toString()));
+            }
+        }
+
+        whereElement.addElement(getGuardElement(columnName, delta, "floor", "&gt;=")); //$NON-NLS-1$ //$NON-NLS-2$
+        whereElement.addElement(getGuardElement(columnName, delta, "ceiling", "&lt;=")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        boolean include;
+        if (byWhere) {
+            include = context.getPlugins().sqlMapUpdateByExampleSelectiveElementGenerated(
+                    answer, introspectedTable);
+        } else {
+            include = context.getPlugins().sqlMapUpdateByPrimaryKeySelectiveElementGenerated(
+                    answer, introspectedTable);
+        }
+        if (include) {
+            parentElement.addElement(answer);
+        }
+    }
+
+    private String getParameterClause(String parameter) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("#{"); //$NON-NLS-1$
+        sb.append(parameter);
+        sb.append(",jdbcType="); //$NON-NLS-1$
+        sb.append(introspectedColumn.getJdbcTypeName());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private XmlElement getGuardElement(String columnName, String delta,
+            String parameter, String operator) {
+        XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", parameter + " != null")); //$NON-NLS-1$
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("and "); //$NON-NLS-1$
+        sb.append(columnName);
+        sb.append(" + "); //$NON-NLS-1$
+        sb.append(delta);
+        sb.append(' ');
+        sb.append(operator);
+        sb.append(' ');
+        sb.append(getParameterClause(parameter));
+        ifElement.addElement(new TextElement(sb.toString()));
+        return ifElement;
+    }
+}
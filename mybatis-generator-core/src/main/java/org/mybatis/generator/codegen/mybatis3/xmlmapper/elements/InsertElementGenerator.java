@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
 
+import java.util.List;
+
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.xml.Attribute;
@@ -71,7 +73,7 @@ public class InsertElementGenerator extends
         StringBuilder sb = new StringBuilder();
 
         sb.append("insert into "); //$NON-NLS-1$
-        sb.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        sb.append(getTableNameByRecord());
         answer.addElement(new TextElement(sb.toString()));
 
         XmlElement insertTrimElement = new XmlElement("trim"); //$NON-NLS-1$
@@ -86,16 +88,30 @@ public class InsertElementGenerator extends
         valuesTrimElement.addAttribute(new Attribute("suffixOverrides", ",")); //$NON-NLS-1$ //$NON-NLS-2$
         answer.addElement(valuesTrimElement);
 
-        for (IntrospectedColumn introspectedColumn : ListUtilities.removeIdentityAndGeneratedAlwaysColumns(introspectedTable
-                .getAllColumns())) {
+        List<IntrospectedColumn> columns = ListUtilities
+                .removeIdentityAndGeneratedAlwaysColumns(introspectedTable.getAllColumns());
+        int optionalColumnCount = 0;
+        for (IntrospectedColumn introspectedColumn : columns) {
+            if (!introspectedColumn.isSequenceColumn()
+                    && !introspectedColumn.getFullyQualifiedJavaType().isPrimitive()) {
+                optionalColumnCount++;
+            }
+        }
+        boolean fixedShape = introspectedTable.isFixedShapeRequired(optionalColumnCount);
+
+        for (IntrospectedColumn introspectedColumn : columns) {
 
             if (introspectedColumn.isSequenceColumn()
-                    || introspectedColumn.getFullyQualifiedJavaType().isPrimitive()) {
+                    || introspectedColumn.getFullyQualifiedJavaType().isPrimitive()
+                    || (fixedShape && isNullInsertedWhenOmitted(introspectedColumn))) {
                 // if it is a sequence column, it is not optional
                 // This is required for MyBatis3 because MyBatis3 parses
                 // and calculates the SQL before executing the selectKey
                 
                 // if it is primitive, we cannot do a null check
+
+                // if omitting the column inserts null anyway, always listing
+                // it keeps the number of SQL texts down
                 sb.setLength(0);
                 sb.append(MyBatis3FormattingUtilities
                     .getEscapedColumnName(introspectedColumn));
@@ -145,4 +161,14 @@ public class InsertElementGenerator extends
             parentElement.addElement(answer);
         }
     }
+
+    /**
+     * A nullable column without a default value is set to null whether it is
+     * omitted from the insert or inserted with a null value. Columns with a
+     * default value keep the null check, omitting them applies the default.
+     */
+    private boolean isNullInsertedWhenOmitted(IntrospectedColumn introspectedColumn) {
+        return introspectedColumn.isNullable()
+                && introspectedColumn.getDefaultValue() == null;
+    }
 }
@@ -22,7 +22,6 @@ import org.mybatis.generator.api.dom.xml.TextElement;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.codegen.mybatis3.ListUtilities;
 import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
-import org.mybatis.generator.config.GeneratedKey;
 
 /**
  *
@@ -51,27 +50,13 @@ public class InsertsElementGenerator extends
 
         context.getCommentGenerator().addComment(answer);
 
-        GeneratedKey gk = introspectedTable.getGeneratedKey();
-        if (gk != null) {
-            IntrospectedColumn introspectedColumn = introspectedTable
-                .getColumn(gk.getColumn());
-            // if the column is null, then it's a configuration error. The
-            // warning has already been reported
-            if (introspectedColumn != null) {
-                if (gk.isJdbcStandard()) {
-                    answer.addAttribute(new Attribute("useGeneratedKeys", "true")); //$NON-NLS-1$ //$NON-NLS-2$
-                    answer.addAttribute(new Attribute("keyProperty", introspectedColumn.getJavaProperty())); //$NON-NLS-1$
-                    answer.addAttribute(new Attribute("keyColumn", introspectedColumn.getActualColumnName())); //$NON-NLS-1$
-                } else {
-                    answer.addElement(getSelectKey(introspectedColumn, gk));
-                }
-            }
-        }
+        // useGeneratedKeys and selectKey need a record parameter before MyBatis 3.5,
+        // the keys of a batch are not read back
 
         StringBuilder sb = new StringBuilder();
 
         sb.append("insert into "); //$NON-NLS-1$
-        sb.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        sb.append(getTableNameByRecords());
         answer.addElement(new TextElement(sb.toString()));
 
         XmlElement insertTrimElement = new XmlElement("trim"); //$NON-NLS-1$
@@ -94,58 +79,21 @@ public class InsertsElementGenerator extends
         valuesTrimElement.addAttribute(new Attribute("suffixOverrides", ",")); //$NON-NLS-1$ //$NON-NLS-2$
         foreachElement.addElement(valuesTrimElement);
         itemname=itemname+".";
+        // 一条语句里所有记录共用一个列清单, 所以不能按单条记录的空值过滤列,
+        // 所有可插入的列都无条件列出
         for (IntrospectedColumn introspectedColumn : ListUtilities.removeIdentityAndGeneratedAlwaysColumns(introspectedTable
                 .getAllColumns())) {
-
-            if (introspectedColumn.isSequenceColumn()
-                    || introspectedColumn.getFullyQualifiedJavaType().isPrimitive()) {
-                // if it is a sequence column, it is not optional
-                // This is required for MyBatis3 because MyBatis3 parses
-                // and calculates the SQL before executing the selectKey
-                
-                // if it is primitive, we cannot do a null check
-                sb.setLength(0);
-                sb.append(MyBatis3FormattingUtilities
-                    .getEscapedColumnName(introspectedColumn));
-                sb.append(',');
-                insertTrimElement.addElement(new TextElement(sb.toString()));
-
-                sb.setLength(0);
-                sb.append(MyBatis3FormattingUtilities
-                    .getParameterClause(introspectedColumn));
-                sb.append(',');
-                valuesTrimElement.addElement(new TextElement(sb.toString()));
-
-                continue;
-            }            
-            
-            XmlElement insertNotNullElement = new XmlElement("if"); //$NON-NLS-1$
-            sb.setLength(0);
-            sb.append(introspectedColumn.getJavaProperty());
-            sb.append(" != null"); //$NON-NLS-1$
-            insertNotNullElement.addAttribute(new Attribute(
-                    "test", sb.toString())); //$NON-NLS-1$
-
             sb.setLength(0);
             sb.append(MyBatis3FormattingUtilities
-                    .getEscapedColumnName(introspectedColumn));
+                .getEscapedColumnName(introspectedColumn));
             sb.append(',');
-            insertNotNullElement.addElement(new TextElement(sb.toString()));
-            insertTrimElement.addElement(insertNotNullElement);
-
-            XmlElement valuesNotNullElement = new XmlElement("if"); //$NON-NLS-1$
-            sb.setLength(0);
-            sb.append(introspectedColumn.getJavaProperty());
-            sb.append(" != null"); //$NON-NLS-1$
-            valuesNotNullElement.addAttribute(new Attribute(
-                    "test", itemname+sb.toString())); //$NON-NLS-1$
+            insertTrimElement.addElement(new TextElement(sb.toString()));
 
             sb.setLength(0);
             sb.append(MyBatis3FormattingUtilities
-                    .getParameterClause(introspectedColumn,itemname));
+                .getParameterClause(introspectedColumn, itemname));
             sb.append(',');
-            valuesNotNullElement.addElement(new TextElement(sb.toString()));
-            valuesTrimElement.addElement(valuesNotNullElement);
+            valuesTrimElement.addElement(new TextElement(sb.toString()));
         }
 
         if (context.getPlugins().sqlMapInsertSelectiveElementGenerated(
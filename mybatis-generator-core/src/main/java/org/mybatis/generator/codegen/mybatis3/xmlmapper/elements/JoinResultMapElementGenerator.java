@@ -0,0 +1,105 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedForeignKey;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+/**
+ * 生成父表与一个子表连接查询使用的 resultMap, 子表记录放在嵌套的 collection 中,
+ * 子表的列名带有 collection 属性名前缀. 只包含非 BLOB 列.
+ * 
+ */
+public class JoinResultMapElementGenerator extends AbstractXmlElementGenerator {
+
+    private IntrospectedForeignKey foreignKey;
+
+    public JoinResultMapElementGenerator(IntrospectedForeignKey foreignKey) {
+        super();
+        this.foreignKey = foreignKey;
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("resultMap"); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("id", //$NON-NLS-1$
+                introspectedTable.getJoinResultMapId(foreignKey)));
+        answer.addAttribute(new Attribute("type", //$NON-NLS-1$
+                introspectedTable.getBaseRecordType()));
+
+        context.getCommentGenerator().addComment(answer);
+
+        addResultElements(answer, introspectedTable);
+
+        IntrospectedTable childTable = foreignKey.getChildTable();
+        XmlElement collectionElement = new XmlElement("collection"); //$NON-NLS-1$
+        collectionElement.addAttribute(new Attribute("property", //$NON-NLS-1$
+                foreignKey.getCollectionPropertyName()));
+        collectionElement.addAttribute(new Attribute("ofType", //$NON-NLS-1$
+                childTable.getBaseRecordType()));
+        collectionElement.addAttribute(new Attribute("columnPrefix", //$NON-NLS-1$
+                getChildColumnPrefix(foreignKey)));
+        addResultElements(collectionElement, childTable);
+        answer.addElement(collectionElement);
+
+        if (context.getPlugins().sqlMapResultMapWithoutBLOBsElementGenerated(
+                answer, introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+
+    /**
+     * The prefix of the child columns in the join select, for example
+     * orderLineList_.
+     *
+     * @param foreignKey
+     *            the foreign key of the child table
+     * @return the column prefix
+     */
+    public static String getChildColumnPrefix(IntrospectedForeignKey foreignKey) {
+        return foreignKey.getCollectionPropertyName() + '_';
+    }
+
+    private void addResultElements(XmlElement answer, IntrospectedTable table) {
+        // the id elements tell the parent rows apart when collecting children
+        for (IntrospectedColumn introspectedColumn : table.getPrimaryKeyColumns()) {
+            answer.addElement(getResultElement("id", introspectedColumn)); //$NON-NLS-1$
+        }
+        for (IntrospectedColumn introspectedColumn : table.getBaseColumns()) {
+            answer.addElement(getResultElement("result", introspectedColumn)); //$NON-NLS-1$
+        }
+    }
+
+    private XmlElement getResultElement(String name, IntrospectedColumn introspectedColumn) {
+        XmlElement resultElement = new XmlElement(name);
+        resultElement.addAttribute(new Attribute("column", //$NON-NLS-1$
+                introspectedColumn.getActualColumnName()));
+        resultElement.addAttribute(new Attribute("property", //$NON-NLS-1$
+                introspectedColumn.getJavaProperty()));
+        resultElement.addAttribute(new Attribute("jdbcType", //$NON-NLS-1$
+                introspectedColumn.getJdbcTypeName()));
+        if (stringHasValue(introspectedColumn.getTypeHandler())) {
+            resultElement.addAttribute(new Attribute("typeHandler", //$NON-NLS-1$
+                    introspectedColumn.getTypeHandler()));
+        }
+        return resultElement;
+    }
+}
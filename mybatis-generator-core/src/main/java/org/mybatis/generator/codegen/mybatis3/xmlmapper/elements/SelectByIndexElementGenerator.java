@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedIndex;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+
+/**
+ * 根据一个索引生成等值查询语句, 唯一索引生成 selectByUniqueKeyXxx,
+ * 普通索引生成 selectByIndexPrefixXxx.
+ * 
+ */
+public class SelectByIndexElementGenerator extends AbstractXmlElementGenerator {
+
+    private IntrospectedIndex index;
+
+    public SelectByIndexElementGenerator(IntrospectedIndex index) {
+        super();
+        this.index = index;
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("select"); //$NON-NLS-1$
+
+        answer.addAttribute(new Attribute(
+                "id", introspectedTable.getSelectByIndexStatementId(index))); //$NON-NLS-1$
+        answer.addAttribute(new Attribute(
+                "resultMap", introspectedTable.getResultMapWithBLOBsId())); //$NON-NLS-1$
+
+        context.getCommentGenerator().addComment(answer);
+
+        answer.addElement(new TextElement("select")); //$NON-NLS-1$
+        answer.addElement(getBaseColumnListElement());
+        if (introspectedTable.hasBLOBColumns()) {
+            answer.addElement(new TextElement(",")); //$NON-NLS-1$
+            answer.addElement(getBlobColumnListElement());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("from "); //$NON-NLS-1$
+        sb.append(getTableNameByColumns(index.getColumns(), "", true)); //$NON-NLS-1$
+        answer.addElement(new TextElement(sb.toString()));
+
+        boolean and = false;
+        for (IntrospectedColumn introspectedColumn : index.getColumns()) {
+            sb.setLength(0);
+            if (and) {
+                sb.append("  and "); //$NON-NLS-1$
+            } else {
+                sb.append("where "); //$NON-NLS-1$
+                and = true;
+            }
+
+            sb.append(MyBatis3FormattingUtilities
+                    .getAliasedEscapedColumnName(introspectedColumn));
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(MyBatis3FormattingUtilities
+                    .getParameterClause(introspectedColumn));
+            answer.addElement(new TextElement(sb.toString()));
+        }
+
+        boolean include;
+        if (index.isUnique()) {
+            include = context.getPlugins().sqlMapSelectByPrimaryKeyElementGenerated(
+                    answer, introspectedTable);
+        } else {
+            include = context.getPlugins().sqlMapSelectByExampleWithBLOBsElementGenerated(
+                    answer, introspectedTable);
+        }
+        if (include) {
+            parentElement.addElement(answer);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import org.mybatis.generator.api.IntrospectedForeignKey;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+/**
+ * 根据一个外键生成按父表键值集合批量查询子表记录的语句 selectByParentKeysXxx,
+ * 一页父记录的子记录用一次查询取回, 避免逐条查询.
+ * 
+ */
+public class SelectByParentKeysElementGenerator extends
+        AbstractXmlElementGenerator {
+
+    private IntrospectedForeignKey foreignKey;
+
+    public SelectByParentKeysElementGenerator(IntrospectedForeignKey foreignKey) {
+        super();
+        this.foreignKey = foreignKey;
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("select"); //$NON-NLS-1$
+
+        answer.addAttribute(new Attribute("id", //$NON-NLS-1$
+                introspectedTable.getSelectByParentKeysStatementId(foreignKey)));
+        if (introspectedTable.getRules().generateResultMapWithBLOBs()) {
+            answer.addAttribute(new Attribute("resultMap", //$NON-NLS-1$
+                    introspectedTable.getResultMapWithBLOBsId()));
+        } else {
+            answer.addAttribute(new Attribute("resultMap", //$NON-NLS-1$
+                    introspectedTable.getBaseResultMapId()));
+        }
+
+        context.getCommentGenerator().addComment(answer);
+
+        answer.addElement(new TextElement("select")); //$NON-NLS-1$
+        answer.addElement(getBaseColumnListElement());
+        if (introspectedTable.hasBLOBColumns()) {
+            answer.addElement(new TextElement(",")); //$NON-NLS-1$
+            answer.addElement(getBlobColumnListElement());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("from "); //$NON-NLS-1$
+        if (foreignKey.getColumns().size() == 1) {
+            sb.append(getTableNameByKeys(foreignKey.getColumns(), true));
+        } else {
+            // the keys are parent records, the shard key is bound to the thread
+            sb.append(introspectedTable.getShardedTableNameAtRuntime("table", //$NON-NLS-1$
+                    null, true));
+        }
+        answer.addElement(new TextElement(sb.toString()));
+        addKeysInClause(answer, foreignKey.getColumns(), true);
+
+        if (context.getPlugins()
+                .sqlMapSelectByExampleWithBLOBsElementGenerated(answer,
+                        introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+}
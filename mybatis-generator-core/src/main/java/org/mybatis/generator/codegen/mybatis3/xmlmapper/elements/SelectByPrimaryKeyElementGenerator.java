@@ -86,8 +86,7 @@ public class SelectByPrimaryKeyElementGenerator extends
 
         sb.setLength(0);
         sb.append("from "); //$NON-NLS-1$
-        sb.append(introspectedTable
-                .getAliasedFullyQualifiedTableNameAtRuntime());
+        sb.append(getTableNameByPrimaryKey(true));
         answer.addElement(new TextElement(sb.toString()));
 
         boolean and = false;
@@ -0,0 +1,153 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.PropertyRegistry;
+
+/**
+ * 生成流式查询语句 selectByWhereCursor 和 selectByWhereWithHandler, 语句体与 selectByWhere 相同.
+ * 表属性 streamFetchSize 和 streamResultSetType 会输出为 fetchSize 和 resultSetType,
+ * MySQL 流式读取需要配置 streamFetchSize=-2147483648 (Integer.MIN_VALUE).
+ * 
+ */
+public class SelectByWhereCursorElementGenerator extends
+        AbstractXmlElementGenerator {
+
+    private boolean withHandler;
+
+    public SelectByWhereCursorElementGenerator(boolean withHandler) {
+        super();
+        this.withHandler = withHandler;
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        String fqjt = introspectedTable.getWhereType();
+
+        XmlElement answer = new XmlElement("select"); //$NON-NLS-1$
+        if (withHandler) {
+            answer.addAttribute(new Attribute(
+                    "id", introspectedTable.getSelectByWhereWithHandlerStatementId())); //$NON-NLS-1$
+        } else {
+            answer.addAttribute(new Attribute(
+                    "id", introspectedTable.getSelectByWhereCursorStatementId())); //$NON-NLS-1$
+        }
+        answer.addAttribute(new Attribute(
+                "resultMap", introspectedTable.getResultMapWithBLOBsId())); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("parameterType", fqjt)); //$NON-NLS-1$
+
+        String resultSetType = calculateResultSetType();
+        String fetchSize = calculateFetchSize(resultSetType);
+        if (fetchSize != null) {
+            answer.addAttribute(new Attribute("fetchSize", fetchSize)); //$NON-NLS-1$
+        }
+        answer.addAttribute(new Attribute("resultSetType", resultSetType)); //$NON-NLS-1$
+
+        context.getCommentGenerator().addComment(answer);
+
+        answer.addElement(new TextElement("select")); //$NON-NLS-1$
+        XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", "where.distinct")); //$NON-NLS-1$ //$NON-NLS-2$
+        ifElement.addElement(new TextElement("distinct ")); //$NON-NLS-1$
+        answer.addElement(ifElement);
+
+        answer.addElement(getBaseColumnListElement());
+        if (introspectedTable.hasBLOBColumns()) {
+            answer.addElement(new TextElement(",")); //$NON-NLS-1$
+            answer.addElement(getBlobColumnListElement());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("from "); //$NON-NLS-1$
+        sb.append(getTableNameByWhere(true));
+        answer.addElement(new TextElement(sb.toString()));
+        answer.addElement(getWhereIncludeElement());
+
+        ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", "where.orderBy != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        ifElement.addElement(new TextElement("order by ${where.orderBy}")); //$NON-NLS-1$
+        answer.addElement(ifElement);
+        answer.addElement(getLimitElement());
+
+        if (context.getPlugins()
+                .sqlMapSelectByExampleWithBLOBsElementGenerated(answer,
+                        introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+
+    /**
+     * 计算 fetchSize. 未配置且结果集为 FORWARD_ONLY 时为 Integer.MIN_VALUE, MySQL 驱动据此逐行流式读取,
+     * 否则驱动会把整个结果集读入内存; 其它结果集类型不能流式读取, 返回 null 使用驱动的默认值.
+     * 
+     * @param resultSetType
+     *            the result set type of the statement
+     * @return the fetch size, or null if the driver default should be used
+     */
+    protected String calculateFetchSize(String resultSetType) {
+        String fetchSize = introspectedTable
+                .getTableConfigurationProperty(PropertyRegistry.TABLE_STREAM_FETCH_SIZE);
+        if (stringHasValue(fetchSize)) {
+            try {
+                return Integer.toString(Integer.parseInt(fetchSize.trim()));
+            } catch (NumberFormatException e) {
+                reportInvalidProperty(PropertyRegistry.TABLE_STREAM_FETCH_SIZE, fetchSize);
+            }
+        }
+
+        if ("FORWARD_ONLY".equals(resultSetType)) { //$NON-NLS-1$
+            return Integer.toString(Integer.MIN_VALUE);
+        }
+        return null;
+    }
+
+    /**
+     * 计算 resultSetType, 默认为 FORWARD_ONLY.
+     * 
+     * @return the result set type
+     */
+    protected String calculateResultSetType() {
+        String resultSetType = introspectedTable
+                .getTableConfigurationProperty(PropertyRegistry.TABLE_STREAM_RESULT_SET_TYPE);
+        if (stringHasValue(resultSetType)) {
+            String type = resultSetType.trim().toUpperCase();
+            if ("FORWARD_ONLY".equals(type) //$NON-NLS-1$
+                    || "SCROLL_INSENSITIVE".equals(type) //$NON-NLS-1$
+                    || "SCROLL_SENSITIVE".equals(type) //$NON-NLS-1$
+                    || "DEFAULT".equals(type)) { //$NON-NLS-1$
+                return type;
+            }
+            reportInvalidProperty(PropertyRegistry.TABLE_STREAM_RESULT_SET_TYPE, resultSetType);
+        }
+
+        return "FORWARD_ONLY"; //$NON-NLS-1$
+    }
+
+    private void reportInvalidProperty(String property, String value) {
+        // the cursor and handler statements share the configuration, only
+        // report problems once
+        if (!withHandler) {
+            warnings.add(getString("Warning.30", property, //$NON-NLS-1$
+                    introspectedTable.getFullyQualifiedTable().toString(), value));
+        }
+    }
+}
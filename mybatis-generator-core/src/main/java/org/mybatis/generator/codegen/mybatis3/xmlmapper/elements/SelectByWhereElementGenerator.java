@@ -68,8 +68,7 @@ public class SelectByWhereElementGenerator extends
 
         sb.setLength(0);
         sb.append("from "); //$NON-NLS-1$
-        sb.append(introspectedTable
-                .getAliasedFullyQualifiedTableNameAtRuntime());
+        sb.append(getTableNameByWhere(true));
         answer.addElement(new TextElement(sb.toString()));
         answer.addElement(getWhereIncludeElement());
 
@@ -77,6 +76,7 @@ public class SelectByWhereElementGenerator extends
         ifElement.addAttribute(new Attribute("test", "where.orderBy != null")); //$NON-NLS-1$ //$NON-NLS-2$
         ifElement.addElement(new TextElement("order by ${where.orderBy}")); //$NON-NLS-1$
         answer.addElement(ifElement);
+        answer.addElement(getLimitElement());
 
         if (context.getPlugins()
                 .sqlMapSelectByExampleWithBLOBsElementGenerated(answer,
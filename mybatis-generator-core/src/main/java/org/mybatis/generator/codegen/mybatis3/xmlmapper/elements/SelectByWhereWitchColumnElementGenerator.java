@@ -53,8 +53,7 @@ public class SelectByWhereWitchColumnElementGenerator extends
         answer.addElement(getCustomColumnListElement());
         sb.setLength(0);
         sb.append("from "); //$NON-NLS-1$
-        sb.append(introspectedTable
-                .getAliasedFullyQualifiedTableNameAtRuntime());
+        sb.append(getTableNameByWhere(true));
         answer.addElement(new TextElement(sb.toString()));
         answer.addElement(getWhereIncludeElement());
 
@@ -62,6 +61,7 @@ public class SelectByWhereWitchColumnElementGenerator extends
         ifElement.addAttribute(new Attribute("test", "where.orderBy != null")); //$NON-NLS-1$ //$NON-NLS-2$
         ifElement.addElement(new TextElement("order by ${where.orderBy}")); //$NON-NLS-1$
         answer.addElement(ifElement);
+        answer.addElement(getLimitElement());
         parentElement.addElement(answer);
     }
 }
@@ -0,0 +1,160 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedForeignKey;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.OutputUtilities;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+
+/**
+ * 生成父表与一个子表的连接查询 selectByWhereWithXxxList, 一次查询取回一页父记录及其子记录.
+ * 条件, 排序和分页在父表的派生表中执行, 因此 limit 限制的是父记录的数量而不是连接后的行数.
+ * 连接结果再包一层按同一个 orderBy 排序, 子表的列都带前缀别名, 所以 orderBy 中不带表别名的列名只会匹配父表的列.
+ * 
+ */
+public class SelectByWhereWithChildrenElementGenerator extends
+        AbstractXmlElementGenerator {
+
+    private static final String PARENT_ALIAS = "p"; //$NON-NLS-1$
+
+    private static final String CHILD_ALIAS = "c"; //$NON-NLS-1$
+
+    private static final String JOIN_ALIAS = "j"; //$NON-NLS-1$
+
+    private IntrospectedForeignKey foreignKey;
+
+    public SelectByWhereWithChildrenElementGenerator(IntrospectedForeignKey foreignKey) {
+        super();
+        this.foreignKey = foreignKey;
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        IntrospectedTable childTable = foreignKey.getChildTable();
+        XmlElement answer = new XmlElement("select"); //$NON-NLS-1$
+
+        answer.addAttribute(new Attribute("id", //$NON-NLS-1$
+                introspectedTable.getSelectByWhereWithChildrenStatementId(foreignKey)));
+        answer.addAttribute(new Attribute("parameterType", //$NON-NLS-1$
+                introspectedTable.getWhereType()));
+        answer.addAttribute(new Attribute("resultMap", //$NON-NLS-1$
+                introspectedTable.getJoinResultMapId(foreignKey)));
+
+        context.getCommentGenerator().addComment(answer);
+
+        List<String> columns = new ArrayList<String>();
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getNonBLOBColumns()) {
+            columns.add(PARENT_ALIAS + '.' + MyBatis3FormattingUtilities
+                    .getEscapedColumnName(introspectedColumn));
+        }
+        String prefix = JoinResultMapElementGenerator.getChildColumnPrefix(foreignKey);
+        for (IntrospectedColumn introspectedColumn : childTable.getNonBLOBColumns()) {
+            columns.add(CHILD_ALIAS + '.' + MyBatis3FormattingUtilities
+                    .getEscapedColumnName(introspectedColumn)
+                    + " as " + prefix + introspectedColumn.getActualColumnName()); //$NON-NLS-1$
+        }
+        // the join is wrapped so that the outer order by only sees the parent
+        // columns and the prefixed child columns, a plain id is not ambiguous
+        answer.addElement(new TextElement("select * from (")); //$NON-NLS-1$
+        addColumnList(answer, "select ", columns); //$NON-NLS-1$
+
+        columns.clear();
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getNonBLOBColumns()) {
+            columns.add(MyBatis3FormattingUtilities
+                    .getEscapedColumnName(introspectedColumn));
+        }
+        addColumnList(answer, "from (select ", columns); //$NON-NLS-1$
+        answer.addElement(new TextElement("from " //$NON-NLS-1$
+                + getTableNameByWhere(false)));
+        answer.addElement(getWhereIncludeElement());
+        answer.addElement(getOrderByElement());
+        answer.addElement(getLimitElement());
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(") "); //$NON-NLS-1$
+        sb.append(PARENT_ALIAS);
+        sb.append(" left join "); //$NON-NLS-1$
+        // a sharded child table is sharded by a key that references the shard
+        // column of the parent (see IntrospectedTable.isJoinable), so the shard
+        // key of the Where selects the child table as well
+        sb.append(childTable.getShardedTableNameAtRuntime("table", //$NON-NLS-1$
+                WHERE_SHARD_KEY, false));
+        sb.append(' ');
+        sb.append(CHILD_ALIAS);
+        sb.append(" on "); //$NON-NLS-1$
+        for (int i = 0; i < foreignKey.getColumns().size(); i++) {
+            if (i > 0) {
+                sb.append(" and "); //$NON-NLS-1$
+            }
+            sb.append(CHILD_ALIAS);
+            sb.append('.');
+            sb.append(MyBatis3FormattingUtilities
+                    .getEscapedColumnName(foreignKey.getColumns().get(i)));
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(PARENT_ALIAS);
+            sb.append('.');
+            IntrospectedColumn parentColumn = introspectedTable
+                    .getColumn(foreignKey.getParentColumnNames().get(i));
+            sb.append(parentColumn == null ? foreignKey.getParentColumnNames().get(i)
+                    : MyBatis3FormattingUtilities.getEscapedColumnName(parentColumn));
+        }
+        answer.addElement(new TextElement(sb.toString()));
+
+        // the derived table does not keep its order through the join
+        answer.addElement(new TextElement(") " + JOIN_ALIAS)); //$NON-NLS-1$
+        answer.addElement(getOrderByElement());
+
+        if (context.getPlugins()
+                .sqlMapSelectByExampleWithoutBLOBsElementGenerated(answer,
+                        introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+
+    private XmlElement getOrderByElement() {
+        XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", "where != null and where.orderBy != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        ifElement.addElement(new TextElement("order by ${where.orderBy}")); //$NON-NLS-1$
+        return ifElement;
+    }
+
+    private void addColumnList(XmlElement answer, String start, List<String> columns) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(start);
+        Iterator<String> iter = columns.iterator();
+        while (iter.hasNext()) {
+            sb.append(iter.next());
+            if (iter.hasNext()) {
+                sb.append(", "); //$NON-NLS-1$
+                if (sb.length() > 80) {
+                    answer.addElement(new TextElement(sb.toString()));
+                    sb.setLength(0);
+                    OutputUtilities.xmlIndent(sb, 1);
+                }
+            }
+        }
+        answer.addElement(new TextElement(sb.toString()));
+    }
+}
@@ -65,15 +65,15 @@ public class SelectByWhereWithoutBLOBsElementGenerator extends
 
         sb.setLength(0);
         sb.append("from "); //$NON-NLS-1$
-        sb.append(introspectedTable
-                .getAliasedFullyQualifiedTableNameAtRuntime());
+        sb.append(getTableNameByWhere(true));
         answer.addElement(new TextElement(sb.toString()));
         answer.addElement(getWhereIncludeElement());
 
         ifElement = new XmlElement("if"); //$NON-NLS-1$
-        ifElement.addAttribute(new Attribute("test", "orderByClause != null")); //$NON-NLS-1$ //$NON-NLS-2$
-        ifElement.addElement(new TextElement("order by ${orderByClause}")); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", "where.orderBy != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        ifElement.addElement(new TextElement("order by ${where.orderBy}")); //$NON-NLS-1$
         answer.addElement(ifElement);
+        answer.addElement(getLimitElement());
 
         if (context.getPlugins()
                 .sqlMapSelectByExampleWithoutBLOBsElementGenerated(answer,
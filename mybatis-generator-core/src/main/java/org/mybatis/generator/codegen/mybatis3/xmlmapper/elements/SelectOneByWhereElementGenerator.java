@@ -0,0 +1,72 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+/**
+ * 生成 selectOneByWhere 语句, 与 selectByWhere 相同但固定 limit 1,
+ * where 中的 limit 和 offset 会被忽略.
+ * 
+ */
+public class SelectOneByWhereElementGenerator extends
+        AbstractXmlElementGenerator {
+
+    public SelectOneByWhereElementGenerator() {
+        super();
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        String fqjt = introspectedTable.getWhereType();
+
+        XmlElement answer = new XmlElement("select"); //$NON-NLS-1$
+        answer.addAttribute(new Attribute(
+                "id", introspectedTable.getSelectOneByWhereStatementId())); //$NON-NLS-1$
+        answer.addAttribute(new Attribute(
+                "resultMap", introspectedTable.getResultMapWithBLOBsId())); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("parameterType", fqjt)); //$NON-NLS-1$
+
+        context.getCommentGenerator().addComment(answer);
+
+        answer.addElement(new TextElement("select")); //$NON-NLS-1$
+        answer.addElement(getBaseColumnListElement());
+        if (introspectedTable.hasBLOBColumns()) {
+            answer.addElement(new TextElement(",")); //$NON-NLS-1$
+            answer.addElement(getBlobColumnListElement());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("from "); //$NON-NLS-1$
+        sb.append(getTableNameByWhere(true));
+        answer.addElement(new TextElement(sb.toString()));
+        answer.addElement(getWhereIncludeElement());
+
+        XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", "where != null and where.orderBy != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        ifElement.addElement(new TextElement("order by ${where.orderBy}")); //$NON-NLS-1$
+        answer.addElement(ifElement);
+        answer.addElement(new TextElement("limit 1")); //$NON-NLS-1$
+
+        if (context.getPlugins()
+                .sqlMapSelectByExampleWithBLOBsElementGenerated(answer,
+                        introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+}
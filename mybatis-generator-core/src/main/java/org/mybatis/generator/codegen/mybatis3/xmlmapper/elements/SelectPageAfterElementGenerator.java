@@ -0,0 +1,141 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+
+/**
+ * 生成按主键游标分页的查询语句 selectPageAfter:
+ * where (主键列) &gt; (上一页最后一条记录的主键) order by 主键 limit pageSize.
+ * 每一页都是一次索引定位, 不会随着页数增加而变慢. 联合主键使用行值比较.
+ * 
+ */
+public class SelectPageAfterElementGenerator extends
+        AbstractXmlElementGenerator {
+
+    public SelectPageAfterElementGenerator() {
+        super();
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("select"); //$NON-NLS-1$
+        answer.addAttribute(new Attribute(
+                "id", introspectedTable.getSelectPageAfterStatementId())); //$NON-NLS-1$
+        answer.addAttribute(new Attribute(
+                "resultMap", introspectedTable.getResultMapWithBLOBsId())); //$NON-NLS-1$
+
+        context.getCommentGenerator().addComment(answer);
+
+        answer.addElement(new TextElement("select")); //$NON-NLS-1$
+        answer.addElement(getBaseColumnListElement());
+        if (introspectedTable.hasBLOBColumns()) {
+            answer.addElement(new TextElement(",")); //$NON-NLS-1$
+            answer.addElement(getBlobColumnListElement());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("from "); //$NON-NLS-1$
+        sb.append(getTableNameByWhere(true));
+        answer.addElement(new TextElement(sb.toString()));
+
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+
+        XmlElement whereElement = new XmlElement("where"); //$NON-NLS-1$
+        answer.addElement(whereElement);
+
+        XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", "lastKey != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        ifElement.addElement(new TextElement(getKeysetCondition(keyColumns)));
+        whereElement.addElement(ifElement);
+
+        ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", "where != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        XmlElement forEachElement = new XmlElement("foreach"); //$NON-NLS-1$
+        forEachElement.addAttribute(new Attribute(
+                "collection", "where.criterion")); //$NON-NLS-1$ //$NON-NLS-2$
+        forEachElement.addAttribute(new Attribute("item", "criteria")); //$NON-NLS-1$ //$NON-NLS-2$
+        XmlElement criteriaIfElement = new XmlElement("if"); //$NON-NLS-1$
+        criteriaIfElement.addAttribute(new Attribute("test", "criteria.param != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        criteriaIfElement.addElement(new TextElement(
+                "and ${criteria.param}=#{criteria.value,jdbcType=${criteria.jdbcType}}")); //$NON-NLS-1$
+        forEachElement.addElement(criteriaIfElement);
+        ifElement.addElement(forEachElement);
+        whereElement.addElement(ifElement);
+
+        sb.setLength(0);
+        sb.append("order by "); //$NON-NLS-1$
+        Iterator<IntrospectedColumn> iter = keyColumns.iterator();
+        while (iter.hasNext()) {
+            sb.append(MyBatis3FormattingUtilities.getAliasedEscapedColumnName(iter.next()));
+            if (iter.hasNext()) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+        }
+        answer.addElement(new TextElement(sb.toString()));
+        answer.addElement(new TextElement("limit #{pageSize}")); //$NON-NLS-1$
+
+        if (context.getPlugins()
+                .sqlMapSelectByExampleWithBLOBsElementGenerated(answer,
+                        introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+
+    /**
+     * 单列主键生成 id &gt; #{lastKey.id}, 联合主键生成 (a, b) &gt; (#{lastKey.a}, #{lastKey.b}).
+     * 
+     * @param keyColumns the primary key columns, in index order
+     * @return the seek condition
+     */
+    protected String getKeysetCondition(List<IntrospectedColumn> keyColumns) {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        Iterator<IntrospectedColumn> iter = keyColumns.iterator();
+        while (iter.hasNext()) {
+            IntrospectedColumn introspectedColumn = iter.next();
+            columns.append(MyBatis3FormattingUtilities
+                    .getAliasedEscapedColumnName(introspectedColumn));
+            values.append(MyBatis3FormattingUtilities
+                    .getParameterClause(introspectedColumn, "lastKey.")); //$NON-NLS-1$
+            if (iter.hasNext()) {
+                columns.append(", "); //$NON-NLS-1$
+                values.append(", "); //$NON-NLS-1$
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        if (keyColumns.size() > 1) {
+            sb.append('(');
+            sb.append(columns);
+            sb.append(") &gt; ("); //$NON-NLS-1$
+            sb.append(values);
+            sb.append(')');
+        } else {
+            sb.append(columns);
+            sb.append(" &gt; "); //$NON-NLS-1$
+            sb.append(values);
+        }
+        return sb.toString();
+    }
+}
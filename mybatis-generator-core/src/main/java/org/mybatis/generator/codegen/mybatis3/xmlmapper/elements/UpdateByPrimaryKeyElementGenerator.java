@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
 
+import java.util.List;
+
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.TextElement;
@@ -58,14 +60,28 @@ public class UpdateByPrimaryKeyElementGenerator extends
         StringBuilder sb = new StringBuilder();
 
         sb.append("update "); //$NON-NLS-1$
-        sb.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        sb.append(getTableNameByRecord());
         answer.addElement(new TextElement(sb.toString()));
 
         XmlElement dynamicElement = new XmlElement("set"); //$NON-NLS-1$
         answer.addElement(dynamicElement);
 
-        for (IntrospectedColumn introspectedColumn : ListUtilities.removeGeneratedAlwaysColumns(introspectedTable
-                .getNonPrimaryKeyColumns())) {
+        List<IntrospectedColumn> columns = ListUtilities
+                .removeGeneratedAlwaysColumns(introspectedTable.getNonPrimaryKeyColumns());
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        if (versionColumn != null) {
+            columns.remove(versionColumn);
+            dynamicElement.addElement(new TextElement(MyBatis3FormattingUtilities
+                    .getVersionIncrement(versionColumn, false) + ','));
+        }
+        boolean fixedShape = introspectedTable.isFixedShapeRequired(columns.size());
+        for (IntrospectedColumn introspectedColumn : columns) {
+            if (fixedShape) {
+                dynamicElement.addElement(new TextElement(
+                        getCoalescedAssignment(introspectedColumn, null, false)));
+                continue;
+            }
+
             XmlElement isNotNullElement = new XmlElement("if"); //$NON-NLS-1$
             sb.setLength(0);
             sb.append(introspectedColumn.getJavaProperty());
@@ -103,6 +119,10 @@ public class UpdateByPrimaryKeyElementGenerator extends
             answer.addElement(new TextElement(sb.toString()));
         }
 
+        if (versionColumn != null) {
+            answer.addElement(new TextElement(getVersionCondition(versionColumn)));
+        }
+
         if (context.getPlugins()
                 .sqlMapUpdateByPrimaryKeySelectiveElementGenerated(answer,
                         introspectedTable)) {
@@ -16,6 +16,7 @@
 package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
 
 import java.util.Iterator;
+import java.util.List;
 
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.OutputUtilities;
@@ -60,15 +61,27 @@ public class UpdateByPrimaryKeyWithBLOBsElementGenerator extends
         StringBuilder sb = new StringBuilder();
 
         sb.append("update "); //$NON-NLS-1$
-        sb.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        sb.append(getTableNameByRecord());
         answer.addElement(new TextElement(sb.toString()));
 
         // set up for first column
         sb.setLength(0);
         sb.append("set "); //$NON-NLS-1$
 
-        Iterator<IntrospectedColumn> iter = ListUtilities.removeGeneratedAlwaysColumns(introspectedTable
-                .getNonPrimaryKeyColumns()).iterator();
+        List<IntrospectedColumn> columns = ListUtilities.removeGeneratedAlwaysColumns(introspectedTable
+                .getNonPrimaryKeyColumns());
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        if (versionColumn != null) {
+            columns.remove(versionColumn);
+            sb.append(MyBatis3FormattingUtilities.getVersionIncrement(versionColumn, false));
+            if (!columns.isEmpty()) {
+                sb.append(',');
+            }
+            answer.addElement(new TextElement(sb.toString()));
+            sb.setLength(0);
+            OutputUtilities.xmlIndent(sb, 1);
+        }
+        Iterator<IntrospectedColumn> iter = columns.iterator();
         while (iter.hasNext()) {
             IntrospectedColumn introspectedColumn = iter.next();
 
@@ -110,6 +123,10 @@ public class UpdateByPrimaryKeyWithBLOBsElementGenerator extends
             answer.addElement(new TextElement(sb.toString()));
         }
 
+        if (versionColumn != null) {
+            answer.addElement(new TextElement(getVersionCondition(versionColumn)));
+        }
+
         if (context.getPlugins()
                 .sqlMapUpdateByPrimaryKeyWithBLOBsElementGenerated(answer,
                         introspectedTable)) {
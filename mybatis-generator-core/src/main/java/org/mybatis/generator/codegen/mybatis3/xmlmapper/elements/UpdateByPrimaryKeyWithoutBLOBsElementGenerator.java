@@ -16,6 +16,7 @@
 package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
 
 import java.util.Iterator;
+import java.util.List;
 
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.OutputUtilities;
@@ -53,19 +54,31 @@ public class UpdateByPrimaryKeyWithoutBLOBsElementGenerator extends
 
         StringBuilder sb = new StringBuilder();
         sb.append("update "); //$NON-NLS-1$
-        sb.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        sb.append(getTableNameByRecord());
         answer.addElement(new TextElement(sb.toString()));
 
         // set up for first column
         sb.setLength(0);
         sb.append("set "); //$NON-NLS-1$
 
-        Iterator<IntrospectedColumn> iter;
+        List<IntrospectedColumn> columns;
         if (isSimple) {
-            iter = ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getNonPrimaryKeyColumns()).iterator();
+            columns = ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getNonPrimaryKeyColumns());
         } else {
-            iter = ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getBaseColumns()).iterator();
+            columns = ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getBaseColumns());
         }
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        if (versionColumn != null) {
+            columns.remove(versionColumn);
+            sb.append(MyBatis3FormattingUtilities.getVersionIncrement(versionColumn, false));
+            if (!columns.isEmpty()) {
+                sb.append(',');
+            }
+            answer.addElement(new TextElement(sb.toString()));
+            sb.setLength(0);
+            OutputUtilities.xmlIndent(sb, 1);
+        }
+        Iterator<IntrospectedColumn> iter = columns.iterator();
         while (iter.hasNext()) {
             IntrospectedColumn introspectedColumn = iter.next();
 
@@ -107,6 +120,10 @@ public class UpdateByPrimaryKeyWithoutBLOBsElementGenerator extends
             answer.addElement(new TextElement(sb.toString()));
         }
 
+        if (versionColumn != null) {
+            answer.addElement(new TextElement(getVersionCondition(versionColumn)));
+        }
+
         if (context.getPlugins()
                 .sqlMapUpdateByPrimaryKeyWithoutBLOBsElementGenerated(answer,
                         introspectedTable)) {
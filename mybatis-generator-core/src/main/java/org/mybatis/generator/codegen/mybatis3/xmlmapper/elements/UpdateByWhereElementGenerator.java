@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
 
+import java.util.List;
+
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.TextElement;
@@ -48,15 +50,28 @@ public class UpdateByWhereElementGenerator extends
 
         StringBuilder sb = new StringBuilder();
         sb.append("update "); //$NON-NLS-1$
-        sb.append(introspectedTable
-                .getAliasedFullyQualifiedTableNameAtRuntime());
+        sb.append(getTableNameByWhere(true));
         answer.addElement(new TextElement(sb.toString()));
 
         XmlElement dynamicElement = new XmlElement("set"); //$NON-NLS-1$
         answer.addElement(dynamicElement);
 
-        for (IntrospectedColumn introspectedColumn : ListUtilities.removeGeneratedAlwaysColumns(introspectedTable
-                .getAllColumns())) {
+        List<IntrospectedColumn> columns = ListUtilities
+                .removeGeneratedAlwaysColumns(introspectedTable.getAllColumns());
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        if (versionColumn != null) {
+            columns.remove(versionColumn);
+            dynamicElement.addElement(new TextElement(MyBatis3FormattingUtilities
+                    .getVersionIncrement(versionColumn, true) + ','));
+        }
+        boolean fixedShape = introspectedTable.isFixedShapeRequired(columns.size());
+        for (IntrospectedColumn introspectedColumn : columns) {
+            if (fixedShape) {
+                dynamicElement.addElement(new TextElement(getCoalescedAssignment(
+                        introspectedColumn, "record.", true))); //$NON-NLS-1$
+                continue;
+            }
+
             XmlElement isNotNullElement = new XmlElement("if"); //$NON-NLS-1$
             sb.setLength(0);
             sb.append(introspectedColumn.getJavaProperty("record.")); //$NON-NLS-1$
@@ -75,7 +90,11 @@ public class UpdateByWhereElementGenerator extends
             isNotNullElement.addElement(new TextElement(sb.toString()));
         }
 
-        answer.addElement(getWhereIncludeElement());
+        if (versionColumn == null) {
+            answer.addElement(getWhereIncludeElement());
+        } else {
+            answer.addElement(getVersionedWhereElement(versionColumn));
+        }
 
         if (context.getPlugins()
                 .sqlMapUpdateByExampleSelectiveElementGenerated(answer,
@@ -83,4 +102,27 @@ public class UpdateByWhereElementGenerator extends
             parentElement.addElement(answer);
         }
     }
+
+    /**
+     * 条件之后追加版本检查: 记录带有版本时只更新版本一致的行, 不带版本时是不检查版本的批量更新.
+     */
+    private XmlElement getVersionedWhereElement(IntrospectedColumn versionColumn) {
+        XmlElement whereElement = new XmlElement("where"); //$NON-NLS-1$
+        XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", "where != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        ifElement.addElement(getCriteriaElement());
+        whereElement.addElement(ifElement);
+
+        ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", //$NON-NLS-1$
+                versionColumn.getJavaProperty("record.") + " != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        StringBuilder sb = new StringBuilder();
+        sb.append("and "); //$NON-NLS-1$
+        sb.append(MyBatis3FormattingUtilities.getAliasedEscapedColumnName(versionColumn));
+        sb.append(" = "); //$NON-NLS-1$
+        sb.append(MyBatis3FormattingUtilities.getParameterClause(versionColumn, "record.")); //$NON-NLS-1$
+        ifElement.addElement(new TextElement(sb.toString()));
+        whereElement.addElement(ifElement);
+        return whereElement;
+    }
 }
@@ -0,0 +1,135 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+
+/**
+ * 根据主键只更新记录中调用过 setter 的列, 由记录的 changedMask 决定, 属性被设为 null 时列更新为 NULL.
+ * 没有修改任何列时把第一个主键列赋值给自身, 语句仍然合法且不改变数据.
+ * 
+ */
+public class UpdateChangedByPrimaryKeyElementGenerator extends
+        AbstractXmlElementGenerator {
+
+    public UpdateChangedByPrimaryKeyElementGenerator() {
+        super();
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("update"); //$NON-NLS-1$
+
+        answer.addAttribute(new Attribute(
+                "id", introspectedTable.getUpdateChangedByPrimaryKeyStatementId())); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("parameterType", //$NON-NLS-1$
+                introspectedTable.getBaseRecordType()));
+
+        context.getCommentGenerator().addComment(answer);
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("update "); //$NON-NLS-1$
+        sb.append(getTableNameByRecord());
+        answer.addElement(new TextElement(sb.toString()));
+
+        XmlElement dynamicElement = new XmlElement("set"); //$NON-NLS-1$
+        answer.addElement(dynamicElement);
+
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        if (versionColumn != null) {
+            // the version always changes, so the statement is never empty
+            dynamicElement.addElement(new TextElement(MyBatis3FormattingUtilities
+                    .getVersionIncrement(versionColumn, false) + ','));
+        } else {
+            IntrospectedColumn firstKeyColumn = introspectedTable.getPrimaryKeyColumns().get(0);
+            XmlElement unchangedElement = new XmlElement("if"); //$NON-NLS-1$
+            unchangedElement.addAttribute(new Attribute("test", //$NON-NLS-1$
+                    JavaBeansUtil.CHANGED_MASK_FIELD + " == 0")); //$NON-NLS-1$
+            sb.setLength(0);
+            sb.append(MyBatis3FormattingUtilities.getEscapedColumnName(firstKeyColumn));
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(MyBatis3FormattingUtilities.getEscapedColumnName(firstKeyColumn));
+            unchangedElement.addElement(new TextElement(sb.toString()));
+            dynamicElement.addElement(unchangedElement);
+        }
+
+        List<IntrospectedColumn> columns = introspectedTable.getChangeTrackedColumns();
+        for (int bit = 0; bit < columns.size(); bit++) {
+            IntrospectedColumn introspectedColumn = columns.get(bit);
+            XmlElement isChangedElement = new XmlElement("if"); //$NON-NLS-1$
+            isChangedElement.addAttribute(new Attribute("test", getChangedTest(bit))); //$NON-NLS-1$
+            dynamicElement.addElement(isChangedElement);
+
+            sb.setLength(0);
+            sb.append(MyBatis3FormattingUtilities
+                    .getEscapedColumnName(introspectedColumn));
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(MyBatis3FormattingUtilities
+                    .getParameterClause(introspectedColumn));
+            sb.append(',');
+
+            isChangedElement.addElement(new TextElement(sb.toString()));
+        }
+
+        boolean and = false;
+        for (IntrospectedColumn introspectedColumn : introspectedTable
+                .getPrimaryKeyColumns()) {
+            sb.setLength(0);
+            if (and) {
+                sb.append("  and "); //$NON-NLS-1$
+            } else {
+                sb.append("where "); //$NON-NLS-1$
+                and = true;
+            }
+
+            sb.append(MyBatis3FormattingUtilities
+                    .getEscapedColumnName(introspectedColumn));
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(MyBatis3FormattingUtilities
+                    .getParameterClause(introspectedColumn));
+            answer.addElement(new TextElement(sb.toString()));
+        }
+
+        if (versionColumn != null) {
+            answer.addElement(new TextElement(getVersionCondition(versionColumn)));
+        }
+
+        if (context.getPlugins()
+                .sqlMapUpdateByPrimaryKeySelectiveElementGenerated(answer,
+                        introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+
+    /**
+     * OGNL test of one bit of the changed mask. The literal of bit 63 would
+     * overflow a long, that bit is set exactly when the mask is negative.
+     */
+    private String getChangedTest(int bit) {
+        if (bit == Long.SIZE - 1) {
+            return JavaBeansUtil.CHANGED_MASK_FIELD + " &lt; 0"; //$NON-NLS-1$
+        }
+        return "(" + JavaBeansUtil.CHANGED_MASK_FIELD + " &amp; " + (1L << bit) + ") != 0"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
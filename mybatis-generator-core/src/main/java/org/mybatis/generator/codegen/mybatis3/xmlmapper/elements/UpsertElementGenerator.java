@@ -0,0 +1,245 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3.xmlmapper.elements;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.OutputUtilities;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.config.GeneratedKey;
+import org.mybatis.generator.config.PropertyRegistry;
+
+/**
+ * 生成 MySQL 的 insert ... on duplicate key update 语句, 包括单条和批量两种形式.
+ * 冲突时更新的列默认是全部非主键列, 可以通过表属性 upsertUpdateColumns 指定.
+ * 有版本列时冲突的更新总是把版本加一, 而不是写入记录中的版本.
+ * 新值默认用 values(col) 引用, 兼容 MySQL 5.x; MySQL 8.0.20 起 values() 已过时,
+ * 配置表属性 upsertRowAlias 后改用 8.0.19 引入的行别名 (as new ... col = new.col).
+ * 
+ */
+public class UpsertElementGenerator extends AbstractXmlElementGenerator {
+
+    private boolean isBatch;
+
+    public UpsertElementGenerator(boolean isBatch) {
+        super();
+        this.isBatch = isBatch;
+    }
+
+    @Override
+    public void addElements(XmlElement parentElement) {
+        XmlElement answer = new XmlElement("insert"); //$NON-NLS-1$
+
+        if (isBatch) {
+            answer.addAttribute(new Attribute(
+                    "id", introspectedTable.getUpsertBatchStatementId())); //$NON-NLS-1$
+        } else {
+            answer.addAttribute(new Attribute(
+                    "id", introspectedTable.getUpsertStatementId())); //$NON-NLS-1$
+            FullyQualifiedJavaType parameterType = introspectedTable.getRules()
+                    .calculateAllFieldsClass();
+            answer.addAttribute(new Attribute("parameterType", //$NON-NLS-1$
+                    parameterType.getFullyQualifiedName()));
+        }
+
+        context.getCommentGenerator().addComment(answer);
+
+        GeneratedKey gk = introspectedTable.getGeneratedKey();
+        if (gk != null && !isBatch) {
+            IntrospectedColumn introspectedColumn = introspectedTable
+                    .getColumn(gk.getColumn());
+            // if the column is null, then it's a configuration error. The
+            // warning has already been reported
+            if (introspectedColumn != null) {
+                if (gk.isJdbcStandard()) {
+                    answer.addAttribute(new Attribute("useGeneratedKeys", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+                    answer.addAttribute(new Attribute("keyProperty", introspectedColumn.getJavaProperty())); //$NON-NLS-1$
+                    answer.addAttribute(new Attribute("keyColumn", introspectedColumn.getActualColumnName())); //$NON-NLS-1$
+                } else {
+                    answer.addElement(getSelectKey(introspectedColumn, gk));
+                }
+            }
+        }
+
+        // identity columns stay in the insert list - the key is what makes
+        // the duplicate key clause fire. A null value still lets the
+        // database generate a new key.
+        List<IntrospectedColumn> insertColumns = ListUtilities
+                .removeGeneratedAlwaysColumns(introspectedTable.getAllColumns());
+        String prefix = isBatch ? "item." : null; //$NON-NLS-1$
+
+        List<String> columnClauses = new ArrayList<String>();
+        List<String> valueClauses = new ArrayList<String>();
+        for (IntrospectedColumn introspectedColumn : insertColumns) {
+            columnClauses.add(MyBatis3FormattingUtilities
+                    .getEscapedColumnName(introspectedColumn));
+            valueClauses.add(MyBatis3FormattingUtilities
+                    .getParameterClause(introspectedColumn, prefix));
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("insert into "); //$NON-NLS-1$
+        sb.append(isBatch ? getTableNameByRecords() : getTableNameByRecord());
+        sb.append(" ("); //$NON-NLS-1$
+        addWrappedClause(answer, sb.toString(), columnClauses, ")"); //$NON-NLS-1$
+
+        String rowAlias = calculateRowAlias();
+        if (isBatch) {
+            answer.addElement(new TextElement("values")); //$NON-NLS-1$
+            XmlElement foreachElement = new XmlElement("foreach"); //$NON-NLS-1$
+            foreachElement.addAttribute(new Attribute("collection", "records")); //$NON-NLS-1$ //$NON-NLS-2$
+            foreachElement.addAttribute(new Attribute("item", "item")); //$NON-NLS-1$ //$NON-NLS-2$
+            foreachElement.addAttribute(new Attribute("separator", ",")); //$NON-NLS-1$ //$NON-NLS-2$
+            addWrappedClause(foreachElement, "(", valueClauses, ")"); //$NON-NLS-1$ //$NON-NLS-2$
+            answer.addElement(foreachElement);
+            if (rowAlias != null) {
+                answer.addElement(new TextElement("as " + rowAlias)); //$NON-NLS-1$
+            }
+        } else {
+            addWrappedClause(answer, "values (", valueClauses, //$NON-NLS-1$
+                    rowAlias == null ? ")" : ") as " + rowAlias); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        List<String> updateClauses = new ArrayList<String>();
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        List<IntrospectedColumn> updateColumns = calculateUpdateColumns();
+        updateColumns.remove(versionColumn);
+        if (updateColumns.isEmpty()) {
+            // nothing to overwrite, the duplicate key clause keeps the existing row as it is
+            IntrospectedColumn keyColumn = insertColumns.get(0);
+            if (!introspectedTable.getPrimaryKeyColumns().isEmpty()) {
+                keyColumn = introspectedTable.getPrimaryKeyColumns().get(0);
+            }
+            String columnName = MyBatis3FormattingUtilities.getEscapedColumnName(keyColumn);
+            updateClauses.add(columnName + " = " + columnName); //$NON-NLS-1$
+        } else if (versionColumn != null) {
+            // updating an existing row is an update like any other
+            updateClauses.add(MyBatis3FormattingUtilities.getVersionIncrement(versionColumn, false));
+        }
+        for (IntrospectedColumn introspectedColumn : updateColumns) {
+            String columnName = MyBatis3FormattingUtilities
+                    .getEscapedColumnName(introspectedColumn);
+            sb.setLength(0);
+            sb.append(columnName);
+            if (rowAlias == null) {
+                sb.append(" = values("); //$NON-NLS-1$
+                sb.append(columnName);
+                sb.append(')');
+            } else {
+                sb.append(" = "); //$NON-NLS-1$
+                sb.append(rowAlias);
+                sb.append('.');
+                sb.append(columnName);
+            }
+            updateClauses.add(sb.toString());
+        }
+        addWrappedClause(answer, "on duplicate key update ", updateClauses, ""); //$NON-NLS-1$ //$NON-NLS-2$
+
+        if (context.getPlugins().sqlMapInsertElementGenerated(answer,
+                introspectedTable)) {
+            parentElement.addElement(answer);
+        }
+    }
+
+    /**
+     * Calculates the columns that are overwritten when the insert hits an
+     * existing key. Primary key, identity and generated always columns are
+     * never updated. When none of the configured columns can be updated the
+     * list is empty, the configuration is never widened to all columns.
+     *
+     * @return the columns to update
+     */
+    protected List<IntrospectedColumn> calculateUpdateColumns() {
+        List<IntrospectedColumn> columns = ListUtilities
+                .removeIdentityAndGeneratedAlwaysColumns(introspectedTable
+                        .getNonPrimaryKeyColumns());
+
+        String configured = introspectedTable
+                .getTableConfigurationProperty(PropertyRegistry.TABLE_UPSERT_UPDATE_COLUMNS);
+        if (stringHasValue(configured)) {
+            List<String> unmatchedNames = new ArrayList<String>();
+            List<IntrospectedColumn> filtered = ListUtilities
+                    .retainNamedColumns(columns, configured, unmatchedNames);
+            // the single and batch statements share the configuration, only
+            // report problems once
+            if (!isBatch) {
+                for (String name : unmatchedNames) {
+                    warnings.add(getString("Warning.29", name, //$NON-NLS-1$
+                            PropertyRegistry.TABLE_UPSERT_UPDATE_COLUMNS,
+                            introspectedTable.getFullyQualifiedTable().toString()));
+                }
+                if (filtered.isEmpty()) {
+                    warnings.add(getString("Warning.43", //$NON-NLS-1$
+                            introspectedTable.getFullyQualifiedTable().toString()));
+                }
+            }
+            columns = filtered;
+        }
+
+        return columns;
+    }
+
+    /**
+     * 计算表属性 upsertRowAlias 配置的行别名, 未配置或不是合法的标识符时返回 null, 使用 values(col).
+     *
+     * @return the row alias, or null
+     */
+    protected String calculateRowAlias() {
+        String rowAlias = introspectedTable
+                .getTableConfigurationProperty(PropertyRegistry.TABLE_UPSERT_ROW_ALIAS);
+        if (!stringHasValue(rowAlias)) {
+            return null;
+        }
+        rowAlias = rowAlias.trim();
+        if (!rowAlias.matches("[A-Za-z_][A-Za-z0-9_]*")) { //$NON-NLS-1$
+            if (!isBatch) {
+                warnings.add(getString("Warning.30", PropertyRegistry.TABLE_UPSERT_ROW_ALIAS, //$NON-NLS-1$
+                        introspectedTable.getFullyQualifiedTable().toString(), rowAlias));
+            }
+            return null;
+        }
+        return rowAlias;
+    }
+
+    private void addWrappedClause(XmlElement parentElement, String start,
+            List<String> parts, String end) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(start);
+        for (int i = 0; i < parts.size(); i++) {
+            sb.append(parts.get(i));
+            if (i + 1 < parts.size()) {
+                sb.append(", "); //$NON-NLS-1$
+                if (sb.length() > 80) {
+                    parentElement.addElement(new TextElement(sb.toString()));
+                    sb.setLength(0);
+                    OutputUtilities.xmlIndent(sb, 1);
+                }
+            }
+        }
+        sb.append(end);
+        parentElement.addElement(new TextElement(sb.toString()));
+    }
+}
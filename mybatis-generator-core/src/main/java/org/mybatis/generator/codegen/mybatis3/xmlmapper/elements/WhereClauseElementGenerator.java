@@ -20,7 +20,6 @@ import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.xml.Attribute;
-import org.mybatis.generator.api.dom.xml.TextElement;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 
 /**
@@ -47,30 +46,8 @@ public class WhereClauseElementGenerator extends
 
         XmlElement whereElement = new XmlElement("where"); //$NON-NLS-1$
         answer.addElement(whereElement);
+        whereElement.addElement(getCriteriaElement());
 
-        XmlElement outerForEachElement = new XmlElement("foreach"); //$NON-NLS-1$
-        outerForEachElement.addAttribute(new Attribute(
-                "collection", "where.criterion")); //$NON-NLS-1$ //$NON-NLS-2$
-        outerForEachElement.addAttribute(new Attribute("item", "criteria")); //$NON-NLS-1$ //$NON-NLS-2$
-        outerForEachElement.addAttribute(new Attribute("separator", " and ")); //$NON-NLS-1$ //$NON-NLS-2$
-        whereElement.addElement(outerForEachElement);
-
-        XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
-        ifElement.addAttribute(new Attribute("test", "criteria.param!= null")); //$NON-NLS-1$ //$NON-NLS-2$
-
-        StringBuilder sb = new StringBuilder();
-
-        sb.append("${"); //$NON-NLS-1$
-        sb.append("criteria.param");
-        sb.append("}");
-        sb.append("=");
-        sb.append("#{"); //$NON-NLS-1$
-        sb.append("criteria.value");
-        sb.append(",jdbcType=${criteria.jdbcType}"); //$NON-NLS-1$
-        sb.append("}");
-
-        ifElement.addElement(new TextElement(sb.toString()));
-        outerForEachElement.addElement(ifElement);
         if (context.getPlugins()
                 .sqlMapExampleWhereClauseElementGenerated(answer,
                         introspectedTable)) {
@@ -0,0 +1,235 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.r2dbc;
+
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.CompilationUnit;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.codegen.AbstractJavaClientGenerator;
+import org.mybatis.generator.codegen.AbstractXmlGenerator;
+import org.mybatis.generator.codegen.jdbc.JdbcFormattingUtilities;
+import org.mybatis.generator.codegen.r2dbc.elements.AbstractR2dbcMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.CountByWhereMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.DeleteByPrimaryKeyMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.DeleteByWhereMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.IncrementMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.InsertMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.InsertsMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.MapRowMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.SelectByPrimaryKeyMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.SelectByWhereMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.SelectPageAfterMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.UpdateByPrimaryKeyMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.UpdateByPrimaryKeyWithVersionMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.UpdateChangedByPrimaryKeyMethodGenerator;
+import org.mybatis.generator.codegen.r2dbc.elements.WhereSupportMethodGenerator;
+import org.mybatis.generator.internal.rules.Rules;
+
+/**
+ * 生成基于 R2DBC 的响应式 Repository 类. 与 Jdbc 运行时的 DAO 使用相同的
+ * SQL 和按下标的绑定、映射方式, 方法返回 Mono/Flux, 在订阅时从
+ * ConnectionFactory 获取连接, 完成、出错或取消时关闭.
+ * <p>
+ * selectByWhere 和 selectPageAfter 返回的 Flux 遵循订阅方的背压,
+ * 不需要单独的流式重载. 生成的代码需要 Java 8, r2dbc-spi 1.0 和 Reactor.
+ * 
+ */
+public class R2dbcRepositoryGenerator extends AbstractJavaClientGenerator {
+
+    public R2dbcRepositoryGenerator() {
+        super(false);
+    }
+
+    @Override
+    public List<CompilationUnit> getCompilationUnits() {
+        progressCallback.startTask(getString("Progress.22", //$NON-NLS-1$
+                introspectedTable.getFullyQualifiedTable().toString()));
+        CommentGenerator commentGenerator = context.getCommentGenerator();
+
+        FullyQualifiedJavaType type = new FullyQualifiedJavaType(
+                getRepositoryType());
+        TopLevelClass topLevelClass = new TopLevelClass(type);
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+        commentGenerator.addJavaFileComment(topLevelClass);
+
+        addFields(topLevelClass);
+        addConstructor(topLevelClass);
+        addSetFetchSizeMethod(topLevelClass);
+
+        Rules rules = introspectedTable.getRules();
+        int methodCount = topLevelClass.getMethods().size();
+        if (rules.generateCountByWhere()) {
+            initializeAndExecuteGenerator(new CountByWhereMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateSelectByWhere() || rules.generateSelectByWhereCursor()) {
+            initializeAndExecuteGenerator(new SelectByWhereMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateSelectPageAfter()) {
+            initializeAndExecuteGenerator(new SelectPageAfterMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateDeleteByWhere()) {
+            initializeAndExecuteGenerator(new DeleteByWhereMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateIncrementByWhere()) {
+            for (IntrospectedColumn introspectedColumn : introspectedTable.getIncrementColumns()) {
+                initializeAndExecuteGenerator(new IncrementMethodGenerator(introspectedColumn, true), topLevelClass);
+            }
+        }
+        boolean whereUsed = topLevelClass.getMethods().size() > methodCount;
+
+        if (rules.generateSelectByPrimaryKey()) {
+            initializeAndExecuteGenerator(new SelectByPrimaryKeyMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateDeleteByPrimaryKey()) {
+            initializeAndExecuteGenerator(new DeleteByPrimaryKeyMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateInsertNotCheck()) {
+            initializeAndExecuteGenerator(new InsertMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateInserts()) {
+            initializeAndExecuteGenerator(new InsertsMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateUpdateByPrimaryKeySelective()
+                || rules.generateUpdateByPrimaryKeyWithBLOBs()
+                || rules.generateUpdateByPrimaryKeyWithoutBLOBs()) {
+            initializeAndExecuteGenerator(new UpdateByPrimaryKeyMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateUpdateChangedByPrimaryKey()) {
+            initializeAndExecuteGenerator(new UpdateChangedByPrimaryKeyMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateUpdateByPrimaryKeyWithVersion()) {
+            initializeAndExecuteGenerator(new UpdateByPrimaryKeyWithVersionMethodGenerator(), topLevelClass);
+        }
+        if (rules.generateIncrementByPrimaryKey()) {
+            for (IntrospectedColumn introspectedColumn : introspectedTable.getIncrementColumns()) {
+                initializeAndExecuteGenerator(new IncrementMethodGenerator(introspectedColumn, false), topLevelClass);
+            }
+        }
+
+        if (whereUsed) {
+            initializeAndExecuteGenerator(new WhereSupportMethodGenerator(), topLevelClass);
+        }
+        initializeAndExecuteGenerator(new MapRowMethodGenerator(), topLevelClass);
+
+        List<CompilationUnit> answer = new ArrayList<CompilationUnit>();
+        if (context.getPlugins().clientGenerated(null, topLevelClass,
+                introspectedTable)) {
+            answer.add(topLevelClass);
+        }
+
+        return answer;
+    }
+
+    protected void addFields(TopLevelClass topLevelClass) {
+        Field field = new Field("COLUMNS", FullyQualifiedJavaType.getStringInstance()); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("\"" + JdbcFormattingUtilities.getColumnList( //$NON-NLS-1$
+                introspectedTable.getAllColumns()) + "\""); //$NON-NLS-1$
+        topLevelClass.addField(field);
+
+        field = new Field("TABLE", FullyQualifiedJavaType.getStringInstance()); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("\"" + escapeStringForJava( //$NON-NLS-1$
+                introspectedTable.getFullyQualifiedTableNameAtRuntime()) + "\""); //$NON-NLS-1$
+        topLevelClass.addField(field);
+
+        field = new Field("SELECT_SQL", FullyQualifiedJavaType.getStringInstance()); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("\"select \" + COLUMNS + \" from \" + TABLE"); //$NON-NLS-1$
+        topLevelClass.addField(field);
+
+        FullyQualifiedJavaType connectionFactoryType = new FullyQualifiedJavaType(
+                "io.r2dbc.spi.ConnectionFactory"); //$NON-NLS-1$
+        field = new Field("connectionFactory", connectionFactoryType); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setFinal(true);
+        topLevelClass.addField(field);
+        topLevelClass.addImportedType(connectionFactoryType);
+
+        field = new Field("fetchSize", FullyQualifiedJavaType.getIntInstance()); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        topLevelClass.addField(field);
+    }
+
+    protected void addConstructor(TopLevelClass topLevelClass) {
+        Method method = new Method(topLevelClass.getType().getShortName());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setConstructor(true);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "io.r2dbc.spi.ConnectionFactory"), "connectionFactory")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("this.connectionFactory = connectionFactory;"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+    }
+
+    protected void addSetFetchSizeMethod(TopLevelClass topLevelClass) {
+        Method method = new Method("setFetchSize"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "fetchSize")); //$NON-NLS-1$
+        method.addBodyLine("this.fetchSize = fetchSize;"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "selectByWhere 每次从数据库读取的行数, 0 表示使用驱动的默认值");
+        topLevelClass.addMethod(method);
+    }
+
+    /**
+     * @return the repository class, named after the domain object in the
+     *         package of the java client
+     */
+    protected String getRepositoryType() {
+        FullyQualifiedJavaType mapperType = new FullyQualifiedJavaType(
+                introspectedTable.getMyBatis3JavaMapperType());
+        StringBuilder sb = new StringBuilder();
+        sb.append(mapperType.getPackageName());
+        sb.append('.');
+        sb.append(introspectedTable.getFullyQualifiedTable().getDomainObjectName());
+        sb.append("Repository"); //$NON-NLS-1$
+        return sb.toString();
+    }
+
+    protected void initializeAndExecuteGenerator(
+            AbstractR2dbcMethodGenerator methodGenerator,
+            TopLevelClass topLevelClass) {
+        methodGenerator.setContext(context);
+        methodGenerator.setIntrospectedTable(introspectedTable);
+        methodGenerator.setProgressCallback(progressCallback);
+        methodGenerator.setWarnings(warnings);
+        methodGenerator.addClassElements(topLevelClass);
+    }
+
+    @Override
+    public AbstractXmlGenerator getMatchedXMLGenerator() {
+        // the repository does not need XML
+        return null;
+    }
+}
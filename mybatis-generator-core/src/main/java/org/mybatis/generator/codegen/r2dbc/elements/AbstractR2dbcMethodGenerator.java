@@ -0,0 +1,514 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.r2dbc.elements;
+
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getSetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+
+import java.sql.Types;
+import java.util.Iterator;
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.codegen.AbstractGenerator;
+import org.mybatis.generator.codegen.jdbc.JdbcFormattingUtilities;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.config.GeneratedKey;
+import org.mybatis.generator.config.PropertyRegistry;
+
+/**
+ * R2DBC Repository 方法生成器的基类. 参数用 Statement.bind 按下标(从 0 开始)绑定,
+ * 结果用 Row.get 按下标读取. java.util.Date 与 java.time 类型、byte[] 与
+ * ByteBuffer 之间的转换在生成时确定.
+ * <p>
+ * 占位符由 javaClientGenerator 的 bindMarker 属性决定: 默认 "$" 生成 $1, $2
+ * (H2, PostgreSQL), "?" 生成 ? (MySQL, MariaDB).
+ *
+ */
+public abstract class AbstractR2dbcMethodGenerator extends AbstractGenerator {
+
+    /** The name of the repository constant holding the select list. */
+    public static final String COLUMNS = "COLUMNS"; //$NON-NLS-1$
+
+    /** The name of the repository constant holding the table name. */
+    public static final String TABLE = "TABLE"; //$NON-NLS-1$
+
+    public AbstractR2dbcMethodGenerator() {
+        super();
+    }
+
+    public abstract void addClassElements(TopLevelClass topLevelClass);
+
+    protected FullyQualifiedJavaType getRecordType() {
+        return introspectedTable.getRules().calculateAllFieldsClass();
+    }
+
+    protected FullyQualifiedJavaType getWhereType() {
+        return new FullyQualifiedJavaType(introspectedTable.getWhereType());
+    }
+
+    /**
+     * @return true when the driver expects $1, $2 rather than ?
+     */
+    protected boolean isIndexedBindMarker() {
+        String bindMarker = context.getJavaClientGeneratorConfiguration()
+                .getProperty(PropertyRegistry.CLIENT_BIND_MARKER);
+        return !"?".equals(bindMarker); //$NON-NLS-1$
+    }
+
+    /**
+     * @return the bind marker of the parameter at the zero based index
+     */
+    protected String getBindMarker(int index) {
+        return isIndexedBindMarker() ? "$" + (index + 1) : "?"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Adds the lines appending the prefix and the marker of the next
+     * parameter to the generated "sql" builder, counting it in "index".
+     */
+    protected void addAppendBindMarkerLines(Method method, String prefix) {
+        if (isIndexedBindMarker()) {
+            method.addBodyLine("sql.append(\"" + prefix + "$\").append(++index);"); //$NON-NLS-1$ //$NON-NLS-2$
+        } else {
+            method.addBodyLine("sql.append(\"" + prefix + "?\");"); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addBodyLine("index++;"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * @return "A = $1, B = $2" or "A = ? and B = ?" depending on the
+     *         separator and the bind marker, numbered from the start index
+     */
+    protected String getAssignments(List<IntrospectedColumn> columns, String separator, int start) {
+        StringBuilder sb = new StringBuilder();
+        int index = start;
+        Iterator<IntrospectedColumn> iter = columns.iterator();
+        while (iter.hasNext()) {
+            sb.append(JdbcFormattingUtilities.getEscapedColumnName(iter.next()));
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(getBindMarker(index++));
+            if (iter.hasNext()) {
+                sb.append(separator);
+            }
+        }
+        return sb.toString();
+    }
+
+    protected boolean hasMethod(TopLevelClass topLevelClass, String name) {
+        for (Method method : topLevelClass.getMethods()) {
+            if (name.equals(method.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a private static final String holding the SQL of a statement.
+     */
+    protected void addSqlField(TopLevelClass topLevelClass, String name,
+            String initializationString) {
+        Field field = new Field(name, FullyQualifiedJavaType.getStringInstance());
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString(initializationString);
+        topLevelClass.addField(field);
+    }
+
+    /**
+     * @return the line opening a connection for the publisher, the lambda is
+     *         closed by {@link #getCloseLine()}
+     */
+    protected String getUsingLine(String publisher) {
+        return "return " + publisher + ".usingWhen(connectionFactory.create(), connection -> {"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * @return the line closing the connection opened by
+     *         {@link #getUsingLine(String)}, on completion, error or cancel
+     */
+    protected String getCloseLine() {
+        return "}, Connection::close);"; //$NON-NLS-1$
+    }
+
+    /**
+     * @return the line executing "statement" and emitting the number of
+     *         rows it changed
+     */
+    protected String getRowsUpdatedLine() {
+        return "return Mono.from(statement.execute()).flatMap(result -> Mono.from(result.getRowsUpdated()));"; //$NON-NLS-1$
+    }
+
+    protected void addR2dbcImports(TopLevelClass topLevelClass) {
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("io.r2dbc.spi.Connection")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("io.r2dbc.spi.Statement")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("reactor.core.publisher.Flux")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("reactor.core.publisher.Mono")); //$NON-NLS-1$
+    }
+
+    /**
+     * @return Mono&lt;type&gt;
+     */
+    protected FullyQualifiedJavaType getMonoType(FullyQualifiedJavaType type) {
+        FullyQualifiedJavaType answer = new FullyQualifiedJavaType("reactor.core.publisher.Mono"); //$NON-NLS-1$
+        answer.addTypeArgument(type);
+        return answer;
+    }
+
+    /**
+     * @return Flux&lt;type&gt;
+     */
+    protected FullyQualifiedJavaType getFluxType(FullyQualifiedJavaType type) {
+        FullyQualifiedJavaType answer = new FullyQualifiedJavaType("reactor.core.publisher.Flux"); //$NON-NLS-1$
+        answer.addTypeArgument(type);
+        return answer;
+    }
+
+    /**
+     * @return the columns written by insert, in parameter order
+     */
+    protected List<IntrospectedColumn> getInsertColumns() {
+        return ListUtilities.removeIdentityAndGeneratedAlwaysColumns(
+                introspectedTable.getAllColumns());
+    }
+
+    /**
+     * Adds INSERT_SQL and, for a JDBC standard generated key, KEY_COLUMNS,
+     * once.
+     */
+    protected void addInsertSqlFields(TopLevelClass topLevelClass) {
+        for (Field field : topLevelClass.getFields()) {
+            if ("INSERT_SQL".equals(field.getName())) { //$NON-NLS-1$
+                return;
+            }
+        }
+
+        List<IntrospectedColumn> columns = getInsertColumns();
+        StringBuilder sb = new StringBuilder();
+        sb.append("\"insert into \" + TABLE + \" ("); //$NON-NLS-1$
+        sb.append(JdbcFormattingUtilities.getColumnList(columns));
+        sb.append(") values ("); //$NON-NLS-1$
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append(getBindMarker(i));
+        }
+        sb.append(")\""); //$NON-NLS-1$
+        addSqlField(topLevelClass, "INSERT_SQL", sb.toString()); //$NON-NLS-1$
+
+        IntrospectedColumn keyColumn = getGeneratedValueColumn();
+        if (keyColumn != null) {
+            Field field = new Field("KEY_COLUMNS", new FullyQualifiedJavaType("java.lang.String[]")); //$NON-NLS-1$ //$NON-NLS-2$
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setStatic(true);
+            field.setFinal(true);
+            field.setInitializationString("{ \"" //$NON-NLS-1$
+                    + escapeStringForJava(keyColumn.getActualColumnName()) + "\" }"); //$NON-NLS-1$
+            topLevelClass.addField(field);
+        }
+    }
+
+    /**
+     * Adds the bindInsert method shared by insert and inserts, once.
+     */
+    protected void addBindInsertMethod(TopLevelClass topLevelClass) {
+        if (hasMethod(topLevelClass, "bindInsert")) { //$NON-NLS-1$
+            return;
+        }
+
+        Method method = new Method("bindInsert"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "io.r2dbc.spi.Statement"), "statement")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(getRecordType(), "record")); //$NON-NLS-1$
+
+        List<IntrospectedColumn> columns = getInsertColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            addBindPropertyLines(method, columns.get(i), "statement", Integer.toString(i), "record"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "按 INSERT_SQL 的参数顺序绑定记录");
+        topLevelClass.addMethod(method);
+    }
+
+    /**
+     * @return the key column of a generated key that the driver returns with
+     *         Statement.returnGeneratedValues, null when there is none
+     */
+    protected IntrospectedColumn getGeneratedValueColumn() {
+        GeneratedKey gk = introspectedTable.getGeneratedKey();
+        if (gk == null || !gk.isJdbcStandard()) {
+            return null;
+        }
+        return introspectedTable.getColumn(gk.getColumn());
+    }
+
+    /**
+     * @return the key column of a generated key read with its own statement,
+     *         null when there is none
+     */
+    protected IntrospectedColumn getSelectKeyColumn() {
+        GeneratedKey gk = introspectedTable.getGeneratedKey();
+        if (gk == null || gk.isJdbcStandard()) {
+            return null;
+        }
+        return introspectedTable.getColumn(gk.getColumn());
+    }
+
+    /**
+     * Adds the selectKey method running the configured key statement on the
+     * connection of the insert, once.
+     */
+    protected void addSelectKeyMethod(TopLevelClass topLevelClass) {
+        if (hasMethod(topLevelClass, "selectKey")) { //$NON-NLS-1$
+            return;
+        }
+
+        GeneratedKey gk = introspectedTable.getGeneratedKey();
+        IntrospectedColumn keyColumn = getSelectKeyColumn();
+
+        Method method = new Method("selectKey"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(getMonoType(new FullyQualifiedJavaType("java.lang.Void"))); //$NON-NLS-1$
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "io.r2dbc.spi.Connection"), "connection")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(getRecordType(), "record")); //$NON-NLS-1$
+        method.addBodyLine("return Flux.from(connection.createStatement(SELECT_KEY_SQL).execute())" //$NON-NLS-1$
+                + ".flatMap(result -> result.map((row, metadata) -> {"); //$NON-NLS-1$
+        addReadLines(method, keyColumn, "row", "0", "record"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        method.addBodyLine("return record;"); //$NON-NLS-1$
+        method.addBodyLine("})).then();"); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "执行配置的主键语句, 把主键写回记录");
+        addSqlField(topLevelClass, "SELECT_KEY_SQL", //$NON-NLS-1$
+                "\"" + escapeStringForJava(gk.getRuntimeSqlStatement()) + "\""); //$NON-NLS-1$ //$NON-NLS-2$
+        topLevelClass.addMethod(method);
+    }
+
+    /**
+     * Adds one parameter per primary key column, the way the mapper
+     * selectByPrimaryKey does for a model without a key class.
+     */
+    protected void addPrimaryKeyParameters(TopLevelClass topLevelClass, Method method) {
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getPrimaryKeyColumns()) {
+            FullyQualifiedJavaType type = introspectedColumn.getFullyQualifiedJavaType();
+            topLevelClass.addImportedType(type);
+            method.addParameter(new Parameter(type, introspectedColumn.getJavaProperty()));
+        }
+    }
+
+    /**
+     * Adds the lines binding the value of the expression to the parameter
+     * at the index. R2DBC does not accept null in bind, a null value is bound
+     * with bindNull and the type the driver converts it to.
+     */
+    protected void addBindLines(Method method, IntrospectedColumn introspectedColumn,
+            String statement, String index, String value) {
+        String typeName = getWrapperTypeName(introspectedColumn);
+        String argument;
+        String nullType;
+        if ("java.util.Date".equals(typeName)) { //$NON-NLS-1$
+            String sqlType = getSqlDateType(introspectedColumn);
+            argument = "new " + sqlType + "(" + value + ".getTime())." //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                    + getToJavaTimeMethod(introspectedColumn) + "()"; //$NON-NLS-1$
+            nullType = getJavaTimeType(introspectedColumn);
+        } else if ("byte[]".equals(typeName)) { //$NON-NLS-1$
+            argument = "java.nio.ByteBuffer.wrap(" + value + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+            nullType = "java.nio.ByteBuffer"; //$NON-NLS-1$
+        } else {
+            argument = value;
+            nullType = getClassName(introspectedColumn.getFullyQualifiedJavaType());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(statement);
+        sb.append(".bind("); //$NON-NLS-1$
+        sb.append(index);
+        sb.append(", "); //$NON-NLS-1$
+        sb.append(argument);
+        sb.append(");"); //$NON-NLS-1$
+        String bind = sb.toString();
+        if (introspectedColumn.getFullyQualifiedJavaType().isPrimitive()) {
+            method.addBodyLine(bind);
+            return;
+        }
+
+        sb.setLength(0);
+        sb.append("if ("); //$NON-NLS-1$
+        sb.append(value);
+        sb.append(" == null) {"); //$NON-NLS-1$
+        method.addBodyLine(sb.toString());
+
+        sb.setLength(0);
+        sb.append(statement);
+        sb.append(".bindNull("); //$NON-NLS-1$
+        sb.append(index);
+        sb.append(", "); //$NON-NLS-1$
+        sb.append(nullType);
+        sb.append(".class);"); //$NON-NLS-1$
+        method.addBodyLine(sb.toString());
+        method.addBodyLine("} else {"); //$NON-NLS-1$
+        method.addBodyLine(bind);
+        method.addBodyLine("}"); //$NON-NLS-1$
+    }
+
+    /**
+     * Adds the lines binding the property of the record.
+     */
+    protected void addBindPropertyLines(Method method, IntrospectedColumn introspectedColumn,
+            String statement, String index, String record) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(record);
+        sb.append('.');
+        sb.append(getGetterMethodName(introspectedColumn.getJavaProperty(),
+                introspectedColumn.getFullyQualifiedJavaType()));
+        sb.append("()"); //$NON-NLS-1$
+        addBindLines(method, introspectedColumn, statement, index, sb.toString());
+    }
+
+    /**
+     * Adds the lines reading the column at the index of the row into the
+     * property of the record. SQL NULL leaves the property unset.
+     */
+    protected void addReadLines(Method method, IntrospectedColumn introspectedColumn,
+            String row, String index, String record) {
+        FullyQualifiedJavaType javaType = introspectedColumn.getFullyQualifiedJavaType();
+        String typeName = getWrapperTypeName(introspectedColumn);
+        String setter = getSetterMethodName(introspectedColumn.getJavaProperty());
+        String local = introspectedColumn.getJavaProperty() + "Value"; //$NON-NLS-1$
+
+        String readType;
+        String conversion;
+        if ("java.util.Date".equals(typeName)) { //$NON-NLS-1$
+            readType = getJavaTimeType(introspectedColumn);
+            // a plain Date, the way MyBatis' DateTypeHandler returns it
+            conversion = "new java.util.Date(" + getSqlDateType(introspectedColumn) //$NON-NLS-1$
+                    + ".valueOf(" + local + ").getTime())"; //$NON-NLS-1$ //$NON-NLS-2$
+        } else if ("byte[]".equals(typeName)) { //$NON-NLS-1$
+            readType = "java.nio.ByteBuffer"; //$NON-NLS-1$
+            conversion = null;
+        } else if (javaType.isPrimitive()) {
+            readType = typeName;
+            conversion = local;
+        } else {
+            // the driver returns null for SQL NULL
+            StringBuilder sb = new StringBuilder();
+            sb.append(record);
+            sb.append('.');
+            sb.append(setter);
+            sb.append('(');
+            sb.append(row);
+            sb.append(".get("); //$NON-NLS-1$
+            sb.append(index);
+            sb.append(", "); //$NON-NLS-1$
+            sb.append(getClassName(javaType));
+            sb.append(".class));"); //$NON-NLS-1$
+            method.addBodyLine(sb.toString());
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(readType);
+        sb.append(' ');
+        sb.append(local);
+        sb.append(" = "); //$NON-NLS-1$
+        sb.append(row);
+        sb.append(".get("); //$NON-NLS-1$
+        sb.append(index);
+        sb.append(", "); //$NON-NLS-1$
+        sb.append(readType);
+        sb.append(".class);"); //$NON-NLS-1$
+        method.addBodyLine(sb.toString());
+        method.addBodyLine("if (" + local + " != null) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        if (conversion == null) {
+            String bytes = introspectedColumn.getJavaProperty() + "Bytes"; //$NON-NLS-1$
+            method.addBodyLine("byte[] " + bytes + " = new byte[" + local + ".remaining()];"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            method.addBodyLine(local + ".get(" + bytes + ");"); //$NON-NLS-1$ //$NON-NLS-2$
+            conversion = bytes;
+        }
+        method.addBodyLine(record + '.' + setter + '(' + conversion + ");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+    }
+
+    private String getWrapperTypeName(IntrospectedColumn introspectedColumn) {
+        FullyQualifiedJavaType javaType = introspectedColumn.getFullyQualifiedJavaType();
+        if (javaType.isPrimitive()) {
+            return javaType.getPrimitiveTypeWrapper().getFullyQualifiedName();
+        }
+        return javaType.getFullyQualifiedName();
+    }
+
+    /**
+     * @return the name to use in a class literal, the repository does not
+     *         import the types of the columns
+     */
+    private String getClassName(FullyQualifiedJavaType javaType) {
+        if (javaType.isExplicitlyImported()) {
+            return javaType.getFullyQualifiedNameWithoutTypeParameters();
+        }
+        return javaType.getShortName();
+    }
+
+    private String getSqlDateType(IntrospectedColumn introspectedColumn) {
+        switch (introspectedColumn.getJdbcType()) {
+        case Types.DATE:
+            return "java.sql.Date"; //$NON-NLS-1$
+        case Types.TIME:
+            return "java.sql.Time"; //$NON-NLS-1$
+        default:
+            return "java.sql.Timestamp"; //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * @return the java.time type R2DBC drivers map the column to
+     */
+    private String getJavaTimeType(IntrospectedColumn introspectedColumn) {
+        switch (introspectedColumn.getJdbcType()) {
+        case Types.DATE:
+            return "java.time.LocalDate"; //$NON-NLS-1$
+        case Types.TIME:
+            return "java.time.LocalTime"; //$NON-NLS-1$
+        default:
+            return "java.time.LocalDateTime"; //$NON-NLS-1$
+        }
+    }
+
+    private String getToJavaTimeMethod(IntrospectedColumn introspectedColumn) {
+        switch (introspectedColumn.getJdbcType()) {
+        case Types.DATE:
+            return "toLocalDate"; //$NON-NLS-1$
+        case Types.TIME:
+            return "toLocalTime"; //$NON-NLS-1$
+        default:
+            return "toLocalDateTime"; //$NON-NLS-1$
+        }
+    }
+}
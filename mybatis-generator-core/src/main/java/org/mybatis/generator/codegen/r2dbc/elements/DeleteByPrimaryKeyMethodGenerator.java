@@ -0,0 +1,66 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.r2dbc.elements;
+
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成 deleteByPrimaryKey.
+ * 
+ */
+public class DeleteByPrimaryKeyMethodGenerator extends AbstractR2dbcMethodGenerator {
+
+    public DeleteByPrimaryKeyMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+
+        Method method = new Method(introspectedTable.getDeleteByPrimaryKeyStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(getMonoType(new FullyQualifiedJavaType("java.lang.Long"))); //$NON-NLS-1$
+        addPrimaryKeyParameters(topLevelClass, method);
+
+        method.addBodyLine(getUsingLine("Mono")); //$NON-NLS-1$
+        method.addBodyLine("Statement statement = connection.createStatement(DELETE_BY_PRIMARY_KEY_SQL);"); //$NON-NLS-1$
+        for (int i = 0; i < keyColumns.size(); i++) {
+            IntrospectedColumn introspectedColumn = keyColumns.get(i);
+            addBindLines(method, introspectedColumn, "statement", Integer.toString(i), //$NON-NLS-1$
+                    introspectedColumn.getJavaProperty());
+        }
+        method.addBodyLine(getRowsUpdatedLine());
+        method.addBodyLine(getCloseLine());
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据主键删除记录");
+
+        if (context.getPlugins().clientDeleteByPrimaryKeyMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addSqlField(topLevelClass, "DELETE_BY_PRIMARY_KEY_SQL", //$NON-NLS-1$
+                    "\"delete from \" + TABLE + \" where " + getAssignments(keyColumns, " and ", 0) + "\""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            addR2dbcImports(topLevelClass);
+            topLevelClass.addMethod(method);
+        }
+    }
+}
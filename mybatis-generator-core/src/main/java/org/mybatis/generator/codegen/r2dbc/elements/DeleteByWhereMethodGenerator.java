@@ -0,0 +1,61 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.r2dbc.elements;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成 deleteByWhere.
+ * 
+ */
+public class DeleteByWhereMethodGenerator extends AbstractR2dbcMethodGenerator {
+
+    public DeleteByWhereMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType whereType = getWhereType();
+
+        Method method = new Method(introspectedTable.getDeleteByExampleStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(getMonoType(new FullyQualifiedJavaType("java.lang.Long"))); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+
+        method.addBodyLine(getUsingLine("Mono")); //$NON-NLS-1$
+        method.addBodyLine("StringBuilder sql = new StringBuilder(\"delete from \").append(TABLE);"); //$NON-NLS-1$
+        method.addBodyLine("appendCriteria(sql, where, 0, false);"); //$NON-NLS-1$
+        method.addBodyLine("Statement statement = connection.createStatement(sql.toString());"); //$NON-NLS-1$
+        method.addBodyLine("bindCriteria(statement, 0, where);"); //$NON-NLS-1$
+        method.addBodyLine(getRowsUpdatedLine());
+        method.addBodyLine(getCloseLine());
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据条件删除记录, 没有条件时删除全表");
+
+        if (context.getPlugins().clientDeleteByExampleMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addR2dbcImports(topLevelClass);
+            topLevelClass.addImportedType(whereType);
+            topLevelClass.addMethod(method);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.r2dbc.elements;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成 insertNoCheck, 写入所有列, 与 mapper 中的同名方法语义相同.
+ * 配置了 generatedKey 时把生成的主键写回记录: JDBC 标准的主键通过
+ * returnGeneratedValues 取回, 其余的在同一个连接上执行主键语句.
+ * 
+ */
+public class InsertMethodGenerator extends AbstractR2dbcMethodGenerator {
+
+    public InsertMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType recordType = getRecordType();
+        IntrospectedColumn selectKeyColumn = getSelectKeyColumn();
+        boolean selectKeyBefore = selectKeyColumn != null && !selectKeyColumn.isIdentity();
+
+        Method method = new Method(introspectedTable.getInsertStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(getMonoType(new FullyQualifiedJavaType("java.lang.Long"))); //$NON-NLS-1$
+        method.addParameter(new Parameter(recordType, "record")); //$NON-NLS-1$
+
+        method.addBodyLine(getUsingLine("Mono")); //$NON-NLS-1$
+        if (selectKeyBefore) {
+            method.addBodyLine("return selectKey(connection, record)" //$NON-NLS-1$
+                    + ".then(Mono.defer(() -> executeInsert(connection, record)));"); //$NON-NLS-1$
+        } else if (selectKeyColumn != null) {
+            method.addBodyLine("return executeInsert(connection, record)" //$NON-NLS-1$
+                    + ".flatMap(rows -> selectKey(connection, record).thenReturn(rows));"); //$NON-NLS-1$
+        } else {
+            method.addBodyLine("return executeInsert(connection, record);"); //$NON-NLS-1$
+        }
+        method.addBodyLine(getCloseLine());
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "插入一条记录, 写入所有列, 为 null 的属性插入 NULL");
+
+        if (context.getPlugins().clientInsertMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addInsertSqlFields(topLevelClass);
+            addBindInsertMethod(topLevelClass);
+            addExecuteInsertMethod(topLevelClass);
+            if (selectKeyColumn != null) {
+                addSelectKeyMethod(topLevelClass);
+            }
+            addR2dbcImports(topLevelClass);
+            topLevelClass.addImportedType(recordType);
+            topLevelClass.addMethod(method);
+        }
+    }
+
+    protected void addExecuteInsertMethod(TopLevelClass topLevelClass) {
+        IntrospectedColumn generatedColumn = getGeneratedValueColumn();
+        FullyQualifiedJavaType recordType = getRecordType();
+
+        Method method = new Method("executeInsert"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(getMonoType(new FullyQualifiedJavaType("java.lang.Long"))); //$NON-NLS-1$
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "io.r2dbc.spi.Connection"), "connection")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(recordType, "record")); //$NON-NLS-1$
+
+        if (generatedColumn == null) {
+            method.addBodyLine("Statement statement = connection.createStatement(INSERT_SQL);"); //$NON-NLS-1$
+            method.addBodyLine("bindInsert(statement, record);"); //$NON-NLS-1$
+            method.addBodyLine(getRowsUpdatedLine());
+        } else {
+            method.addBodyLine("Statement statement = connection.createStatement(INSERT_SQL)" //$NON-NLS-1$
+                    + ".returnGeneratedValues(KEY_COLUMNS);"); //$NON-NLS-1$
+            method.addBodyLine("bindInsert(statement, record);"); //$NON-NLS-1$
+            // one generated row per inserted row
+            method.addBodyLine("return Flux.from(statement.execute())" //$NON-NLS-1$
+                    + ".flatMap(result -> result.map((row, metadata) -> {"); //$NON-NLS-1$
+            addReadLines(method, generatedColumn, "row", "0", "record"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            method.addBodyLine("return record;"); //$NON-NLS-1$
+            method.addBodyLine("})).count();"); //$NON-NLS-1$
+        }
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "在给定的连接上执行 INSERT_SQL");
+        topLevelClass.addMethod(method);
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.r2dbc.elements;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成批量插入 inserts, 每条记录的参数用 Statement.add 追加到同一条 INSERT_SQL,
+ * 一次执行. JDBC 标准的生成主键按记录顺序写回; 需要单独查询主键的配置中,
+ * 插入前生成的主键逐条查询, 插入后才能取到的主键不会写回.
+ * 
+ */
+public class InsertsMethodGenerator extends AbstractR2dbcMethodGenerator {
+
+    public InsertsMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType recordType = getRecordType();
+        IntrospectedColumn selectKeyColumn = getSelectKeyColumn();
+        boolean selectKeyBefore = selectKeyColumn != null && !selectKeyColumn.isIdentity();
+
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(recordType);
+
+        Method method = new Method(introspectedTable.getInsertsStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(getMonoType(new FullyQualifiedJavaType("java.lang.Long"))); //$NON-NLS-1$
+        method.addParameter(new Parameter(listType, "records")); //$NON-NLS-1$
+
+        method.addBodyLine("if (records.isEmpty()) {"); //$NON-NLS-1$
+        method.addBodyLine("return Mono.just(0L);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine(getUsingLine("Mono")); //$NON-NLS-1$
+        if (selectKeyBefore) {
+            method.addBodyLine("return Flux.fromIterable(records)" //$NON-NLS-1$
+                    + ".concatMap(record -> selectKey(connection, record))" //$NON-NLS-1$
+                    + ".then(Mono.defer(() -> executeInserts(connection, records)));"); //$NON-NLS-1$
+        } else {
+            method.addBodyLine("return executeInserts(connection, records);"); //$NON-NLS-1$
+        }
+        method.addBodyLine(getCloseLine());
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "批量插入, 所有记录作为同一条语句的多组参数一次执行");
+
+        if (context.getPlugins().clientInsertMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addInsertSqlFields(topLevelClass);
+            addBindInsertMethod(topLevelClass);
+            addExecuteInsertsMethod(topLevelClass);
+            if (selectKeyBefore) {
+                addSelectKeyMethod(topLevelClass);
+            }
+            addR2dbcImports(topLevelClass);
+            topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+            topLevelClass.addImportedType(recordType);
+            topLevelClass.addMethod(method);
+        }
+    }
+
+    protected void addExecuteInsertsMethod(TopLevelClass topLevelClass) {
+        IntrospectedColumn generatedColumn = getGeneratedValueColumn();
+        FullyQualifiedJavaType recordType = getRecordType();
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(recordType);
+
+        Method method = new Method("executeInserts"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(getMonoType(new FullyQualifiedJavaType("java.lang.Long"))); //$NON-NLS-1$
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "io.r2dbc.spi.Connection"), "connection")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(listType, "records")); //$NON-NLS-1$
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Statement statement = connection.createStatement(INSERT_SQL)"); //$NON-NLS-1$
+        if (generatedColumn != null) {
+            sb.append(".returnGeneratedValues(KEY_COLUMNS)"); //$NON-NLS-1$
+        }
+        sb.append(';');
+        method.addBodyLine(sb.toString());
+        method.addBodyLine("for (int i = 0; i < records.size(); i++) {"); //$NON-NLS-1$
+        method.addBodyLine("if (i > 0) {"); //$NON-NLS-1$
+        method.addBodyLine("statement.add();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("bindInsert(statement, records.get(i));"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        if (generatedColumn == null) {
+            method.addBodyLine("return Flux.from(statement.execute())" //$NON-NLS-1$
+                    + ".flatMap(result -> Mono.from(result.getRowsUpdated()))" //$NON-NLS-1$
+                    + ".reduce(0L, Long::sum);"); //$NON-NLS-1$
+        } else {
+            // the generated rows come back in the order of the bindings
+            sb.setLength(0);
+            sb.append("Iterator<"); //$NON-NLS-1$
+            sb.append(recordType.getShortName());
+            sb.append("> keyed = records.iterator();"); //$NON-NLS-1$
+            method.addBodyLine(sb.toString());
+            method.addBodyLine("return Flux.from(statement.execute())" //$NON-NLS-1$
+                    + ".concatMap(result -> result.map((row, metadata) -> {"); //$NON-NLS-1$
+            sb.setLength(0);
+            sb.append(recordType.getShortName());
+            sb.append(" record = keyed.next();"); //$NON-NLS-1$
+            method.addBodyLine(sb.toString());
+            addReadLines(method, generatedColumn, "row", "0", "record"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            method.addBodyLine("return record;"); //$NON-NLS-1$
+            method.addBodyLine("})).count();"); //$NON-NLS-1$
+            topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Iterator")); //$NON-NLS-1$
+        }
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "在给定的连接上批量执行 INSERT_SQL");
+        topLevelClass.addMethod(method);
+    }
+}
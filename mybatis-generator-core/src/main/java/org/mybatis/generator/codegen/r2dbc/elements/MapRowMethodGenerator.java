@@ -0,0 +1,71 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.r2dbc.elements;
+
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成 mapRow 方法, 按 COLUMNS 的顺序用下标读取一行到一条新记录.
+ * 
+ */
+public class MapRowMethodGenerator extends AbstractR2dbcMethodGenerator {
+
+    public MapRowMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType recordType = getRecordType();
+        FullyQualifiedJavaType rowType = new FullyQualifiedJavaType("io.r2dbc.spi.Row"); //$NON-NLS-1$
+        topLevelClass.addImportedType(recordType);
+        topLevelClass.addImportedType(rowType);
+
+        Method method = new Method("mapRow"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(recordType);
+        method.addParameter(new Parameter(rowType, "row")); //$NON-NLS-1$
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(recordType.getShortName());
+        sb.append(" record = new "); //$NON-NLS-1$
+        sb.append(recordType.getShortName());
+        sb.append("();"); //$NON-NLS-1$
+        method.addBodyLine(sb.toString());
+
+        List<IntrospectedColumn> columns = introspectedTable.getAllColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            addReadLines(method, columns.get(i), "row", Integer.toString(i), "record"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (!introspectedTable.getChangeTrackedColumns().isEmpty()) {
+            // a loaded record starts without changes
+            method.addBodyLine("record.clearChanges();"); //$NON-NLS-1$
+        }
+        method.addBodyLine("return record;"); //$NON-NLS-1$
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "按下标读取一行");
+        topLevelClass.addMethod(method);
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.r2dbc.elements;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成 selectByWhere, 返回的 Flux 按订阅方的请求量从驱动读取行,
+ * 不在内存中保留结果列表, 因此不再单独生成流式查询的重载.
+ * 
+ */
+public class SelectByWhereMethodGenerator extends AbstractR2dbcMethodGenerator {
+
+    public SelectByWhereMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType recordType = getRecordType();
+        FullyQualifiedJavaType whereType = getWhereType();
+
+        Method method = new Method(introspectedTable.getSelectByWhereStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(getFluxType(recordType));
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+
+        method.addBodyLine(getUsingLine("Flux")); //$NON-NLS-1$
+        method.addBodyLine("StringBuilder sql = new StringBuilder(\"select \");"); //$NON-NLS-1$
+        method.addBodyLine("if (where != null && where.isDistinct()) {"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\"distinct \");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(COLUMNS).append(\" from \").append(TABLE);"); //$NON-NLS-1$
+        method.addBodyLine("appendOrderByAndLimit(sql, where, appendCriteria(sql, where, 0, false));"); //$NON-NLS-1$
+        method.addBodyLine("Statement statement = connection.createStatement(sql.toString());"); //$NON-NLS-1$
+        method.addBodyLine("bindLimit(statement, bindCriteria(statement, 0, where), where);"); //$NON-NLS-1$
+        method.addBodyLine("if (fetchSize != 0) {"); //$NON-NLS-1$
+        method.addBodyLine("statement.fetchSize(fetchSize);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return Flux.from(statement.execute())" //$NON-NLS-1$
+                + ".flatMap(result -> result.map((row, metadata) -> mapRow(row)));"); //$NON-NLS-1$
+        method.addBodyLine(getCloseLine());
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据条件查询, 记录随订阅方的请求逐行发出, 结果集按 fetchSize 分批读取");
+
+        if (context.getPlugins().clientSelectByExampleWithBLOBsMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addR2dbcImports(topLevelClass);
+            topLevelClass.addImportedType(recordType);
+            topLevelClass.addImportedType(whereType);
+            topLevelClass.addMethod(method);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.r2dbc.elements;
+
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.codegen.jdbc.JdbcFormattingUtilities;
+
+/**
+ * 生成按主键游标分页的 selectPageAfter, 与 mapper 中的同名方法相同:
+ * lastKey 为 null 时查询第一页, where 中的 orderBy 和 distinct 会被忽略.
+ * 
+ */
+public class SelectPageAfterMethodGenerator extends AbstractR2dbcMethodGenerator {
+
+    public SelectPageAfterMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        FullyQualifiedJavaType recordType = getRecordType();
+        FullyQualifiedJavaType whereType = getWhereType();
+
+        Method method = new Method(introspectedTable.getSelectPageAfterStatementId());
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(getFluxType(recordType));
+        method.addParameter(new Parameter(recordType, "lastKey")); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "pageSize")); //$NON-NLS-1$
+
+        method.addBodyLine(getUsingLine("Flux")); //$NON-NLS-1$
+        method.addBodyLine("StringBuilder sql = new StringBuilder(SELECT_SQL);"); //$NON-NLS-1$
+        method.addBodyLine("int index = 0;"); //$NON-NLS-1$
+        method.addBodyLine("if (lastKey != null) {"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\" where " + getKeysetCondition(keyColumns) + "\");"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("index = " + keyColumns.size() + ';'); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("index = appendCriteria(sql, where, index, lastKey != null);"); //$NON-NLS-1$
+        addAppendBindMarkerLines(method, " order by " //$NON-NLS-1$
+                + JdbcFormattingUtilities.getColumnList(keyColumns) + " limit "); //$NON-NLS-1$
+        method.addBodyLine("Statement statement = connection.createStatement(sql.toString());"); //$NON-NLS-1$
+        method.addBodyLine("index = 0;"); //$NON-NLS-1$
+        method.addBodyLine("if (lastKey != null) {"); //$NON-NLS-1$
+        for (IntrospectedColumn introspectedColumn : keyColumns) {
+            addBindPropertyLines(method, introspectedColumn, "statement", "index++", "lastKey"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("index = bindCriteria(statement, index, where);"); //$NON-NLS-1$
+        method.addBodyLine("statement.bind(index, pageSize);"); //$NON-NLS-1$
+        method.addBodyLine("return Flux.from(statement.execute())" //$NON-NLS-1$
+                + ".flatMap(result -> result.map((row, metadata) -> mapRow(row)));"); //$NON-NLS-1$
+        method.addBodyLine(getCloseLine());
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "按主键顺序分页查询, lastKey 为上一页最后一条记录(只使用主键属性), 为 null 时查询第一页; where 中的 orderBy 和 distinct 会被忽略");
+
+        if (context.getPlugins().clientSelectByExampleWithBLOBsMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addR2dbcImports(topLevelClass);
+            topLevelClass.addImportedType(recordType);
+            topLevelClass.addImportedType(whereType);
+            topLevelClass.addMethod(method);
+        }
+    }
+
+    /**
+     * 单列主键生成 id &gt; $1, 联合主键使用行值比较 (a, b) &gt; ($1, $2).
+     */
+    private String getKeysetCondition(List<IntrospectedColumn> keyColumns) {
+        if (keyColumns.size() == 1) {
+            return JdbcFormattingUtilities.getEscapedColumnName(keyColumns.get(0))
+                    + " > " + getBindMarker(0); //$NON-NLS-1$
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append('(');
+        sb.append(JdbcFormattingUtilities.getColumnList(keyColumns));
+        sb.append(") > ("); //$NON-NLS-1$
+        for (int i = 0; i < keyColumns.size(); i++) {
+            if (i > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append(getBindMarker(i));
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+}
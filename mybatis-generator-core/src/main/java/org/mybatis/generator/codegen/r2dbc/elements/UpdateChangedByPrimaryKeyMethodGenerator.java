@@ -0,0 +1,159 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.r2dbc.elements;
+
+import static org.mybatis.generator.internal.util.JavaBeansUtil.CHANGED_MASK_FIELD;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.codegen.jdbc.JdbcFormattingUtilities;
+
+/**
+ * 生成 updateChangedByPrimaryKey, 只写入记录 changedMask 中的列, 为 null 的属性写成 NULL.
+ * SQL 按掩码缓存, 每种掩码只拼接一次.
+ * 
+ */
+public class UpdateChangedByPrimaryKeyMethodGenerator extends AbstractR2dbcMethodGenerator {
+
+    private static final String CACHE = "UPDATE_CHANGED_BY_PRIMARY_KEY_SQL"; //$NON-NLS-1$
+
+    public UpdateChangedByPrimaryKeyMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        List<IntrospectedColumn> columns = introspectedTable.getChangeTrackedColumns();
+        IntrospectedColumn versionColumn = introspectedTable.getVersionColumn();
+        FullyQualifiedJavaType recordType = getRecordType();
+        String statementId = introspectedTable.getUpdateChangedByPrimaryKeyStatementId();
+        String buildMethodName = "build" + Character.toUpperCase(statementId.charAt(0)) //$NON-NLS-1$
+                + statementId.substring(1);
+
+        Method method = new Method(statementId);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(getMonoType(new FullyQualifiedJavaType("java.lang.Long"))); //$NON-NLS-1$
+        method.addParameter(new Parameter(recordType, "record")); //$NON-NLS-1$
+
+        method.addBodyLine(String.format("long mask = record.%s();", //$NON-NLS-1$
+                getGetterMethodName(CHANGED_MASK_FIELD, new FullyQualifiedJavaType("long")))); //$NON-NLS-1$
+        method.addBodyLine(String.format("String cached = %s.get(mask);", CACHE)); //$NON-NLS-1$
+        method.addBodyLine("if (cached == null) {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("cached = %s(mask);", buildMethodName)); //$NON-NLS-1$
+        method.addBodyLine(String.format("%s.putIfAbsent(mask, cached);", CACHE)); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("String sql = cached;"); //$NON-NLS-1$
+        method.addBodyLine(getUsingLine("Mono")); //$NON-NLS-1$
+        method.addBodyLine("Statement statement = connection.createStatement(sql);"); //$NON-NLS-1$
+        method.addBodyLine("int index = 0;"); //$NON-NLS-1$
+        for (int bit = 0; bit < columns.size(); bit++) {
+            method.addBodyLine(getMaskTest(bit));
+            addBindPropertyLines(method, columns.get(bit), "statement", "index++", "record"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
+        for (IntrospectedColumn introspectedColumn : keyColumns) {
+            addBindPropertyLines(method, introspectedColumn, "statement", "index++", "record"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        if (versionColumn != null) {
+            addBindPropertyLines(method, versionColumn, "statement", "index", "record"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        method.addBodyLine(getRowsUpdatedLine());
+        method.addBodyLine(getCloseLine());
+
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "根据主键更新记录中修改过的列, 修改为 null 的属性会把列更新为 NULL, 成功后可调用 record.clearChanges()");
+
+        Method buildMethod = new Method(buildMethodName);
+        buildMethod.setVisibility(JavaVisibility.PRIVATE);
+        buildMethod.setStatic(true);
+        buildMethod.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        buildMethod.addParameter(new Parameter(new FullyQualifiedJavaType("long"), "mask")); //$NON-NLS-1$ //$NON-NLS-2$
+        if (versionColumn != null) {
+            // the version always changes, so the statement is never empty
+            buildMethod.addBodyLine("StringBuilder sql = new StringBuilder(\"update \").append(TABLE).append(\" set " //$NON-NLS-1$
+                    + JdbcFormattingUtilities.getVersionIncrement(versionColumn)
+                    + "\");"); //$NON-NLS-1$
+        } else {
+            buildMethod.addBodyLine("StringBuilder sql = new StringBuilder(\"update \").append(TABLE).append(\" set \");"); //$NON-NLS-1$
+        }
+        buildMethod.addBodyLine("int index = 0;"); //$NON-NLS-1$
+        if (versionColumn != null) {
+            buildMethod.addBodyLine("String separator = \", \";"); //$NON-NLS-1$
+        } else {
+            // nothing changed, a self assignment keeps the statement valid
+            String firstKeyColumn = JdbcFormattingUtilities.getEscapedColumnName(keyColumns.get(0));
+            buildMethod.addBodyLine("if (mask == 0L) {"); //$NON-NLS-1$
+            buildMethod.addBodyLine("sql.append(\"" + firstKeyColumn + " = " + firstKeyColumn + "\");"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            buildMethod.addBodyLine("}"); //$NON-NLS-1$
+            buildMethod.addBodyLine("String separator = \"\";"); //$NON-NLS-1$
+        }
+        for (int bit = 0; bit < columns.size(); bit++) {
+            buildMethod.addBodyLine(getMaskTest(bit));
+            buildMethod.addBodyLine("sql.append(separator);"); //$NON-NLS-1$
+            addAppendBindMarkerLines(buildMethod,
+                    JdbcFormattingUtilities.getEscapedColumnName(columns.get(bit)) + " = "); //$NON-NLS-1$
+            buildMethod.addBodyLine("separator = \", \";"); //$NON-NLS-1$
+            buildMethod.addBodyLine("}"); //$NON-NLS-1$
+        }
+        String prefix = " where "; //$NON-NLS-1$
+        for (IntrospectedColumn introspectedColumn : keyColumns) {
+            addAppendBindMarkerLines(buildMethod, prefix
+                    + JdbcFormattingUtilities.getEscapedColumnName(introspectedColumn) + " = "); //$NON-NLS-1$
+            prefix = " and "; //$NON-NLS-1$
+        }
+        if (versionColumn != null) {
+            addAppendBindMarkerLines(buildMethod, prefix
+                    + JdbcFormattingUtilities.getEscapedColumnName(versionColumn) + " = "); //$NON-NLS-1$
+        }
+        buildMethod.addBodyLine("return sql.toString();"); //$NON-NLS-1$
+
+        if (context.getPlugins().clientUpdateByPrimaryKeySelectiveMethodGenerated(
+                method, topLevelClass, introspectedTable)) {
+            addCacheField(topLevelClass);
+            addR2dbcImports(topLevelClass);
+            topLevelClass.addImportedType(recordType);
+            topLevelClass.addMethod(method);
+            topLevelClass.addMethod(buildMethod);
+        }
+    }
+
+    private String getMaskTest(int bit) {
+        return "if ((mask & (1L << " + bit + ")) != 0) {"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private void addCacheField(TopLevelClass topLevelClass) {
+        Field field = new Field(CACHE, new FullyQualifiedJavaType(
+                "java.util.concurrent.ConcurrentMap<Long, String>")); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("new ConcurrentHashMap<Long, String>()"); //$NON-NLS-1$
+        topLevelClass.addField(field);
+        topLevelClass.addImportedType(new FullyQualifiedJavaType(
+                "java.util.concurrent.ConcurrentMap")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType(
+                "java.util.concurrent.ConcurrentHashMap")); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.r2dbc.elements;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+/**
+ * 生成把 Where 对象翻译成 SQL 片段并绑定参数的私有方法. 拼接时记录已有的参数个数,
+ * 以便生成 $n 形式的占位符.
+ * 
+ */
+public class WhereSupportMethodGenerator extends AbstractR2dbcMethodGenerator {
+
+    public WhereSupportMethodGenerator() {
+        super();
+    }
+
+    @Override
+    public void addClassElements(TopLevelClass topLevelClass) {
+        FullyQualifiedJavaType whereType = getWhereType();
+        topLevelClass.addImportedType(whereType);
+        FullyQualifiedJavaType statementType = new FullyQualifiedJavaType(
+                "io.r2dbc.spi.Statement"); //$NON-NLS-1$
+        FullyQualifiedJavaType sqlType = new FullyQualifiedJavaType(
+                "java.lang.StringBuilder"); //$NON-NLS-1$
+        String criterionType = whereType.getShortName() + ".Criterion"; //$NON-NLS-1$
+
+        Method method = new Method("appendCriteria"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(sqlType, "sql")); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "index")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType
+                .getBooleanPrimitiveInstance(), "hasCondition")); //$NON-NLS-1$
+        method.addBodyLine("if (where == null) {"); //$NON-NLS-1$
+        method.addBodyLine("return index;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("for (" + criterionType + " criterion : where.getCriterion()) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("if (criterion.getParam() == null) {"); //$NON-NLS-1$
+        method.addBodyLine("continue;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(hasCondition ? \" and \" : \" where \");"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(criterion.getParam());"); //$NON-NLS-1$
+        addAppendBindMarkerLines(method, " = "); //$NON-NLS-1$
+        method.addBodyLine("hasCondition = true;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return index;"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "追加 where 中的等值条件, index 为 sql 中已有的参数个数, hasCondition 为 true 时以 and 连接; 返回追加后的参数个数");
+        topLevelClass.addMethod(method);
+
+        method = new Method("bindCriteria"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(statementType, "statement")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "index")); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addBodyLine("if (where == null) {"); //$NON-NLS-1$
+        method.addBodyLine("return index;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("for (" + criterionType + " criterion : where.getCriterion()) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("if (criterion.getParam() == null) {"); //$NON-NLS-1$
+        method.addBodyLine("continue;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (criterion.getValue() == null) {"); //$NON-NLS-1$
+        method.addBodyLine("statement.bindNull(index++, Object.class);"); //$NON-NLS-1$
+        method.addBodyLine("} else {"); //$NON-NLS-1$
+        method.addBodyLine("statement.bind(index++, criterion.getValue());"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return index;"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "从 index 开始绑定 where 中的条件值, 返回下一个参数的下标");
+        topLevelClass.addMethod(method);
+
+        method = new Method("appendOrderByAndLimit"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.addParameter(new Parameter(sqlType, "sql")); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "index")); //$NON-NLS-1$
+        method.addBodyLine("if (where == null) {"); //$NON-NLS-1$
+        method.addBodyLine("return;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (where.getOrderBy() != null) {"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\" order by \");"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(where.getOrderBy());"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (where.getLimit() != null) {"); //$NON-NLS-1$
+        addAppendBindMarkerLines(method, " limit "); //$NON-NLS-1$
+        method.addBodyLine("if (where.getOffset() != null) {"); //$NON-NLS-1$
+        addAppendBindMarkerLines(method, " offset "); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "追加 order by 和 limit/offset, index 为 sql 中已有的参数个数");
+        topLevelClass.addMethod(method);
+
+        method = new Method("bindLimit"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.addParameter(new Parameter(statementType, "statement")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "index")); //$NON-NLS-1$
+        method.addParameter(new Parameter(whereType, "where")); //$NON-NLS-1$
+        method.addBodyLine("if (where != null && where.getLimit() != null) {"); //$NON-NLS-1$
+        method.addBodyLine("statement.bind(index++, where.getLimit());"); //$NON-NLS-1$
+        method.addBodyLine("if (where.getOffset() != null) {"); //$NON-NLS-1$
+        method.addBodyLine("statement.bind(index, where.getOffset());"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                "绑定 limit 和 offset");
+        topLevelClass.addMethod(method);
+    }
+}
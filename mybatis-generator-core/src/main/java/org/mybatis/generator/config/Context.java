@@ -23,15 +23,19 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.ConnectionFactory;
+import org.mybatis.generator.api.FullyQualifiedTable;
 import org.mybatis.generator.api.GeneratedJavaFile;
 import org.mybatis.generator.api.GeneratedXmlFile;
 import org.mybatis.generator.api.JavaFormatter;
 import org.mybatis.generator.api.Plugin;
+import org.mybatis.generator.api.IntrospectedForeignKey;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.JavaTypeResolver;
 import org.mybatis.generator.api.ProgressCallback;
@@ -42,6 +46,8 @@ import org.mybatis.generator.internal.JDBCConnectionFactory;
 import org.mybatis.generator.internal.ObjectFactory;
 import org.mybatis.generator.internal.PluginAggregator;
 import org.mybatis.generator.internal.db.DatabaseIntrospector;
+import org.mybatis.generator.internal.db.StatementExplainer;
+import org.mybatis.generator.internal.db.StatementShapeCounter;
 
 /**
  * The Class Context.
@@ -256,6 +262,27 @@ public class Context extends PropertyHolder {
         for (PluginConfiguration pluginConfiguration : pluginConfigurations) {
             pluginConfiguration.validate(errors, id);
         }
+
+        if (stringHasValue(getProperty(PropertyRegistry.CONTEXT_EXPLAIN_CONNECTION_URL))
+                && !stringHasValue(getProperty(PropertyRegistry.CONTEXT_EXPLAIN_DRIVER_CLASS))) {
+            errors.add(getString("ValidationError.29", //$NON-NLS-1$
+                    PropertyRegistry.CONTEXT_EXPLAIN_DRIVER_CLASS, id,
+                    PropertyRegistry.CONTEXT_EXPLAIN_CONNECTION_URL));
+        }
+
+        String shapeThreshold = getProperty(PropertyRegistry.CONTEXT_STATEMENT_SHAPE_WARNING_THRESHOLD);
+        if (stringHasValue(shapeThreshold)) {
+            boolean valid;
+            try {
+                valid = Long.parseLong(shapeThreshold) > 0L;
+            } catch (NumberFormatException e) {
+                valid = false;
+            }
+            if (!valid) {
+                errors.add(getString("ValidationError.30", //$NON-NLS-1$
+                        PropertyRegistry.CONTEXT_STATEMENT_SHAPE_WARNING_THRESHOLD, id));
+            }
+        }
     }
 
     /**
@@ -568,11 +595,22 @@ public class Context extends PropertyHolder {
     // 2. introspectTables()
     // 3. getGenerationSteps()
     // 4. generateFiles()
+    // 5. explainStatements() - optional
+    // 6. countStatementShapes() - optional
     //
 
     /** The introspected tables. */
     private List<IntrospectedTable> introspectedTables;
 
+    /** The generated SQL maps of each table, kept for the statement analyses. */
+    private Map<IntrospectedTable, List<GeneratedXmlFile>> generatedSqlMaps;
+
+    /** The EXPLAIN report, null if the analysis did not run. */
+    private String explainReport;
+
+    /** The statement shape report, null if the analysis did not run. */
+    private String statementShapeReport;
+
     /**
      * Gets the introspection steps.
      *
@@ -661,6 +699,70 @@ public class Context extends PropertyHolder {
         } finally {
             closeConnection(connection);
         }
+
+        linkForeignKeys(warnings);
+    }
+
+    /**
+     * Links the foreign keys of the introspected tables to their parent tables,
+     * if the parent tables are introspected in this context, and checks the
+     * joinChildren property of the parent tables.
+     *
+     * @param warnings
+     *            the warnings
+     */
+    private void linkForeignKeys(List<String> warnings) {
+        for (IntrospectedTable childTable : introspectedTables) {
+            for (IntrospectedForeignKey foreignKey : childTable.getForeignKeys()) {
+                for (IntrospectedTable parentTable : introspectedTables) {
+                    if (isParentTable(parentTable.getFullyQualifiedTable(), foreignKey)) {
+                        foreignKey.setParentTable(parentTable);
+                        parentTable.addReferencingForeignKey(foreignKey);
+                        break;
+                    }
+                }
+            }
+        }
+
+        for (IntrospectedTable parentTable : introspectedTables) {
+            String joinChildren = parentTable
+                    .getTableConfigurationProperty(PropertyRegistry.TABLE_JOIN_CHILDREN);
+            if (!stringHasValue(joinChildren)) {
+                continue;
+            }
+            for (String tableName : joinChildren.split(",")) { //$NON-NLS-1$
+                boolean found = false;
+                IntrospectedForeignKey unjoinable = null;
+                for (IntrospectedForeignKey foreignKey : parentTable.getReferencingForeignKeys()) {
+                    if (foreignKey.getChildTable().getFullyQualifiedTable()
+                            .getIntrospectedTableName().equalsIgnoreCase(tableName.trim())) {
+                        if (parentTable.isJoinable(foreignKey)) {
+                            found = true;
+                            break;
+                        }
+                        unjoinable = foreignKey;
+                    }
+                }
+                if (!found && unjoinable != null) {
+                    warnings.add(getString("Warning.42", tableName.trim(), //$NON-NLS-1$
+                            parentTable.getFullyQualifiedTable().toString(),
+                            unjoinable.getChildTable().getShardColumn().getActualColumnName()));
+                } else if (!found) {
+                    warnings.add(getString("Warning.37", tableName.trim(), //$NON-NLS-1$
+                            PropertyRegistry.TABLE_JOIN_CHILDREN,
+                            parentTable.getFullyQualifiedTable().toString()));
+                }
+            }
+        }
+    }
+
+    private boolean isParentTable(FullyQualifiedTable table, IntrospectedForeignKey foreignKey) {
+        // catalog and schema are only compared if both sides know them
+        return table.getIntrospectedTableName().equalsIgnoreCase(foreignKey.getParentTableName())
+                && (table.getIntrospectedSchema() == null || foreignKey.getParentSchema() == null
+                        || table.getIntrospectedSchema().equalsIgnoreCase(foreignKey.getParentSchema()))
+                && (table.getIntrospectedCatalog() == null || foreignKey.getParentCatalog() == null
+                        || table.getIntrospectedCatalog().equalsIgnoreCase(foreignKey.getParentCatalog()));
     }
 
     /**
@@ -711,16 +813,24 @@ public class Context extends PropertyHolder {
             }
         }
 
+        generatedSqlMaps = new LinkedHashMap<IntrospectedTable, List<GeneratedXmlFile>>();
         if (introspectedTables != null) {
+            // a parent table with joined children needs the names calculated
+            // for its child tables, so initialize all tables first
+            for (IntrospectedTable introspectedTable : introspectedTables) {
+                introspectedTable.initialize();
+            }
+
             for (IntrospectedTable introspectedTable : introspectedTables) {
                 callback.checkCancel();
 
-                introspectedTable.initialize();
                 introspectedTable.calculateGenerators(warnings, callback);
                 generatedJavaFiles.addAll(introspectedTable
                         .getGeneratedJavaFiles());
-                generatedXmlFiles.addAll(introspectedTable
-                        .getGeneratedXmlFiles());
+                List<GeneratedXmlFile> sqlMaps = introspectedTable
+                        .getGeneratedXmlFiles();
+                generatedSqlMaps.put(introspectedTable, sqlMaps);
+                generatedXmlFiles.addAll(sqlMaps);
 
                 generatedJavaFiles.addAll(pluginAggregator
                         .contextGenerateAdditionalJavaFiles(introspectedTable));
@@ -735,6 +845,124 @@ public class Context extends PropertyHolder {
                 .contextGenerateAdditionalXmlFiles());
     }
 
+    /**
+     * Runs EXPLAIN for the statements of the generated SQL maps, if the
+     * explainStatements property is set. Statements whose plan shows a full
+     * table scan or a filesort are reported as warnings, the complete
+     * analysis is available from {@link #getExplainReport()}. The analysis
+     * uses the connection given by the explainConnectionURL property if
+     * specified (an HSQLDB or H2 database with the same schema for CI
+     * builds, for example), and the context connection otherwise.
+     *
+     * @param callback
+     *            the callback
+     * @param warnings
+     *            the warnings
+     * @throws InterruptedException
+     *             if the progress callback reports a cancel
+     */
+    public void explainStatements(ProgressCallback callback,
+            List<String> warnings) throws InterruptedException {
+        explainReport = null;
+        if (!isTrue(getProperty(PropertyRegistry.CONTEXT_EXPLAIN_STATEMENTS))
+                || generatedSqlMaps == null) {
+            return;
+        }
+
+        callback.startTask(getString("Progress.19", id)); //$NON-NLS-1$
+        Connection connection = null;
+        try {
+            connection = getExplainConnection();
+            StatementExplainer explainer = new StatementExplainer(connection, warnings);
+            if (!explainer.isSupported()) {
+                warnings.add(getString("Warning.34", id, //$NON-NLS-1$
+                        getString("Explain.10", explainer.getDatabaseProduct()))); //$NON-NLS-1$
+                return;
+            }
+
+            for (Map.Entry<IntrospectedTable, List<GeneratedXmlFile>> entry : generatedSqlMaps.entrySet()) {
+                callback.checkCancel();
+                for (GeneratedXmlFile gxf : entry.getValue()) {
+                    explainer.explain(entry.getKey(), gxf.getDocument());
+                }
+            }
+            explainReport = explainer.getReport();
+        } catch (SQLException e) {
+            warnings.add(getString("Warning.34", id, e.getMessage())); //$NON-NLS-1$
+        } finally {
+            closeConnection(connection);
+        }
+    }
+
+    /**
+     * Gets the EXPLAIN report.
+     *
+     * @return the report text, or null if the analysis did not run
+     */
+    public String getExplainReport() {
+        return explainReport;
+    }
+
+    /**
+     * Counts the different SQL texts every statement of the generated SQL maps
+     * can produce at runtime, if the statementShapeReport property is set.
+     * Statements above the statementShapeWarningThreshold property (1024 by
+     * default) are reported as warnings, the complete analysis is available
+     * from {@link #getStatementShapeReport()}.
+     *
+     * @param callback
+     *            the callback
+     * @param warnings
+     *            the warnings
+     * @throws InterruptedException
+     *             if the progress callback reports a cancel
+     */
+    public void countStatementShapes(ProgressCallback callback,
+            List<String> warnings) throws InterruptedException {
+        statementShapeReport = null;
+        if (!isTrue(getProperty(PropertyRegistry.CONTEXT_STATEMENT_SHAPE_REPORT))
+                || generatedSqlMaps == null) {
+            return;
+        }
+
+        callback.startTask(getString("Progress.20", id)); //$NON-NLS-1$
+        String threshold = getProperty(PropertyRegistry.CONTEXT_STATEMENT_SHAPE_WARNING_THRESHOLD);
+        // the value has been validated with the configuration
+        StatementShapeCounter counter = new StatementShapeCounter(warnings,
+                stringHasValue(threshold) ? Long.parseLong(threshold) : 1024L);
+        for (Map.Entry<IntrospectedTable, List<GeneratedXmlFile>> entry : generatedSqlMaps.entrySet()) {
+            callback.checkCancel();
+            for (GeneratedXmlFile gxf : entry.getValue()) {
+                counter.analyze(entry.getKey(), gxf.getDocument());
+            }
+        }
+        statementShapeReport = getString("Shape.0", id) + "\n\n" //$NON-NLS-1$ //$NON-NLS-2$
+                + counter.getReport();
+    }
+
+    /**
+     * Gets the statement shape report.
+     *
+     * @return the report text, or null if the analysis did not run
+     */
+    public String getStatementShapeReport() {
+        return statementShapeReport;
+    }
+
+    private Connection getExplainConnection() throws SQLException {
+        String connectionURL = getProperty(PropertyRegistry.CONTEXT_EXPLAIN_CONNECTION_URL);
+        if (!stringHasValue(connectionURL)) {
+            return getConnection();
+        }
+
+        JDBCConnectionConfiguration config = new JDBCConnectionConfiguration();
+        config.setConnectionURL(connectionURL);
+        config.setDriverClass(getProperty(PropertyRegistry.CONTEXT_EXPLAIN_DRIVER_CLASS));
+        config.setUserId(getProperty(PropertyRegistry.CONTEXT_EXPLAIN_USER_ID));
+        config.setPassword(getProperty(PropertyRegistry.CONTEXT_EXPLAIN_PASSWORD));
+        return new JDBCConnectionFactory(config).getConnection();
+    }
+
     /**
      * Gets the connection.
      *
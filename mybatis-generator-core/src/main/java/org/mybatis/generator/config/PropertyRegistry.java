@@ -32,6 +32,8 @@ public class PropertyRegistry {
     public static final String ANY_ROOT_CLASS = "rootClass"; //$NON-NLS-1$
     public static final String ANY_IMMUTABLE = "immutable"; //$NON-NLS-1$
     public static final String ANY_CONSTRUCTOR_BASED = "constructorBased"; //$NON-NLS-1$
+    public static final String ANY_COMPACT_MODEL = "compactModel"; //$NON-NLS-1$
+    public static final String ANY_TRACK_CHANGES = "trackChanges"; //$NON-NLS-1$
 
     /**
      * recognized by table and java client generator
@@ -47,6 +49,20 @@ public class PropertyRegistry {
     public static final String TABLE_RUNTIME_TABLE_NAME = "runtimeTableName"; //$NON-NLS-1$
     public static final String TABLE_MODEL_ONLY = "modelOnly"; //$NON-NLS-1$
     public static final String TABLE_SELECT_ALL_ORDER_BY_CLAUSE = "selectAllOrderByClause"; //$NON-NLS-1$
+    public static final String TABLE_UPSERT_UPDATE_COLUMNS = "upsertUpdateColumns"; //$NON-NLS-1$
+    public static final String TABLE_UPSERT_ROW_ALIAS = "upsertRowAlias"; //$NON-NLS-1$
+    public static final String TABLE_STREAM_FETCH_SIZE = "streamFetchSize"; //$NON-NLS-1$
+    public static final String TABLE_STREAM_RESULT_SET_TYPE = "streamResultSetType"; //$NON-NLS-1$
+    public static final String TABLE_PRIMARY_KEYS_CHUNK_SIZE = "primaryKeysChunkSize"; //$NON-NLS-1$
+    public static final String TABLE_OMIT_UNINDEXED_CRITERIA = "omitUnindexedCriteria"; //$NON-NLS-1$
+    public static final String TABLE_JOIN_CHILDREN = "joinChildren"; //$NON-NLS-1$
+    public static final String TABLE_FIXED_SHAPE_THRESHOLD = "fixedShapeThreshold"; //$NON-NLS-1$
+    public static final String TABLE_SHARD_COLUMN = "shardColumn"; //$NON-NLS-1$
+    public static final String TABLE_SHARD_COUNT = "shardCount"; //$NON-NLS-1$
+    public static final String TABLE_SHARD_RANGES = "shardRanges"; //$NON-NLS-1$
+    public static final String TABLE_SHARD_SUFFIX_FORMAT = "shardSuffixFormat"; //$NON-NLS-1$
+    public static final String TABLE_VERSION_COLUMN = "versionColumn"; //$NON-NLS-1$
+    public static final String TABLE_INCREMENT_COLUMNS = "incrementColumns"; //$NON-NLS-1$
 
     public static final String CONTEXT_BEGINNING_DELIMITER = "beginningDelimiter"; //$NON-NLS-1$
     public static final String CONTEXT_ENDING_DELIMITER = "endingDelimiter"; //$NON-NLS-1$
@@ -54,8 +70,18 @@ public class PropertyRegistry {
     public static final String CONTEXT_JAVA_FILE_ENCODING = "javaFileEncoding"; //$NON-NLS-1$
     public static final String CONTEXT_JAVA_FORMATTER = "javaFormatter"; //$NON-NLS-1$
     public static final String CONTEXT_XML_FORMATTER = "xmlFormatter"; //$NON-NLS-1$
+    public static final String CONTEXT_EXPLAIN_STATEMENTS = "explainStatements"; //$NON-NLS-1$
+    public static final String CONTEXT_EXPLAIN_REPORT_FILE = "explainReportFile"; //$NON-NLS-1$
+    public static final String CONTEXT_EXPLAIN_CONNECTION_URL = "explainConnectionURL"; //$NON-NLS-1$
+    public static final String CONTEXT_EXPLAIN_DRIVER_CLASS = "explainDriverClass"; //$NON-NLS-1$
+    public static final String CONTEXT_EXPLAIN_USER_ID = "explainUserId"; //$NON-NLS-1$
+    public static final String CONTEXT_EXPLAIN_PASSWORD = "explainPassword"; //$NON-NLS-1$
+    public static final String CONTEXT_STATEMENT_SHAPE_REPORT = "statementShapeReport"; //$NON-NLS-1$
+    public static final String CONTEXT_STATEMENT_SHAPE_REPORT_FILE = "statementShapeReportFile"; //$NON-NLS-1$
+    public static final String CONTEXT_STATEMENT_SHAPE_WARNING_THRESHOLD = "statementShapeWarningThreshold"; //$NON-NLS-1$
 
     public static final String CLIENT_USE_LEGACY_BUILDER = "useLegacyBuilder"; //$NON-NLS-1$
+    public static final String CLIENT_BIND_MARKER = "bindMarker"; //$NON-NLS-1$
     
     public static final String DAO_EXAMPLE_METHOD_VISIBILITY = "exampleMethodVisibility"; //$NON-NLS-1$
     public static final String DAO_METHOD_NAME_CALCULATOR = "methodNameCalculator"; //$NON-NLS-1$
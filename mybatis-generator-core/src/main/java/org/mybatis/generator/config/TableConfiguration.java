@@ -25,6 +25,7 @@ import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IllegalFormatException;
 import java.util.List;
 import java.util.Map;
 
@@ -834,6 +835,12 @@ public class TableConfiguration extends PropertyHolder {
             }
         }
 
+        validatePositiveInteger(PropertyRegistry.TABLE_PRIMARY_KEYS_CHUNK_SIZE,
+                errors, fqTableName);
+        validatePositiveInteger(PropertyRegistry.TABLE_FIXED_SHAPE_THRESHOLD,
+                errors, fqTableName);
+        validateSharding(errors, fqTableName);
+
         if (columnRenamingRule != null) {
             columnRenamingRule.validate(errors, fqTableName);
         }
@@ -851,6 +858,65 @@ public class TableConfiguration extends PropertyHolder {
         }
     }
 
+    private void validatePositiveInteger(String property, List<String> errors,
+            String fqTableName) {
+        String value = getProperty(property);
+        if (stringHasValue(value)) {
+            boolean valid;
+            try {
+                valid = Integer.parseInt(value) > 0;
+            } catch (NumberFormatException e) {
+                valid = false;
+            }
+            if (!valid) {
+                errors.add(getString("ValidationError.28", //$NON-NLS-1$
+                        property, fqTableName));
+            }
+        }
+    }
+
+    private void validateSharding(List<String> errors, String fqTableName) {
+        validatePositiveInteger(PropertyRegistry.TABLE_SHARD_COUNT, errors,
+                fqTableName);
+
+        String ranges = getProperty(PropertyRegistry.TABLE_SHARD_RANGES);
+        if (stringHasValue(ranges)) {
+            boolean valid = true;
+            long previous = Long.MIN_VALUE;
+            for (String bound : ranges.split(",")) { //$NON-NLS-1$
+                try {
+                    long value = Long.parseLong(bound.trim());
+                    valid &= value > previous;
+                    previous = value;
+                } catch (NumberFormatException e) {
+                    valid = false;
+                }
+            }
+            if (!valid) {
+                errors.add(getString("ValidationError.32", //$NON-NLS-1$
+                        PropertyRegistry.TABLE_SHARD_RANGES, fqTableName));
+            }
+        }
+
+        String format = getProperty(PropertyRegistry.TABLE_SHARD_SUFFIX_FORMAT);
+        if (stringHasValue(format)) {
+            try {
+                String.format(format, 0);
+            } catch (IllegalFormatException e) {
+                errors.add(getString("ValidationError.34", //$NON-NLS-1$
+                        PropertyRegistry.TABLE_SHARD_SUFFIX_FORMAT, fqTableName,
+                        format));
+            }
+        }
+
+        if (stringHasValue(getProperty(PropertyRegistry.TABLE_SHARD_COLUMN))
+                && !stringHasValue(getProperty(PropertyRegistry.TABLE_SHARD_COUNT))
+                && !stringHasValue(ranges)) {
+            errors.add(getString("ValidationError.33", //$NON-NLS-1$
+                    fqTableName, PropertyRegistry.TABLE_SHARD_COLUMN));
+        }
+    }
+
     /**
      * Gets the column renaming rule.
      *
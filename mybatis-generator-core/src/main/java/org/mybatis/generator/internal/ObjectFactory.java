@@ -33,6 +33,8 @@ import org.mybatis.generator.api.JavaTypeResolver;
 import org.mybatis.generator.api.XmlFormatter;
 import org.mybatis.generator.api.dom.DefaultJavaFormatter;
 import org.mybatis.generator.api.dom.DefaultXmlFormatter;
+import org.mybatis.generator.codegen.jdbc.IntrospectedTableJdbcImpl;
+import org.mybatis.generator.codegen.r2dbc.IntrospectedTableR2dbcImpl;
 import org.mybatis.generator.codegen.mybatis3.IntrospectedTableMyBatis3Impl;
 import org.mybatis.generator.config.CommentGeneratorConfiguration;
 import org.mybatis.generator.config.ConnectionFactoryConfiguration;
@@ -415,6 +417,10 @@ public class ObjectFactory {
             type = IntrospectedTableMyBatis3Impl.class.getName();
         } else if ("MyBatis3".equalsIgnoreCase(type)) { //$NON-NLS-1$
             type = IntrospectedTableMyBatis3Impl.class.getName();
+        } else if ("Jdbc".equalsIgnoreCase(type)) { //$NON-NLS-1$
+            type = IntrospectedTableJdbcImpl.class.getName();
+        } else if ("R2dbc".equalsIgnoreCase(type)) { //$NON-NLS-1$
+            type = IntrospectedTableR2dbcImpl.class.getName();
         }
 
         IntrospectedTable answer = (IntrospectedTable) createInternalObject(type);
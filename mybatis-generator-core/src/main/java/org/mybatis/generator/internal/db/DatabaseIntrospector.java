@@ -25,13 +25,16 @@ import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
@@ -40,8 +43,11 @@ import java.util.regex.Pattern;
 
 import org.mybatis.generator.api.FullyQualifiedTable;
 import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedForeignKey;
+import org.mybatis.generator.api.IntrospectedIndex;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.JavaTypeResolver;
+import org.mybatis.generator.api.TableStatistics;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.JavaReservedWords;
 import org.mybatis.generator.config.ColumnOverride;
@@ -140,6 +146,268 @@ public class DatabaseIntrospector {
         }
     }
 
+    /**
+     * Reads the secondary indexes of the table. Index columns that do not map to
+     * an introspected column (ignored columns, expressions) end the usable
+     * prefix of the index; the primary key index is skipped.
+     *
+     * @param table
+     *            the table
+     * @param introspectedTable
+     *            the introspected table
+     */
+    private void calculateIndexes(FullyQualifiedTable table,
+            IntrospectedTable introspectedTable) {
+        ResultSet rs = null;
+
+        try {
+            // approximate = true, cached statistics are good enough for the
+            // size estimates
+            rs = databaseMetaData.getIndexInfo(
+                    table.getIntrospectedCatalog(), table
+                            .getIntrospectedSchema(), table
+                            .getIntrospectedTableName(), false, true);
+        } catch (SQLException e) {
+            closeResultSet(rs);
+            warnings.add(getString("Warning.31", table.toString())); //$NON-NLS-1$
+            return;
+        }
+
+        try {
+            // keep index columns in ordinal position order
+            Map<String, Map<Short, String>> indexColumns = new LinkedHashMap<String, Map<Short, String>>();
+            Map<String, Boolean> uniqueIndexes = new HashMap<String, Boolean>();
+            Map<String, Long> indexCardinalities = new HashMap<String, Long>();
+            Long rowCount = null;
+            while (rs.next()) {
+                // many drivers report 0 when they keep no statistics
+                long cardinality = rs.getLong("CARDINALITY"); //$NON-NLS-1$
+                boolean hasCardinality = !rs.wasNull() && cardinality > 0;
+                if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) { //$NON-NLS-1$
+                    if (hasCardinality) {
+                        rowCount = cardinality;
+                    }
+                    continue;
+                }
+                String indexName = rs.getString("INDEX_NAME"); //$NON-NLS-1$
+                if (indexName == null) {
+                    continue;
+                }
+                Map<Short, String> columns = indexColumns.get(indexName);
+                if (columns == null) {
+                    columns = new TreeMap<Short, String>();
+                    indexColumns.put(indexName, columns);
+                    uniqueIndexes.put(indexName, !rs.getBoolean("NON_UNIQUE")); //$NON-NLS-1$
+                }
+                columns.put(rs.getShort("ORDINAL_POSITION"), rs.getString("COLUMN_NAME")); //$NON-NLS-1$ //$NON-NLS-2$
+
+                // some drivers report the cardinality of the column prefix,
+                // others the one of the whole index - the largest value is
+                // the one of the whole index either way
+                Long known = indexCardinalities.get(indexName);
+                if (hasCardinality && (known == null || known < cardinality)) {
+                    indexCardinalities.put(indexName, cardinality);
+                }
+            }
+
+            List<IntrospectedIndex> indexes = new ArrayList<IntrospectedIndex>();
+            for (Map.Entry<String, Map<Short, String>> entry : indexColumns.entrySet()) {
+                List<IntrospectedColumn> columns = new ArrayList<IntrospectedColumn>();
+                for (String columnName : entry.getValue().values()) {
+                    IntrospectedColumn introspectedColumn = introspectedTable.getColumn(columnName);
+                    if (introspectedColumn == null) {
+                        break;
+                    }
+                    columns.add(introspectedColumn);
+                }
+
+                boolean complete = columns.size() == entry.getValue().size();
+                Long cardinality = complete ? indexCardinalities.get(entry.getKey()) : null;
+                // when only a prefix is usable it no longer identifies a row
+                boolean unique = uniqueIndexes.get(entry.getKey()) && complete;
+                if (cardinality != null) {
+                    if (columns.size() == 1) {
+                        columns.get(0).setCardinality(cardinality);
+                    }
+                    // every row has its own key in a unique index
+                    if (unique && rowCount == null) {
+                        rowCount = cardinality;
+                    }
+                }
+
+                if (columns.isEmpty()
+                        || columns.equals(introspectedTable.getPrimaryKeyColumns())) {
+                    continue;
+                }
+
+                IntrospectedIndex index = new IntrospectedIndex(entry.getKey(), unique);
+                for (IntrospectedColumn introspectedColumn : columns) {
+                    index.addColumn(introspectedColumn);
+                }
+                index.setCardinality(cardinality);
+                indexes.add(index);
+            }
+
+            introspectedTable.setIndexes(indexes);
+
+            if (rowCount != null) {
+                TableStatistics statistics = new TableStatistics();
+                statistics.setRowCount(rowCount);
+                introspectedTable.setStatistics(statistics);
+            }
+        } catch (SQLException e) {
+            warnings.add(getString("Warning.31", table.toString())); //$NON-NLS-1$
+        } finally {
+            closeResultSet(rs);
+        }
+    }
+
+    /**
+     * Reads the foreign keys of the table. A key is dropped if one of its
+     * columns is not part of the introspected table (an ignored column, for
+     * example). The parent tables are linked by the context once all tables
+     * are introspected.
+     *
+     * @param table
+     *            the table
+     * @param introspectedTable
+     *            the introspected table
+     */
+    private void calculateForeignKeys(FullyQualifiedTable table,
+            IntrospectedTable introspectedTable) {
+        ResultSet rs = null;
+
+        try {
+            rs = databaseMetaData.getImportedKeys(
+                    table.getIntrospectedCatalog(), table
+                            .getIntrospectedSchema(), table
+                            .getIntrospectedTableName());
+        } catch (SQLException e) {
+            closeResultSet(rs);
+            warnings.add(getString("Warning.36", table.toString())); //$NON-NLS-1$
+            return;
+        }
+
+        try {
+            // keep key columns in key sequence order
+            Map<String, IntrospectedForeignKey> foreignKeys = new LinkedHashMap<String, IntrospectedForeignKey>();
+            Map<String, Map<Short, String[]>> keyColumns = new HashMap<String, Map<Short, String[]>>();
+            while (rs.next()) {
+                String parentTableName = rs.getString("PKTABLE_NAME"); //$NON-NLS-1$
+                String keyName = rs.getString("FK_NAME"); //$NON-NLS-1$
+                if (keyName == null) {
+                    // unnamed keys are told apart by their parent table
+                    keyName = parentTableName;
+                }
+                IntrospectedForeignKey foreignKey = foreignKeys.get(keyName);
+                if (foreignKey == null) {
+                    foreignKey = new IntrospectedForeignKey(keyName, introspectedTable,
+                            rs.getString("PKTABLE_CAT"), //$NON-NLS-1$
+                            rs.getString("PKTABLE_SCHEM"), //$NON-NLS-1$
+                            parentTableName);
+                    foreignKeys.put(keyName, foreignKey);
+                    keyColumns.put(keyName, new TreeMap<Short, String[]>());
+                }
+                keyColumns.get(keyName).put(rs.getShort("KEY_SEQ"), //$NON-NLS-1$
+                        new String[] { rs.getString("FKCOLUMN_NAME"), //$NON-NLS-1$
+                                rs.getString("PKCOLUMN_NAME") }); //$NON-NLS-1$
+            }
+
+            for (Map.Entry<String, IntrospectedForeignKey> entry : foreignKeys.entrySet()) {
+                IntrospectedForeignKey foreignKey = entry.getValue();
+                boolean complete = true;
+                for (String[] columnNames : keyColumns.get(entry.getKey()).values()) {
+                    IntrospectedColumn introspectedColumn = introspectedTable.getColumn(columnNames[0]);
+                    if (introspectedColumn == null) {
+                        complete = false;
+                        break;
+                    }
+                    foreignKey.addColumn(introspectedColumn, columnNames[1]);
+                }
+
+                if (complete) {
+                    introspectedTable.addForeignKey(foreignKey);
+                }
+            }
+        } catch (SQLException e) {
+            warnings.add(getString("Warning.36", table.toString())); //$NON-NLS-1$
+        } finally {
+            closeResultSet(rs);
+        }
+    }
+
+    /**
+     * Reads the size statistics MySQL keeps in information_schema.TABLES. They
+     * replace the estimates derived from the index information. Other
+     * databases keep the estimates, as does MySQL if the query fails.
+     *
+     * @param table
+     *            the table
+     * @param introspectedTable
+     *            the introspected table
+     */
+    private void calculateStatistics(FullyQualifiedTable table,
+            IntrospectedTable introspectedTable) {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            String productName = databaseMetaData.getDatabaseProductName();
+            if (productName == null
+                    || !productName.toUpperCase(Locale.ENGLISH).contains("MYSQL")) { //$NON-NLS-1$
+                return;
+            }
+
+            // MySQL reports databases as catalogs
+            String database = table.getIntrospectedCatalog();
+            if (!stringHasValue(database)) {
+                database = table.getIntrospectedSchema();
+            }
+
+            StringBuilder sb = new StringBuilder();
+            sb.append("select TABLE_ROWS, AVG_ROW_LENGTH, DATA_LENGTH, INDEX_LENGTH"); //$NON-NLS-1$
+            sb.append(" from information_schema.TABLES where TABLE_NAME = ?"); //$NON-NLS-1$
+            sb.append(stringHasValue(database) ? " and TABLE_SCHEMA = ?" //$NON-NLS-1$
+                    : " and TABLE_SCHEMA = database()"); //$NON-NLS-1$
+            ps = databaseMetaData.getConnection().prepareStatement(sb.toString());
+            ps.setString(1, table.getIntrospectedTableName());
+            if (stringHasValue(database)) {
+                ps.setString(2, database);
+            }
+            rs = ps.executeQuery();
+            if (rs.next()) {
+                TableStatistics statistics = introspectedTable.getStatistics();
+                if (statistics == null) {
+                    statistics = new TableStatistics();
+                    introspectedTable.setStatistics(statistics);
+                }
+                Long rowCount = getLong(rs, "TABLE_ROWS"); //$NON-NLS-1$
+                if (rowCount != null) {
+                    statistics.setRowCount(rowCount);
+                }
+                statistics.setAverageRowLength(getLong(rs, "AVG_ROW_LENGTH")); //$NON-NLS-1$
+                statistics.setDataLength(getLong(rs, "DATA_LENGTH")); //$NON-NLS-1$
+                statistics.setIndexLength(getLong(rs, "INDEX_LENGTH")); //$NON-NLS-1$
+            }
+        } catch (SQLException e) {
+            // statistics are optional, keep the estimates
+            logger.debug(e.getMessage());
+        } finally {
+            closeResultSet(rs);
+            if (ps != null) {
+                try {
+                    ps.close();
+                } catch (SQLException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private Long getLong(ResultSet rs, String columnName) throws SQLException {
+        long value = rs.getLong(columnName);
+        return rs.wasNull() ? null : value;
+    }
+
     /**
      * Close result set.
      *
@@ -739,6 +1007,9 @@ public class DatabaseIntrospector {
             }
 
             calculatePrimaryKey(table, introspectedTable);
+            calculateIndexes(table, introspectedTable);
+            calculateStatistics(table, introspectedTable);
+            calculateForeignKeys(table, introspectedTable);
             
             enhanceIntrospectedTable(introspectedTable);
 
@@ -0,0 +1,320 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+/**
+ * 把生成的 mapper 语句 (XmlElement 树) 渲染成一条具有代表性的静态 SQL, 供 EXPLAIN 使用.
+ * 所有 if/when 分支都认为成立, foreach 只展开一次, 包含 ${...} 的动态片段无法确定取值, 直接丢弃.
+ * #{...} 参数替换成 ?, 并记录参数声明的 jdbcType, 由调用方绑定代表值.
+ * 
+ */
+public class RepresentativeSqlRenderer {
+
+    private static final Pattern PARAMETER_PATTERN = Pattern.compile("#\\{([^}]*)\\}"); //$NON-NLS-1$
+
+    private static final Pattern JDBC_TYPE_PATTERN = Pattern.compile("jdbcType\\s*=\\s*(\\w+)"); //$NON-NLS-1$
+
+    private Map<String, XmlElement> sqlFragments;
+
+    private String whereClauseId;
+
+    private List<String> parameterJdbcTypes;
+
+    private boolean whereClauseIncluded;
+
+    private String unresolvedFragmentId;
+
+    private Pattern shardedTablePattern;
+
+    private String shardedTableReplacement;
+
+    /**
+     * @param mapperElement
+     *            the root mapper element, used to resolve &lt;include&gt;
+     * @param whereClauseId
+     *            the id of the sql fragment that renders the generated Where
+     *            criteria
+     */
+    public RepresentativeSqlRenderer(XmlElement mapperElement, String whereClauseId) {
+        super();
+        this.whereClauseId = whereClauseId;
+        sqlFragments = new HashMap<String, XmlElement>();
+        for (Element element : mapperElement.getElements()) {
+            if (element instanceof XmlElement
+                    && "sql".equals(((XmlElement) element).getName())) { //$NON-NLS-1$
+                String id = getAttribute((XmlElement) element, "id"); //$NON-NLS-1$
+                if (id != null) {
+                    sqlFragments.put(id, (XmlElement) element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Renders the table name of a sharded table, a call of the shard router in
+     * ${...}, as the table that was introspected so the statements can still
+     * be explained.
+     *
+     * @param shardRouterType
+     *            the fully qualified type of the shard router
+     * @param tableName
+     *            the table name to render instead
+     */
+    public void setShardedTableName(String shardRouterType, String tableName) {
+        shardedTablePattern = Pattern.compile("\\$\\{@" + Pattern.quote(shardRouterType) //$NON-NLS-1$
+                + "@\\w+\\([^}]*\\)\\}"); //$NON-NLS-1$
+        shardedTableReplacement = Matcher.quoteReplacement(tableName);
+    }
+
+    /**
+     * Renders a statement element.
+     *
+     * @param statement
+     *            a select, update or delete element
+     * @return the SQL with ? placeholders, or null if the static part of the
+     *         statement depends on ${...} substitution or the statement
+     *         includes an unknown sql fragment
+     */
+    public String render(XmlElement statement) {
+        parameterJdbcTypes = new ArrayList<String>();
+        whereClauseIncluded = false;
+        unresolvedFragmentId = null;
+        StringBuilder sb = new StringBuilder();
+        if (!renderChildren(statement, sb) || unresolvedFragmentId != null) {
+            return null;
+        }
+        return normalize(sb);
+    }
+
+    /**
+     * @return the declared jdbcType of every ? in the last rendered statement,
+     *         null where the parameter declares none
+     */
+    public List<String> getParameterJdbcTypes() {
+        return parameterJdbcTypes;
+    }
+
+    /**
+     * @return the refid of an include that could not be resolved in the last
+     *         rendered statement, or null
+     */
+    public String getUnresolvedFragmentId() {
+        return unresolvedFragmentId;
+    }
+
+    /**
+     * @return true if the last rendered statement includes the Where criteria
+     *         fragment, its plan then depends on the criteria used at runtime
+     */
+    public boolean isWhereClauseIncluded() {
+        return whereClauseIncluded;
+    }
+
+    private boolean renderChildren(XmlElement element, StringBuilder sb) {
+        for (Element child : element.getElements()) {
+            if (!renderElement(child, sb)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the element contains ${...} text outside of an optional
+     *         block
+     */
+    private boolean renderElement(Element element, StringBuilder sb) {
+        if (element instanceof TextElement) {
+            return renderText(((TextElement) element).getContent(), sb);
+        }
+
+        XmlElement xmlElement = (XmlElement) element;
+        String name = xmlElement.getName();
+        if ("include".equals(name)) { //$NON-NLS-1$
+            String refid = getAttribute(xmlElement, "refid"); //$NON-NLS-1$
+            if (refid != null && refid.equals(whereClauseId)) {
+                whereClauseIncluded = true;
+            }
+            XmlElement fragment = sqlFragments.get(refid);
+            if (fragment == null) {
+                // the statement would silently lose its where clause
+                unresolvedFragmentId = String.valueOf(refid);
+                return true;
+            }
+            return renderChildren(fragment, sb);
+        } else if ("if".equals(name) || "when".equals(name) //$NON-NLS-1$ //$NON-NLS-2$
+                || "otherwise".equals(name)) { //$NON-NLS-1$
+            renderOptional(xmlElement, sb);
+            return true;
+        } else if ("choose".equals(name)) { //$NON-NLS-1$
+            for (Element child : xmlElement.getElements()) {
+                if (child instanceof XmlElement && renderOptional((XmlElement) child, sb)) {
+                    break;
+                }
+            }
+            return true;
+        } else if ("foreach".equals(name)) { //$NON-NLS-1$
+            StringBuilder body = new StringBuilder();
+            int parameterCount = parameterJdbcTypes.size();
+            if (renderChildren(xmlElement, body)) {
+                appendAttribute(xmlElement, "open", sb); //$NON-NLS-1$
+                sb.append(body);
+                appendAttribute(xmlElement, "close", sb); //$NON-NLS-1$
+            } else {
+                discardParameters(parameterCount);
+            }
+            return true;
+        } else if ("where".equals(name)) { //$NON-NLS-1$
+            renderTrimmed(xmlElement, "where", "AND |OR ", null, sb); //$NON-NLS-1$ //$NON-NLS-2$
+            return true;
+        } else if ("set".equals(name)) { //$NON-NLS-1$
+            renderTrimmed(xmlElement, "set", null, ",", sb); //$NON-NLS-1$ //$NON-NLS-2$
+            return true;
+        } else if ("trim".equals(name)) { //$NON-NLS-1$
+            renderTrimmed(xmlElement, getAttribute(xmlElement, "prefix"), //$NON-NLS-1$
+                    getAttribute(xmlElement, "prefixOverrides"), //$NON-NLS-1$
+                    getAttribute(xmlElement, "suffixOverrides"), sb); //$NON-NLS-1$
+            appendAttribute(xmlElement, "suffix", sb); //$NON-NLS-1$
+            return true;
+        } else if ("selectKey".equals(name) || "bind".equals(name)) { //$NON-NLS-1$ //$NON-NLS-2$
+            return true;
+        } else {
+            return renderChildren(xmlElement, sb);
+        }
+    }
+
+    /**
+     * Renders a conditional block as if its test passed. Blocks that cannot be
+     * rendered statically are dropped.
+     */
+    private boolean renderOptional(XmlElement element, StringBuilder sb) {
+        StringBuilder body = new StringBuilder();
+        int parameterCount = parameterJdbcTypes.size();
+        if (renderChildren(element, body)) {
+            sb.append(body);
+            return true;
+        }
+        discardParameters(parameterCount);
+        return false;
+    }
+
+    private void renderTrimmed(XmlElement element, String prefix,
+            String prefixOverrides, String suffixOverrides, StringBuilder sb) {
+        StringBuilder body = new StringBuilder();
+        int parameterCount = parameterJdbcTypes.size();
+        if (!renderChildren(element, body)) {
+            discardParameters(parameterCount);
+            return;
+        }
+
+        String content = body.toString().trim();
+        if (prefixOverrides != null) {
+            for (String override : prefixOverrides.split("\\|")) { //$NON-NLS-1$
+                // keep the trailing blank of "AND ", it separates the keyword
+                String token = override.replaceFirst("^\\s+", ""); //$NON-NLS-1$ //$NON-NLS-2$
+                if (token.trim().length() > 0 && content.toUpperCase(Locale.ENGLISH)
+                        .startsWith(token.toUpperCase(Locale.ENGLISH))) {
+                    content = content.substring(token.length()).trim();
+                    break;
+                }
+            }
+        }
+        if (suffixOverrides != null) {
+            for (String override : suffixOverrides.split("\\|")) { //$NON-NLS-1$
+                String token = override.trim();
+                if (token.length() > 0 && content.toUpperCase(Locale.ENGLISH)
+                        .endsWith(token.toUpperCase(Locale.ENGLISH))) {
+                    content = content.substring(0, content.length() - token.length()).trim();
+                    break;
+                }
+            }
+        }
+
+        if (content.length() > 0) {
+            if (prefix != null) {
+                sb.append(' ').append(prefix);
+            }
+            sb.append(' ').append(content).append(' ');
+        }
+    }
+
+    private boolean renderText(String content, StringBuilder sb) {
+        if (shardedTablePattern != null) {
+            content = shardedTablePattern.matcher(content).replaceAll(shardedTableReplacement);
+        }
+        if (content.contains("${")) { //$NON-NLS-1$
+            return false;
+        }
+
+        Matcher matcher = PARAMETER_PATTERN.matcher(content);
+        int start = 0;
+        sb.append(' ');
+        while (matcher.find()) {
+            sb.append(unescape(content.substring(start, matcher.start())));
+            sb.append('?');
+            Matcher jdbcType = JDBC_TYPE_PATTERN.matcher(matcher.group(1));
+            parameterJdbcTypes.add(jdbcType.find() ? jdbcType.group(1) : null);
+            start = matcher.end();
+        }
+        sb.append(unescape(content.substring(start)));
+        sb.append(' ');
+        return true;
+    }
+
+    private void discardParameters(int keep) {
+        while (parameterJdbcTypes.size() > keep) {
+            parameterJdbcTypes.remove(parameterJdbcTypes.size() - 1);
+        }
+    }
+
+    private void appendAttribute(XmlElement element, String name, StringBuilder sb) {
+        String value = getAttribute(element, name);
+        if (value != null) {
+            sb.append(' ').append(unescape(value)).append(' ');
+        }
+    }
+
+    private static String getAttribute(XmlElement element, String name) {
+        for (Attribute attribute : element.getAttributes()) {
+            if (name.equals(attribute.getName())) {
+                return attribute.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String unescape(String s) {
+        return s.replace("&lt;", "<").replace("&gt;", ">") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                .replace("&quot;", "\"").replace("&amp;", "&"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    }
+
+    private static String normalize(StringBuilder sb) {
+        return sb.toString().replaceAll("\\s+", " ").trim(); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
@@ -0,0 +1,399 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.internal.types.JdbcTypeNameTranslator;
+
+/**
+ * 在生成阶段对 mapper 中的语句执行 EXPLAIN, 找出全表扫描 (type=ALL) 和文件排序 (filesort) 的语句.
+ * 依赖 Where 条件的语句 (countByWhere, selectByWhere 等) 的执行计划取决于运行时的条件,
+ * 这里改为对每个非 BLOB 列单独探测 "列 = ?" 条件, 报告无法使用索引的条件列.
+ * 支持 MySQL (含 MariaDB), 以及用于 CI 的 H2 和 HSQLDB 替身库.
+ * 
+ */
+public class StatementExplainer {
+
+    /**
+     * The databases whose plans can be interpreted.
+     */
+    private enum PlanDialect {
+        MYSQL("explain "), //$NON-NLS-1$
+        H2("explain "), //$NON-NLS-1$
+        HSQLDB("explain plan for "); //$NON-NLS-1$
+
+        private String explainPrefix;
+
+        PlanDialect(String explainPrefix) {
+            this.explainPrefix = explainPrefix;
+        }
+
+        String getExplainPrefix() {
+            return explainPrefix;
+        }
+    }
+
+    /**
+     * The interpreted plan of one statement.
+     */
+    private static class Plan {
+        boolean fullScan;
+        boolean filesort;
+        String summary;
+
+        boolean hasFindings() {
+            return fullScan || filesort;
+        }
+
+        String describeFindings() {
+            if (fullScan && filesort) {
+                return getString("Explain.4"); //$NON-NLS-1$
+            } else if (fullScan) {
+                return getString("Explain.2"); //$NON-NLS-1$
+            } else {
+                return getString("Explain.3"); //$NON-NLS-1$
+            }
+        }
+    }
+
+    private static final int MAX_SUMMARY_LENGTH = 200;
+
+    private Connection connection;
+
+    private List<String> warnings;
+
+    private PlanDialect dialect;
+
+    private String databaseProduct;
+
+    private StringBuilder report;
+
+    public StatementExplainer(Connection connection, List<String> warnings)
+            throws SQLException {
+        super();
+        this.connection = connection;
+        this.warnings = warnings;
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        databaseProduct = metaData.getDatabaseProductName() + ' '
+                + metaData.getDatabaseProductVersion();
+        String productName = metaData.getDatabaseProductName().toUpperCase(Locale.ENGLISH);
+        if (productName.contains("MYSQL") || productName.contains("MARIADB")) { //$NON-NLS-1$ //$NON-NLS-2$
+            dialect = PlanDialect.MYSQL;
+        } else if (productName.startsWith("H2")) { //$NON-NLS-1$
+            dialect = PlanDialect.H2;
+        } else if (productName.contains("HSQL")) { //$NON-NLS-1$
+            dialect = PlanDialect.HSQLDB;
+        }
+
+        report = new StringBuilder();
+    }
+
+    /**
+     * @return true if plans of the connected database can be interpreted
+     */
+    public boolean isSupported() {
+        return dialect != null;
+    }
+
+    public String getDatabaseProduct() {
+        return databaseProduct;
+    }
+
+    /**
+     * Explains every select, update and delete statement of a generated
+     * mapper, and the single column criteria of the table's Where class.
+     *
+     * @param introspectedTable
+     *            the table the mapper was generated for
+     * @param document
+     *            the generated mapper document
+     */
+    public void explain(IntrospectedTable introspectedTable, Document document) {
+        String tableName = introspectedTable.getFullyQualifiedTable().toString();
+        RepresentativeSqlRenderer renderer = new RepresentativeSqlRenderer(
+                document.getRootElement(), introspectedTable.getWhereClauseId());
+        if (introspectedTable.isSharded()) {
+            renderer.setShardedTableName(introspectedTable.getShardRouterType(),
+                    introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        }
+        boolean criteriaUsed = false;
+
+        if (introspectedTable.getStatistics() == null) {
+            report.append(getString("Explain.5", tableName)); //$NON-NLS-1$
+        } else {
+            // the plan of a small table is often a scan whatever the indexes
+            report.append(getString("Explain.12", tableName, //$NON-NLS-1$
+                    introspectedTable.getStatistics().toString()));
+        }
+        report.append('\n');
+        for (Element element : document.getRootElement().getElements()) {
+            if (!(element instanceof XmlElement) || !isExplainable((XmlElement) element)) {
+                continue;
+            }
+
+            XmlElement statement = (XmlElement) element;
+            String statementId = getStatementId(statement);
+            String sql = renderer.render(statement);
+            if (sql == null && renderer.getUnresolvedFragmentId() != null) {
+                appendReportLine(statementId, getString("Explain.11", //$NON-NLS-1$
+                        renderer.getUnresolvedFragmentId()));
+            } else if (sql == null) {
+                appendReportLine(statementId, getString("Explain.6")); //$NON-NLS-1$
+            } else if (renderer.isWhereClauseIncluded()) {
+                criteriaUsed = true;
+                appendReportLine(statementId, getString("Explain.7")); //$NON-NLS-1$
+            } else {
+                Plan plan = explain(sql, renderer.getParameterJdbcTypes(), statementId);
+                if (plan != null && plan.hasFindings()) {
+                    warnings.add(getString("Warning.32", //$NON-NLS-1$
+                            statementId, tableName, plan.describeFindings()));
+                }
+            }
+        }
+
+        if (criteriaUsed) {
+            explainCriteria(introspectedTable, tableName);
+        }
+        report.append('\n');
+    }
+
+    /**
+     * @return the text of the EXPLAIN report for all explained tables
+     */
+    public String getReport() {
+        return getString("Explain.0", databaseProduct) + "\n\n" + report; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private void explainCriteria(IntrospectedTable introspectedTable, String tableName) {
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getNonBLOBColumns()) {
+            String columnName = MyBatis3FormattingUtilities
+                    .getEscapedColumnName(introspectedColumn);
+            StringBuilder sb = new StringBuilder();
+            sb.append("select * from "); //$NON-NLS-1$
+            sb.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
+            sb.append(" where "); //$NON-NLS-1$
+            sb.append(columnName);
+            sb.append(" = ?"); //$NON-NLS-1$
+
+            List<String> jdbcTypes = new ArrayList<String>();
+            jdbcTypes.add(introspectedColumn.getJdbcTypeName());
+            String label = getString("Explain.8", columnName); //$NON-NLS-1$
+            Plan plan = explain(sb.toString(), jdbcTypes, label);
+            if (plan != null && plan.fullScan) {
+                warnings.add(getString("Warning.33", //$NON-NLS-1$
+                        introspectedColumn.getActualColumnName(), tableName));
+            }
+        }
+    }
+
+    private Plan explain(String sql, List<String> jdbcTypes, String label) {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = connection.prepareStatement(dialect.getExplainPrefix() + sql);
+            for (int i = 0; i < jdbcTypes.size(); i++) {
+                bindRepresentativeValue(ps, i + 1, jdbcTypes.get(i));
+            }
+            rs = ps.executeQuery();
+
+            Plan plan = dialect == PlanDialect.MYSQL ? readMySqlPlan(rs) : readTextPlan(rs);
+            appendReportLine(label, (plan.hasFindings() ? plan.describeFindings()
+                    : getString("Explain.1")) + " - " + plan.summary); //$NON-NLS-1$ //$NON-NLS-2$
+            return plan;
+        } catch (SQLException e) {
+            appendReportLine(label, getString("Explain.9", e.getMessage())); //$NON-NLS-1$
+            return null;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * MySQL returns one row per table access, the access type and the extra
+     * column carry the interesting parts.
+     */
+    private Plan readMySqlPlan(ResultSet rs) throws SQLException {
+        Plan plan = new Plan();
+        StringBuilder sb = new StringBuilder();
+        while (rs.next()) {
+            String table = rs.getString("table"); //$NON-NLS-1$
+            String type = rs.getString("type"); //$NON-NLS-1$
+            String key = rs.getString("key"); //$NON-NLS-1$
+            String extra = rs.getString("Extra"); //$NON-NLS-1$
+
+            if ("ALL".equalsIgnoreCase(type)) { //$NON-NLS-1$
+                plan.fullScan = true;
+            }
+            if (extra != null && extra.contains("Using filesort")) { //$NON-NLS-1$
+                plan.filesort = true;
+            }
+
+            if (sb.length() > 0) {
+                sb.append("; "); //$NON-NLS-1$
+            }
+            sb.append("table=").append(table); //$NON-NLS-1$
+            sb.append(" type=").append(type); //$NON-NLS-1$
+            sb.append(" key=").append(key); //$NON-NLS-1$
+            if (extra != null) {
+                sb.append(" extra=").append(extra); //$NON-NLS-1$
+            }
+        }
+        plan.summary = sb.toString();
+        return plan;
+    }
+
+    /**
+     * H2 and HSQLDB return the plan as text. H2 marks full scans with
+     * "tableScan" and index ordered results with "index sorted"; HSQLDB uses
+     * "access=FULL SCAN" and "uses index" below the order by list.
+     */
+    private Plan readTextPlan(ResultSet rs) throws SQLException {
+        StringBuilder sb = new StringBuilder();
+        ResultSetMetaData metaData = rs.getMetaData();
+        while (rs.next()) {
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                sb.append(rs.getString(i)).append(' ');
+            }
+        }
+        String text = sb.toString().replaceAll("\\s+", " ").trim(); //$NON-NLS-1$ //$NON-NLS-2$
+        String upperText = text.toUpperCase(Locale.ENGLISH);
+
+        Plan plan = new Plan();
+        if (dialect == PlanDialect.H2) {
+            plan.fullScan = upperText.contains("TABLESCAN"); //$NON-NLS-1$
+            plan.filesort = upperText.contains("ORDER BY") //$NON-NLS-1$
+                    && !upperText.contains("INDEX SORTED"); //$NON-NLS-1$
+        } else {
+            plan.fullScan = upperText.contains("ACCESS=FULL SCAN"); //$NON-NLS-1$
+            plan.filesort = upperText.contains("ORDER BY=") //$NON-NLS-1$
+                    && !upperText.contains("USES INDEX"); //$NON-NLS-1$
+        }
+
+        if (text.length() > MAX_SUMMARY_LENGTH) {
+            text = text.substring(0, MAX_SUMMARY_LENGTH) + "..."; //$NON-NLS-1$
+        }
+        plan.summary = text;
+        return plan;
+    }
+
+    /**
+     * Binds a value that the database can compare against a column of the
+     * declared type. Parameters without a jdbcType are limits, offsets and
+     * page sizes, they get a small integer.
+     */
+    private void bindRepresentativeValue(PreparedStatement ps, int index,
+            String jdbcTypeName) throws SQLException {
+        int jdbcType = jdbcTypeName == null ? Types.INTEGER
+                : JdbcTypeNameTranslator.getJdbcType(jdbcTypeName);
+        switch (jdbcType) {
+        case Types.CHAR:
+        case Types.VARCHAR:
+        case Types.LONGVARCHAR:
+        case Types.NCHAR:
+        case Types.NVARCHAR:
+        case Types.LONGNVARCHAR:
+        case Types.CLOB:
+        case Types.NCLOB:
+            ps.setString(index, "1"); //$NON-NLS-1$
+            break;
+        case Types.DATE:
+            ps.setDate(index, new Date(System.currentTimeMillis()));
+            break;
+        case Types.TIME:
+            ps.setTime(index, new Time(System.currentTimeMillis()));
+            break;
+        case Types.TIMESTAMP:
+            ps.setTimestamp(index, new Timestamp(System.currentTimeMillis()));
+            break;
+        case Types.BIT:
+        case Types.BOOLEAN:
+            ps.setBoolean(index, true);
+            break;
+        case Types.BINARY:
+        case Types.VARBINARY:
+        case Types.LONGVARBINARY:
+        case Types.BLOB:
+            ps.setBytes(index, new byte[] { 1 });
+            break;
+        default:
+            ps.setInt(index, 1);
+            break;
+        }
+    }
+
+    private boolean isExplainable(XmlElement element) {
+        String name = element.getName();
+        return "select".equals(name) || "update".equals(name) //$NON-NLS-1$ //$NON-NLS-2$
+                || "delete".equals(name); //$NON-NLS-1$
+    }
+
+    private String getStatementId(XmlElement statement) {
+        for (Attribute attribute : statement.getAttributes()) {
+            if ("id".equals(attribute.getName())) { //$NON-NLS-1$
+                return attribute.getValue();
+            }
+        }
+        return statement.getName();
+    }
+
+    private void appendReportLine(String label, String result) {
+        report.append("  ").append(label).append(": ").append(result).append('\n'); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private void closeResultSet(ResultSet rs) {
+        if (rs != null) {
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+
+    private void closeStatement(PreparedStatement ps) {
+        if (ps != null) {
+            try {
+                ps.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+}
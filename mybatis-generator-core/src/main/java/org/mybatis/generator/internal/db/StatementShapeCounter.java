@@ -0,0 +1,210 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+/**
+ * 统计生成的 mapper 语句 (XmlElement 树) 在运行时可能产生多少种不同的 SQL 文本.
+ * 每种文本在数据库的预编译语句缓存和驱动的客户端缓存中各占一项, 选择性语句每列一个 &lt;if&gt;,
+ * 60 列的表最多可产生 2^60 种文本, 缓存基本失效.
+ * 计数是上界: 每个不同的 test 表达式算一个独立的开关 (insert 列名和值中相同的 test 只算一次),
+ * choose 按分支数计, foreach 的次数和 ${...} 替换无法枚举, 单独标出.
+ * 
+ */
+public class StatementShapeCounter {
+
+    /**
+     * The decision points found in one statement.
+     */
+    private static class Shape {
+        Set<String> tests = new HashSet<String>();
+        BigInteger choices = BigInteger.ONE;
+        boolean repeated;
+        boolean substituted;
+        int anonymousTests;
+
+        BigInteger getCount() {
+            return BigInteger.ONE.shiftLeft(tests.size()).multiply(choices);
+        }
+    }
+
+    private List<String> warnings;
+
+    private BigInteger warningThreshold;
+
+    private StringBuilder report;
+
+    private Map<String, XmlElement> sqlFragments;
+
+    /**
+     * @param warnings
+     *            receives a warning for every statement above the threshold
+     * @param warningThreshold
+     *            the number of SQL texts a statement may produce without a
+     *            warning
+     */
+    public StatementShapeCounter(List<String> warnings, long warningThreshold) {
+        super();
+        this.warnings = warnings;
+        this.warningThreshold = BigInteger.valueOf(warningThreshold);
+        report = new StringBuilder();
+    }
+
+    /**
+     * Counts the SQL texts of every statement of a generated mapper.
+     *
+     * @param introspectedTable
+     *            the table the mapper was generated for
+     * @param document
+     *            the generated mapper document
+     */
+    public void analyze(IntrospectedTable introspectedTable, Document document) {
+        String tableName = introspectedTable.getFullyQualifiedTable().toString();
+        sqlFragments = new HashMap<String, XmlElement>();
+        for (Element element : document.getRootElement().getElements()) {
+            if (element instanceof XmlElement
+                    && "sql".equals(((XmlElement) element).getName())) { //$NON-NLS-1$
+                String id = getAttribute((XmlElement) element, "id"); //$NON-NLS-1$
+                if (id != null) {
+                    sqlFragments.put(id, (XmlElement) element);
+                }
+            }
+        }
+
+        report.append(getString("Shape.1", tableName)); //$NON-NLS-1$
+        report.append('\n');
+        for (Element element : document.getRootElement().getElements()) {
+            if (!(element instanceof XmlElement) || !isStatement((XmlElement) element)) {
+                continue;
+            }
+
+            XmlElement statement = (XmlElement) element;
+            String statementId = getAttribute(statement, "id"); //$NON-NLS-1$
+            Shape shape = new Shape();
+            visitChildren(statement, shape, new HashSet<String>());
+            BigInteger count = shape.getCount();
+
+            String key;
+            if (shape.repeated && shape.substituted) {
+                key = "Shape.5"; //$NON-NLS-1$
+            } else if (shape.repeated) {
+                key = "Shape.3"; //$NON-NLS-1$
+            } else if (shape.substituted) {
+                key = "Shape.4"; //$NON-NLS-1$
+            } else {
+                key = "Shape.2"; //$NON-NLS-1$
+            }
+            report.append("  ").append(statementId).append(": ") //$NON-NLS-1$ //$NON-NLS-2$
+                    .append(getString(key, count.toString())).append('\n');
+
+            if (count.compareTo(warningThreshold) > 0) {
+                warnings.add(getString("Warning.38", //$NON-NLS-1$
+                        statementId, tableName, count.toString()));
+            }
+        }
+        report.append('\n');
+    }
+
+    /**
+     * @return the text of the report for all analyzed tables
+     */
+    public String getReport() {
+        return report.toString();
+    }
+
+    private void visitChildren(XmlElement element, Shape shape, Set<String> includes) {
+        for (Element child : element.getElements()) {
+            visit(child, shape, includes);
+        }
+    }
+
+    private void visit(Element element, Shape shape, Set<String> includes) {
+        if (element instanceof TextElement) {
+            if (((TextElement) element).getContent().contains("${")) { //$NON-NLS-1$
+                shape.substituted = true;
+            }
+            return;
+        }
+
+        XmlElement xmlElement = (XmlElement) element;
+        String name = xmlElement.getName();
+        if ("include".equals(name)) { //$NON-NLS-1$
+            String refid = getAttribute(xmlElement, "refid"); //$NON-NLS-1$
+            XmlElement fragment = sqlFragments.get(refid);
+            // an include cycle would be rejected by MyBatis anyway
+            if (fragment != null && includes.add(refid)) {
+                visitChildren(fragment, shape, includes);
+                includes.remove(refid);
+            }
+        } else if ("if".equals(name)) { //$NON-NLS-1$
+            String test = getAttribute(xmlElement, "test"); //$NON-NLS-1$
+            if (test == null) {
+                test = "#" + shape.anonymousTests++; //$NON-NLS-1$
+            }
+            shape.tests.add(test.replaceAll("\\s+", "")); //$NON-NLS-1$ //$NON-NLS-2$
+            visitChildren(xmlElement, shape, includes);
+        } else if ("choose".equals(name)) { //$NON-NLS-1$
+            int branches = 0;
+            boolean otherwise = false;
+            for (Element child : xmlElement.getElements()) {
+                if (child instanceof XmlElement) {
+                    branches++;
+                    otherwise |= "otherwise".equals(((XmlElement) child).getName()); //$NON-NLS-1$
+                    visitChildren((XmlElement) child, shape, includes);
+                }
+            }
+            if (!otherwise) {
+                branches++;
+            }
+            shape.choices = shape.choices.multiply(BigInteger.valueOf(branches));
+        } else if ("foreach".equals(name)) { //$NON-NLS-1$
+            shape.repeated = true;
+            visitChildren(xmlElement, shape, includes);
+        } else if (!"selectKey".equals(name) && !"bind".equals(name)) { //$NON-NLS-1$ //$NON-NLS-2$
+            visitChildren(xmlElement, shape, includes);
+        }
+    }
+
+    private boolean isStatement(XmlElement element) {
+        String name = element.getName();
+        return "select".equals(name) || "insert".equals(name) //$NON-NLS-1$ //$NON-NLS-2$
+                || "update".equals(name) || "delete".equals(name); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private static String getAttribute(XmlElement element, String name) {
+        for (Attribute attribute : element.getAttributes()) {
+            if (name.equals(attribute.getName())) {
+                return attribute.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -94,6 +94,62 @@ public abstract class BaseRules implements Rules {
         return false;
     }
 
+    public boolean generateSelectPageAfter() {
+        return false;
+    }
+
+    public boolean generateExistsByWhere() {
+        return false;
+    }
+
+    public boolean generateSelectOneByWhere() {
+        return false;
+    }
+
+    public boolean generateSelectByPrimaryKeys() {
+        return false;
+    }
+
+    public boolean generateDeleteByPrimaryKeys() {
+        return false;
+    }
+
+    public boolean generateSelectByIndex() {
+        return false;
+    }
+
+    public boolean generateSelectByParentKeys() {
+        return false;
+    }
+
+    public boolean generateJoinResultMap() {
+        return false;
+    }
+
+    public boolean generateUpsert() {
+        return false;
+    }
+
+    public boolean generateUpdateChangedByPrimaryKey() {
+        return false;
+    }
+
+    public boolean generateUpdateByPrimaryKeyWithVersion() {
+        return false;
+    }
+
+    public boolean generateUpdateByWhereWithVersion() {
+        return false;
+    }
+
+    public boolean generateIncrementByPrimaryKey() {
+        return false;
+    }
+
+    public boolean generateIncrementByWhere() {
+        return false;
+    }
+
     /**
      * Calculates the class that contains all fields. This class is used as the
      * insert statement parameter, as well as the returned value from the select
@@ -368,6 +424,10 @@ public abstract class BaseRules implements Rules {
         return rc;
     }
 
+    public boolean generateSelectByWhereCursor() {
+        return false;
+    }
+
     /**
      * Implements the rule for generating an example class. The class should be
      * generated if the selectByExample or deleteByExample or countByExample
@@ -16,6 +16,7 @@
 package org.mybatis.generator.internal.rules;
 
 import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
 
 /**
  *增加批次插入,批次删除,等操作
@@ -86,6 +87,12 @@ public class MutilCRUDModelRules extends BaseRules {
         return true;
     }
 
+    @Override
+    public boolean generateSelectByWhereCursor() {
+        return !isModelOnly
+                && tableConfiguration.isSelectByExampleStatementEnabled();
+    }
+
     @Override
     public boolean generateSelectByWhereWithoutBLOBs() {
         return true;
@@ -118,7 +125,105 @@ public class MutilCRUDModelRules extends BaseRules {
         return true;
     }
 
+    @Override
+    public boolean generateUpsert() {
+        if (isModelOnly || !tableConfiguration.isInsertStatementEnabled()) {
+            return false;
+        }
+
+        return !ListUtilities.removeIdentityAndGeneratedAlwaysColumns(
+                introspectedTable.getNonPrimaryKeyColumns()).isEmpty();
+    }
+
+    @Override
+    public boolean generateUpdateChangedByPrimaryKey() {
+        return generateUpdateByPrimaryKeySelective()
+                && !introspectedTable.getChangeTrackedColumns().isEmpty();
+    }
+
+    @Override
+    public boolean generateUpdateByPrimaryKeyWithVersion() {
+        return generateUpdateByPrimaryKeySelective()
+                && generateSelectByPrimaryKey()
+                && introspectedTable.getVersionColumn() != null;
+    }
+
+    @Override
+    public boolean generateUpdateByWhereWithVersion() {
+        return !isModelOnly
+                && generateUpdateByWhereSelective()
+                && generateCountByWhere()
+                && introspectedTable.getVersionColumn() != null;
+    }
+
+    @Override
+    public boolean generateIncrementByPrimaryKey() {
+        return generateUpdateByPrimaryKeySelective()
+                && !introspectedTable.getIncrementColumns().isEmpty();
+    }
+
+    @Override
+    public boolean generateIncrementByWhere() {
+        return !isModelOnly
+                && generateUpdateByWhereSelective()
+                && !introspectedTable.getIncrementColumns().isEmpty();
+    }
+
+
+
+    @Override
+    public boolean generateSelectPageAfter() {
+        return !isModelOnly
+                && tableConfiguration.isSelectByExampleStatementEnabled()
+                && introspectedTable.hasPrimaryKeyColumns();
+    }
+
+    @Override
+    public boolean generateExistsByWhere() {
+        return !isModelOnly
+                && tableConfiguration.isCountByExampleStatementEnabled();
+    }
+
+    @Override
+    public boolean generateSelectOneByWhere() {
+        return !isModelOnly
+                && tableConfiguration.isSelectByExampleStatementEnabled();
+    }
+
+    @Override
+    public boolean generateSelectByPrimaryKeys() {
+        return !isModelOnly
+                && tableConfiguration.isSelectByPrimaryKeyStatementEnabled()
+                && introspectedTable.hasPrimaryKeyColumns();
+    }
 
+    @Override
+    public boolean generateDeleteByPrimaryKeys() {
+        return !isModelOnly
+                && tableConfiguration.isDeleteByPrimaryKeyStatementEnabled()
+                && introspectedTable.hasPrimaryKeyColumns();
+    }
+
+    @Override
+    public boolean generateSelectByIndex() {
+        return !isModelOnly
+                && tableConfiguration.isSelectByExampleStatementEnabled();
+    }
+
+    @Override
+    public boolean generateSelectByParentKeys() {
+        return !isModelOnly
+                && tableConfiguration.isSelectByExampleStatementEnabled()
+                && !introspectedTable.getForeignKeys().isEmpty();
+    }
+
+    @Override
+    public boolean generateJoinResultMap() {
+        return !isModelOnly
+                && tableConfiguration.isSelectByExampleStatementEnabled()
+                && introspectedTable.hasPrimaryKeyColumns()
+                && !introspectedTable.getJoinedForeignKeys().isEmpty();
+    }
 
     @Override
     public boolean generateDeleteByWhere() {
@@ -131,6 +236,16 @@ public class MutilCRUDModelRules extends BaseRules {
         return true;
     }
 
+    @Override
+    public boolean generateUpdateByWhereWithoutBLOBs() {
+        return false;
+    }
+
+    @Override
+    public boolean generateUpdateByExampleWithBLOBs() {
+        return false;
+    }
+
     @Override
     public boolean generateUpdateByPrimaryKeyWithoutBLOBs() {
         return false;
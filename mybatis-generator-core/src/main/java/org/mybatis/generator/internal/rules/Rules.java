@@ -47,6 +47,96 @@ public interface Rules {
 
     boolean generateInserts();
 
+    /**
+     * Implements the rule for generating the upsert (insert ... on duplicate
+     * key update) SQL Map elements and mapper methods, both the single record
+     * and the batch form. If the insert statement is allowed, and there is at
+     * least one column that may be updated on a key conflict, then generate
+     * the elements and methods.
+     * 
+     * @return true if the elements and methods should be generated
+     */
+    boolean generateUpsert();
+
+    /**
+     * Implements the rule for generating the keyset pagination (select page
+     * after) SQL Map element and mapper method. If the table has a primary key
+     * and the selectByExample statement is allowed, then generate the element
+     * and method.
+     * 
+     * @return true if the element and method should be generated
+     */
+    boolean generateSelectPageAfter();
+
+    /**
+     * Implements the rule for generating the exists by where SQL Map element
+     * and mapper method. If the countByExample statement is allowed, then
+     * generate the element and method.
+     * 
+     * @return true if the element and method should be generated
+     */
+    boolean generateExistsByWhere();
+
+    /**
+     * Implements the rule for generating the select one by where SQL Map
+     * element and mapper method. If the selectByExample statement is allowed,
+     * then generate the element and method.
+     * 
+     * @return true if the element and method should be generated
+     */
+    boolean generateSelectOneByWhere();
+
+    /**
+     * Implements the rule for generating the select by primary keys (batch)
+     * SQL Map element and mapper methods. If the table has a primary key and
+     * the selectByPrimaryKey statement is allowed, then generate the element
+     * and methods.
+     * 
+     * @return true if the element and methods should be generated
+     */
+    boolean generateSelectByPrimaryKeys();
+
+    /**
+     * Implements the rule for generating the delete by primary keys (batch)
+     * SQL Map element and mapper methods. If the table has a primary key and
+     * the deleteByPrimaryKey statement is allowed, then generate the element
+     * and methods.
+     * 
+     * @return true if the element and methods should be generated
+     */
+    boolean generateDeleteByPrimaryKeys();
+
+    /**
+     * Implements the rule for generating the index based finder SQL Map
+     * elements and mapper methods (selectByUniqueKeyXxx and
+     * selectByIndexPrefixXxx). If the selectByExample statement is allowed,
+     * then generate one element and method per introspected index.
+     * 
+     * @return true if the elements and methods should be generated
+     */
+    boolean generateSelectByIndex();
+
+    /**
+     * Implements the rule for generating the parent key finder SQL Map
+     * elements and mapper methods (selectByParentKeysXxx). If the table has
+     * foreign keys and the selectByExample statement is allowed, then generate
+     * one element and method per foreign key.
+     * 
+     * @return true if the elements and methods should be generated
+     */
+    boolean generateSelectByParentKeys();
+
+    /**
+     * Implements the rule for generating the join result maps, join select
+     * elements and mapper methods, and the child collection properties of the
+     * record. If the table has a primary key, child tables listed in the
+     * joinChildren property, and the selectByExample statement is allowed,
+     * then generate one of each per child table.
+     * 
+     * @return true if the elements, methods and properties should be generated
+     */
+    boolean generateJoinResultMap();
+
     /**
      * Calculates the class that contains all fields. This class is used as the
      * insert statement parameter, as well as the returned value from the select
@@ -87,6 +177,56 @@ public interface Rules {
      */
     boolean generateUpdateByPrimaryKeySelective();
 
+    /**
+     * Implements the rule for generating the update changed by primary key
+     * SQL Map element and mapper method. If the update by primary key
+     * selective statement is allowed and the record tracks its changed
+     * properties, then generate the element and method.
+     * 
+     * @return true if the element and method should be generated
+     */
+    boolean generateUpdateChangedByPrimaryKey();
+
+    /**
+     * Implements the rule for generating the update by primary key with
+     * version method and the enum of its result. If the table has a version
+     * column and both the update by primary key selective and the select by
+     * primary key statements are allowed, then generate the method and enum.
+     * 
+     * @return true if the method and enum should be generated
+     */
+    boolean generateUpdateByPrimaryKeyWithVersion();
+
+    /**
+     * Implements the rule for generating the update by where with version
+     * method and the enum of its result. If the table has a version column and
+     * both the update by where selective and the count by where statements
+     * are allowed, then generate the method and enum.
+     * 
+     * @return true if the method and enum should be generated
+     */
+    boolean generateUpdateByWhereWithVersion();
+
+    /**
+     * Implements the rule for generating the increment by primary key SQL Map
+     * elements and mapper methods, one per increment column. If the table has
+     * increment columns and the update by primary key selective statement is
+     * allowed, then generate the elements and methods.
+     * 
+     * @return true if the elements and methods should be generated
+     */
+    boolean generateIncrementByPrimaryKey();
+
+    /**
+     * Implements the rule for generating the increment by where SQL Map
+     * elements and mapper methods, one per increment column. If the table has
+     * increment columns and the update by where selective statement is
+     * allowed, then generate the elements and methods.
+     * 
+     * @return true if the elements and methods should be generated
+     */
+    boolean generateIncrementByWhere();
+
     /**
      * Implements the rule for generating the delete by primary key SQL Map
      * element and DAO method. If the table has a primary key, and the
@@ -201,6 +341,16 @@ public interface Rules {
      */
     boolean generateSelectByWhere();
 
+    /**
+     * Implements the rule for generating the streaming select by where SQL
+     * Map elements and mapper methods (the cursor form and the result handler
+     * form). If the selectByExample statement is allowed, then generate the
+     * elements and methods.
+     * 
+     * @return true if the elements and methods should be generated
+     */
+    boolean generateSelectByWhereCursor();
+
     /**
      * Implements the rule for generating an example class. The class should be
      * generated if the selectByExample or deleteByExample or countByExample
@@ -103,6 +103,10 @@ public class RulesDelegate implements Rules {
         return rules.generateInserts();
     }
 
+    public boolean generateUpsert() {
+        return rules.generateUpsert();
+    }
+
     @Override
     public boolean generateCustomColumn() {
         return false;
@@ -124,6 +128,42 @@ public class RulesDelegate implements Rules {
         return rules.generateSelectByWhere();
     }
 
+    public boolean generateSelectPageAfter() {
+        return rules.generateSelectPageAfter();
+    }
+
+    public boolean generateExistsByWhere() {
+        return rules.generateExistsByWhere();
+    }
+
+    public boolean generateSelectOneByWhere() {
+        return rules.generateSelectOneByWhere();
+    }
+
+    public boolean generateSelectByPrimaryKeys() {
+        return rules.generateSelectByPrimaryKeys();
+    }
+
+    public boolean generateDeleteByPrimaryKeys() {
+        return rules.generateDeleteByPrimaryKeys();
+    }
+
+    public boolean generateSelectByIndex() {
+        return rules.generateSelectByIndex();
+    }
+
+    public boolean generateSelectByParentKeys() {
+        return rules.generateSelectByParentKeys();
+    }
+
+    public boolean generateJoinResultMap() {
+        return rules.generateJoinResultMap();
+    }
+
+    public boolean generateSelectByWhereCursor() {
+        return rules.generateSelectByWhereCursor();
+    }
+
     public boolean generateSelectByWhereWithoutBLOBs() {
         return rules.generateSelectByWhereWithoutBLOBs();
     }
@@ -156,6 +196,26 @@ public class RulesDelegate implements Rules {
         return rules.generateUpdateByPrimaryKeySelective();
     }
 
+    public boolean generateUpdateChangedByPrimaryKey() {
+        return rules.generateUpdateChangedByPrimaryKey();
+    }
+
+    public boolean generateUpdateByPrimaryKeyWithVersion() {
+        return rules.generateUpdateByPrimaryKeyWithVersion();
+    }
+
+    public boolean generateUpdateByWhereWithVersion() {
+        return rules.generateUpdateByWhereWithVersion();
+    }
+
+    public boolean generateIncrementByPrimaryKey() {
+        return rules.generateIncrementByPrimaryKey();
+    }
+
+    public boolean generateIncrementByWhere() {
+        return rules.generateIncrementByWhere();
+    }
+
     public boolean generateUpdateByPrimaryKeyWithBLOBs() {
         return rules.generateUpdateByPrimaryKeyWithBLOBs();
     }
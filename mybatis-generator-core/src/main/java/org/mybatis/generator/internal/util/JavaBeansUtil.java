@@ -17,6 +17,7 @@ package org.mybatis.generator.internal.util;
 
 import static org.mybatis.generator.internal.util.StringUtility.isTrue;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
 
@@ -38,6 +39,17 @@ import org.mybatis.generator.config.TableConfiguration;
  */
 public class JavaBeansUtil {
 
+    /**
+     * The field of a compact model that records which properties are null.
+     */
+    public static final String NULL_MASK_FIELD = "nullMask"; //$NON-NLS-1$
+
+    /**
+     * The field of a change tracking model that records which properties
+     * were set.
+     */
+    public static final String CHANGED_MASK_FIELD = "changedMask"; //$NON-NLS-1$
+
     /**
      * Instantiates a new java beans util.
      */
@@ -296,6 +308,165 @@ public class JavaBeansUtil {
         return method;
     }
 
+    /**
+     * Gets the primitive type a compact model stores a property of the given
+     * wrapper type in.
+     *
+     * @param fqjt
+     *            the property type
+     * @return the primitive type, or null if the type is not a numeric or
+     *         boolean wrapper
+     */
+    public static FullyQualifiedJavaType getCompactPrimitiveType(FullyQualifiedJavaType fqjt) {
+        String name = fqjt.getFullyQualifiedName();
+        String primitive;
+        if ("java.lang.Long".equals(name)) { //$NON-NLS-1$
+            primitive = "long"; //$NON-NLS-1$
+        } else if ("java.lang.Integer".equals(name)) { //$NON-NLS-1$
+            primitive = "int"; //$NON-NLS-1$
+        } else if ("java.lang.Short".equals(name)) { //$NON-NLS-1$
+            primitive = "short"; //$NON-NLS-1$
+        } else if ("java.lang.Byte".equals(name)) { //$NON-NLS-1$
+            primitive = "byte"; //$NON-NLS-1$
+        } else if ("java.lang.Double".equals(name)) { //$NON-NLS-1$
+            primitive = "double"; //$NON-NLS-1$
+        } else if ("java.lang.Float".equals(name)) { //$NON-NLS-1$
+            primitive = "float"; //$NON-NLS-1$
+        } else if ("java.lang.Boolean".equals(name)) { //$NON-NLS-1$
+            primitive = "boolean"; //$NON-NLS-1$
+        } else {
+            return null;
+        }
+        return new FullyQualifiedJavaType(primitive);
+    }
+
+    /**
+     * Gets the literal of a bit in a long mask, for example 0x4L for bit 2.
+     *
+     * @param bit
+     *            the bit, 0 to 63
+     * @return the literal
+     */
+    public static String getBitLiteral(int bit) {
+        return "0x" + Long.toHexString(1L << bit) + 'L'; //$NON-NLS-1$
+    }
+
+    /**
+     * Gets the null mask field of a compact model. Every bit stands for one
+     * compact property and is set while the property is null, so a new
+     * record starts with all of them set.
+     *
+     * @param compactColumns
+     *            the compact columns
+     * @param context
+     *            the context
+     * @param introspectedTable
+     *            the introspected table
+     * @return the null mask field
+     */
+    public static Field getNullMaskField(List<IntrospectedColumn> compactColumns,
+            Context context, IntrospectedTable introspectedTable) {
+        Field field = new Field();
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setType(new FullyQualifiedJavaType("long")); //$NON-NLS-1$
+        field.setName(NULL_MASK_FIELD);
+        if (compactColumns.size() == Long.SIZE) {
+            field.setInitializationString("-1L"); //$NON-NLS-1$
+        } else {
+            field.setInitializationString("0x" //$NON-NLS-1$
+                    + Long.toHexString((1L << compactColumns.size()) - 1) + 'L');
+        }
+        context.getCommentGenerator().addFieldComment(field, introspectedTable);
+        return field;
+    }
+
+    /**
+     * Gets the primitive field of a compact property.
+     *
+     * @param introspectedColumn
+     *            the introspected column
+     * @param context
+     *            the context
+     * @param introspectedTable
+     *            the introspected table
+     * @return the compact field
+     */
+    public static Field getCompactJavaBeansField(IntrospectedColumn introspectedColumn,
+            Context context,
+            IntrospectedTable introspectedTable) {
+        Field field = getJavaBeansField(introspectedColumn, context, introspectedTable);
+        field.setType(getCompactPrimitiveType(introspectedColumn.getFullyQualifiedJavaType()));
+        return field;
+    }
+
+    /**
+     * Gets the getter of a compact property. It still returns the wrapper
+     * type, null while the bit of the property is set in the null mask.
+     *
+     * @param introspectedColumn
+     *            the introspected column
+     * @param bit
+     *            the bit of the property in the null mask
+     * @param context
+     *            the context
+     * @param introspectedTable
+     *            the introspected table
+     * @return the compact getter
+     */
+    public static Method getCompactJavaBeansGetter(IntrospectedColumn introspectedColumn,
+            int bit, Context context,
+            IntrospectedTable introspectedTable) {
+        Method method = getJavaBeansGetter(introspectedColumn, context, introspectedTable);
+        method.getBodyLines().clear();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("return ("); //$NON-NLS-1$
+        sb.append(NULL_MASK_FIELD);
+        sb.append(" & "); //$NON-NLS-1$
+        sb.append(getBitLiteral(bit));
+        sb.append(") != 0 ? null : "); //$NON-NLS-1$
+        sb.append(introspectedColumn.getJavaProperty());
+        sb.append(';');
+        method.addBodyLine(sb.toString());
+
+        return method;
+    }
+
+    /**
+     * Gets the setter of a compact property. It still takes the wrapper type,
+     * null sets the bit of the property in the null mask.
+     *
+     * @param introspectedColumn
+     *            the introspected column
+     * @param bit
+     *            the bit of the property in the null mask
+     * @param context
+     *            the context
+     * @param introspectedTable
+     *            the introspected table
+     * @return the compact setter
+     */
+    public static Method getCompactJavaBeansSetter(IntrospectedColumn introspectedColumn,
+            int bit, Context context,
+            IntrospectedTable introspectedTable) {
+        Method method = getJavaBeansSetter(introspectedColumn, context, introspectedTable);
+        method.getBodyLines().clear();
+        String property = introspectedColumn.getJavaProperty();
+        String zero = "boolean".equals(getCompactPrimitiveType( //$NON-NLS-1$
+                introspectedColumn.getFullyQualifiedJavaType()).getFullyQualifiedName())
+                ? "false" : "0"; //$NON-NLS-1$ //$NON-NLS-2$
+
+        method.addBodyLine("if (" + property + " == null) {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine(NULL_MASK_FIELD + " |= " + getBitLiteral(bit) + ';'); //$NON-NLS-1$
+        method.addBodyLine("this." + property + " = " + zero + ';'); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("} else {"); //$NON-NLS-1$
+        method.addBodyLine(NULL_MASK_FIELD + " &= ~" + getBitLiteral(bit) + ';'); //$NON-NLS-1$
+        method.addBodyLine("this." + property + " = " + property + ';'); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        return method;
+    }
+
     /**
      * Checks if is trim strings enabled.
      *
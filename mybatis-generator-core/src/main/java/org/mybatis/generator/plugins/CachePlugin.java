@@ -15,12 +15,22 @@
  */
 package org.mybatis.generator.plugins;
 
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.HashSet;
 import java.util.List;
+import java.util.Properties;
+import java.util.Set;
 
+import org.mybatis.generator.api.IntrospectedForeignKey;
+import org.mybatis.generator.api.IntrospectedIndex;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.Element;
 import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.internal.util.StringUtility;
 
@@ -40,6 +50,24 @@ import org.mybatis.generator.internal.util.StringUtility;
  * element.  All properties can be specified at the table level, or on the
  * plugin element.  The property on the table element will override any
  * property on the plugin element.
+ * <p>
+ * When cache_autoProfile is true, the attributes that are not configured are
+ * derived from the estimated row count of the table:
+ * <ul>
+ * <li>up to cache_referenceTableRows rows (default 1000) the table is treated
+ * as a reference table: the cache holds every row, and is readOnly, so callers
+ * share the cached instances and must not modify them</li>
+ * <li>up to cache_largeTableRows rows (default 1000000) an LRU cache of one
+ * entry per 100 rows, between 256 and cache_maxSize (default 4096)</li>
+ * <li>above that a SOFT cache of cache_maxSize entries, and the statements
+ * returning rows by a condition are marked useCache="false", only the
+ * primary key, unique key, count and exists statements are cached</li>
+ * </ul>
+ * Tables without an estimate keep the MyBatis defaults. With cache_autoProfile,
+ * a table whose rows are joined into the statements of a parent table (see the
+ * joinChildren table property) shares the cache of that parent with a
+ * cache-ref element, so writing the child flushes the joined results. The
+ * table property cache_ref names the namespace to share explicitly.
  * 
  * @author Jason Bennett
  * @author Jeff Butler
@@ -69,38 +97,213 @@ public class CachePlugin extends PluginAdapter {
         }
     }
     
+    public static final String AUTO_PROFILE = "cache_autoProfile"; //$NON-NLS-1$
+    public static final String REFERENCE_TABLE_ROWS = "cache_referenceTableRows"; //$NON-NLS-1$
+    public static final String LARGE_TABLE_ROWS = "cache_largeTableRows"; //$NON-NLS-1$
+    public static final String MAX_SIZE = "cache_maxSize"; //$NON-NLS-1$
+    public static final String CACHE_REF = "cache_ref"; //$NON-NLS-1$
+
+    private static final long DEFAULT_REFERENCE_TABLE_ROWS = 1000L;
+    private static final long DEFAULT_LARGE_TABLE_ROWS = 1000000L;
+    private static final long DEFAULT_MAX_SIZE = 4096L;
+    private static final long MIN_SIZE = 256L;
+
     public CachePlugin() {
         super();
     }
 
     public boolean validate(List<String> warnings) {
-        return true;
+        boolean valid = true;
+        for (String name : new String[] { REFERENCE_TABLE_ROWS, LARGE_TABLE_ROWS, MAX_SIZE }) {
+            String property = properties.getProperty(name);
+            if (stringHasValue(property) && parsePositiveLong(property) < 0L) {
+                warnings.add(getString("ValidationError.31", //$NON-NLS-1$
+                        name, "CachePlugin")); //$NON-NLS-1$
+                valid = false;
+            }
+        }
+        return valid;
     }
 
     @Override
     public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
+        String cacheRef = calculateCacheRef(introspectedTable);
+        if (cacheRef != null) {
+            XmlElement element = new XmlElement("cache-ref"); //$NON-NLS-1$
+            context.getCommentGenerator().addComment(element);
+            element.addAttribute(new Attribute("namespace", cacheRef)); //$NON-NLS-1$
+            document.getRootElement().addElement(element);
+            return true;
+        }
 
         XmlElement element = new XmlElement("cache"); //$NON-NLS-1$
         context.getCommentGenerator().addComment(element);
 
+        Properties profile = new Properties();
+        if (isAutoProfile(introspectedTable)) {
+            calculateProfile(introspectedTable, profile);
+        }
+
         for (CacheProperty cacheProperty : CacheProperty.values()) {
-            addAttributeIfExists(element, introspectedTable, cacheProperty);
+            addAttributeIfExists(element, introspectedTable, cacheProperty, profile);
         }
         
         document.getRootElement().addElement(element);
 
+        if (isAutoProfile(introspectedTable)
+                && introspectedTable.getEstimatedRowCount() > getLongProperty(introspectedTable,
+                        LARGE_TABLE_ROWS, DEFAULT_LARGE_TABLE_ROWS)) {
+            disableCacheOfListStatements(document, introspectedTable);
+        }
+
         return true;
     }
     
     private void addAttributeIfExists(XmlElement element, IntrospectedTable introspectedTable,
-            CacheProperty cacheProperty) {
+            CacheProperty cacheProperty, Properties profile) {
         String property = introspectedTable.getTableConfigurationProperty(cacheProperty.getPropertyName());
         if (property == null) {
             property = properties.getProperty(cacheProperty.getPropertyName());
         }
+        if (property == null) {
+            property = profile.getProperty(cacheProperty.getPropertyName());
+        }
         
         if (StringUtility.stringHasValue(property)) {
             element.addAttribute(new Attribute(cacheProperty.getAttributeName(), property));
         }
     }
+
+    private boolean isAutoProfile(IntrospectedTable introspectedTable) {
+        String property = introspectedTable.getTableConfigurationProperty(AUTO_PROFILE);
+        if (property == null) {
+            property = properties.getProperty(AUTO_PROFILE);
+        }
+        return isTrue(property);
+    }
+
+    /**
+     * Fills the profile with cache properties derived from the estimated row
+     * count, nothing when the count is unknown.
+     */
+    private void calculateProfile(IntrospectedTable introspectedTable, Properties profile) {
+        long rowCount = introspectedTable.getEstimatedRowCount();
+        if (rowCount < 0L) {
+            return;
+        }
+
+        long maxSize = getLongProperty(introspectedTable, MAX_SIZE, DEFAULT_MAX_SIZE);
+        long size;
+        String eviction;
+        if (rowCount <= getLongProperty(introspectedTable, REFERENCE_TABLE_ROWS,
+                DEFAULT_REFERENCE_TABLE_ROWS)) {
+            // every row by primary key, plus room for the list and count queries
+            size = rowCount + 64L;
+            eviction = "LRU"; //$NON-NLS-1$
+            profile.setProperty(CacheProperty.READ_ONLY.getPropertyName(), "true"); //$NON-NLS-1$
+        } else if (rowCount <= getLongProperty(introspectedTable, LARGE_TABLE_ROWS,
+                DEFAULT_LARGE_TABLE_ROWS)) {
+            size = Math.min(maxSize, Math.max(MIN_SIZE, rowCount / 100L));
+            eviction = "LRU"; //$NON-NLS-1$
+        } else {
+            // let the garbage collector reclaim entries under memory pressure
+            size = maxSize;
+            eviction = "SOFT"; //$NON-NLS-1$
+        }
+        profile.setProperty(CacheProperty.SIZE.getPropertyName(), Long.toString(size));
+        profile.setProperty(CacheProperty.EVICTION.getPropertyName(), eviction);
+    }
+
+    /**
+     * Returns the namespace whose cache the table shares: the cache_ref table
+     * property, or with cache_autoProfile the topmost parent table that joins
+     * the rows of this table into its statements.
+     *
+     * @return the namespace, or null if the table has a cache of its own
+     */
+    private String calculateCacheRef(IntrospectedTable introspectedTable) {
+        String cacheRef = introspectedTable.getTableConfigurationProperty(CACHE_REF);
+        if (stringHasValue(cacheRef)) {
+            return cacheRef;
+        }
+        if (!isAutoProfile(introspectedTable)) {
+            return null;
+        }
+
+        // cache-ref cannot point to a namespace that has a cache-ref itself
+        Set<IntrospectedTable> visited = new HashSet<IntrospectedTable>();
+        visited.add(introspectedTable);
+        IntrospectedTable owner = introspectedTable;
+        IntrospectedTable parent = getJoiningParent(owner);
+        while (parent != null && visited.add(parent)) {
+            owner = parent;
+            parent = getJoiningParent(owner);
+        }
+        return owner == introspectedTable ? null : owner.getMyBatis3SqlMapNamespace();
+    }
+
+    private IntrospectedTable getJoiningParent(IntrospectedTable introspectedTable) {
+        for (IntrospectedForeignKey foreignKey : introspectedTable.getForeignKeys()) {
+            IntrospectedTable parentTable = foreignKey.getParentTable();
+            if (parentTable != null && parentTable.getJoinedForeignKeys().contains(foreignKey)) {
+                return parentTable;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets useCache="false" on every select except the primary key, unique
+     * key, count and exists statements. On a large table list results are rarely
+     * requested twice and would push the single row entries out of the cache.
+     */
+    private void disableCacheOfListStatements(Document document, IntrospectedTable introspectedTable) {
+        Set<String> cachedStatements = new HashSet<String>();
+        cachedStatements.add(introspectedTable.getSelectByPrimaryKeyStatementId());
+        cachedStatements.add(introspectedTable.getCountByExampleStatementId());
+        cachedStatements.add(introspectedTable.getExistsByWhereStatementId());
+        if (introspectedTable.hasIndexInformation()) {
+            for (IntrospectedIndex index : introspectedTable.getIndexes()) {
+                if (index.isUnique()) {
+                    cachedStatements.add(introspectedTable.getSelectByIndexStatementId(index));
+                }
+            }
+        }
+
+        for (Element element : document.getRootElement().getElements()) {
+            if (!(element instanceof XmlElement)
+                    || !"select".equals(((XmlElement) element).getName())) { //$NON-NLS-1$
+                continue;
+            }
+            XmlElement select = (XmlElement) element;
+            for (Attribute attribute : select.getAttributes()) {
+                if ("id".equals(attribute.getName()) //$NON-NLS-1$
+                        && !cachedStatements.contains(attribute.getValue())) {
+                    select.addAttribute(new Attribute("useCache", "false")); //$NON-NLS-1$ //$NON-NLS-2$
+                    break;
+                }
+            }
+        }
+    }
+
+    private long getLongProperty(IntrospectedTable introspectedTable, String name, long defaultValue) {
+        String property = introspectedTable.getTableConfigurationProperty(name);
+        if (property == null) {
+            property = properties.getProperty(name);
+        }
+        long value = stringHasValue(property) ? parsePositiveLong(property) : -1L;
+        return value < 0L ? defaultValue : value;
+    }
+
+    /**
+     * @return the value, or -1 if it is not a positive number
+     */
+    private static long parsePositiveLong(String property) {
+        try {
+            long value = Long.parseLong(property.trim());
+            return value > 0L ? value : -1L;
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
 }
@@ -0,0 +1,696 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.InnerClass;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+
+/**
+ * 为每个 Mapper 接口生成一个按主键缓存的外观类 XxxMapperCache. 它实现 Mapper
+ * 接口并把所有调用委托给真实的 Mapper, selectByPrimaryKey 和 selectByPrimaryKeys
+ * 先查缓存, 未命中时再查询数据库并写回缓存.
+ * <p>
+ * 所有会修改数据的方法在执行后都会失效缓存: 能从参数中确定主键的 (按主键更新/删除,
+ * insert, upsert 以及它们的批量版本) 只失效对应的主键, 其它的 (例如 updateByWhere,
+ * deleteByWhere) 清空整个缓存. 失效发生在语句执行时而不是事务提交时, 在事务中使用
+ * 外观类时仍可能读到其它事务尚未提交的修改之前的旧值.
+ * <p>
+ * 缓存类 PrimaryKeyCache 只生成一次, 由多个分段组成, 每段是一个按访问顺序淘汰的
+ * LinkedHashMap, 并提供命中、未命中和淘汰计数. 生成的代码只依赖 JDK.
+ * 缓存的记录对象是共享的, 调用方不能修改它们. 插件接受以下属性 (都是可选的):
+ * <ul>
+ * <li>maxSize - 外观类默认的最大缓存条数, 默认 10000</li>
+ * <li>targetPackage - PrimaryKeyCache 所在的包, 默认与第一个 Mapper 接口相同</li>
+ * </ul>
+ * 
+ */
+public class PrimaryKeyCachePlugin extends PluginAdapter {
+    public static final String MAX_SIZE = "maxSize"; //$NON-NLS-1$
+    public static final String TARGET_PACKAGE = "targetPackage"; //$NON-NLS-1$
+
+    private static final int DEFAULT_MAX_SIZE = 10000;
+    private static final String CACHE_CLASS_NAME = "PrimaryKeyCache"; //$NON-NLS-1$
+
+    private Map<IntrospectedTable, Interface> mappers = new HashMap<IntrospectedTable, Interface>();
+    private FullyQualifiedJavaType cacheType;
+
+    public PrimaryKeyCachePlugin() {
+        super();
+    }
+
+    public boolean validate(List<String> warnings) {
+        String property = properties.getProperty(MAX_SIZE);
+        if (stringHasValue(property) && parseMaxSize(property) < 0) {
+            warnings.add(getString("ValidationError.31", //$NON-NLS-1$
+                    MAX_SIZE, "PrimaryKeyCachePlugin")); //$NON-NLS-1$
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean clientGenerated(Interface interfaze,
+            TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        if (interfaze != null && introspectedTable.hasPrimaryKeyColumns()) {
+            mappers.put(introspectedTable, interfaze);
+        }
+        return true;
+    }
+
+    @Override
+    public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(
+            IntrospectedTable introspectedTable) {
+        Interface mapper = mappers.remove(introspectedTable);
+        if (mapper == null || findMethod(mapper,
+                introspectedTable.getSelectByPrimaryKeyStatementId()) == null) {
+            return null;
+        }
+
+        if (cacheType == null) {
+            String targetPackage = properties.getProperty(TARGET_PACKAGE);
+            if (!stringHasValue(targetPackage)) {
+                targetPackage = mapper.getType().getPackageName();
+            }
+            cacheType = new FullyQualifiedJavaType(targetPackage + '.' + CACHE_CLASS_NAME);
+        }
+
+        List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
+        answer.add(new GeneratedJavaFile(new FacadeBuilder(introspectedTable, mapper).build(),
+                context.getJavaClientGeneratorConfiguration().getTargetProject(),
+                context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING),
+                context.getJavaFormatter()));
+        return answer;
+    }
+
+    @Override
+    public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles() {
+        if (cacheType == null) {
+            return null;
+        }
+
+        List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
+        answer.add(new GeneratedJavaFile(buildCacheClass(),
+                context.getJavaClientGeneratorConfiguration().getTargetProject(),
+                context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING),
+                context.getJavaFormatter()));
+        return answer;
+    }
+
+    private static Method findMethod(Interface interfaze, String name) {
+        for (Method method : interfaze.getMethods()) {
+            if (method.getName().equals(name) && !method.isDefault() && !method.isStatic()) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the value, or -1 if it is not a positive integer
+     */
+    private static int parseMaxSize(String property) {
+        try {
+            int value = Integer.parseInt(property.trim());
+            return value > 0 ? value : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 生成一个表的外观类.
+     */
+    private class FacadeBuilder {
+        private IntrospectedTable introspectedTable;
+        private Interface mapper;
+        private TopLevelClass topLevelClass;
+        private FullyQualifiedJavaType keyType;
+        private FullyQualifiedJavaType keySourceType;
+        private Set<String> recordTypes = new HashSet<String>();
+
+        FacadeBuilder(IntrospectedTable introspectedTable, Interface mapper) {
+            this.introspectedTable = introspectedTable;
+            this.mapper = mapper;
+
+            List<IntrospectedColumn> primaryKeyColumns = introspectedTable.getPrimaryKeyColumns();
+            if (primaryKeyColumns.size() == 1) {
+                keyType = boxed(primaryKeyColumns.get(0).getFullyQualifiedJavaType());
+            } else {
+                keyType = new FullyQualifiedJavaType("java.util.List<java.lang.Object>"); //$NON-NLS-1$
+            }
+
+            // the most general class that every record type is assignable to
+            if (introspectedTable.getRules().generatePrimaryKeyClass()) {
+                keySourceType = new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+            } else if (introspectedTable.getRules().generateBaseRecordClass()) {
+                keySourceType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+            } else {
+                keySourceType = new FullyQualifiedJavaType(introspectedTable.getRecordWithBLOBsType());
+            }
+            for (String recordType : new String[] { introspectedTable.getPrimaryKeyType(),
+                    introspectedTable.getBaseRecordType(),
+                    introspectedTable.getRecordWithBLOBsType() }) {
+                recordTypes.add(recordType);
+                // some generated signatures use the short name as a type argument
+                recordTypes.add(new FullyQualifiedJavaType(recordType).getShortName());
+            }
+        }
+
+        TopLevelClass build() {
+            FullyQualifiedJavaType mapperType = mapper.getType();
+            topLevelClass = new TopLevelClass(new FullyQualifiedJavaType(
+                    mapperType.getFullyQualifiedName() + "Cache")); //$NON-NLS-1$
+            topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+            topLevelClass.addSuperInterface(mapperType);
+            topLevelClass.addImportedType(mapperType);
+            topLevelClass.addImportedType(cacheType);
+            topLevelClass.addImportedType(keyType);
+            topLevelClass.addImportedType(keySourceType);
+            context.getCommentGenerator().addJavaFileComment(topLevelClass);
+
+            Method selectByPrimaryKey = findMethod(mapper,
+                    introspectedTable.getSelectByPrimaryKeyStatementId());
+            FullyQualifiedJavaType valueType = selectByPrimaryKey.getReturnType();
+            FullyQualifiedJavaType type = new FullyQualifiedJavaType(cacheType.getFullyQualifiedName());
+            type.addTypeArgument(keyType);
+            type.addTypeArgument(valueType);
+            addFields(mapperType, type);
+            addConstructors(mapperType);
+
+            Method method = new Method("getCache"); //$NON-NLS-1$
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setReturnType(type);
+            method.addBodyLine("return cache;"); //$NON-NLS-1$
+            topLevelClass.addMethod(method);
+
+            for (Method mapperMethod : mapper.getMethods()) {
+                if (mapperMethod.isDefault() || mapperMethod.isStatic()) {
+                    continue;
+                }
+                method = newOverride(mapperMethod);
+                String name = mapperMethod.getName();
+                if (name.equals(introspectedTable.getSelectByPrimaryKeyStatementId())) {
+                    addSelectByPrimaryKeyBody(method, valueType);
+                } else if (name.equals(introspectedTable.getSelectByPrimaryKeysStatementId())
+                        && method.getParameters().size() == 1) {
+                    addSelectByPrimaryKeysBody(method, valueType);
+                } else if (name.startsWith("select") //$NON-NLS-1$
+                        || name.startsWith("count") //$NON-NLS-1$
+                        || name.startsWith("exists")) { //$NON-NLS-1$
+                    method.addBodyLine(getDelegateLine(method));
+                } else {
+                    addMutatingBody(method);
+                }
+                topLevelClass.addMethod(method);
+            }
+
+            addKeyMethod();
+            return topLevelClass;
+        }
+
+        private void addFields(FullyQualifiedJavaType mapperType, FullyQualifiedJavaType type) {
+            int maxSize = DEFAULT_MAX_SIZE;
+            String property = properties.getProperty(MAX_SIZE);
+            if (stringHasValue(property)) {
+                maxSize = parseMaxSize(property);
+            }
+            Field field = new Field("DEFAULT_MAX_SIZE", FullyQualifiedJavaType.getIntInstance()); //$NON-NLS-1$
+            field.setVisibility(JavaVisibility.PUBLIC);
+            field.setStatic(true);
+            field.setFinal(true);
+            field.setInitializationString(Integer.toString(maxSize));
+            topLevelClass.addField(field);
+
+            field = new Field("delegate", mapperType); //$NON-NLS-1$
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setFinal(true);
+            topLevelClass.addField(field);
+
+            field = new Field("cache", type); //$NON-NLS-1$
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setFinal(true);
+            topLevelClass.addField(field);
+        }
+
+        private void addConstructors(FullyQualifiedJavaType mapperType) {
+            Method method = new Method(topLevelClass.getType().getShortName());
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setConstructor(true);
+            method.addParameter(new Parameter(mapperType, "delegate")); //$NON-NLS-1$
+            method.addBodyLine("this(delegate, DEFAULT_MAX_SIZE);"); //$NON-NLS-1$
+            topLevelClass.addMethod(method);
+
+            method = new Method(topLevelClass.getType().getShortName());
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setConstructor(true);
+            method.addParameter(new Parameter(mapperType, "delegate")); //$NON-NLS-1$
+            method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "maxSize")); //$NON-NLS-1$
+            method.addBodyLine("this.delegate = delegate;"); //$NON-NLS-1$
+            method.addBodyLine("this.cache = new " + cacheType.getShortName() + "<>(maxSize);"); //$NON-NLS-1$ //$NON-NLS-2$
+            topLevelClass.addMethod(method);
+        }
+
+        private Method newOverride(Method mapperMethod) {
+            Method method = new Method(mapperMethod.getName());
+            method.addAnnotation("@Override"); //$NON-NLS-1$
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setReturnType(mapperMethod.getReturnType());
+            addImportedType(mapperMethod.getReturnType());
+            for (Parameter parameter : mapperMethod.getParameters()) {
+                method.addParameter(new Parameter(parameter.getType(), parameter.getName()));
+                addImportedType(parameter.getType());
+            }
+            for (FullyQualifiedJavaType exception : mapperMethod.getExceptions()) {
+                method.addException(exception);
+                topLevelClass.addImportedType(exception);
+            }
+            return method;
+        }
+
+        /**
+         * 参数化类型按原始类型和各个类型参数分别导入, 这样生成的代码可以使用短类名.
+         */
+        private void addImportedType(FullyQualifiedJavaType type) {
+            if (type == null) {
+                return;
+            }
+            topLevelClass.addImportedType(new FullyQualifiedJavaType(
+                    type.getFullyQualifiedNameWithoutTypeParameters()));
+            for (FullyQualifiedJavaType typeArgument : type.getTypeArguments()) {
+                addImportedType(typeArgument);
+            }
+        }
+
+        private String getDelegateCall(Method method) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("delegate."); //$NON-NLS-1$
+            sb.append(method.getName());
+            sb.append('(');
+            for (Iterator<Parameter> iter = method.getParameters().iterator(); iter.hasNext();) {
+                sb.append(iter.next().getName());
+                if (iter.hasNext()) {
+                    sb.append(", "); //$NON-NLS-1$
+                }
+            }
+            sb.append(')');
+            return sb.toString();
+        }
+
+        private String getDelegateLine(Method method) {
+            if (method.getReturnType() == null) {
+                return getDelegateCall(method) + ';';
+            }
+            return "return " + getDelegateCall(method) + ';'; //$NON-NLS-1$
+        }
+
+        private void addSelectByPrimaryKeyBody(Method method, FullyQualifiedJavaType valueType) {
+            String value = valueType.getShortName();
+            method.addBodyLine(keyType.getShortName() + " key = " //$NON-NLS-1$
+                    + getKeyExpression(getNames(method.getParameters())) + ';');
+            method.addBodyLine(value + " record = cache.get(key);"); //$NON-NLS-1$
+            method.addBodyLine("if (record == null) {"); //$NON-NLS-1$
+            method.addBodyLine("long stamp = cache.stamp();"); //$NON-NLS-1$
+            method.addBodyLine("record = " + getDelegateCall(method) + ';'); //$NON-NLS-1$
+            method.addBodyLine("if (record != null) {"); //$NON-NLS-1$
+            method.addBodyLine("cache.put(key, record, stamp);"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("return record;"); //$NON-NLS-1$
+        }
+
+        private void addSelectByPrimaryKeysBody(Method method, FullyQualifiedJavaType valueType) {
+            Parameter keys = method.getParameters().get(0);
+            FullyQualifiedJavaType elementType = keys.getType().getTypeArguments().get(0);
+            boolean recordKeys = isRecordType(elementType);
+            topLevelClass.addImportedType(FullyQualifiedJavaType.getNewArrayListInstance());
+            topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+
+            String value = valueType.getShortName();
+            String element = elementType.getShortName();
+            method.addBodyLine("List<" + value + "> answer = new ArrayList<>(" //$NON-NLS-1$ //$NON-NLS-2$
+                    + keys.getName() + ".size());"); //$NON-NLS-1$
+            method.addBodyLine("List<" + element + "> missing = new ArrayList<>();"); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addBodyLine("for (" + element + " key : " + keys.getName() + ") {"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            method.addBodyLine(value + " record = cache.get(" //$NON-NLS-1$
+                    + (recordKeys ? "key(key)" : "key") + ");"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            method.addBodyLine("if (record == null) {"); //$NON-NLS-1$
+            method.addBodyLine("missing.add(key);"); //$NON-NLS-1$
+            method.addBodyLine("} else {"); //$NON-NLS-1$
+            method.addBodyLine("answer.add(record);"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("if (!missing.isEmpty()) {"); //$NON-NLS-1$
+            method.addBodyLine("long stamp = cache.stamp();"); //$NON-NLS-1$
+            method.addBodyLine("for (" + value + " record : delegate." //$NON-NLS-1$ //$NON-NLS-2$
+                    + method.getName() + "(missing)) {"); //$NON-NLS-1$
+            method.addBodyLine("cache.put(key(record), record, stamp);"); //$NON-NLS-1$
+            method.addBodyLine("answer.add(record);"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("return answer;"); //$NON-NLS-1$
+        }
+
+        /**
+         * 能从参数中确定受影响主键的方法只失效这些主键, 其它方法清空整个缓存.
+         */
+        private void addMutatingBody(Method method) {
+            List<String> invalidateLines = new ArrayList<String>();
+            List<Parameter> parameters = method.getParameters();
+            boolean byWhere = false;
+            for (Parameter parameter : parameters) {
+                if (parameter.getType().getFullyQualifiedNameWithoutTypeParameters()
+                        .equals(introspectedTable.getWhereType())) {
+                    byWhere = true;
+                }
+            }
+
+            if (byWhere) {
+                // fall through to invalidateAll
+            } else if (method.getName().equals(introspectedTable.getDeleteByPrimaryKeyStatementId())
+                    && parameters.size() == introspectedTable.getPrimaryKeyColumns().size()) {
+                invalidateLines.add("cache.invalidate(" + getKeyExpression(getNames(parameters)) + ");"); //$NON-NLS-1$ //$NON-NLS-2$
+            } else {
+                for (Parameter parameter : parameters) {
+                    FullyQualifiedJavaType type = parameter.getType();
+                    if (isRecordType(type)) {
+                        invalidateLines.add("cache.invalidate(key(" + parameter.getName() + "));"); //$NON-NLS-1$ //$NON-NLS-2$
+                    } else if (type.getTypeArguments().size() == 1
+                            && isCollectionType(type)) {
+                        FullyQualifiedJavaType elementType = type.getTypeArguments().get(0);
+                        String element;
+                        String expression;
+                        if (isRecordType(elementType)) {
+                            element = "record"; //$NON-NLS-1$
+                            expression = "key(record)"; //$NON-NLS-1$
+                        } else if (method.getName().equals(introspectedTable.getDeleteByPrimaryKeysStatementId())
+                                && elementType.equals(keyType)) {
+                            element = "key"; //$NON-NLS-1$
+                            expression = "key"; //$NON-NLS-1$
+                        } else {
+                            continue;
+                        }
+                        invalidateLines.add("for (" + elementType.getShortName() //$NON-NLS-1$
+                                + ' ' + element + " : " + parameter.getName() + ") {"); //$NON-NLS-1$ //$NON-NLS-2$
+                        invalidateLines.add("cache.invalidate(" + expression + ");"); //$NON-NLS-1$ //$NON-NLS-2$
+                        invalidateLines.add("}"); //$NON-NLS-1$
+                    }
+                }
+            }
+            if (invalidateLines.isEmpty()) {
+                invalidateLines.add("cache.invalidateAll();"); //$NON-NLS-1$
+            }
+
+            method.addBodyLine("try {"); //$NON-NLS-1$
+            method.addBodyLine(getDelegateLine(method));
+            method.addBodyLine("} finally {"); //$NON-NLS-1$
+            method.addBodyLines(invalidateLines);
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
+
+        private void addKeyMethod() {
+            Method method = new Method("key"); //$NON-NLS-1$
+            method.setVisibility(JavaVisibility.PRIVATE);
+            method.setStatic(true);
+            method.setReturnType(keyType);
+            method.addParameter(new Parameter(keySourceType, "record")); //$NON-NLS-1$
+            List<String> getters = new ArrayList<String>();
+            for (IntrospectedColumn column : introspectedTable.getPrimaryKeyColumns()) {
+                getters.add("record." + JavaBeansUtil.getGetterMethodName( //$NON-NLS-1$
+                        column.getJavaProperty(), column.getFullyQualifiedJavaType()) + "()"); //$NON-NLS-1$
+            }
+            method.addBodyLine("return " + getKeyExpression(getters) + ';'); //$NON-NLS-1$
+            topLevelClass.addMethod(method);
+        }
+
+        private String getKeyExpression(List<String> parts) {
+            if (parts.size() == 1) {
+                return parts.get(0);
+            }
+            topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Arrays")); //$NON-NLS-1$
+            StringBuilder sb = new StringBuilder();
+            sb.append("Arrays.<Object>asList("); //$NON-NLS-1$
+            for (Iterator<String> iter = parts.iterator(); iter.hasNext();) {
+                sb.append(iter.next());
+                if (iter.hasNext()) {
+                    sb.append(", "); //$NON-NLS-1$
+                }
+            }
+            sb.append(')');
+            return sb.toString();
+        }
+
+        private List<String> getNames(List<Parameter> parameters) {
+            List<String> answer = new ArrayList<String>();
+            for (Parameter parameter : parameters) {
+                answer.add(parameter.getName());
+            }
+            return answer;
+        }
+
+        private boolean isRecordType(FullyQualifiedJavaType type) {
+            return recordTypes.contains(type.getFullyQualifiedNameWithoutTypeParameters());
+        }
+
+        private boolean isCollectionType(FullyQualifiedJavaType type) {
+            String name = type.getFullyQualifiedNameWithoutTypeParameters();
+            return name.equals("java.util.List") //$NON-NLS-1$
+                    || name.equals("java.util.Collection"); //$NON-NLS-1$
+        }
+
+        private FullyQualifiedJavaType boxed(FullyQualifiedJavaType type) {
+            return type.isPrimitive() ? type.getPrimitiveTypeWrapper() : type;
+        }
+    }
+
+    private TopLevelClass buildCacheClass() {
+        FullyQualifiedJavaType atomicLong = new FullyQualifiedJavaType(
+                "java.util.concurrent.atomic.AtomicLong"); //$NON-NLS-1$
+        TopLevelClass topLevelClass = new TopLevelClass(new FullyQualifiedJavaType(
+                cacheType.getFullyQualifiedName() + "<K, V>")); //$NON-NLS-1$
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+        topLevelClass.addImportedType(atomicLong);
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.LinkedHashMap")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Map")); //$NON-NLS-1$
+        context.getCommentGenerator().addJavaFileComment(topLevelClass);
+
+        Field field = new Field("MAX_SEGMENTS", FullyQualifiedJavaType.getIntInstance()); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("16"); //$NON-NLS-1$
+        topLevelClass.addField(field);
+
+        field = new Field("segments", new FullyQualifiedJavaType("Segment[]")); //$NON-NLS-1$ //$NON-NLS-2$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setFinal(true);
+        topLevelClass.addField(field);
+
+        for (String name : new String[] { "hits", "misses", "evictions", "stamp" }) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+            field = new Field(name, atomicLong);
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setFinal(true);
+            field.setInitializationString("new AtomicLong()"); //$NON-NLS-1$
+            topLevelClass.addField(field);
+        }
+
+        Method method = new Method(CACHE_CLASS_NAME);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setConstructor(true);
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "maxSize")); //$NON-NLS-1$
+        method.addBodyLine("if (maxSize <= 0) {"); //$NON-NLS-1$
+        method.addBodyLine("throw new IllegalArgumentException(\"maxSize must be positive\");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("int count = 1;"); //$NON-NLS-1$
+        method.addBodyLine("while (count < MAX_SEGMENTS && count * 64 < maxSize) {"); //$NON-NLS-1$
+        method.addBodyLine("count <<= 1;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("segments = new Segment[count];"); //$NON-NLS-1$
+        method.addBodyLine("for (int i = 0; i < count; i++) {"); //$NON-NLS-1$
+        method.addBodyLine("segments[i] = new Segment(maxSize / count + (i < maxSize % count ? 1 : 0), evictions);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        method = new Method("get"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 返回缓存的记录, 不存在时返回 null"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.addSuppressTypeWarningsAnnotation();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(new FullyQualifiedJavaType("V")); //$NON-NLS-1$
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("K"), "key")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("Segment segment = segmentFor(key);"); //$NON-NLS-1$
+        method.addBodyLine("Object value;"); //$NON-NLS-1$
+        method.addBodyLine("synchronized (segment) {"); //$NON-NLS-1$
+        method.addBodyLine("value = segment.get(key);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (value == null) {"); //$NON-NLS-1$
+        method.addBodyLine("misses.incrementAndGet();"); //$NON-NLS-1$
+        method.addBodyLine("} else {"); //$NON-NLS-1$
+        method.addBodyLine("hits.incrementAndGet();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return (V) value;"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        method = new Method("stamp"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 在查询数据库之前调用, 结果写回缓存时传给 put"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(new FullyQualifiedJavaType("long")); //$NON-NLS-1$
+        method.addBodyLine("return stamp.get();"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        method = new Method("put"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 写入缓存, 如果取得 stamp 之后发生过失效则放弃写入, 避免把旧值写回缓存"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("K"), "key")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("V"), "value")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("long"), "stamp")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("Segment segment = segmentFor(key);"); //$NON-NLS-1$
+        method.addBodyLine("synchronized (segment) {"); //$NON-NLS-1$
+        method.addBodyLine("if (this.stamp.get() == stamp) {"); //$NON-NLS-1$
+        method.addBodyLine("segment.put(key, value);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        method = new Method("invalidate"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("K"), "key")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("stamp.incrementAndGet();"); //$NON-NLS-1$
+        method.addBodyLine("Segment segment = segmentFor(key);"); //$NON-NLS-1$
+        method.addBodyLine("synchronized (segment) {"); //$NON-NLS-1$
+        method.addBodyLine("segment.remove(key);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        method = new Method("invalidateAll"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addBodyLine("stamp.incrementAndGet();"); //$NON-NLS-1$
+        method.addBodyLine("for (Segment segment : segments) {"); //$NON-NLS-1$
+        method.addBodyLine("synchronized (segment) {"); //$NON-NLS-1$
+        method.addBodyLine("segment.clear();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        for (String name : new String[] { "Hit", "Miss", "Eviction" }) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            method = new Method("get" + name + "Count"); //$NON-NLS-1$ //$NON-NLS-2$
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setReturnType(new FullyQualifiedJavaType("long")); //$NON-NLS-1$
+            method.addBodyLine("return " + (name.equals("Miss") ? "misses" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                    : name.toLowerCase() + 's') + ".get();"); //$NON-NLS-1$
+            topLevelClass.addMethod(method);
+        }
+
+        method = new Method("size"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addBodyLine("int size = 0;"); //$NON-NLS-1$
+        method.addBodyLine("for (Segment segment : segments) {"); //$NON-NLS-1$
+        method.addBodyLine("synchronized (segment) {"); //$NON-NLS-1$
+        method.addBodyLine("size += segment.size();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return size;"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        method = new Method("segmentFor"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setReturnType(new FullyQualifiedJavaType("Segment")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(), "key")); //$NON-NLS-1$
+        method.addBodyLine("int h = key == null ? 0 : key.hashCode();"); //$NON-NLS-1$
+        method.addBodyLine("return segments[(h ^ (h >>> 16)) & (segments.length - 1)];"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        topLevelClass.addInnerClass(buildSegmentClass(atomicLong));
+        return topLevelClass;
+    }
+
+    private InnerClass buildSegmentClass(FullyQualifiedJavaType atomicLong) {
+        InnerClass innerClass = new InnerClass(new FullyQualifiedJavaType("Segment")); //$NON-NLS-1$
+        innerClass.setVisibility(JavaVisibility.PRIVATE);
+        innerClass.setStatic(true);
+        innerClass.setSuperClass(new FullyQualifiedJavaType(
+                "java.util.LinkedHashMap<java.lang.Object, java.lang.Object>")); //$NON-NLS-1$
+
+        Field field = new Field("serialVersionUID", new FullyQualifiedJavaType("long")); //$NON-NLS-1$ //$NON-NLS-2$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("1L"); //$NON-NLS-1$
+        innerClass.addField(field);
+
+        field = new Field("maxSize", FullyQualifiedJavaType.getIntInstance()); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setFinal(true);
+        innerClass.addField(field);
+
+        field = new Field("evictions", atomicLong); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setFinal(true);
+        innerClass.addField(field);
+
+        Method method = new Method("Segment"); //$NON-NLS-1$
+        method.setConstructor(true);
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "maxSize")); //$NON-NLS-1$
+        method.addParameter(new Parameter(atomicLong, "evictions")); //$NON-NLS-1$
+        method.addBodyLine("super(16, 0.75f, true);"); //$NON-NLS-1$
+        method.addBodyLine("this.maxSize = maxSize;"); //$NON-NLS-1$
+        method.addBodyLine("this.evictions = evictions;"); //$NON-NLS-1$
+        innerClass.addMethod(method);
+
+        method = new Method("removeEldestEntry"); //$NON-NLS-1$
+        method.addAnnotation("@Override"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PROTECTED);
+        method.setReturnType(FullyQualifiedJavaType.getBooleanPrimitiveInstance());
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "Map.Entry<Object, Object>"), "eldest")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("if (size() > maxSize) {"); //$NON-NLS-1$
+        method.addBodyLine("evictions.incrementAndGet();"); //$NON-NLS-1$
+        method.addBodyLine("return true;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return false;"); //$NON-NLS-1$
+        innerClass.addMethod(method);
+
+        return innerClass;
+    }
+}
@@ -0,0 +1,567 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.CompilationUnit;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.InitializationBlock;
+import org.mybatis.generator.api.dom.java.InnerClass;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.PropertyRegistry;
+
+/**
+ * 标记生成的 Mapper 语句是读还是写, 供读写分离使用. 插件生成三个类:
+ * <ul>
+ * <li>MapperStatements - 所有生成的只读语句 (XML 中的 select 元素, 注解 Mapper 中的
+ * {@literal @}Select 和 {@literal @}SelectProvider 方法) 的 id 清单, 其它语句都视为写</li>
+ * <li>ReadWriteRoutingInterceptor - MyBatis 拦截器, 执行语句前按清单标记当前线程</li>
+ * <li>ReadWriteRouting - 包装主库和从库的 DataSource, 返回延迟获取的连接; usePrimary
+ * 在一段调用中强制使用主库, 用于需要读到刚写入数据的场合</li>
+ * </ul>
+ * 会话 (或事务) 的连接在第一次创建语句时才真正获取: 第一条是只读语句时从从库轮流取, 否则从主库取.
+ * 之后遇到写语句时放弃从库连接, 切换到主库并一直使用主库, 所以写总是落到主库,
+ * 写之后的读也能读到刚写入的数据. 关闭了自动提交的连接是一个事务, 默认所有语句都走主库;
+ * 开启 replicaReadsInTransaction 后事务中写之前的读也来自从库 (切换时回滚从库连接).
+ * 手写的语句不在清单中, 视为写. 生成的代码需要 Java 8.
+ * <p>
+ * 插件接受以下属性:
+ * <ul>
+ * <li>targetPackage - 生成类所在的包, 默认与第一个 Mapper 接口相同</li>
+ * <li>replicaReadsInTransaction - 关闭了自动提交的连接上的读是否也走从库, 默认 false</li>
+ * </ul>
+ * 
+ */
+public class ReadWriteSplitPlugin extends PluginAdapter {
+    public static final String TARGET_PACKAGE = "targetPackage"; //$NON-NLS-1$
+    public static final String REPLICA_READS_IN_TRANSACTION = "replicaReadsInTransaction"; //$NON-NLS-1$
+
+    private static final String STATEMENTS_CLASS_NAME = "MapperStatements"; //$NON-NLS-1$
+    private static final String ROUTING_CLASS_NAME = "ReadWriteRouting"; //$NON-NLS-1$
+    private static final String INTERCEPTOR_CLASS_NAME = "ReadWriteRoutingInterceptor"; //$NON-NLS-1$
+
+    private Set<String> readStatements = new LinkedHashSet<String>();
+    private String targetPackage;
+
+    public ReadWriteSplitPlugin() {
+        super();
+    }
+
+    public boolean validate(List<String> warnings) {
+        return true;
+    }
+
+    @Override
+    public boolean clientGenerated(Interface interfaze,
+            TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        if (interfaze == null) {
+            return true;
+        }
+        if (targetPackage == null) {
+            targetPackage = properties.getProperty(TARGET_PACKAGE);
+            if (!stringHasValue(targetPackage)) {
+                targetPackage = interfaze.getType().getPackageName();
+            }
+        }
+
+        // annotated mappers carry their statements on the methods
+        String namespace = interfaze.getType().getFullyQualifiedName();
+        for (Method method : interfaze.getMethods()) {
+            for (String annotation : method.getAnnotations()) {
+                if (annotation.startsWith("@Select")) { //$NON-NLS-1$
+                    readStatements.add(namespace + '.' + method.getName());
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document,
+            IntrospectedTable introspectedTable) {
+        XmlElement mapper = document.getRootElement();
+        String namespace = getAttribute(mapper, "namespace"); //$NON-NLS-1$
+        for (Element element : mapper.getElements()) {
+            if (element instanceof XmlElement
+                    && "select".equals(((XmlElement) element).getName())) { //$NON-NLS-1$
+                String id = getAttribute((XmlElement) element, "id"); //$NON-NLS-1$
+                if (namespace != null && id != null) {
+                    readStatements.add(namespace + '.' + id);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static String getAttribute(XmlElement element, String name) {
+        for (Attribute attribute : element.getAttributes()) {
+            if (attribute.getName().equals(name)) {
+                return attribute.getValue();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles() {
+        if (targetPackage == null) {
+            return null;
+        }
+
+        List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
+        for (CompilationUnit compilationUnit : new CompilationUnit[] {
+                buildStatementsClass(), buildRoutingClass(), buildInterceptorClass() }) {
+            answer.add(new GeneratedJavaFile(compilationUnit,
+                    context.getJavaClientGeneratorConfiguration().getTargetProject(),
+                    context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING),
+                    context.getJavaFormatter()));
+        }
+        return answer;
+    }
+
+    private FullyQualifiedJavaType getType(String shortName) {
+        return new FullyQualifiedJavaType(targetPackage + '.' + shortName);
+    }
+
+    private Method newPrivateConstructor(TopLevelClass topLevelClass) {
+        Method method = new Method(topLevelClass.getType().getShortName());
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setConstructor(true);
+        method.addBodyLine("super();"); //$NON-NLS-1$
+        return method;
+    }
+
+    private TopLevelClass buildStatementsClass() {
+        TopLevelClass topLevelClass = new TopLevelClass(getType(STATEMENTS_CLASS_NAME));
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+        topLevelClass.setFinal(true);
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.HashSet")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Set")); //$NON-NLS-1$
+        context.getCommentGenerator().addJavaFileComment(topLevelClass);
+
+        Field field = new Field("READ_STATEMENTS", //$NON-NLS-1$
+                new FullyQualifiedJavaType("java.util.Set<String>")); //$NON-NLS-1$
+        field.addJavaDocLine("/** 生成的只读语句, 元素为 MappedStatement 的 id */"); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("new HashSet<>()"); //$NON-NLS-1$
+        topLevelClass.addField(field);
+
+        InitializationBlock block = new InitializationBlock(true);
+        for (String statement : readStatements) {
+            block.addBodyLine("READ_STATEMENTS.add(\"" //$NON-NLS-1$
+                    + escapeStringForJava(statement) + "\");"); //$NON-NLS-1$
+        }
+        topLevelClass.addInitializationBlock(block);
+
+        topLevelClass.addMethod(newPrivateConstructor(topLevelClass));
+
+        Method method = new Method("isRead"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 返回语句是否只读, statementId 为 MappedStatement 的 id"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getBooleanPrimitiveInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(),
+                "statementId")); //$NON-NLS-1$
+        method.addBodyLine("return READ_STATEMENTS.contains(statementId);"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        return topLevelClass;
+    }
+
+    private TopLevelClass buildRoutingClass() {
+        FullyQualifiedJavaType dataSource = new FullyQualifiedJavaType("javax.sql.DataSource"); //$NON-NLS-1$
+        FullyQualifiedJavaType booleanThreadLocal = new FullyQualifiedJavaType(
+                "java.lang.ThreadLocal<Boolean>"); //$NON-NLS-1$
+
+        TopLevelClass topLevelClass = new TopLevelClass(getType(ROUTING_CLASS_NAME));
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+        topLevelClass.setFinal(true);
+        topLevelClass.addImportedType(dataSource);
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.lang.reflect.InvocationHandler")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.lang.reflect.InvocationTargetException")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.lang.reflect.Method")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.lang.reflect.Proxy")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.sql.Connection")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+        topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.concurrent.atomic.AtomicInteger")); //$NON-NLS-1$
+        context.getCommentGenerator().addJavaFileComment(topLevelClass);
+
+        Field field = new Field("READ", booleanThreadLocal); //$NON-NLS-1$
+        field.addJavaDocLine("/** 当前线程正在执行的语句是否只读, 由拦截器设置 */"); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("new ThreadLocal<>()"); //$NON-NLS-1$
+        topLevelClass.addField(field);
+
+        field = new Field("PRIMARY", booleanThreadLocal); //$NON-NLS-1$
+        field.addJavaDocLine("/** 当前线程是否强制使用主库 */"); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("new ThreadLocal<>()"); //$NON-NLS-1$
+        topLevelClass.addField(field);
+
+        topLevelClass.addMethod(newPrivateConstructor(topLevelClass));
+
+        Method method = new Method("dataSource"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 返回按语句读写分发连接的 DataSource. 连接在第一次创建语句时才获取, 第一条是只读语句时"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 轮流使用从库, 否则使用主库; 之后遇到写语句时切换到主库, 并一直使用主库"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setReturnType(dataSource);
+        method.addParameter(new Parameter(dataSource, "primary")); //$NON-NLS-1$
+        method.addParameter(new Parameter(dataSource, "replicas", true)); //$NON-NLS-1$
+        method.addBodyLine("if (replicas.length == 0) {"); //$NON-NLS-1$
+        method.addBodyLine("return primary;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("DataSource[] targets = replicas.clone();"); //$NON-NLS-1$
+        method.addBodyLine("AtomicInteger next = new AtomicInteger();"); //$NON-NLS-1$
+        method.addBodyLine("InvocationHandler handler = (proxy, invoked, args) -> {"); //$NON-NLS-1$
+        method.addBodyLine("if (invoked.getName().equals(\"equals\")) {"); //$NON-NLS-1$
+        method.addBodyLine("return proxy == args[0];"); //$NON-NLS-1$
+        method.addBodyLine("} else if (invoked.getName().equals(\"hashCode\")) {"); //$NON-NLS-1$
+        method.addBodyLine("return System.identityHashCode(proxy);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (invoked.getName().equals(\"getConnection\")) {"); //$NON-NLS-1$
+        method.addBodyLine("return Proxy.newProxyInstance(Connection.class.getClassLoader(),"); //$NON-NLS-1$
+        method.addBodyLine("        new Class<?>[] { Connection.class },"); //$NON-NLS-1$
+        method.addBodyLine("        new RoutingConnection(primary, targets, next, args));"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("try {"); //$NON-NLS-1$
+        method.addBodyLine("return invoked.invoke(primary, args);"); //$NON-NLS-1$
+        method.addBodyLine("} catch (InvocationTargetException e) {"); //$NON-NLS-1$
+        method.addBodyLine("throw e.getCause();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("};"); //$NON-NLS-1$
+        method.addBodyLine("return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),"); //$NON-NLS-1$
+        method.addBodyLine("        new Class<?>[] { DataSource.class }, handler);"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        method = new Method("usePrimary"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 为 true 时当前线程的所有语句都使用主库, 例如读取刚写入的数据. 返回之前的设置,"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 用完后应在 finally 中用返回值恢复"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getBooleanPrimitiveInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getBooleanPrimitiveInstance(),
+                "primary")); //$NON-NLS-1$
+        addSwapLines(method, "PRIMARY", "primary"); //$NON-NLS-1$ //$NON-NLS-2$
+        topLevelClass.addMethod(method);
+
+        method = new Method("markRead"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 由拦截器在执行语句前调用, 返回之前的标记"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.DEFAULT);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getBooleanPrimitiveInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getBooleanPrimitiveInstance(),
+                "read")); //$NON-NLS-1$
+        addSwapLines(method, "READ", "read"); //$NON-NLS-1$ //$NON-NLS-2$
+        topLevelClass.addMethod(method);
+
+        method = new Method("isRead"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getBooleanPrimitiveInstance());
+        method.addBodyLine("return READ.get() != null && PRIMARY.get() == null;"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        topLevelClass.addInnerClass(buildConnectionClass(dataSource));
+        return topLevelClass;
+    }
+
+    /**
+     * 生成延迟获取并按语句切换目标的连接代理. 会话打开时 MyBatis 只设置自动提交等属性,
+     * 这些属性先记下, 获取真正的连接时再设置上去.
+     */
+    private InnerClass buildConnectionClass(FullyQualifiedJavaType dataSource) {
+        FullyQualifiedJavaType connection = new FullyQualifiedJavaType("java.sql.Connection"); //$NON-NLS-1$
+        FullyQualifiedJavaType atomicInteger = new FullyQualifiedJavaType(
+                "java.util.concurrent.atomic.AtomicInteger"); //$NON-NLS-1$
+        FullyQualifiedJavaType objectArray = new FullyQualifiedJavaType("java.lang.Object[]"); //$NON-NLS-1$
+        FullyQualifiedJavaType booleanPrimitive = FullyQualifiedJavaType.getBooleanPrimitiveInstance();
+
+        InnerClass innerClass = new InnerClass(new FullyQualifiedJavaType("RoutingConnection")); //$NON-NLS-1$
+        innerClass.setVisibility(JavaVisibility.PRIVATE);
+        innerClass.setStatic(true);
+        innerClass.setFinal(true);
+        innerClass.addSuperInterface(new FullyQualifiedJavaType(
+                "java.lang.reflect.InvocationHandler")); //$NON-NLS-1$
+
+        innerClass.addField(newField("primary", dataSource, true, null)); //$NON-NLS-1$
+        innerClass.addField(newField("replicas", new FullyQualifiedJavaType("DataSource[]"), //$NON-NLS-1$ //$NON-NLS-2$
+                true, null));
+        innerClass.addField(newField("next", atomicInteger, true, null)); //$NON-NLS-1$
+        Field field = newField("credentials", objectArray, true, null); //$NON-NLS-1$
+        field.addJavaDocLine("/** getConnection 的参数, 无参时为 null */"); //$NON-NLS-1$
+        innerClass.addField(field);
+        field = newField("target", connection, false, null); //$NON-NLS-1$
+        field.addJavaDocLine("/** 真正的连接, 第一次创建语句前为 null */"); //$NON-NLS-1$
+        innerClass.addField(field);
+        innerClass.addField(newField("onReplica", booleanPrimitive, false, null)); //$NON-NLS-1$
+        innerClass.addField(newField("closed", booleanPrimitive, false, null)); //$NON-NLS-1$
+        field = newField("autoCommit", booleanPrimitive, false, "true"); //$NON-NLS-1$ //$NON-NLS-2$
+        field.addJavaDocLine("/** 获取真正的连接前设置的属性, 获取后设置到连接上 */"); //$NON-NLS-1$
+        innerClass.addField(field);
+        innerClass.addField(newField("transactionIsolation", //$NON-NLS-1$
+                new FullyQualifiedJavaType("java.lang.Integer"), false, null)); //$NON-NLS-1$
+        innerClass.addField(newField("readOnly", //$NON-NLS-1$
+                new FullyQualifiedJavaType("java.lang.Boolean"), false, null)); //$NON-NLS-1$
+
+        Method method = new Method("RoutingConnection"); //$NON-NLS-1$
+        method.setConstructor(true);
+        method.addParameter(new Parameter(dataSource, "primary")); //$NON-NLS-1$
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("DataSource[]"), //$NON-NLS-1$
+                "replicas")); //$NON-NLS-1$
+        method.addParameter(new Parameter(atomicInteger, "next")); //$NON-NLS-1$
+        method.addParameter(new Parameter(objectArray, "credentials")); //$NON-NLS-1$
+        method.addBodyLine("this.primary = primary;"); //$NON-NLS-1$
+        method.addBodyLine("this.replicas = replicas;"); //$NON-NLS-1$
+        method.addBodyLine("this.next = next;"); //$NON-NLS-1$
+        method.addBodyLine("this.credentials = credentials;"); //$NON-NLS-1$
+        innerClass.addMethod(method);
+
+        method = new Method("invoke"); //$NON-NLS-1$
+        method.addAnnotation("@Override"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getObjectInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(), "proxy")); //$NON-NLS-1$
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "java.lang.reflect.Method"), "invoked")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(objectArray, "args")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.lang.Throwable")); //$NON-NLS-1$
+        method.addBodyLine("String name = invoked.getName();"); //$NON-NLS-1$
+        method.addBodyLine("if (name.equals(\"equals\")) {"); //$NON-NLS-1$
+        method.addBodyLine("return proxy == args[0];"); //$NON-NLS-1$
+        method.addBodyLine("} else if (name.equals(\"hashCode\")) {"); //$NON-NLS-1$
+        method.addBodyLine("return System.identityHashCode(proxy);"); //$NON-NLS-1$
+        method.addBodyLine("} else if (name.equals(\"toString\")) {"); //$NON-NLS-1$
+        method.addBodyLine("return \"RoutingConnection[\" + target + ']';"); //$NON-NLS-1$
+        method.addBodyLine("} else if (name.equals(\"isClosed\")) {"); //$NON-NLS-1$
+        method.addBodyLine("return closed;"); //$NON-NLS-1$
+        method.addBodyLine("} else if (name.equals(\"close\")) {"); //$NON-NLS-1$
+        method.addBodyLine("closed = true;"); //$NON-NLS-1$
+        method.addBodyLine("release();"); //$NON-NLS-1$
+        method.addBodyLine("return null;"); //$NON-NLS-1$
+        method.addBodyLine("} else if (closed) {"); //$NON-NLS-1$
+        method.addBodyLine("throw new SQLException(\"Connection is closed\");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (name.equals(\"setAutoCommit\")) {"); //$NON-NLS-1$
+        method.addBodyLine("autoCommit = (Boolean) args[0];"); //$NON-NLS-1$
+        method.addBodyLine("} else if (name.equals(\"setTransactionIsolation\")) {"); //$NON-NLS-1$
+        method.addBodyLine("transactionIsolation = (Integer) args[0];"); //$NON-NLS-1$
+        method.addBodyLine("} else if (name.equals(\"setReadOnly\")) {"); //$NON-NLS-1$
+        method.addBodyLine("readOnly = (Boolean) args[0];"); //$NON-NLS-1$
+        method.addBodyLine("} else if (name.equals(\"getAutoCommit\")) {"); //$NON-NLS-1$
+        method.addBodyLine("return autoCommit;"); //$NON-NLS-1$
+        method.addBodyLine("} else if (name.startsWith(\"prepare\") || name.equals(\"createStatement\")) {"); //$NON-NLS-1$
+        if (isTrue(properties.getProperty(REPLICA_READS_IN_TRANSACTION))) {
+            method.addBodyLine("route(isRead());"); //$NON-NLS-1$
+        } else {
+            method.addBodyLine("// a transaction may read its own writes or lock rows, it stays on the primary"); //$NON-NLS-1$
+            method.addBodyLine("route(autoCommit && isRead());"); //$NON-NLS-1$
+        }
+        method.addBodyLine("} else if (target == null && (name.equals(\"commit\") || name.equals(\"rollback\"))) {"); //$NON-NLS-1$
+        method.addBodyLine("// no statement has run, nothing to end"); //$NON-NLS-1$
+        method.addBodyLine("return null;"); //$NON-NLS-1$
+        method.addBodyLine("} else if (target == null) {"); //$NON-NLS-1$
+        method.addBodyLine("route(false);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (target == null) {"); //$NON-NLS-1$
+        method.addBodyLine("return null;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("try {"); //$NON-NLS-1$
+        method.addBodyLine("return invoked.invoke(target, args);"); //$NON-NLS-1$
+        method.addBodyLine("} catch (InvocationTargetException e) {"); //$NON-NLS-1$
+        method.addBodyLine("throw e.getCause();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        innerClass.addMethod(method);
+
+        method = new Method("route"); //$NON-NLS-1$
+        method.addJavaDocLine("/**"); //$NON-NLS-1$
+        method.addJavaDocLine(" * 为一条语句选择连接: 还没有连接时按读写获取, 从库连接上来了写语句时切换到主库"); //$NON-NLS-1$
+        method.addJavaDocLine(" */"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.addParameter(new Parameter(booleanPrimitive, "read")); //$NON-NLS-1$
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+        method.addBodyLine("if (target != null && (read || !onReplica)) {"); //$NON-NLS-1$
+        method.addBodyLine("return;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("// only reads have run on the replica, so they can be abandoned"); //$NON-NLS-1$
+        method.addBodyLine("release();"); //$NON-NLS-1$
+        method.addBodyLine("DataSource dataSource = read"); //$NON-NLS-1$
+        method.addBodyLine("        ? replicas[Math.floorMod(next.getAndIncrement(), replicas.length)] : primary;"); //$NON-NLS-1$
+        method.addBodyLine("Connection connection = credentials == null ? dataSource.getConnection()"); //$NON-NLS-1$
+        method.addBodyLine("        : dataSource.getConnection((String) credentials[0], (String) credentials[1]);"); //$NON-NLS-1$
+        method.addBodyLine("try {"); //$NON-NLS-1$
+        method.addBodyLine("connection.setAutoCommit(autoCommit);"); //$NON-NLS-1$
+        method.addBodyLine("if (transactionIsolation != null) {"); //$NON-NLS-1$
+        method.addBodyLine("connection.setTransactionIsolation(transactionIsolation);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("if (readOnly != null) {"); //$NON-NLS-1$
+        method.addBodyLine("connection.setReadOnly(readOnly);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("} catch (SQLException e) {"); //$NON-NLS-1$
+        method.addBodyLine("connection.close();"); //$NON-NLS-1$
+        method.addBodyLine("throw e;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("target = connection;"); //$NON-NLS-1$
+        method.addBodyLine("onReplica = read;"); //$NON-NLS-1$
+        innerClass.addMethod(method);
+
+        method = new Method("release"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.addException(new FullyQualifiedJavaType("java.sql.SQLException")); //$NON-NLS-1$
+        method.addBodyLine("if (target == null) {"); //$NON-NLS-1$
+        method.addBodyLine("return;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("Connection connection = target;"); //$NON-NLS-1$
+        method.addBodyLine("target = null;"); //$NON-NLS-1$
+        method.addBodyLine("try {"); //$NON-NLS-1$
+        method.addBodyLine("if (onReplica && !autoCommit) {"); //$NON-NLS-1$
+        method.addBodyLine("connection.rollback();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("} finally {"); //$NON-NLS-1$
+        method.addBodyLine("connection.close();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        innerClass.addMethod(method);
+
+        return innerClass;
+    }
+
+    private static Field newField(String name, FullyQualifiedJavaType type,
+            boolean isFinal, String initializationString) {
+        Field field = new Field(name, type);
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setFinal(isFinal);
+        if (initializationString != null) {
+            field.setInitializationString(initializationString);
+        }
+        return field;
+    }
+
+    /**
+     * 设置一个只保存 TRUE 的线程变量, false 时移除, 返回之前的值.
+     */
+    private void addSwapLines(Method method, String threadLocal, String value) {
+        method.addBodyLine("boolean previous = " + threadLocal + ".get() != null;"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("if (" + value + ") {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine(threadLocal + ".set(Boolean.TRUE);"); //$NON-NLS-1$
+        method.addBodyLine("} else {"); //$NON-NLS-1$
+        method.addBodyLine(threadLocal + ".remove();"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return previous;"); //$NON-NLS-1$
+    }
+
+    private TopLevelClass buildInterceptorClass() {
+        TopLevelClass topLevelClass = new TopLevelClass(getType(INTERCEPTOR_CLASS_NAME));
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+        topLevelClass.addSuperInterface(new FullyQualifiedJavaType(
+                "org.apache.ibatis.plugin.Interceptor")); //$NON-NLS-1$
+        for (String type : new String[] {
+                "java.util.Properties", //$NON-NLS-1$
+                "org.apache.ibatis.cache.CacheKey", //$NON-NLS-1$
+                "org.apache.ibatis.executor.Executor", //$NON-NLS-1$
+                "org.apache.ibatis.mapping.BoundSql", //$NON-NLS-1$
+                "org.apache.ibatis.mapping.MappedStatement", //$NON-NLS-1$
+                "org.apache.ibatis.plugin.Interceptor", //$NON-NLS-1$
+                "org.apache.ibatis.plugin.Intercepts", //$NON-NLS-1$
+                "org.apache.ibatis.plugin.Invocation", //$NON-NLS-1$
+                "org.apache.ibatis.plugin.Plugin", //$NON-NLS-1$
+                "org.apache.ibatis.plugin.Signature", //$NON-NLS-1$
+                "org.apache.ibatis.session.ResultHandler", //$NON-NLS-1$
+                "org.apache.ibatis.session.RowBounds" }) { //$NON-NLS-1$
+            topLevelClass.addImportedType(new FullyQualifiedJavaType(type));
+        }
+        context.getCommentGenerator().addJavaFileComment(topLevelClass);
+
+        topLevelClass.addJavaDocLine("/**"); //$NON-NLS-1$
+        topLevelClass.addJavaDocLine(" * 执行语句前按 MapperStatements 标记当前线程的语句是否只读, 供 ReadWriteRouting 选择连接"); //$NON-NLS-1$
+        topLevelClass.addJavaDocLine(" */"); //$NON-NLS-1$
+        topLevelClass.addAnnotation("@Intercepts({"); //$NON-NLS-1$
+        topLevelClass.addAnnotation("    @Signature(type = Executor.class, method = \"query\", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),"); //$NON-NLS-1$
+        topLevelClass.addAnnotation("    @Signature(type = Executor.class, method = \"query\", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class }),"); //$NON-NLS-1$
+        topLevelClass.addAnnotation("    @Signature(type = Executor.class, method = \"queryCursor\", args = { MappedStatement.class, Object.class, RowBounds.class }),"); //$NON-NLS-1$
+        topLevelClass.addAnnotation("    @Signature(type = Executor.class, method = \"update\", args = { MappedStatement.class, Object.class })"); //$NON-NLS-1$
+        topLevelClass.addAnnotation("})"); //$NON-NLS-1$
+
+        Method method = new Method("intercept"); //$NON-NLS-1$
+        method.addAnnotation("@Override"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getObjectInstance());
+        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                "org.apache.ibatis.plugin.Invocation"), "invocation")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addException(new FullyQualifiedJavaType("java.lang.Throwable")); //$NON-NLS-1$
+        method.addBodyLine("MappedStatement statement = (MappedStatement) invocation.getArgs()[0];"); //$NON-NLS-1$
+        method.addBodyLine("boolean previous = " + ROUTING_CLASS_NAME + ".markRead(" //$NON-NLS-1$ //$NON-NLS-2$
+                + STATEMENTS_CLASS_NAME + ".isRead(statement.getId()));"); //$NON-NLS-1$
+        method.addBodyLine("try {"); //$NON-NLS-1$
+        method.addBodyLine("return invocation.proceed();"); //$NON-NLS-1$
+        method.addBodyLine("} finally {"); //$NON-NLS-1$
+        method.addBodyLine(ROUTING_CLASS_NAME + ".markRead(previous);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        method = new Method("plugin"); //$NON-NLS-1$
+        method.addAnnotation("@Override"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getObjectInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(), "target")); //$NON-NLS-1$
+        method.addBodyLine("return Plugin.wrap(target, this);"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        method = new Method("setProperties"); //$NON-NLS-1$
+        method.addAnnotation("@Override"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("java.util.Properties"), //$NON-NLS-1$
+                "properties")); //$NON-NLS-1$
+        method.addBodyLine("// no properties"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        return topLevelClass;
+    }
+}
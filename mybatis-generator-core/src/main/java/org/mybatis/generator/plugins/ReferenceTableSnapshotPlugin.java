@@ -0,0 +1,452 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.InnerClass;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+
+/**
+ * 为字典表一类的小表生成全表快照类 XxxMapperSnapshot. 快照通过 selectByWhere
+ * 一次读入整个表, 构造完成后不再修改, 刷新时整体替换, 读操作不访问数据库.
+ * <p>
+ * 主键是单个整数列 (long, int, short, byte) 时快照使用以原始类型为键的开放寻址表,
+ * 按主键查询不产生任何对象分配; 其它主键使用 HashMap. 快照中的记录对象是共享的,
+ * 调用方不能修改它们.
+ * <p>
+ * 表配置了属性 snapshot=true, 或者统计信息中的行数不超过 maxRows 时生成快照类;
+ * snapshot=false 可以排除一个小表. 插件接受以下属性 (都是可选的):
+ * <ul>
+ * <li>maxRows - 自动生成快照的最大行数, 默认 1000</li>
+ * </ul>
+ * 
+ */
+public class ReferenceTableSnapshotPlugin extends PluginAdapter {
+    public static final String MAX_ROWS = "maxRows"; //$NON-NLS-1$
+    public static final String SNAPSHOT = "snapshot"; //$NON-NLS-1$
+
+    private static final long DEFAULT_MAX_ROWS = 1000L;
+
+    private Map<IntrospectedTable, Interface> mappers = new HashMap<IntrospectedTable, Interface>();
+
+    public ReferenceTableSnapshotPlugin() {
+        super();
+    }
+
+    public boolean validate(List<String> warnings) {
+        String property = properties.getProperty(MAX_ROWS);
+        if (stringHasValue(property) && parseMaxRows(property) < 0L) {
+            warnings.add(getString("ValidationError.31", //$NON-NLS-1$
+                    MAX_ROWS, "ReferenceTableSnapshotPlugin")); //$NON-NLS-1$
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean clientGenerated(Interface interfaze,
+            TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        if (interfaze != null && introspectedTable.hasPrimaryKeyColumns()
+                && isSnapshotTable(introspectedTable)) {
+            mappers.put(introspectedTable, interfaze);
+        }
+        return true;
+    }
+
+    @Override
+    public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(
+            IntrospectedTable introspectedTable) {
+        Interface mapper = mappers.remove(introspectedTable);
+        if (mapper == null) {
+            return null;
+        }
+        Method selectByWhere = null;
+        for (Method method : mapper.getMethods()) {
+            if (method.getName().equals(introspectedTable.getSelectByWhereStatementId())
+                    && method.getParameters().size() == 1 && !method.isDefault()) {
+                selectByWhere = method;
+            }
+        }
+        if (selectByWhere == null) {
+            return null;
+        }
+
+        List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
+        answer.add(new GeneratedJavaFile(
+                new SnapshotBuilder(introspectedTable, mapper, selectByWhere).build(),
+                context.getJavaClientGeneratorConfiguration().getTargetProject(),
+                context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING),
+                context.getJavaFormatter()));
+        return answer;
+    }
+
+    private boolean isSnapshotTable(IntrospectedTable introspectedTable) {
+        String snapshot = introspectedTable.getTableConfigurationProperty(SNAPSHOT);
+        if (stringHasValue(snapshot)) {
+            return isTrue(snapshot);
+        }
+        String property = properties.getProperty(MAX_ROWS);
+        long maxRows = stringHasValue(property) ? parseMaxRows(property) : DEFAULT_MAX_ROWS;
+        long rows = introspectedTable.getEstimatedRowCount();
+        return rows >= 0L && rows <= maxRows;
+    }
+
+    /**
+     * @return the value, or -1 if it is not a positive number
+     */
+    private static long parseMaxRows(String property) {
+        try {
+            long value = Long.parseLong(property.trim());
+            return value > 0L ? value : -1L;
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * 生成一个表的快照类.
+     */
+    private class SnapshotBuilder {
+        private IntrospectedTable introspectedTable;
+        private Interface mapper;
+        private Method selectByWhere;
+        private FullyQualifiedJavaType recordType;
+        private List<IntrospectedColumn> primaryKeyColumns;
+        private FullyQualifiedJavaType primitiveKeyType;
+        private TopLevelClass topLevelClass;
+
+        SnapshotBuilder(IntrospectedTable introspectedTable, Interface mapper, Method selectByWhere) {
+            this.introspectedTable = introspectedTable;
+            this.mapper = mapper;
+            this.selectByWhere = selectByWhere;
+            recordType = selectByWhere.getReturnType().getTypeArguments().get(0);
+            primaryKeyColumns = introspectedTable.getPrimaryKeyColumns();
+            if (primaryKeyColumns.size() == 1) {
+                primitiveKeyType = getIntegralType(primaryKeyColumns.get(0)
+                        .getFullyQualifiedJavaType());
+            }
+        }
+
+        TopLevelClass build() {
+            FullyQualifiedJavaType mapperType = mapper.getType();
+            FullyQualifiedJavaType whereType = selectByWhere.getParameters().get(0).getType();
+            FullyQualifiedJavaType atomicLong = new FullyQualifiedJavaType(
+                    "java.util.concurrent.atomic.AtomicLong"); //$NON-NLS-1$
+            FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+            listType.addTypeArgument(recordType);
+
+            topLevelClass = new TopLevelClass(new FullyQualifiedJavaType(
+                    mapperType.getFullyQualifiedName() + "Snapshot")); //$NON-NLS-1$
+            topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+            topLevelClass.addImportedType(mapperType);
+            topLevelClass.addImportedType(whereType);
+            topLevelClass.addImportedType(recordType);
+            topLevelClass.addImportedType(atomicLong);
+            topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+            topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Collections")); //$NON-NLS-1$
+            topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.concurrent.ScheduledExecutorService")); //$NON-NLS-1$
+            topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.concurrent.ScheduledFuture")); //$NON-NLS-1$
+            topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.concurrent.TimeUnit")); //$NON-NLS-1$
+            context.getCommentGenerator().addJavaFileComment(topLevelClass);
+
+            Field field = new Field("mapper", mapperType); //$NON-NLS-1$
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setFinal(true);
+            topLevelClass.addField(field);
+
+            field = new Field("snapshot", new FullyQualifiedJavaType("Snapshot")); //$NON-NLS-1$ //$NON-NLS-2$
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setVolatile(true);
+            topLevelClass.addField(field);
+
+            field = new Field("refreshFailures", atomicLong); //$NON-NLS-1$
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setFinal(true);
+            field.setInitializationString("new AtomicLong()"); //$NON-NLS-1$
+            topLevelClass.addField(field);
+
+            Method method = new Method(topLevelClass.getType().getShortName());
+            method.addJavaDocLine("/**"); //$NON-NLS-1$
+            method.addJavaDocLine(" * 构造时立即读取整个表"); //$NON-NLS-1$
+            method.addJavaDocLine(" */"); //$NON-NLS-1$
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setConstructor(true);
+            method.addParameter(new Parameter(mapperType, "mapper")); //$NON-NLS-1$
+            method.addBodyLine("this.mapper = mapper;"); //$NON-NLS-1$
+            method.addBodyLine("refresh();"); //$NON-NLS-1$
+            topLevelClass.addMethod(method);
+
+            method = new Method("refresh"); //$NON-NLS-1$
+            method.addJavaDocLine("/**"); //$NON-NLS-1$
+            method.addJavaDocLine(" * 重新读取整个表, 新快照构造完成后一次性替换旧快照"); //$NON-NLS-1$
+            method.addJavaDocLine(" */"); //$NON-NLS-1$
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.addBodyLine("snapshot = new Snapshot(mapper." + selectByWhere.getName() //$NON-NLS-1$
+                    + "(new " + whereType.getShortName() + "()));"); //$NON-NLS-1$ //$NON-NLS-2$
+            topLevelClass.addMethod(method);
+
+            method = new Method("scheduleRefresh"); //$NON-NLS-1$
+            method.addJavaDocLine("/**"); //$NON-NLS-1$
+            method.addJavaDocLine(" * 定期刷新快照, 刷新失败时保留旧快照并计数, 不影响后续刷新"); //$NON-NLS-1$
+            method.addJavaDocLine(" */"); //$NON-NLS-1$
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setReturnType(new FullyQualifiedJavaType("java.util.concurrent.ScheduledFuture<?>")); //$NON-NLS-1$
+            method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                    "java.util.concurrent.ScheduledExecutorService"), "executor")); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addParameter(new Parameter(new FullyQualifiedJavaType("long"), "period")); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addParameter(new Parameter(new FullyQualifiedJavaType(
+                    "java.util.concurrent.TimeUnit"), "unit")); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addBodyLine("return executor.scheduleWithFixedDelay(() -> {"); //$NON-NLS-1$
+            method.addBodyLine("try {"); //$NON-NLS-1$
+            method.addBodyLine("refresh();"); //$NON-NLS-1$
+            method.addBodyLine("} catch (RuntimeException e) {"); //$NON-NLS-1$
+            method.addBodyLine("refreshFailures.incrementAndGet();"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("}, period, period, unit);"); //$NON-NLS-1$
+            topLevelClass.addMethod(method);
+
+            method = new Method("get"); //$NON-NLS-1$
+            method.addJavaDocLine("/**"); //$NON-NLS-1$
+            method.addJavaDocLine(" * 按主键查询快照, 不存在时返回 null"); //$NON-NLS-1$
+            method.addJavaDocLine(" */"); //$NON-NLS-1$
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setReturnType(recordType);
+            List<String> names = new ArrayList<String>();
+            for (IntrospectedColumn column : primaryKeyColumns) {
+                FullyQualifiedJavaType type = primitiveKeyType == null
+                        ? column.getFullyQualifiedJavaType() : primitiveKeyType;
+                topLevelClass.addImportedType(type);
+                method.addParameter(new Parameter(type, column.getJavaProperty()));
+                names.add(column.getJavaProperty());
+            }
+            method.addBodyLine("return snapshot.get(" + getKeyExpression(names) + ");"); //$NON-NLS-1$ //$NON-NLS-2$
+            topLevelClass.addMethod(method);
+
+            method = new Method("getAll"); //$NON-NLS-1$
+            method.addJavaDocLine("/**"); //$NON-NLS-1$
+            method.addJavaDocLine(" * 返回快照中的全部记录, 列表不可修改"); //$NON-NLS-1$
+            method.addJavaDocLine(" */"); //$NON-NLS-1$
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setReturnType(listType);
+            method.addBodyLine("return snapshot.records;"); //$NON-NLS-1$
+            topLevelClass.addMethod(method);
+
+            method = new Method("size"); //$NON-NLS-1$
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+            method.addBodyLine("return snapshot.records.size();"); //$NON-NLS-1$
+            topLevelClass.addMethod(method);
+
+            method = new Method("getRefreshFailureCount"); //$NON-NLS-1$
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setReturnType(new FullyQualifiedJavaType("long")); //$NON-NLS-1$
+            method.addBodyLine("return refreshFailures.get();"); //$NON-NLS-1$
+            topLevelClass.addMethod(method);
+
+            topLevelClass.addInnerClass(primitiveKeyType == null
+                    ? buildHashSnapshot(listType) : buildPrimitiveSnapshot(listType));
+            return topLevelClass;
+        }
+
+        /**
+         * 以原始类型为键的开放寻址表, 装载因子不超过 0.5, 线性探测.
+         */
+        private InnerClass buildPrimitiveSnapshot(FullyQualifiedJavaType listType) {
+            InnerClass innerClass = newSnapshotClass(listType);
+            String record = recordType.getShortName();
+
+            Field field = new Field("keys", new FullyQualifiedJavaType("long[]")); //$NON-NLS-1$ //$NON-NLS-2$
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setFinal(true);
+            innerClass.addField(field);
+
+            field = new Field("values", new FullyQualifiedJavaType(record + "[]")); //$NON-NLS-1$ //$NON-NLS-2$
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setFinal(true);
+            innerClass.addField(field);
+
+            field = new Field("mask", FullyQualifiedJavaType.getIntInstance()); //$NON-NLS-1$
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setFinal(true);
+            innerClass.addField(field);
+
+            IntrospectedColumn column = primaryKeyColumns.get(0);
+            Method method = newSnapshotConstructor(listType);
+            method.addBodyLine("int capacity = 2;"); //$NON-NLS-1$
+            method.addBodyLine("while (capacity < records.size() * 2) {"); //$NON-NLS-1$
+            method.addBodyLine("capacity <<= 1;"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("keys = new long[capacity];"); //$NON-NLS-1$
+            method.addBodyLine("values = new " + record + "[capacity];"); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addBodyLine("mask = capacity - 1;"); //$NON-NLS-1$
+            method.addBodyLine("for (" + record + " record : records) {"); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addBodyLine(column.getFullyQualifiedJavaType().getShortName()
+                    + " key = " + getGetterCall(column) + ';'); //$NON-NLS-1$
+            if (!column.getFullyQualifiedJavaType().isPrimitive()) {
+                method.addBodyLine("if (key == null) {"); //$NON-NLS-1$
+                method.addBodyLine("continue;"); //$NON-NLS-1$
+                method.addBodyLine("}"); //$NON-NLS-1$
+            }
+            method.addBodyLine("int i = index(key);"); //$NON-NLS-1$
+            method.addBodyLine("while (values[i] != null && keys[i] != key) {"); //$NON-NLS-1$
+            method.addBodyLine("i = (i + 1) & mask;"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("keys[i] = key;"); //$NON-NLS-1$
+            method.addBodyLine("values[i] = record;"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            innerClass.addMethod(method);
+
+            method = new Method("get"); //$NON-NLS-1$
+            method.setReturnType(recordType);
+            method.addParameter(new Parameter(new FullyQualifiedJavaType("long"), "key")); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addBodyLine("int i = index(key);"); //$NON-NLS-1$
+            method.addBodyLine(record + " value;"); //$NON-NLS-1$
+            method.addBodyLine("while ((value = values[i]) != null) {"); //$NON-NLS-1$
+            method.addBodyLine("if (keys[i] == key) {"); //$NON-NLS-1$
+            method.addBodyLine("return value;"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("i = (i + 1) & mask;"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("return null;"); //$NON-NLS-1$
+            innerClass.addMethod(method);
+
+            method = new Method("index"); //$NON-NLS-1$
+            method.setVisibility(JavaVisibility.PRIVATE);
+            method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+            method.addParameter(new Parameter(new FullyQualifiedJavaType("long"), "key")); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addBodyLine("long h = key * 0x9E3779B97F4A7C15L;"); //$NON-NLS-1$
+            method.addBodyLine("return (int) (h ^ (h >>> 32)) & mask;"); //$NON-NLS-1$
+            innerClass.addMethod(method);
+
+            return innerClass;
+        }
+
+        private InnerClass buildHashSnapshot(FullyQualifiedJavaType listType) {
+            InnerClass innerClass = newSnapshotClass(listType);
+            String record = recordType.getShortName();
+            topLevelClass.addImportedType(FullyQualifiedJavaType.getNewMapInstance());
+            topLevelClass.addImportedType(FullyQualifiedJavaType.getNewHashMapInstance());
+
+            FullyQualifiedJavaType mapType = FullyQualifiedJavaType.getNewMapInstance();
+            mapType.addTypeArgument(FullyQualifiedJavaType.getObjectInstance());
+            mapType.addTypeArgument(recordType);
+            Field field = new Field("map", mapType); //$NON-NLS-1$
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setFinal(true);
+            innerClass.addField(field);
+
+            List<String> getters = new ArrayList<String>();
+            for (IntrospectedColumn column : primaryKeyColumns) {
+                getters.add(getGetterCall(column));
+            }
+            Method method = newSnapshotConstructor(listType);
+            method.addBodyLine("map = new HashMap<>(records.size() * 2);"); //$NON-NLS-1$
+            method.addBodyLine("for (" + record + " record : records) {"); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addBodyLine("map.put(" + getKeyExpression(getters) + ", record);"); //$NON-NLS-1$ //$NON-NLS-2$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            innerClass.addMethod(method);
+
+            method = new Method("get"); //$NON-NLS-1$
+            method.setReturnType(recordType);
+            method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(), "key")); //$NON-NLS-1$
+            method.addBodyLine("return map.get(key);"); //$NON-NLS-1$
+            innerClass.addMethod(method);
+
+            return innerClass;
+        }
+
+        private InnerClass newSnapshotClass(FullyQualifiedJavaType listType) {
+            InnerClass innerClass = new InnerClass(new FullyQualifiedJavaType("Snapshot")); //$NON-NLS-1$
+            innerClass.setVisibility(JavaVisibility.PRIVATE);
+            innerClass.setStatic(true);
+            innerClass.setFinal(true);
+
+            Field field = new Field("records", listType); //$NON-NLS-1$
+            field.setFinal(true);
+            innerClass.addField(field);
+            return innerClass;
+        }
+
+        private Method newSnapshotConstructor(FullyQualifiedJavaType listType) {
+            Method method = new Method("Snapshot"); //$NON-NLS-1$
+            method.setConstructor(true);
+            method.addParameter(new Parameter(listType, "records")); //$NON-NLS-1$
+            method.addBodyLine("this.records = Collections.unmodifiableList(records);"); //$NON-NLS-1$
+            return method;
+        }
+
+        private String getGetterCall(IntrospectedColumn column) {
+            return "record." + JavaBeansUtil.getGetterMethodName( //$NON-NLS-1$
+                    column.getJavaProperty(), column.getFullyQualifiedJavaType()) + "()"; //$NON-NLS-1$
+        }
+
+        private String getKeyExpression(List<String> parts) {
+            if (parts.size() == 1) {
+                return parts.get(0);
+            }
+            topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Arrays")); //$NON-NLS-1$
+            StringBuilder sb = new StringBuilder();
+            sb.append("Arrays.asList("); //$NON-NLS-1$
+            for (Iterator<String> iter = parts.iterator(); iter.hasNext();) {
+                sb.append(iter.next());
+                if (iter.hasNext()) {
+                    sb.append(", "); //$NON-NLS-1$
+                }
+            }
+            sb.append(')');
+            return sb.toString();
+        }
+
+        /**
+         * @return the primitive type used for lookups, or null if the key is
+         *         not an integral type
+         */
+        private FullyQualifiedJavaType getIntegralType(FullyQualifiedJavaType type) {
+            String name = type.getFullyQualifiedName();
+            if (name.equals("long") || name.equals("java.lang.Long")) { //$NON-NLS-1$ //$NON-NLS-2$
+                return new FullyQualifiedJavaType("long"); //$NON-NLS-1$
+            } else if (name.equals("int") || name.equals("java.lang.Integer")) { //$NON-NLS-1$ //$NON-NLS-2$
+                return FullyQualifiedJavaType.getIntInstance();
+            } else if (name.equals("short") || name.equals("java.lang.Short")) { //$NON-NLS-1$ //$NON-NLS-2$
+                return new FullyQualifiedJavaType("short"); //$NON-NLS-1$
+            } else if (name.equals("byte") || name.equals("java.lang.Byte")) { //$NON-NLS-1$ //$NON-NLS-2$
+                return new FullyQualifiedJavaType("byte"); //$NON-NLS-1$
+            }
+            return null;
+        }
+    }
+}
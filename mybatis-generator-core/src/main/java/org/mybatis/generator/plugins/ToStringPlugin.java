@@ -17,9 +17,12 @@ package org.mybatis.generator.plugins;
 
 import static org.mybatis.generator.internal.util.StringUtility.isTrue;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
+import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
 import org.mybatis.generator.api.dom.java.Field;
@@ -27,6 +30,7 @@ import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
 
 public class ToStringPlugin extends PluginAdapter {
 
@@ -80,12 +84,29 @@ public class ToStringPlugin extends PluginAdapter {
         method.addBodyLine("sb.append(getClass().getSimpleName());"); //$NON-NLS-1$
         method.addBodyLine("sb.append(\" [\");"); //$NON-NLS-1$
         method.addBodyLine("sb.append(\"Hash = \").append(hashCode());"); //$NON-NLS-1$
+        // compact properties are printed through their getters, the
+        // primitive fields hold 0 or false while the property is null
+        Map<String, IntrospectedColumn> compactColumns = new HashMap<String, IntrospectedColumn>();
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getCompactColumns()) {
+            compactColumns.put(introspectedColumn.getJavaProperty(), introspectedColumn);
+        }
+
         StringBuilder sb = new StringBuilder();
         for (Field field : topLevelClass.getFields()) {
             String property = field.getName();
+            if (!compactColumns.isEmpty()
+                    && JavaBeansUtil.NULL_MASK_FIELD.equals(property)) {
+                continue;
+            }
+            String value = property;
+            IntrospectedColumn introspectedColumn = compactColumns.get(property);
+            if (introspectedColumn != null) {
+                value = JavaBeansUtil.getGetterMethodName(property,
+                        introspectedColumn.getFullyQualifiedJavaType()) + "()"; //$NON-NLS-1$
+            }
             sb.setLength(0);
             sb.append("sb.append(\"").append(", ").append(property) //$NON-NLS-1$ //$NON-NLS-2$
-                    .append("=\")").append(".append(").append(property) //$NON-NLS-1$ //$NON-NLS-2$
+                    .append("=\")").append(".append(").append(value) //$NON-NLS-1$ //$NON-NLS-2$
                     .append(");"); //$NON-NLS-1$
             method.addBodyLine(sb.toString());
         }
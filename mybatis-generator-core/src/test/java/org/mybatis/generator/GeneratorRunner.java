@@ -0,0 +1,388 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.CommentGeneratorConfiguration;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.ConnectionFactoryConfiguration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.PluginConfiguration;
+import org.mybatis.generator.config.PropertyHolder;
+import org.mybatis.generator.config.SqlMapGeneratorConfiguration;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.DefaultShellCallback;
+
+/**
+ * Runs the generator for tables of {@link MetaDataConnectionFactory} without
+ * writing files, so tests can check the generated XML and Java. Properties
+ * are given as <code>name=value</code> strings. Generated classes that only
+ * depend on the JDK (models, Where classes, routers, JDBC DAOs) can be
+ * compiled and loaded with {@link #compile(String...)}.
+ */
+public class GeneratorRunner {
+
+    private final Context context;
+
+    private final List<String> warnings = new ArrayList<String>();
+
+    private List<GeneratedJavaFile> javaFiles;
+
+    private List<GeneratedXmlFile> xmlFiles;
+
+    private final Map<String, String> stubs = new LinkedHashMap<String, String>();
+
+    public GeneratorRunner() {
+        this("MyBatis3", "XMLMAPPER");
+    }
+
+    public GeneratorRunner(String targetRuntime, String clientType) {
+        context = new Context(ModelType.getModelType("mutilCRUD"));
+        context.setId("test");
+        context.setTargetRuntime(targetRuntime);
+
+        ConnectionFactoryConfiguration connectionFactory = new ConnectionFactoryConfiguration();
+        connectionFactory.setConfigurationType(MetaDataConnectionFactory.class.getName());
+        context.setConnectionFactoryConfiguration(connectionFactory);
+
+        CommentGeneratorConfiguration commentGenerator = new CommentGeneratorConfiguration();
+        commentGenerator.addProperty("suppressAllComments", "true");
+        context.setCommentGeneratorConfiguration(commentGenerator);
+
+        JavaModelGeneratorConfiguration javaModelGenerator = new JavaModelGeneratorConfiguration();
+        javaModelGenerator.setTargetPackage("test.model");
+        javaModelGenerator.setTargetProject("test");
+        context.setJavaModelGeneratorConfiguration(javaModelGenerator);
+
+        if ("XMLMAPPER".equals(clientType)) {
+            SqlMapGeneratorConfiguration sqlMapGenerator = new SqlMapGeneratorConfiguration();
+            sqlMapGenerator.setTargetPackage("test.mapper");
+            sqlMapGenerator.setTargetProject("test");
+            context.setSqlMapGeneratorConfiguration(sqlMapGenerator);
+        }
+
+        JavaClientGeneratorConfiguration javaClientGenerator = new JavaClientGeneratorConfiguration();
+        javaClientGenerator.setConfigurationType(clientType);
+        javaClientGenerator.setTargetPackage("test.mapper");
+        javaClientGenerator.setTargetProject("test");
+        context.setJavaClientGeneratorConfiguration(javaClientGenerator);
+    }
+
+    public Context getContext() {
+        return context;
+    }
+
+    public TableConfiguration addTable(String tableName, String... properties) {
+        TableConfiguration tableConfiguration = new TableConfiguration(context);
+        tableConfiguration.setTableName(tableName);
+        addProperties(tableConfiguration, properties);
+        context.addTableConfiguration(tableConfiguration);
+        return tableConfiguration;
+    }
+
+    public PluginConfiguration addPlugin(Class<?> type, String... properties) {
+        PluginConfiguration pluginConfiguration = new PluginConfiguration();
+        pluginConfiguration.setConfigurationType(type.getName());
+        addProperties(pluginConfiguration, properties);
+        context.addPluginConfiguration(pluginConfiguration);
+        return pluginConfiguration;
+    }
+
+    public void addClientProperties(String... properties) {
+        addProperties(context.getJavaClientGeneratorConfiguration(), properties);
+    }
+
+    public void addModelProperties(String... properties) {
+        addProperties(context.getJavaModelGeneratorConfiguration(), properties);
+    }
+
+    /**
+     * Adds a hand-written class that {@link #compile(String...)} compiles
+     * with the generated files, like a stub of a mapper interface that
+     * declares only the methods the generated class calls.
+     *
+     * @param className
+     *            the fully qualified class name
+     * @param source
+     *            the source of the class
+     */
+    public void addStub(String className, String source) {
+        stubs.put(className, source);
+    }
+
+    public GeneratorRunner generate() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.addContext(context);
+        MyBatisGenerator myBatisGenerator = new MyBatisGenerator(configuration,
+                new DefaultShellCallback(true), warnings);
+        myBatisGenerator.generate(null, null, null, false);
+        javaFiles = myBatisGenerator.getGeneratedJavaFiles();
+        xmlFiles = myBatisGenerator.getGeneratedXmlFiles();
+        return this;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public boolean hasJavaFile(String fileName) {
+        return findJavaFile(fileName) != null;
+    }
+
+    public String getJavaFile(String fileName) {
+        GeneratedJavaFile javaFile = findJavaFile(fileName);
+        if (javaFile == null) {
+            fail("No java file " + fileName + " was generated");
+        }
+        return javaFile.getFormattedContent();
+    }
+
+    public String getXmlFile(String fileName) {
+        for (GeneratedXmlFile xmlFile : xmlFiles) {
+            if (xmlFile.getFileName().equals(fileName)) {
+                return xmlFile.getFormattedContent();
+            }
+        }
+        fail("No XML file " + fileName + " was generated");
+        return null;
+    }
+
+    public IntrospectedTable getIntrospectedTable(String tableName) throws Exception {
+        // the context keeps the introspected tables to itself
+        Field field = Context.class.getDeclaredField("introspectedTables");
+        field.setAccessible(true);
+        @SuppressWarnings("unchecked")
+        List<IntrospectedTable> introspectedTables = (List<IntrospectedTable>) field.get(context);
+        for (IntrospectedTable introspectedTable : introspectedTables) {
+            if (introspectedTable.getFullyQualifiedTable().getIntrospectedTableName().equals(tableName)) {
+                return introspectedTable;
+            }
+        }
+        fail("Table " + tableName + " was not introspected");
+        return null;
+    }
+
+    /**
+     * Compiles generated java files and returns a class loader for them.
+     *
+     * @param fileNames
+     *            the names of the generated files, like <code>Orders.java</code>
+     * @return the class loader
+     * @throws IOException
+     *             if the sources or classes can not be written
+     */
+    public ClassLoader compile(String... fileNames) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            fail("The generated code is compiled by the test, it must run on a JDK");
+        }
+
+        File directory = File.createTempFile("mbg-classes-", "");
+        assertTrue(directory.delete() && directory.mkdir());
+        List<File> sources = new ArrayList<File>();
+        for (String fileName : fileNames) {
+            GeneratedJavaFile javaFile = findJavaFile(fileName);
+            if (javaFile == null) {
+                fail("No java file " + fileName + " was generated");
+            }
+            sources.add(write(directory, javaFile.getTargetPackage().replace('.', '/') + '/' + fileName,
+                    javaFile.getFormattedContent()));
+        }
+        for (Map.Entry<String, String> stub : stubs.entrySet()) {
+            sources.add(write(directory, stub.getKey().replace('.', '/') + ".java", stub.getValue()));
+        }
+
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        try {
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+            List<String> options = Arrays.asList("-d", directory.getPath(), "-encoding", "UTF-8", "-nowarn");
+            boolean compiled = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(sources)).call();
+            assertTrue("The generated code does not compile: " + diagnostics.getDiagnostics(), compiled);
+        } finally {
+            fileManager.close();
+        }
+        deleteOnExit(directory);
+        return new URLClassLoader(new URL[] { directory.toURI().toURL() },
+                GeneratorRunner.class.getClassLoader());
+    }
+
+    /**
+     * Returns the XML element with the id, like a statement or a result map.
+     *
+     * @param xml
+     *            the formatted XML file
+     * @param id
+     *            the id of the element
+     * @return the element from its start tag to its end tag
+     */
+    public static String getElement(String xml, String id) {
+        int idIndex = xml.indexOf("id=\"" + id + '"');
+        assertTrue("No element " + id + " in " + xml, idIndex >= 0);
+        int start = xml.lastIndexOf('<', idIndex);
+        Matcher matcher = Pattern.compile("<(\\w+)").matcher(xml);
+        assertTrue(matcher.find(start));
+        String tag = matcher.group(1);
+        int startEnd = xml.indexOf('>', idIndex);
+        if (xml.charAt(startEnd - 1) == '/') {
+            return xml.substring(start, startEnd + 1);
+        }
+        String endTag = "</" + tag + '>';
+        return xml.substring(start, xml.indexOf(endTag, startEnd) + endTag.length());
+    }
+
+    /**
+     * Returns the first method or constructor with the name, including its
+     * body if it has one.
+     *
+     * @param java
+     *            the formatted java file
+     * @param name
+     *            the method name
+     * @return the method declaration
+     */
+    public static String getMethod(String java, String name) {
+        Matcher matcher = Pattern.compile("(?m)^ +(?!return )[\\w<>\\[\\],.? ]*\\b" + name + "\\(").matcher(java);
+        assertTrue("No method " + name + " in " + java, matcher.find());
+        int start = matcher.start();
+        int depth = 0;
+        boolean inString = false;
+        for (int i = start; i < java.length(); i++) {
+            char c = java.charAt(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '\'') {
+                i = java.indexOf('\'', java.charAt(i + 1) == '\\' ? i + 3 : i + 2);
+            } else if (c == ';' && depth == 0) {
+                return java.substring(start, i + 1);
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return java.substring(start, i + 1);
+            }
+        }
+        fail("The method " + name + " does not end");
+        return null;
+    }
+
+    /**
+     * Calls a public method of a compiled class, exceptions thrown by the
+     * method are rethrown unwrapped.
+     *
+     * @param target
+     *            the object
+     * @param name
+     *            the method name
+     * @param args
+     *            the arguments, a method with the same number of parameters is called
+     * @return the result
+     * @throws Exception
+     *             the exception of the method
+     */
+    public static Object invoke(Object target, String name, Object... args) throws Exception {
+        for (Method method : target.getClass().getMethods()) {
+            if (method.getName().equals(name) && method.getParameterTypes().length == args.length) {
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception) e.getCause();
+                    }
+                    throw e;
+                }
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    private GeneratedJavaFile findJavaFile(String fileName) {
+        for (GeneratedJavaFile javaFile : javaFiles) {
+            if (javaFile.getFileName().equals(fileName)) {
+                return javaFile;
+            }
+        }
+        return null;
+    }
+
+    private static void addProperties(PropertyHolder propertyHolder, String... properties) {
+        for (String property : properties) {
+            int index = property.indexOf('=');
+            propertyHolder.addProperty(property.substring(0, index), property.substring(index + 1));
+        }
+    }
+
+    /** Files are deleted in reverse order of registration, so parents go first. */
+    private static void deleteOnExit(File file) {
+        file.deleteOnExit();
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                deleteOnExit(child);
+            }
+        }
+    }
+
+    private static File write(File directory, String path, String content) throws IOException {
+        File file = new File(directory, path);
+        file.getParentFile().mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+}
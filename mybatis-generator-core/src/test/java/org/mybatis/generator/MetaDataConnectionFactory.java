@@ -0,0 +1,288 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.mybatis.generator.api.ConnectionFactory;
+
+/**
+ * Hands out a connection whose DatabaseMetaData describes a small fixed
+ * schema, so the generator can introspect tables without a database:
+ * <ul>
+ * <li>orders - an identity key, a unique index on customer, a version column
+ * and an estimate of 1000 rows</li>
+ * <li>order_item - a child of orders with a secondary index on order_id</li>
+ * <li>country - a reference table with a character key and 200 rows</li>
+ * <li>region - a reference table with an integer key, without a statistic row
+ * but with a unique index of 50 keys</li>
+ * <li>stock - a composite key of warehouse_id and sku, and a unique index on
+ * warehouse_id and barcode</li>
+ * <li>wide - an identity key and 70 nullable columns, without statistics</li>
+ * </ul>
+ * The productName property sets the database product name; for MySQL the
+ * connection also answers the query on information_schema.TABLES.
+ */
+public class MetaDataConnectionFactory implements ConnectionFactory {
+
+    /** The number of data columns of the wide table. */
+    public static final int WIDE_COLUMNS = 70;
+
+    private static final String[] COLUMN_LABELS = { "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME",
+            "COLUMN_NAME", "DATA_TYPE", "COLUMN_SIZE", "DECIMAL_DIGITS", "NULLABLE", "REMARKS",
+            "COLUMN_DEF", "IS_AUTOINCREMENT", "IS_GENERATEDCOLUMN" };
+
+    private static final Object[][] COLUMNS = columns(
+            column("orders", "id", Types.BIGINT, 19, 0, false, "YES"),
+            column("orders", "customer", Types.VARCHAR, 50, 0, false, "NO"),
+            column("orders", "amount", Types.DECIMAL, 10, 2, true, "NO"),
+            column("orders", "quantity", Types.INTEGER, 10, 0, true, "NO"),
+            column("orders", "created_at", Types.TIMESTAMP, 26, 0, true, "NO"),
+            column("orders", "note", Types.LONGVARCHAR, 4000, 0, true, "NO"),
+            column("orders", "version", Types.INTEGER, 10, 0, false, "NO"),
+            column("order_item", "id", Types.BIGINT, 19, 0, false, "YES"),
+            column("order_item", "order_id", Types.BIGINT, 19, 0, false, "NO"),
+            column("order_item", "sku", Types.VARCHAR, 20, 0, false, "NO"),
+            column("order_item", "quantity", Types.INTEGER, 10, 0, false, "NO"),
+            column("country", "code", Types.VARCHAR, 2, 0, false, "NO"),
+            column("country", "name", Types.VARCHAR, 50, 0, false, "NO"),
+            column("region", "id", Types.INTEGER, 10, 0, false, "NO"),
+            column("region", "name", Types.VARCHAR, 50, 0, false, "NO"),
+            column("region", "country_code", Types.VARCHAR, 2, 0, true, "NO"),
+            column("stock", "warehouse_id", Types.INTEGER, 10, 0, false, "NO"),
+            column("stock", "sku", Types.VARCHAR, 20, 0, false, "NO"),
+            column("stock", "quantity", Types.INTEGER, 10, 0, true, "NO"),
+            column("stock", "barcode", Types.VARCHAR, 32, 0, true, "NO"),
+            column("wide", "id", Types.BIGINT, 19, 0, false, "YES"));
+
+    private static final String[] PRIMARY_KEY_LABELS = { "TABLE_NAME", "COLUMN_NAME", "KEY_SEQ" };
+
+    private static final Object[][] PRIMARY_KEYS = {
+            { "orders", "id", (short) 1 },
+            { "order_item", "id", (short) 1 },
+            { "country", "code", (short) 1 },
+            { "region", "id", (short) 1 },
+            { "stock", "warehouse_id", (short) 1 },
+            { "stock", "sku", (short) 2 },
+            { "wide", "id", (short) 1 } };
+
+    private static final String[] INDEX_LABELS = { "TABLE_NAME", "TYPE", "CARDINALITY", "INDEX_NAME",
+            "NON_UNIQUE", "ORDINAL_POSITION", "COLUMN_NAME" };
+
+    private static final Object[][] INDEXES = {
+            { "orders", DatabaseMetaData.tableIndexStatistic, 1000L, null, false, (short) 0, null },
+            { "orders", DatabaseMetaData.tableIndexOther, 1000L, "PRIMARY", false, (short) 1, "id" },
+            { "orders", DatabaseMetaData.tableIndexOther, 800L, "uk_customer", false, (short) 1, "customer" },
+            { "order_item", DatabaseMetaData.tableIndexOther, 1000L, "idx_order", true, (short) 1, "order_id" },
+            { "stock", DatabaseMetaData.tableIndexOther, 0L, "uk_warehouse_barcode", false, (short) 2, "barcode" },
+            { "stock", DatabaseMetaData.tableIndexOther, 0L, "uk_warehouse_barcode", false, (short) 1, "warehouse_id" },
+            { "country", DatabaseMetaData.tableIndexStatistic, 200L, null, false, (short) 0, null },
+            { "region", DatabaseMetaData.tableIndexOther, 50L, "uk_region_name", false, (short) 1, "name" } };
+
+    private static final String[] IMPORTED_KEY_LABELS = { "TABLE_NAME", "PKTABLE_CAT", "PKTABLE_SCHEM",
+            "PKTABLE_NAME", "FK_NAME", "KEY_SEQ", "FKCOLUMN_NAME", "PKCOLUMN_NAME" };
+
+    private static final Object[][] IMPORTED_KEYS = {
+            { "order_item", null, null, "orders", "fk_item_order", (short) 1, "order_id", "id" } };
+
+    private static final String[] TABLE_SIZE_LABELS = { "TABLE_NAME", "TABLE_ROWS", "AVG_ROW_LENGTH",
+            "DATA_LENGTH", "INDEX_LENGTH" };
+
+    private static final Object[][] TABLE_SIZES = {
+            { "orders", 1200L, 150L, 180000L, 32768L },
+            { "wide", 5000000L, 1400L, 7000000000L, null } };
+
+    private static final String[] TABLE_LABELS = { "TABLE_NAME", "REMARKS", "TABLE_TYPE" };
+
+    private static final Object[][] TABLES = {
+            { "orders", "orders", "TABLE" },
+            { "order_item", "order items", "TABLE" },
+            { "country", "countries", "TABLE" },
+            { "region", "regions", "TABLE" },
+            { "stock", "stock per warehouse", "TABLE" },
+            { "wide", "a table with many columns", "TABLE" } };
+
+    private String productName = "Fake";
+
+    @Override
+    public Connection getConnection() {
+        final Connection[] connection = new Connection[1];
+        final DatabaseMetaData metaData = proxy(DatabaseMetaData.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ("getColumns".equals(name)) {
+                    return resultSet(COLUMN_LABELS, COLUMNS, 2, (String) args[2]);
+                } else if ("getPrimaryKeys".equals(name)) {
+                    return resultSet(PRIMARY_KEY_LABELS, PRIMARY_KEYS, 0, (String) args[2]);
+                } else if ("getIndexInfo".equals(name)) {
+                    return resultSet(INDEX_LABELS, INDEXES, 0, (String) args[2]);
+                } else if ("getImportedKeys".equals(name)) {
+                    return resultSet(IMPORTED_KEY_LABELS, IMPORTED_KEYS, 0, (String) args[2]);
+                } else if ("getTables".equals(name)) {
+                    return resultSet(TABLE_LABELS, TABLES, 0, (String) args[2]);
+                } else if ("getDatabaseProductName".equals(name)) {
+                    return productName;
+                } else if ("getSearchStringEscape".equals(name)) {
+                    return "\\";
+                } else if ("getConnection".equals(name)) {
+                    return connection[0];
+                }
+                return defaultValue(method.getReturnType());
+            }
+        });
+        connection[0] = proxy(Connection.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+                if ("getMetaData".equals(method.getName())) {
+                    return metaData;
+                } else if ("prepareStatement".equals(method.getName())) {
+                    return prepareStatement((String) args[0]);
+                }
+                return defaultValue(method.getReturnType());
+            }
+        });
+        return connection[0];
+    }
+
+    @Override
+    public void addConfigurationProperties(Properties properties) {
+        productName = properties.getProperty("productName", productName);
+    }
+
+    private PreparedStatement prepareStatement(String sql) throws SQLException {
+        if (!sql.contains("from information_schema.TABLES where TABLE_NAME = ?")) {
+            throw new SQLException("Unexpected statement " + sql);
+        }
+        return proxy(PreparedStatement.class, new InvocationHandler() {
+            private String tableName;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if ("setString".equals(method.getName()) && (Integer) args[0] == 1) {
+                    tableName = (String) args[1];
+                } else if ("executeQuery".equals(method.getName())) {
+                    return resultSet(TABLE_SIZE_LABELS, TABLE_SIZES, 0, tableName);
+                }
+                return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private static Object[][] columns(Object[]... columns) {
+        List<Object[]> answer = new ArrayList<Object[]>(Arrays.asList(columns));
+        for (int i = 1; i <= WIDE_COLUMNS; i++) {
+            answer.add(column("wide", String.format("c%02d", i), Types.VARCHAR, 20, 0, true, "NO"));
+        }
+        return answer.toArray(new Object[answer.size()][]);
+    }
+
+    private static Object[] column(String table, String name, int type, int size, int scale,
+            boolean nullable, String autoIncrement) {
+        return new Object[] { null, null, table, name, type, size, scale,
+                nullable ? DatabaseMetaData.columnNullable : DatabaseMetaData.columnNoNulls,
+                null, null, autoIncrement, "NO" };
+    }
+
+    /**
+     * A forward only result set over the rows of one table, the rows hold the
+     * values in the order of the labels.
+     */
+    private static ResultSet resultSet(final String[] labels, Object[][] rows, int tableIndex,
+            String tableName) {
+        final List<Object[]> tableRows = new ArrayList<Object[]>();
+        for (Object[] row : rows) {
+            if (row[tableIndex].equals(tableName)) {
+                tableRows.add(row);
+            }
+        }
+
+        final ResultSetMetaData metaData = proxy(ResultSetMetaData.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if ("getColumnCount".equals(method.getName())) {
+                    return labels.length;
+                } else if ("getColumnName".equals(method.getName())
+                        || "getColumnLabel".equals(method.getName())) {
+                    return labels[(Integer) args[0] - 1];
+                }
+                return defaultValue(method.getReturnType());
+            }
+        });
+        return proxy(ResultSet.class, new InvocationHandler() {
+            private int index = -1;
+
+            private boolean wasNull;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ("next".equals(name)) {
+                    return ++index < tableRows.size();
+                } else if ("wasNull".equals(name)) {
+                    return wasNull;
+                } else if ("getMetaData".equals(name)) {
+                    return metaData;
+                } else if (name.startsWith("get") && args != null && args[0] instanceof String) {
+                    Object value = tableRows.get(index)[Arrays.asList(labels).indexOf(args[0])];
+                    wasNull = value == null;
+                    if (value == null) {
+                        return defaultValue(method.getReturnType());
+                    } else if (value instanceof Number && method.getReturnType() == long.class) {
+                        return ((Number) value).longValue();
+                    } else if (value instanceof Number && method.getReturnType() == int.class) {
+                        return ((Number) value).intValue();
+                    } else if (value instanceof Number && method.getReturnType() == short.class) {
+                        return ((Number) value).shortValue();
+                    }
+                    return value;
+                }
+                return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(MetaDataConnectionFactory.class.getClassLoader(),
+                new Class<?>[] { type }, handler));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == short.class) {
+            return (short) 0;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+/**
+ * A DataSource for running generated JDBC DAOs without a database. It
+ * records the SQL of every prepared statement and the values bound to it,
+ * answers updates with a fixed count and answers queries and generated keys
+ * with the rows queued by {@link #addRow(Object...)}.
+ */
+public class RecordingDataSource {
+
+    private final List<String> statements = new ArrayList<String>();
+
+    private final List<List<Object>> parameters = new ArrayList<List<Object>>();
+
+    private final LinkedList<Object[]> rows = new LinkedList<Object[]>();
+
+    private int updateCount = 1;
+
+    private final DataSource dataSource = proxy(DataSource.class, new InvocationHandler() {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if ("getConnection".equals(method.getName())) {
+                return newConnection();
+            }
+            return defaultValue(method);
+        }
+    });
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /** The SQL of the prepared statements, in order. */
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    /** The values bound to the last prepared statement, null for setNull. */
+    public List<Object> getParameters() {
+        return parameters.get(parameters.size() - 1);
+    }
+
+    public void setUpdateCount(int updateCount) {
+        this.updateCount = updateCount;
+    }
+
+    /** Queues a row for the next query or generated keys result. */
+    public void addRow(Object... values) {
+        rows.add(values);
+    }
+
+    private Connection newConnection() {
+        return proxy(Connection.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if ("prepareStatement".equals(method.getName())) {
+                    statements.add((String) args[0]);
+                    List<Object> values = new ArrayList<Object>();
+                    parameters.add(values);
+                    return newStatement(values);
+                }
+                return defaultValue(method);
+            }
+        });
+    }
+
+    private PreparedStatement newStatement(final List<Object> values) {
+        return proxy(PreparedStatement.class, new InvocationHandler() {
+            private int batchSize;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("setNull")) {
+                    values.add(null);
+                } else if (name.startsWith("set") && args.length == 2
+                        && args[0] instanceof Integer) {
+                    values.add(args[1]);
+                } else if (name.equals("addBatch")) {
+                    batchSize++;
+                } else if (name.equals("executeBatch")) {
+                    int[] counts = new int[batchSize];
+                    Arrays.fill(counts, updateCount);
+                    return counts;
+                } else if (name.equals("executeUpdate")) {
+                    return updateCount;
+                } else if (name.equals("executeQuery") || name.equals("getGeneratedKeys")) {
+                    return newResultSet();
+                }
+                return defaultValue(method);
+            }
+        });
+    }
+
+    private ResultSet newResultSet() {
+        return proxy(ResultSet.class, new InvocationHandler() {
+            private Object[] row;
+
+            private boolean wasNull;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("next")) {
+                    row = rows.poll();
+                    return row != null;
+                } else if (name.equals("wasNull")) {
+                    return wasNull;
+                } else if (name.startsWith("get") && args != null && args[0] instanceof Integer) {
+                    Object value = row[(Integer) args[0] - 1];
+                    wasNull = value == null;
+                    return wasNull ? defaultValue(method) : value;
+                }
+                return defaultValue(method);
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(),
+                new Class<?>[] { type }, handler));
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type.isPrimitive() && type != void.class) {
+            throw new UnsupportedOperationException(method.getName());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Test;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.xml.ConfigurationParser;
+import org.mybatis.generator.internal.DefaultShellCallback;
+
+/**
+ * Generates the JDBC DAOs and the R2DBC repositories of two tables described
+ * by {@link MetaDataConnectionFactory} and compiles the generated code. The R2DBC SPI
+ * and Reactor are not dependencies of the generator, the repositories are
+ * compiled against minimal stubs of the types they use.
+ */
+public class RuntimeGenerationTest {
+
+    /** The parts of the R2DBC SPI, Reactive Streams and Reactor the repositories use. */
+    private static final String[][] STUBS = {
+            { "org/reactivestreams/Publisher.java",
+                    "package org.reactivestreams; public interface Publisher<T> {}" },
+            { "io/r2dbc/spi/ConnectionFactory.java",
+                    "package io.r2dbc.spi; public interface ConnectionFactory {"
+                    + " org.reactivestreams.Publisher<? extends Connection> create(); }" },
+            { "io/r2dbc/spi/Connection.java",
+                    "package io.r2dbc.spi; public interface Connection {"
+                    + " org.reactivestreams.Publisher<Void> close(); Statement createStatement(String sql); }" },
+            { "io/r2dbc/spi/Statement.java",
+                    "package io.r2dbc.spi; public interface Statement { Statement add();"
+                    + " Statement bind(int index, Object value); Statement bindNull(int index, Class<?> type);"
+                    + " org.reactivestreams.Publisher<? extends Result> execute();"
+                    + " Statement returnGeneratedValues(String... columns); Statement fetchSize(int rows); }" },
+            { "io/r2dbc/spi/Result.java",
+                    "package io.r2dbc.spi; public interface Result {"
+                    + " org.reactivestreams.Publisher<Long> getRowsUpdated();"
+                    + " <T> org.reactivestreams.Publisher<T> map("
+                    + "java.util.function.BiFunction<Row, RowMetadata, ? extends T> mapping); }" },
+            { "io/r2dbc/spi/Row.java",
+                    "package io.r2dbc.spi; public interface Row { <T> T get(int index, Class<T> type); }" },
+            { "io/r2dbc/spi/RowMetadata.java",
+                    "package io.r2dbc.spi; public interface RowMetadata {}" },
+            { "reactor/core/publisher/Mono.java",
+                    "package reactor.core.publisher; import java.util.function.*;"
+                    + " import org.reactivestreams.Publisher;"
+                    + " public abstract class Mono<T> implements Publisher<T> {"
+                    + " public static <T, D> Mono<T> usingWhen(Publisher<D> resource,"
+                    + " Function<? super D, ? extends Mono<? extends T>> closure,"
+                    + " Function<? super D, ? extends Publisher<?>> cleanup) { return null; }"
+                    + " public static <T> Mono<T> from(Publisher<? extends T> source) { return null; }"
+                    + " public static <T> Mono<T> just(T value) { return null; }"
+                    + " public static <T> Mono<T> defer(Supplier<? extends Mono<? extends T>> supplier) { return null; }"
+                    + " public abstract <R> Mono<R> flatMap(Function<? super T, ? extends Mono<? extends R>> mapper);"
+                    + " public abstract <R> Mono<R> map(Function<? super T, ? extends R> mapper);"
+                    + " public abstract Mono<T> defaultIfEmpty(T value);"
+                    + " public abstract <V> Mono<V> then(Mono<V> other);"
+                    + " public abstract <V> Mono<V> thenReturn(V value); }" },
+            { "reactor/core/publisher/Flux.java",
+                    "package reactor.core.publisher; import java.util.function.*;"
+                    + " import org.reactivestreams.Publisher;"
+                    + " public abstract class Flux<T> implements Publisher<T> {"
+                    + " public static <T, D> Flux<T> usingWhen(Publisher<D> resource,"
+                    + " Function<? super D, ? extends Publisher<? extends T>> closure,"
+                    + " Function<? super D, ? extends Publisher<?>> cleanup) { return null; }"
+                    + " public static <T> Flux<T> from(Publisher<? extends T> source) { return null; }"
+                    + " public static <T> Flux<T> fromIterable(Iterable<? extends T> source) { return null; }"
+                    + " public abstract <R> Flux<R> flatMap(Function<? super T, ? extends Publisher<? extends R>> mapper);"
+                    + " public abstract <R> Flux<R> concatMap(Function<? super T, ? extends Publisher<? extends R>> mapper);"
+                    + " public abstract <A> Mono<A> reduce(A initial, BiFunction<A, ? super T, A> accumulator);"
+                    + " public abstract Mono<Long> count();"
+                    + " public abstract Mono<Void> then();"
+                    + " public abstract <V> Mono<V> then(Mono<V> other); }" } };
+
+    @Test
+    public void testGeneratedCodeCompiles() throws Exception {
+        File directory = createTempDirectory();
+        try {
+            List<String> warnings = generate(directory);
+            assertTrue("Unexpected warnings: " + warnings, warnings.isEmpty());
+
+            List<File> sources = new ArrayList<File>();
+            findSources(new File(directory, "runtimes"), sources);
+            assertTrue(contains(sources, "OrdersDAO.java"));
+            assertTrue(contains(sources, "OrderItemDAO.java"));
+            assertTrue(contains(sources, "OrdersRepository.java"));
+            assertTrue(contains(sources, "OrderItemRepository.java"));
+
+            for (String[] stub : STUBS) {
+                sources.add(write(directory, stub[0], stub[1]));
+            }
+            compile(directory, sources);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static List<String> generate(File directory) throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("targetProject", directory.getAbsolutePath());
+
+        List<String> warnings = new ArrayList<String>();
+        ConfigurationParser cp = new ConfigurationParser(properties, warnings);
+        Configuration config = cp.parseConfiguration(
+                RuntimeGenerationTest.class.getResourceAsStream("/scripts/generatorConfig_runtimes.xml"));
+
+        MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, new DefaultShellCallback(true), warnings);
+        myBatisGenerator.generate(null);
+        return warnings;
+    }
+
+    private static void compile(File directory, List<File> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            fail("The generated code is compiled by the test, it must run on a JDK");
+        }
+
+        File classes = new File(directory, "classes");
+        assertTrue(classes.mkdir());
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        try {
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+            List<String> options = Arrays.asList("-d", classes.getPath(), "-encoding", "UTF-8", "-nowarn");
+            boolean compiled = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(sources)).call();
+            assertTrue("The generated code does not compile: " + diagnostics.getDiagnostics(), compiled);
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private static File createTempDirectory() throws IOException {
+        File directory = File.createTempFile("mbg-runtimes-", "");
+        assertTrue(directory.delete() && directory.mkdir());
+        return directory;
+    }
+
+    private static File write(File directory, String path, String content) throws IOException {
+        File file = new File(directory, path);
+        file.getParentFile().mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    private static void findSources(File directory, List<File> sources) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                findSources(file, sources);
+            } else if (file.getName().endsWith(".java")) {
+                sources.add(file);
+            }
+        }
+    }
+
+    private static boolean contains(List<File> files, String name) {
+        for (File file : files) {
+            if (file.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
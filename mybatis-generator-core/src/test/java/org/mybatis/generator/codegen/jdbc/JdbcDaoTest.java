@@ -0,0 +1,181 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorRunner.invoke;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.RecordingDataSource;
+import org.mybatis.generator.config.GeneratedKey;
+
+public class JdbcDaoTest {
+
+    private GeneratorRunner runner;
+
+    private ClassLoader loader;
+
+    private RecordingDataSource database;
+
+    @Before
+    public void setUp() throws Exception {
+        runner = new GeneratorRunner("Jdbc", "JDBC");
+        runner.addTable("orders").setGeneratedKey(new GeneratedKey("id", "JDBC", true, null));
+        runner.addTable("stock");
+        runner.generate();
+        assertTrue(runner.getWarnings().isEmpty());
+        assertFalse(runner.hasJavaFile("OrdersMapper.java"));
+        loader = runner.compile("OrdersDAO.java", "Orders.java", "OrdersWhere.java",
+                "StockDAO.java", "Stock.java", "StockWhere.java");
+        database = new RecordingDataSource();
+    }
+
+    @Test
+    public void testStatementsAreConstants() {
+        String dao = runner.getJavaFile("StockDAO.java");
+        assertTrue(dao.contains("    private static final String SELECT_BY_PRIMARY_KEY_SQL"
+                + " = SELECT_SQL + \" where warehouse_id = ? and sku = ?\";\n"));
+        assertTrue(dao.contains("    private static final String UPDATE_BY_PRIMARY_KEY_SQL = \"update \" + TABLE"
+                + " + \" set quantity = ?, barcode = ? where warehouse_id = ? and sku = ?\";\n"));
+        // no reflection and no MyBatis at runtime
+        assertFalse(dao.contains("java.lang.reflect"));
+        assertFalse(dao.contains("org.apache.ibatis"));
+
+        // the generated key is left out of the insert and read back by name
+        dao = runner.getJavaFile("OrdersDAO.java");
+        assertTrue(dao.contains("\" (customer, amount, quantity, created_at, version, note)"
+                + " values (?, ?, ?, ?, ?, ?)\";\n"));
+        assertTrue(dao.contains("    private static final String[] KEY_COLUMNS = { \"id\" };\n"));
+    }
+
+    @Test
+    public void testInsertWritesTheGeneratedKeyBack() throws Exception {
+        Object dao = newDao("Orders");
+        Object record = newModel("Orders");
+        invoke(record, "setCustomer", "c1");
+        invoke(record, "setCreatedAt", new Date(1000L));
+        database.addRow(42L);
+
+        assertEquals(1, invoke(dao, "insertNoCheck", record));
+        assertEquals(42L, invoke(record, "getId"));
+        assertEquals("insert into orders (customer, amount, quantity, created_at, version, note)"
+                + " values (?, ?, ?, ?, ?, ?)", database.getStatements().get(0));
+        assertEquals(Arrays.asList("c1", null, null, new Timestamp(1000L), null, null),
+                database.getParameters());
+    }
+
+    @Test
+    public void testBatchInsert() throws Exception {
+        Object dao = newDao("Orders");
+        assertEquals(0, invoke(dao, "inserts", Collections.emptyList()));
+        assertTrue(database.getStatements().isEmpty());
+
+        List<Object> records = new ArrayList<Object>();
+        records.add(newModel("Orders"));
+        records.add(newModel("Orders"));
+        database.addRow(1L);
+        database.addRow(2L);
+        assertEquals(2, invoke(dao, "inserts", records));
+        assertEquals(1, database.getStatements().size());
+        assertEquals(1L, invoke(records.get(0), "getId"));
+        assertEquals(2L, invoke(records.get(1), "getId"));
+    }
+
+    @Test
+    public void testRowsAreMappedByIndex() throws Exception {
+        Object dao = newDao("Orders");
+        database.addRow(7L, "c1", new BigDecimal("1.50"), null, new Timestamp(1000L), 3, "n");
+
+        Object record = invoke(dao, "selectByPrimaryKey", 7L);
+        assertEquals("select id, customer, amount, quantity, created_at, version, note from orders where id = ?",
+                database.getStatements().get(0));
+        assertEquals(Arrays.asList((Object) 7L), database.getParameters());
+        assertEquals(7L, invoke(record, "getId"));
+        assertEquals("c1", invoke(record, "getCustomer"));
+        assertEquals(new BigDecimal("1.50"), invoke(record, "getAmount"));
+        assertNull(invoke(record, "getQuantity"));
+        assertEquals(new Date(1000L), invoke(record, "getCreatedAt"));
+        assertEquals(3, invoke(record, "getVersion"));
+
+        assertNull(invoke(dao, "selectByPrimaryKey", 8L));
+    }
+
+    @Test
+    public void testSelectByWhere() throws Exception {
+        Object dao = newDao("Stock");
+        Object where = newModel("StockWhere");
+        invoke(where, "and", invoke(where, "builderQuantity", 3));
+        invoke(where, "setDistinct", true);
+        invoke(where, "page", 2, 5);
+
+        assertTrue(((List<?>) invoke(dao, "selectByWhere", where)).isEmpty());
+        assertEquals("select distinct warehouse_id, sku, quantity, barcode from stock"
+                + " where quantity = ? limit ? offset ?", database.getStatements().get(0));
+        assertEquals(Arrays.asList((Object) 3, 5, 5), database.getParameters());
+
+        database.addRow(4L);
+        assertEquals(4L, invoke(dao, "countByWhere", (Object) null));
+        assertEquals("select count(*) from stock", database.getStatements().get(1));
+    }
+
+    @Test
+    public void testSelectPageAfter() throws Exception {
+        Object dao = newDao("Stock");
+        invoke(dao, "selectPageAfter", null, null, 10);
+        assertEquals("select warehouse_id, sku, quantity, barcode from stock"
+                + " order by warehouse_id, sku limit ?", database.getStatements().get(0));
+        assertEquals(Arrays.asList((Object) 10), database.getParameters());
+
+        Object lastKey = newModel("Stock");
+        invoke(lastKey, "setWarehouseId", 1);
+        invoke(lastKey, "setSku", "a");
+        Object where = newModel("StockWhere");
+        invoke(where, "and", invoke(where, "builderBarcode", "b"));
+        database.addRow(1, "b", null, "b");
+
+        List<?> page = (List<?>) invoke(dao, "selectPageAfter", lastKey, where, 10);
+        assertEquals("select warehouse_id, sku, quantity, barcode from stock"
+                + " where (warehouse_id, sku) > (?, ?) and barcode = ?"
+                + " order by warehouse_id, sku limit ?", database.getStatements().get(1));
+        assertEquals(Arrays.asList((Object) 1, "a", "b", 10), database.getParameters());
+        assertEquals(1, page.size());
+        assertEquals("b", invoke(page.get(0), "getSku"));
+    }
+
+    private Object newDao(String name) throws Exception {
+        return loader.loadClass("test.mapper." + name + "DAO").getConstructor(DataSource.class)
+                .newInstance(database.getDataSource());
+    }
+
+    private Object newModel(String name) throws Exception {
+        return loader.loadClass("test.model." + name).newInstance();
+    }
+}
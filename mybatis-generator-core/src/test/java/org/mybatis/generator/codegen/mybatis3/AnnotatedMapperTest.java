@@ -0,0 +1,120 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.config.GeneratedKey;
+
+public class AnnotatedMapperTest {
+
+    private String mapper;
+
+    @Before
+    public void setUp() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner("MyBatis3", "ANNOTATEDMAPPER");
+        runner.addTable("orders", "upsertUpdateColumns=amount")
+                .setGeneratedKey(new GeneratedKey("id", "JDBC", true, null));
+        runner.generate();
+        assertTrue(runner.getWarnings().isEmpty());
+        mapper = runner.getJavaFile("OrdersMapper.java");
+    }
+
+    @Test
+    public void testFixedStatementsAreStaticSql() {
+        String method = getAnnotatedMethod("selectByPrimaryKey");
+        assertEquals("    @Select({\n"
+                + "        \"select\",\n"
+                + "        \"id, customer, amount, quantity, created_at, version\",\n"
+                + "        \",\",\n"
+                + "        \"note\",\n"
+                + "        \"from orders\",\n"
+                + "        \"where id = #{id,jdbcType=BIGINT}\"\n"
+                + "    })\n"
+                + "    @ResultMap(\"ResultMapWithBLOBs\")\n"
+                + "    Orders selectByPrimaryKey(Long id);", method);
+
+        method = getAnnotatedMethod("upsert");
+        assertFalse(method, method.contains("<script>"));
+        assertTrue(method, method.contains("\"on duplicate key update amount = values(amount)\""));
+    }
+
+    @Test
+    public void testDynamicStatementsAreScripts() {
+        for (String name : new String[] { "countByWhere", "existsByWhere", "selectByWhere",
+                "selectByPrimaryKeys", "deleteByWhere", "inserts", "upsertBatch" }) {
+            String method = getAnnotatedMethod(name);
+            assertTrue(method, method.contains("        \"<script>\",\n"));
+            assertTrue(method, method.contains("        \"</script>\"\n    })"));
+        }
+
+        String method = getAnnotatedMethod("selectByWhere");
+        assertTrue(method, method.contains("\"limit #{where.limit}\","));
+        assertTrue(method, method.contains("    @ResultMap(\"ResultMapWithBLOBs\")\n"));
+    }
+
+    @Test
+    public void testResultMapsAreDeclaredOnce() {
+        assertEquals(mapper.indexOf("@Results(id=\"ResultMapWithBLOBs\""),
+                mapper.lastIndexOf("@Results(id=\"ResultMapWithBLOBs\""));
+        assertEquals(mapper.indexOf("@Results(id=\"BaseResultMap\""),
+                mapper.lastIndexOf("@Results(id=\"BaseResultMap\""));
+        assertTrue(mapper.contains(
+                "        @Result(column=\"id\", property=\"id\", jdbcType=JdbcType.BIGINT, id=true),\n"));
+    }
+
+    @Test
+    public void testGeneratedKeys() {
+        String method = getAnnotatedMethod("insertNoCheck");
+        assertTrue(method, method.contains("\"insert into orders (customer, amount, quantity,\","));
+        assertTrue(method, method.contains(
+                "    @Options(useGeneratedKeys=true, keyProperty=\"id\", keyColumn=\"id\")\n"));
+
+        // the multi-row insert does not read the keys back
+        method = getAnnotatedMethod("inserts");
+        assertFalse(method, method.contains("useGeneratedKeys"));
+        assertFalse(method, method.contains("\"id,\""));
+        assertTrue(method, method.contains("open=\\\"values\\\" separator=\\\",\\\">\","));
+    }
+
+    @Test
+    public void testSelectiveStatementsUseProviders() {
+        assertEquals("    @InsertProvider(type=OrdersSqlProvider.class, method=\"insert\")\n"
+                + "    @Options(useGeneratedKeys=true, keyProperty=\"id\", keyColumn=\"id\")\n"
+                + "    int insert(Orders record);", getAnnotatedMethod("insert"));
+        assertEquals("    @UpdateProvider(type=OrdersSqlProvider.class, method=\"updateByPrimaryKey\")\n"
+                + "    int updateByPrimaryKey(Orders record);", getAnnotatedMethod("updateByPrimaryKey"));
+    }
+
+    @Test
+    public void testCursorOptions() {
+        assertTrue(getAnnotatedMethod("selectByWhereCursor").contains(
+                "    @Options(fetchSize=-2147483648, resultSetType=ResultSetType.FORWARD_ONLY)\n"));
+    }
+
+    /** The method declaration with its annotations. */
+    private String getAnnotatedMethod(String name) {
+        int declaration = mapper.indexOf(" " + name + "(");
+        assertTrue(name, declaration >= 0);
+        int start = mapper.lastIndexOf("\n\n", declaration) + 2;
+        return mapper.substring(start, mapper.indexOf(";\n", declaration) + 1);
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorRunner.getMethod;
+import static org.mybatis.generator.GeneratorRunner.invoke;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.MetaDataConnectionFactory;
+import org.mybatis.generator.config.ColumnOverride;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.plugins.ToStringPlugin;
+
+public class CompactModelTest {
+
+    @Test
+    public void testNumericPropertiesArePrimitives() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addModelProperties("compactModel=true");
+        runner.addTable("orders");
+        runner.generate();
+
+        String model = runner.getJavaFile("Orders.java");
+        assertTrue(model.contains("    private long nullMask = 0x7L;\n"));
+        assertTrue(model.contains("    private long id;\n"));
+        assertTrue(model.contains("    private int quantity;\n"));
+        assertTrue(model.contains("    private BigDecimal amount;\n"));
+        // the accessors keep the wrapper types
+        assertEquals("    public Integer getQuantity() {\n"
+                + "        return (nullMask & 0x2L) != 0 ? null : quantity;\n"
+                + "    }", getMethod(model, "getQuantity"));
+        assertTrue(getMethod(model, "setVersion").startsWith("    public void setVersion(Integer version) {"));
+    }
+
+    @Test
+    public void testNullContract() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addPlugin(ToStringPlugin.class);
+        runner.addTable("orders", "compactModel=true");
+        runner.generate();
+        Object record = runner.compile("Orders.java").loadClass("test.model.Orders").newInstance();
+
+        // a new record has every property null
+        assertNull(invoke(record, "getId"));
+        assertNull(invoke(record, "getQuantity"));
+        assertNull(invoke(record, "getVersion"));
+
+        // zero is a value, not null
+        invoke(record, "setQuantity", 0);
+        assertEquals(0, invoke(record, "getQuantity"));
+        assertNull(invoke(record, "getVersion"));
+        invoke(record, "setId", 7L);
+        invoke(record, "setVersion", -1);
+        assertEquals(7L, invoke(record, "getId"));
+        assertEquals(-1, invoke(record, "getVersion"));
+
+        invoke(record, "setQuantity", (Object) null);
+        assertNull(invoke(record, "getQuantity"));
+        assertEquals(7L, invoke(record, "getId"));
+
+        String text = record.toString();
+        assertTrue(text, text.endsWith(", id=7, customer=null, amount=null, quantity=null,"
+                + " createdAt=null, version=-1, note=null]"));
+        assertFalse(text, text.contains("nullMask"));
+    }
+
+    @Test
+    public void testAtMost64PropertiesAreCompacted() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        TableConfiguration table = runner.addTable("wide", "compactModel=true");
+        for (int i = 1; i <= MetaDataConnectionFactory.WIDE_COLUMNS; i++) {
+            ColumnOverride columnOverride = new ColumnOverride(String.format("c%02d", i));
+            columnOverride.setJavaType("java.lang.Integer");
+            table.addColumnOverride(columnOverride);
+        }
+        runner.generate();
+
+        // id takes the first bit, c63 the last one
+        String model = runner.getJavaFile("Wide.java");
+        assertTrue(model.contains("    private long nullMask = -1L;\n"));
+        assertTrue(model.contains("    private int c63;\n"));
+        assertTrue(model.contains("    private Integer c64;\n"));
+        assertTrue(getMethod(model, "getC63").contains("(nullMask & 0x8000000000000000L) != 0"));
+
+        Object record = runner.compile("Wide.java").loadClass("test.model.Wide").newInstance();
+        invoke(record, "setC63", 63);
+        invoke(record, "setC64", 64);
+        assertEquals(63, invoke(record, "getC63"));
+        assertEquals(64, invoke(record, "getC64"));
+        assertNull(invoke(record, "getC62"));
+    }
+
+    @Test
+    public void testIgnoredForConstructorBasedModels() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addModelProperties("compactModel=true");
+        runner.addTable("orders", "constructorBased=true");
+        runner.addTable("country", "compactModel=false");
+        runner.addTable("region");
+        runner.generate();
+
+        assertFalse(runner.getJavaFile("Orders.java").contains("nullMask"));
+        assertTrue(runner.getJavaFile("Orders.java").contains("    private Long id;\n"));
+        assertFalse(runner.getJavaFile("Country.java").contains("nullMask"));
+        assertTrue(runner.getJavaFile("Region.java").contains("    private int id;\n"));
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorRunner.getElement;
+import static org.mybatis.generator.GeneratorRunner.getMethod;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+
+public class CursorStatementsTest {
+
+    @Test
+    public void testStatementsStreamByDefault() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders");
+        runner.generate();
+        assertTrue(runner.getWarnings().isEmpty());
+
+        String xml = runner.getXmlFile("OrdersMapper.xml");
+        for (String id : new String[] { "selectByWhereCursor", "selectByWhereWithHandler" }) {
+            String select = getElement(xml, id);
+            assertTrue(select, select.contains("fetchSize=\"-2147483648\""));
+            assertTrue(select, select.contains("resultSetType=\"FORWARD_ONLY\""));
+            assertTrue(select, select.contains("resultMap=\"ResultMapWithBLOBs\""));
+            assertTrue(select, select.contains("from orders"));
+        }
+
+        String mapper = runner.getJavaFile("OrdersMapper.java");
+        assertTrue(mapper.contains("import org.apache.ibatis.cursor.Cursor;"));
+        assertEquals("    Cursor<Orders> selectByWhereCursor(@Param(\"where\") OrdersWhere where);",
+                getMethod(mapper, "selectByWhereCursor"));
+        assertEquals("    void selectByWhereWithHandler(@Param(\"where\") OrdersWhere where,"
+                + " ResultHandler<Orders> handler);", getMethod(mapper, "selectByWhereWithHandler"));
+    }
+
+    @Test
+    public void testConfiguredStatementAttributes() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "streamFetchSize=500", "streamResultSetType=scroll_insensitive");
+        runner.generate();
+        assertTrue(runner.getWarnings().isEmpty());
+
+        String select = getElement(runner.getXmlFile("OrdersMapper.xml"), "selectByWhereCursor");
+        assertTrue(select, select.contains("fetchSize=\"500\""));
+        assertTrue(select, select.contains("resultSetType=\"SCROLL_INSENSITIVE\""));
+    }
+
+    @Test
+    public void testScrollableResultSetUsesDriverFetchSize() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "streamResultSetType=SCROLL_SENSITIVE");
+        runner.generate();
+
+        String select = getElement(runner.getXmlFile("OrdersMapper.xml"), "selectByWhereCursor");
+        assertFalse(select, select.contains("fetchSize="));
+        assertTrue(select, select.contains("resultSetType=\"SCROLL_SENSITIVE\""));
+    }
+
+    @Test
+    public void testInvalidPropertiesAreReportedOnce() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "streamFetchSize=many", "streamResultSetType=bogus");
+        runner.generate();
+
+        assertEquals(2, runner.getWarnings().size());
+        assertEquals("Property streamResultSetType of table orders has an invalid value \"bogus\","
+                + " it will be ignored.", runner.getWarnings().get(0));
+        assertEquals("Property streamFetchSize of table orders has an invalid value \"many\","
+                + " it will be ignored.", runner.getWarnings().get(1));
+
+        String select = getElement(runner.getXmlFile("OrdersMapper.xml"), "selectByWhereWithHandler");
+        assertTrue(select, select.contains("fetchSize=\"-2147483648\""));
+        assertTrue(select, select.contains("resultSetType=\"FORWARD_ONLY\""));
+    }
+}
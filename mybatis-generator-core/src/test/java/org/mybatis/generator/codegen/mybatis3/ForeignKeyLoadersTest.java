@@ -0,0 +1,134 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorRunner.getElement;
+import static org.mybatis.generator.GeneratorRunner.getMethod;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.api.IntrospectedForeignKey;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.config.IgnoredColumn;
+
+public class ForeignKeyLoadersTest {
+
+    @Test
+    public void testForeignKeysAreLinked() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders");
+        runner.addTable("order_item");
+        runner.generate();
+
+        IntrospectedTable orders = runner.getIntrospectedTable("orders");
+        IntrospectedTable orderItem = runner.getIntrospectedTable("order_item");
+        List<IntrospectedForeignKey> foreignKeys = orderItem.getForeignKeys();
+        assertEquals(1, foreignKeys.size());
+        IntrospectedForeignKey foreignKey = foreignKeys.get(0);
+        assertEquals("fk_item_order", foreignKey.getKeyName());
+        assertSame(orderItem.getColumn("order_id"), foreignKey.getColumns().get(0));
+        assertEquals("id", foreignKey.getParentColumnNames().get(0));
+        assertSame(orders, foreignKey.getParentTable());
+        assertSame(foreignKey, orders.getReferencingForeignKeys().get(0));
+    }
+
+    @Test
+    public void testParentKeysFinder() throws Exception {
+        // the parent table need not be generated
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("order_item");
+        runner.generate();
+        assertTrue(runner.getWarnings().isEmpty());
+
+        String select = getElement(runner.getXmlFile("OrderItemMapper.xml"), "selectByParentKeysOrderId");
+        assertTrue(select, select.contains("<when test=\"keys == null or keys.isEmpty()\">\n"
+                + "        where 1 = 0\n"
+                + "      </when>"));
+        assertTrue(select, select.contains("where order_id in\n"
+                + "        <foreach close=\")\" collection=\"keys\" item=\"key\" open=\"(\" separator=\",\">\n"
+                + "          #{key,jdbcType=BIGINT}\n"
+                + "        </foreach>"));
+
+        String mapper = runner.getJavaFile("OrderItemMapper.java");
+        assertEquals("    List<OrderItem> selectByParentKeysOrderId(@Param(\"keys\") Collection<Long> keys);",
+                getMethod(mapper, "selectByParentKeysOrderId"));
+        String method = getMethod(mapper, "selectByParentKeysOrderIdInChunks");
+        assertTrue(method, method.contains("answer.addAll(selectByParentKeysOrderId(chunk));"));
+    }
+
+    @Test
+    public void testForeignKeyWithIgnoredColumnIsDropped() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("order_item").addIgnoredColumn(new IgnoredColumn("order_id"));
+        runner.generate();
+
+        assertTrue(runner.getIntrospectedTable("order_item").getForeignKeys().isEmpty());
+        assertFalse(runner.getJavaFile("OrderItemMapper.java").contains("selectByParentKeys"));
+    }
+
+    @Test
+    public void testJoinedChildren() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "joinChildren=order_item");
+        runner.addTable("order_item");
+        runner.generate();
+        assertTrue(runner.getWarnings().isEmpty());
+
+        String xml = runner.getXmlFile("OrdersMapper.xml");
+        String resultMap = getElement(xml, "OrderItemListJoinResultMap");
+        assertTrue(resultMap, resultMap.contains("type=\"test.model.Orders\""));
+        assertTrue(resultMap, resultMap.contains("<id column=\"id\" jdbcType=\"BIGINT\" property=\"id\" />"));
+        assertTrue(resultMap, resultMap.contains("<collection columnPrefix=\"orderItemList_\""
+                + " ofType=\"test.model.OrderItem\" property=\"orderItemList\">\n"
+                + "      <id column=\"id\" jdbcType=\"BIGINT\" property=\"id\" />\n"
+                + "      <result column=\"order_id\" jdbcType=\"BIGINT\" property=\"orderId\" />"));
+
+        // the parents are limited before the join, so a page holds whole parents
+        String select = getElement(xml, "selectByWhereWithOrderItemList");
+        assertTrue(select, select.contains("resultMap=\"OrderItemListJoinResultMap\""));
+        assertTrue(select, select.contains("c.id as orderItemList_id"));
+        assertTrue(select, select.contains("from (select id, customer, amount, quantity, created_at, version\n"
+                + "    from orders"));
+        assertTrue(select, select.contains(") p left join order_item c on c.order_id = p.id\n    ) j"));
+        assertTrue(select.indexOf("limit #{where.limit}") < select.indexOf(") p left join"));
+
+        assertEquals("    List<Orders> selectByWhereWithOrderItemList(@Param(\"where\") OrdersWhere where);",
+                getMethod(runner.getJavaFile("OrdersMapper.java"), "selectByWhereWithOrderItemList"));
+        String model = runner.getJavaFile("Orders.java");
+        assertTrue(model.contains("    private List<OrderItem> orderItemList;"));
+        assertTrue(model.contains("    public List<OrderItem> getOrderItemList() {"));
+    }
+
+    @Test
+    public void testJoinOfUnrelatedTableIsIgnored() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "joinChildren=country");
+        runner.addTable("country");
+        runner.generate();
+
+        assertEquals(1, runner.getWarnings().size());
+        assertEquals("Table country, specified in property joinChildren of table orders,"
+                + " is not a child table of it in this context, it will be ignored.", runner.getWarnings().get(0));
+        assertFalse(runner.getXmlFile("OrdersMapper.xml").contains("JoinResultMap"));
+        assertFalse(runner.getJavaFile("Orders.java").contains("List<Country>"));
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mybatis.generator.GeneratorRunner.getElement;
+import static org.mybatis.generator.GeneratorRunner.invoke;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.RecordingDataSource;
+
+public class IncrementColumnsTest {
+
+    @Test
+    public void testXmlStatements() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "incrementColumns=quantity,amount");
+        runner.generate();
+        assertTrue(runner.getWarnings().isEmpty());
+
+        String xml = runner.getXmlFile("OrdersMapper.xml");
+        assertEquals("<update id=\"incrementQuantityByPrimaryKey\">\n"
+                + "    update orders\n"
+                + "    set quantity = quantity + #{delta,jdbcType=INTEGER}\n"
+                + "    where id = #{id,jdbcType=BIGINT}\n"
+                + "    <if test=\"floor != null\">\n"
+                + "      and quantity + #{delta,jdbcType=INTEGER} &gt;= #{floor,jdbcType=INTEGER}\n"
+                + "    </if>\n"
+                + "    <if test=\"ceiling != null\">\n"
+                + "      and quantity + #{delta,jdbcType=INTEGER} &lt;= #{ceiling,jdbcType=INTEGER}\n"
+                + "    </if>\n"
+                + "  </update>", getElement(xml, "incrementQuantityByPrimaryKey"));
+
+        // a null delta would set the counter to NULL
+        String element = getElement(xml, "incrementAmountByWhere");
+        assertTrue(element.startsWith("<update id=\"incrementAmountByWhere\">\n    <bind name=\"delta\""
+                + " value=\"@java.util.Objects@requireNonNull(delta, 'delta is required')\" />\n"));
+        // the guards share the where of the criteria
+        assertTrue(element.contains("      <if test=\"floor != null\">\n"
+                + "        and amount + #{delta,jdbcType=DECIMAL} &gt;= #{floor,jdbcType=DECIMAL}\n"
+                + "      </if>\n"));
+        assertTrue(element.endsWith("    </where>\n  </update>"));
+
+        String mapper = runner.getJavaFile("OrdersMapper.java");
+        assertTrue(mapper.contains("    int incrementQuantityByPrimaryKey(@Param(\"id\") Long id, @Param(\"delta\") int delta,"
+                + " @Param(\"floor\") Integer floor, @Param(\"ceiling\") Integer ceiling);\n"));
+        assertTrue(mapper.contains("    int incrementAmountByWhere(@Param(\"delta\") BigDecimal delta,"
+                + " @Param(\"floor\") BigDecimal floor, @Param(\"ceiling\") BigDecimal ceiling,"
+                + " @Param(\"where\") OrdersWhere where);\n"));
+    }
+
+    @Test
+    public void testIncrementsBumpTheVersion() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "incrementColumns=quantity", "versionColumn=version");
+        runner.generate();
+
+        assertTrue(getElement(runner.getXmlFile("OrdersMapper.xml"), "incrementQuantityByPrimaryKey").contains(
+                "    set quantity = quantity + #{delta,jdbcType=INTEGER}, version = version + 1\n"));
+    }
+
+    @Test
+    public void testJdbcBinds() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner("Jdbc", "JDBC");
+        runner.addTable("orders", "incrementColumns=quantity,amount");
+        runner.generate();
+        ClassLoader loader = runner.compile("OrdersDAO.java", "Orders.java", "OrdersWhere.java");
+        RecordingDataSource database = new RecordingDataSource();
+        Object dao = loader.loadClass("test.mapper.OrdersDAO").getConstructor(DataSource.class)
+                .newInstance(database.getDataSource());
+
+        assertEquals(1, invoke(dao, "incrementQuantityByPrimaryKey", 7L, -2, 0, null));
+        assertEquals("update orders set quantity = quantity + ? where id = ? and quantity + ? >= ?",
+                database.getStatements().get(0));
+        assertEquals(Arrays.asList((Object) (-2), 7L, -2, 0), database.getParameters());
+
+        BigDecimal delta = new BigDecimal("1.5");
+        BigDecimal ceiling = new BigDecimal("100");
+        invoke(dao, "incrementAmountByPrimaryKey", 7L, delta, null, ceiling);
+        assertEquals("update orders set amount = amount + ? where id = ? and amount + ? <= ?",
+                database.getStatements().get(1));
+        assertEquals(Arrays.asList(delta, 7L, delta, ceiling), database.getParameters());
+
+        Object where = loader.loadClass("test.model.OrdersWhere").newInstance();
+        invoke(where, "and", invoke(where, "builderCustomer", "c1"));
+        invoke(dao, "incrementQuantityByWhere", 3, 0, 10, where);
+        assertEquals("update orders set quantity = quantity + ?"
+                + " where quantity + ? >= ? and quantity + ? <= ? and customer = ?", database.getStatements().get(2));
+        assertEquals(Arrays.asList((Object) 3, 3, 0, 3, 10, "c1"), database.getParameters());
+
+        invoke(dao, "incrementQuantityByWhere", 3, null, null, null);
+        assertEquals("update orders set quantity = quantity + ?", database.getStatements().get(3));
+
+        try {
+            invoke(dao, "incrementAmountByWhere", null, null, null, null);
+            fail("a null delta should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("delta is required", e.getMessage());
+        }
+        assertEquals(4, database.getStatements().size());
+    }
+
+    @Test
+    public void testInvalidColumns() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "incrementColumns=quantity,customer,id,missing,version", "versionColumn=version");
+        runner.generate();
+
+        String suffix = ", specified in property incrementColumns of table orders, does not exist in the table"
+                + " or cannot be used there, it will be ignored.";
+        assertEquals(Arrays.asList("Column customer" + suffix, "Column id" + suffix, "Column missing" + suffix,
+                "Column version" + suffix), runner.getWarnings());
+        String xml = runner.getXmlFile("OrdersMapper.xml");
+        assertTrue(xml.contains("<update id=\"incrementQuantityByPrimaryKey\">"));
+        assertFalse(xml.contains("incrementCustomer"));
+        assertFalse(xml.contains("incrementId"));
+        assertFalse(xml.contains("incrementVersion"));
+    }
+}
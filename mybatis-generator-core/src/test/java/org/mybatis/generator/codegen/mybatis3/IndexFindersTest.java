@@ -0,0 +1,132 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorRunner.getElement;
+import static org.mybatis.generator.GeneratorRunner.getMethod;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.api.IntrospectedIndex;
+import org.mybatis.generator.config.IgnoredColumn;
+
+public class IndexFindersTest {
+
+    private static final String UNINDEXED_REMARK = "(该列不是任何索引的首列, 单独使用会导致全表扫描)";
+
+    @Test
+    public void testIndexesAreIntrospected() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders");
+        runner.addTable("stock");
+        runner.generate();
+
+        // the primary key index is not a secondary index
+        List<IntrospectedIndex> indexes = runner.getIntrospectedTable("orders").getIndexes();
+        assertEquals(1, indexes.size());
+        assertEquals("uk_customer", indexes.get(0).getIndexName());
+        assertTrue(indexes.get(0).isUnique());
+
+        // the columns are in ordinal position order
+        indexes = runner.getIntrospectedTable("stock").getIndexes();
+        assertEquals(1, indexes.size());
+        assertEquals("warehouse_id", indexes.get(0).getColumns().get(0).getActualColumnName());
+        assertEquals("barcode", indexes.get(0).getColumns().get(1).getActualColumnName());
+    }
+
+    @Test
+    public void testUniqueKeyFinder() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("stock");
+        runner.generate();
+
+        String select = getElement(runner.getXmlFile("StockMapper.xml"), "selectByUniqueKeyWarehouseIdAndBarcode");
+        assertTrue(select, select.contains("from stock\n"
+                + "    where warehouse_id = #{warehouseId,jdbcType=INTEGER}\n"
+                + "      and barcode = #{barcode,jdbcType=VARCHAR}\n"
+                + "  </select>"));
+        assertEquals("    Stock selectByUniqueKeyWarehouseIdAndBarcode(@Param(\"warehouseId\") Integer warehouseId,"
+                + " @Param(\"barcode\") String barcode);",
+                getMethod(runner.getJavaFile("StockMapper.java"), "selectByUniqueKeyWarehouseIdAndBarcode"));
+    }
+
+    @Test
+    public void testIndexPrefixFinder() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("order_item");
+        runner.generate();
+
+        String select = getElement(runner.getXmlFile("OrderItemMapper.xml"), "selectByIndexPrefixOrderId");
+        assertTrue(select, select.contains("where order_id = #{orderId,jdbcType=BIGINT}"));
+        assertEquals("    List<OrderItem> selectByIndexPrefixOrderId(@Param(\"orderId\") Long orderId);",
+                getMethod(runner.getJavaFile("OrderItemMapper.java"), "selectByIndexPrefixOrderId"));
+    }
+
+    @Test
+    public void testUniqueIndexWithIgnoredColumnIsAPrefix() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("stock").addIgnoredColumn(new IgnoredColumn("barcode"));
+        runner.generate();
+
+        // warehouse_id alone does not identify a row
+        IntrospectedIndex index = runner.getIntrospectedTable("stock").getIndexes().get(0);
+        assertFalse(index.isUnique());
+        assertEquals(1, index.getColumns().size());
+
+        String mapper = runner.getJavaFile("StockMapper.java");
+        assertFalse(mapper, mapper.contains("selectByUniqueKey"));
+        assertEquals("    List<Stock> selectByIndexPrefixWarehouseId(@Param(\"warehouseId\") Integer warehouseId);",
+                getMethod(mapper, "selectByIndexPrefixWarehouseId"));
+    }
+
+    @Test
+    public void testUnindexedCriteriaAreMarked() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.getContext().getCommentGeneratorConfiguration().addProperty("suppressAllComments", "false");
+        runner.addTable("stock");
+        runner.generate();
+
+        String where = runner.getJavaFile("StockWhere.java");
+        assertFalse(builderComment(where, "builderWarehouseId").contains(UNINDEXED_REMARK));
+        assertTrue(builderComment(where, "builderSku").contains(UNINDEXED_REMARK));
+        assertTrue(builderComment(where, "builderQuantity").contains(UNINDEXED_REMARK));
+        assertTrue(builderComment(where, "builderBarcode").contains(UNINDEXED_REMARK));
+    }
+
+    @Test
+    public void testUnindexedCriteriaCanBeOmitted() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("stock", "omitUnindexedCriteria=true");
+        runner.generate();
+
+        String where = runner.getJavaFile("StockWhere.java");
+        assertTrue(where.contains("public static Criterion builderWarehouseId(Integer value)"));
+        assertFalse(where.contains("builderSku"));
+        assertFalse(where.contains("builderQuantity"));
+        assertFalse(where.contains("builderBarcode"));
+    }
+
+    private static String builderComment(String where, String name) {
+        int end = where.indexOf("public static Criterion " + name + "(");
+        assertTrue(name, end >= 0);
+        return where.substring(where.lastIndexOf("/**", end), end);
+    }
+}
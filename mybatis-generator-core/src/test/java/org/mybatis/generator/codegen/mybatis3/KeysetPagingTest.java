@@ -0,0 +1,58 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorRunner.getElement;
+import static org.mybatis.generator.GeneratorRunner.getMethod;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+
+public class KeysetPagingTest {
+
+    @Test
+    public void testSingleColumnKey() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders");
+        runner.generate();
+
+        String select = getElement(runner.getXmlFile("OrdersMapper.xml"), "selectPageAfter");
+        // the first page is read without a last key
+        assertTrue(select, select.contains("<if test=\"lastKey != null\">\n"
+                + "        id &gt; #{lastKey.id,jdbcType=BIGINT}\n"
+                + "      </if>"));
+        assertTrue(select, select.contains("<if test=\"where != null\">"));
+        assertTrue(select, select.contains("order by id\n    limit #{pageSize}\n  </select>"));
+
+        assertEquals("    List<Orders> selectPageAfter(@Param(\"lastKey\") Orders lastKey,"
+                + " @Param(\"where\") OrdersWhere where, @Param(\"pageSize\") int pageSize);",
+                getMethod(runner.getJavaFile("OrdersMapper.java"), "selectPageAfter"));
+    }
+
+    @Test
+    public void testCompositeKeyComparesRowValues() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("stock");
+        runner.generate();
+
+        String select = getElement(runner.getXmlFile("StockMapper.xml"), "selectPageAfter");
+        assertTrue(select, select.contains("(warehouse_id, sku) &gt; (#{lastKey.warehouseId,jdbcType=INTEGER},"
+                + " #{lastKey.sku,jdbcType=VARCHAR})"));
+        assertTrue(select, select.contains("order by warehouse_id, sku\n    limit #{pageSize}"));
+    }
+}
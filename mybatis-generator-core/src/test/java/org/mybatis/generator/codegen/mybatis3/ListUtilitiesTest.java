@@ -0,0 +1,79 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.api.IntrospectedColumn;
+
+public class ListUtilitiesTest {
+
+    @Test
+    public void testOrderOfColumnsIsKept() {
+        List<IntrospectedColumn> columns = columns("id", "name", "price", "stock");
+        List<String> unmatched = new ArrayList<String>();
+
+        List<IntrospectedColumn> answer = ListUtilities.retainNamedColumns(columns, "stock, id", unmatched);
+        assertEquals(Arrays.asList(columns.get(0), columns.get(3)), answer);
+        assertTrue(unmatched.isEmpty());
+    }
+
+    @Test
+    public void testCaseIsIgnored() {
+        List<IntrospectedColumn> columns = columns("id", "Name");
+
+        List<IntrospectedColumn> answer = ListUtilities.retainNamedColumns(columns, "NAME", null);
+        assertEquals(Arrays.asList(columns.get(1)), answer);
+    }
+
+    @Test
+    public void testDelimitedColumnsMatchExactly() {
+        List<IntrospectedColumn> columns = columns("id", "Order Date");
+        List<String> unmatched = new ArrayList<String>();
+
+        assertTrue(ListUtilities.retainNamedColumns(columns, "order date", unmatched).isEmpty());
+        assertEquals(Arrays.asList("order date"), unmatched);
+
+        List<IntrospectedColumn> answer = ListUtilities.retainNamedColumns(columns, "Order Date", null);
+        assertEquals(Arrays.asList(columns.get(1)), answer);
+    }
+
+    @Test
+    public void testUnmatchedAndEmptyNames() {
+        List<IntrospectedColumn> columns = columns("id", "name");
+        List<String> unmatched = new ArrayList<String>();
+
+        List<IntrospectedColumn> answer = ListUtilities.retainNamedColumns(columns, " name,, missing ,", unmatched);
+        assertEquals(Arrays.asList(columns.get(1)), answer);
+        assertEquals(Arrays.asList("missing"), unmatched);
+    }
+
+    private static List<IntrospectedColumn> columns(String... names) {
+        List<IntrospectedColumn> answer = new ArrayList<IntrospectedColumn>();
+        for (String name : names) {
+            IntrospectedColumn introspectedColumn = new IntrospectedColumn();
+            introspectedColumn.setActualColumnName(name);
+            answer.add(introspectedColumn);
+        }
+        return answer;
+    }
+}
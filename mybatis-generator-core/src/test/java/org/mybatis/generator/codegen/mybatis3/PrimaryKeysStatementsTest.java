@@ -0,0 +1,125 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mybatis.generator.GeneratorRunner.getElement;
+import static org.mybatis.generator.GeneratorRunner.getMethod;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.exception.InvalidConfigurationException;
+
+public class PrimaryKeysStatementsTest {
+
+    private static final String EMPTY_KEYS_GUARD = "<when test=\"keys == null or keys.isEmpty()\">\n"
+            + "        where 1 = 0\n"
+            + "      </when>";
+
+    @Test
+    public void testSingleColumnKeyUsesInList() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders");
+        runner.generate();
+
+        String xml = runner.getXmlFile("OrdersMapper.xml");
+        for (String id : new String[] { "selectByPrimaryKeys", "deleteByPrimaryKeys" }) {
+            String statement = getElement(xml, id);
+            // an empty IN list is not valid SQL, no key matches no row
+            assertTrue(statement, statement.contains(EMPTY_KEYS_GUARD));
+            assertTrue(statement, statement.contains("where id in\n"
+                    + "        <foreach close=\")\" collection=\"keys\" item=\"key\" open=\"(\" separator=\",\">\n"
+                    + "          #{key,jdbcType=BIGINT}\n"
+                    + "        </foreach>"));
+        }
+
+        String mapper = runner.getJavaFile("OrdersMapper.java");
+        assertEquals("    List<Orders> selectByPrimaryKeys(@Param(\"keys\") Collection<Long> keys);",
+                getMethod(mapper, "selectByPrimaryKeys"));
+        assertEquals("    int deleteByPrimaryKeys(@Param(\"keys\") Collection<Long> keys);",
+                getMethod(mapper, "deleteByPrimaryKeys"));
+    }
+
+    @Test
+    public void testCompositeKeyUsesTupleInList() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("stock");
+        runner.generate();
+
+        String xml = runner.getXmlFile("StockMapper.xml");
+        for (String id : new String[] { "selectByPrimaryKeys", "deleteByPrimaryKeys" }) {
+            String statement = getElement(xml, id);
+            assertTrue(statement, statement.contains(EMPTY_KEYS_GUARD));
+            assertTrue(statement, statement.contains("where (warehouse_id, sku) in\n"
+                    + "        <foreach close=\")\" collection=\"keys\" item=\"key\" open=\"(\" separator=\",\">\n"
+                    + "          (#{key.warehouseId,jdbcType=INTEGER}, #{key.sku,jdbcType=VARCHAR})\n"
+                    + "        </foreach>"));
+        }
+
+        // composite keys are passed as records
+        assertEquals("    List<Stock> selectByPrimaryKeys(@Param(\"keys\") Collection<Stock> keys);",
+                getMethod(runner.getJavaFile("StockMapper.java"), "selectByPrimaryKeys"));
+    }
+
+    @Test
+    public void testChunksHaveBoundedSizes() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "primaryKeysChunkSize=64");
+        runner.generate();
+
+        String mapper = runner.getJavaFile("OrdersMapper.java");
+        String method = getMethod(mapper, "selectByPrimaryKeysInChunks");
+        assertTrue(method, method.startsWith(
+                "    default List<Orders> selectByPrimaryKeysInChunks(Collection<Long> keys) {"));
+        assertTrue(method, method.contains("if (chunk.size() == 64) {\n"
+                + "                answer.addAll(selectByPrimaryKeys(chunk));\n"
+                + "                chunk.clear();"));
+        // the last chunk is padded with its last key to the next power of two
+        assertTrue(method, method.contains(
+                "int size = Math.min(Integer.highestOneBit(chunk.size() - 1) << 1, 64);"));
+        assertTrue(method, method.contains("while (chunk.size() < size) {\n"
+                + "                chunk.add(last);"));
+
+        method = getMethod(mapper, "deleteByPrimaryKeysInChunks");
+        assertTrue(method, method.contains("answer += deleteByPrimaryKeys(chunk);"));
+    }
+
+    @Test
+    public void testDefaultChunkSize() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders");
+        runner.generate();
+
+        String method = getMethod(runner.getJavaFile("OrdersMapper.java"), "selectByPrimaryKeysInChunks");
+        assertTrue(method, method.contains("if (chunk.size() == 500) {"));
+    }
+
+    @Test
+    public void testInvalidChunkSize() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "primaryKeysChunkSize=0");
+        try {
+            runner.generate();
+            fail("primaryKeysChunkSize must be positive");
+        } catch (InvalidConfigurationException e) {
+            assertEquals(1, e.getErrors().size());
+            assertEquals("Property primaryKeysChunkSize in table orders must be a positive integer",
+                    e.getErrors().get(0));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mybatis.generator.GeneratorRunner.getElement;
+import static org.mybatis.generator.GeneratorRunner.getMethod;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.exception.InvalidConfigurationException;
+
+public class ShardingTest {
+
+    @Test
+    public void testStatementsRouteAtRuntime() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "shardColumn=id", "shardCount=4");
+        runner.generate();
+        assertTrue(runner.getWarnings().isEmpty());
+
+        String xml = runner.getXmlFile("OrdersMapper.xml");
+        String router = "${@test.mapper.OrdersShardRouter@";
+        assertTrue(getElement(xml, "countByWhere").contains(
+                "select count(*) from " + router + "table(where == null ? null : where.shardKey)}"));
+        assertTrue(getElement(xml, "selectByPrimaryKey").contains("from " + router + "table(_parameter)}"));
+        assertTrue(getElement(xml, "selectByPrimaryKeys").contains("from " + router + "tableOfKeys(keys)}"));
+        assertTrue(getElement(xml, "insert").contains("insert into " + router + "table(id)}"));
+        assertTrue(getElement(xml, "inserts").contains("insert into " + router + "tableOfRecords(records)}"));
+        assertTrue(getElement(xml, "updateByPrimaryKey").contains("update " + router + "table(id)}"));
+        // the unique key does not contain the shard column
+        assertTrue(getElement(xml, "selectByUniqueKeyCustomer").contains("from " + router + "table(null)}"));
+
+        String mapper = runner.getJavaFile("OrdersMapper.java");
+        assertTrue(getMethod(mapper, "insertsByShard").contains(
+                "shards.computeIfAbsent(OrdersShardRouter.table(record.getId()), table -> new ArrayList<>()).add(record);"));
+        assertTrue(getMethod(mapper, "selectByPrimaryKeysByShard").contains(
+                "            answer.addAll(selectByPrimaryKeys(shard));\n"));
+        assertTrue(runner.getJavaFile("OrdersWhere.java").contains("    public OrdersWhere setShardKey(Long shardKey) {\n"));
+    }
+
+    @Test
+    public void testHashRouter() throws Exception {
+        Class<?> router = compileRouter("orders", "OrdersShardRouter", "shardColumn=id", "shardCount=4");
+        assertEquals(4, router.getField("SHARD_COUNT").get(null));
+        assertEquals("orders_01", call(router, "table", 5L));
+        assertEquals(2, call(router, "shard", 6L));
+
+        assertFails(router, "shard", IllegalArgumentException.class, "shard key id is null", (Object) null);
+        assertFails(router, "table", IllegalStateException.class, "no shard key for table orders,"
+                + " pass it with the statement or bind it with bindShardKey", (Object) null);
+
+        // statements without a key use the key bound to the thread
+        assertNull(call(router, "bindShardKey", 6L));
+        try {
+            assertEquals("orders_02", call(router, "table", (Object) null));
+            assertEquals("orders_03", call(router, "table", 7L));
+            assertEquals("orders_02", call(router, "tableOfKeys", Collections.emptyList()));
+        } finally {
+            assertEquals(6L, call(router, "bindShardKey", (Object) null));
+        }
+    }
+
+    @Test
+    public void testBatchesStayInOneShard() throws Exception {
+        Class<?> router = compileRouter("orders", "OrdersShardRouter", "shardColumn=id", "shardCount=4");
+        assertEquals("orders_01", call(router, "tableOfKeys", Arrays.asList(1L, 5L, 9L)));
+
+        // an empty or null batch does not execute, any table makes the statement valid
+        assertEquals("orders_00", call(router, "tableOfKeys", Collections.emptyList()));
+        assertEquals("orders_00", call(router, "tableOfKeys", (Object) null));
+        assertEquals("orders_00", call(router, "tableOfRecords", new ArrayList<Object>()));
+
+        assertFails(router, "tableOfKeys", IllegalArgumentException.class,
+                "the batch spans the shards orders_01 and orders_02, split it by shard first",
+                Arrays.asList(1L, 5L, 2L));
+        assertFails(router, "tableOfKeys", IllegalStateException.class, "no shard key for table orders,"
+                + " pass it with the statement or bind it with bindShardKey", Arrays.asList(1L, null));
+    }
+
+    @Test
+    public void testRangeRouter() throws Exception {
+        Class<?> router = compileRouter("order_item", "OrderItemShardRouter", "shardColumn=order_id",
+                "shardRanges=1000,2000", "shardSuffixFormat=_%d");
+        assertEquals(2, router.getField("SHARD_COUNT").get(null));
+        assertEquals("order_item_0", call(router, "table", -5L));
+        assertEquals("order_item_0", call(router, "table", 999L));
+        // an upper bound belongs to the next shard
+        assertEquals("order_item_1", call(router, "table", 1000L));
+        assertEquals("order_item_1", call(router, "table", 1999L));
+        assertFails(router, "table", IllegalArgumentException.class, "shard key 2000 is beyond the last shard", 2000L);
+    }
+
+    @Test
+    public void testInvalidShardColumns() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("country", "shardColumn=code", "shardRanges=1,2");
+        runner.addTable("region", "shardColumn=missing", "shardCount=2");
+        runner.generate();
+
+        assertEquals(Arrays.asList("Column code, specified in property shardColumn of table country,"
+                + " does not exist or is not an integral column as required by shardRanges,"
+                + " the table will not be sharded",
+                "Column missing, specified in property shardColumn of table region,"
+                + " does not exist or is not an integral column as required by shardRanges,"
+                + " the table will not be sharded"), runner.getWarnings());
+        assertFalse(runner.hasJavaFile("CountryShardRouter.java"));
+        assertFalse(runner.hasJavaFile("RegionShardRouter.java"));
+        assertFalse(runner.getXmlFile("RegionMapper.xml").contains("ShardRouter"));
+    }
+
+    @Test
+    public void testJoinedChildrenMustShareTheShardKey() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "shardColumn=id", "shardCount=4", "joinChildren=order_item");
+        runner.addTable("order_item", "shardColumn=order_id", "shardCount=4");
+        runner.generate();
+        assertTrue(runner.getWarnings().isEmpty());
+        assertTrue(getElement(runner.getXmlFile("OrdersMapper.xml"), "selectByWhereWithOrderItemList").contains(
+                " left join ${@test.mapper.OrderItemShardRouter@table(where == null ? null : where.shardKey)} c"
+                + " on c.order_id = p.id"));
+
+        runner = new GeneratorRunner();
+        runner.addTable("orders", "shardColumn=id", "shardCount=4", "joinChildren=order_item");
+        runner.addTable("order_item", "shardColumn=sku", "shardCount=4");
+        runner.generate();
+        assertEquals(Arrays.asList("Table order_item, specified in property joinChildren of table orders,"
+                + " is sharded by column sku, which does not reference the shard column of table orders."
+                + " The join cannot find the physical child table, it will be ignored."), runner.getWarnings());
+        assertFalse(runner.getXmlFile("OrdersMapper.xml").contains("selectByWhereWithOrderItemList"));
+    }
+
+    @Test
+    public void testInvalidProperties() throws Exception {
+        assertErrors(new String[] { "shardColumn=id" },
+                "Property shardCount or shardRanges is required in table orders when property shardColumn is specified");
+        assertErrors(new String[] { "shardColumn=id", "shardCount=0" },
+                "Property shardCount in table orders must be a positive integer");
+        assertErrors(new String[] { "shardColumn=id", "shardRanges=20,10" },
+                "Property shardRanges in table orders must be a comma separated list of increasing integers");
+        assertErrors(new String[] { "shardColumn=id", "shardCount=2", "shardSuffixFormat=_%s%s" },
+                "Property shardSuffixFormat in table orders is not a valid format for a shard number: _%s%s");
+    }
+
+    private static Class<?> compileRouter(String table, String routerName, String... properties) throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable(table, properties);
+        runner.generate();
+        String model = routerName.substring(0, routerName.length() - "ShardRouter".length());
+        return runner.compile(routerName + ".java", model + ".java").loadClass("test.mapper." + routerName);
+    }
+
+    /** Calls a static method of the router, exceptions are rethrown unwrapped. */
+    private static Object call(Class<?> router, String name, Object argument) throws Exception {
+        Class<?> parameterType = Object.class;
+        if (name.startsWith("tableOf")) {
+            parameterType = Collection.class;
+        }
+        Method method = router.getMethod(name, parameterType);
+        try {
+            return method.invoke(null, argument);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private static void assertFails(Class<?> router, String name, Class<? extends Exception> type,
+            String message, Object argument) throws Exception {
+        try {
+            call(router, name, argument);
+            fail(name + "(" + argument + ") should fail");
+        } catch (Exception e) {
+            assertEquals(type, e.getClass());
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    private static void assertErrors(String[] properties, String error) throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", properties);
+        try {
+            runner.generate();
+            fail(Arrays.toString(properties) + " should be rejected");
+        } catch (InvalidConfigurationException e) {
+            List<String> errors = e.getErrors();
+            assertEquals(Arrays.asList(error), errors);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorRunner.getElement;
+import static org.mybatis.generator.GeneratorRunner.getMethod;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+
+public class SingleRowStatementsTest {
+
+    private GeneratorRunner runner;
+
+    @Before
+    public void setUp() throws Exception {
+        runner = new GeneratorRunner();
+        runner.addTable("orders");
+        runner.generate();
+    }
+
+    @Test
+    public void testExistsByWhere() {
+        String select = getElement(runner.getXmlFile("OrdersMapper.xml"), "existsByWhere");
+        assertTrue(select, select.contains("resultType=\"java.lang.Boolean\""));
+        // a null where checks whether the table has any row
+        assertTrue(select, select.contains("select exists(select 1 from orders\n"
+                + "    <if test=\"where != null\">\n"
+                + "      <include refid=\"whereClause\" />\n"
+                + "    </if>\n"
+                + "    limit 1)\n"
+                + "  </select>"));
+        assertFalse(select, select.contains("count("));
+
+        assertEquals("    boolean existsByWhere(@Param(\"where\") OrdersWhere where);",
+                getMethod(runner.getJavaFile("OrdersMapper.java"), "existsByWhere"));
+    }
+
+    @Test
+    public void testSelectOneByWhere() {
+        String select = getElement(runner.getXmlFile("OrdersMapper.xml"), "selectOneByWhere");
+        assertTrue(select, select.contains("resultMap=\"ResultMapWithBLOBs\""));
+        assertTrue(select, select.contains("<if test=\"where != null and where.orderBy != null\">\n"
+                + "      order by ${where.orderBy}\n"
+                + "    </if>\n"
+                + "    limit 1\n"
+                + "  </select>"));
+        // the where limit and offset do not apply to a single row
+        assertFalse(select, select.contains("where.limit"));
+
+        assertEquals("    Orders selectOneByWhere(@Param(\"where\") OrdersWhere where);",
+                getMethod(runner.getJavaFile("OrdersMapper.java"), "selectOneByWhere"));
+    }
+}
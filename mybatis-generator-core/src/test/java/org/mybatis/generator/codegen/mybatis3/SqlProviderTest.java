@@ -0,0 +1,132 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mybatis.generator.GeneratorRunner.getMethod;
+import static org.mybatis.generator.GeneratorRunner.invoke;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.exception.InvalidConfigurationException;
+
+public class SqlProviderTest {
+
+    @Test
+    public void testSqlIsCachedByNullMask() throws Exception {
+        GeneratorRunner runner = newRunner("orders");
+        ClassLoader loader = runner.compile("OrdersSqlProvider.java", "Orders.java", "OrdersWhere.java");
+        Object provider = loader.loadClass("test.mapper.OrdersSqlProvider").newInstance();
+        Class<?> recordType = loader.loadClass("test.model.Orders");
+
+        Object record = recordType.newInstance();
+        invoke(record, "setCustomer", "c1");
+        String sql = (String) invoke(provider, "insert", record);
+        assertEquals("insert into orders (customer) values (#{customer,jdbcType=VARCHAR})", sql);
+
+        // another record with the same null columns gets the cached text
+        Object other = recordType.newInstance();
+        invoke(other, "setCustomer", "c2");
+        assertSame(sql, invoke(provider, "insert", other));
+
+        invoke(other, "setAmount", new BigDecimal("1.50"));
+        assertEquals("insert into orders (customer, amount)"
+                + " values (#{customer,jdbcType=VARCHAR}, #{amount,jdbcType=DECIMAL})",
+                invoke(provider, "insert", other));
+
+        invoke(other, "setId", 7L);
+        sql = (String) invoke(provider, "updateByPrimaryKey", other);
+        assertEquals("update orders set customer = #{customer,jdbcType=VARCHAR},"
+                + " amount = #{amount,jdbcType=DECIMAL} where id = #{id,jdbcType=BIGINT}", sql);
+        assertSame(sql, invoke(provider, "updateByPrimaryKey", other));
+
+        // without criteria updateByWhere returns the cached text itself
+        Map<String, Object> parameter = new HashMap<String, Object>();
+        parameter.put("record", record);
+        sql = (String) invoke(provider, "updateByWhere", parameter);
+        assertEquals("update orders set customer = #{record.customer,jdbcType=VARCHAR}", sql);
+        parameter.put("where", loader.loadClass("test.model.OrdersWhere").newInstance());
+        assertSame(sql, invoke(provider, "updateByWhere", parameter));
+    }
+
+    @Test
+    public void testMapperUsesTheProvider() throws Exception {
+        GeneratorRunner runner = newRunner("orders");
+        String provider = runner.getJavaFile("OrdersSqlProvider.java");
+        assertTrue(provider.contains("    private static final ConcurrentMap<Long, String> INSERT_SQL"
+                + " = new ConcurrentHashMap<Long, String>();\n"));
+        assertTrue(getMethod(provider, "buildInsert").startsWith("    private static String buildInsert(long mask) {"));
+        assertTrue(provider.contains("            mask |= (1L << 6);\n"));
+        assertFalse(provider.contains("(1L << 7)"));
+
+        String mapper = runner.getJavaFile("OrdersMapper.java");
+        assertTrue(mapper.contains("    @UpdateProvider(type=OrdersSqlProvider.class, method=\"updateByWhere\")\n"));
+    }
+
+    @Test
+    public void testMoreThan64OptionalColumnsFallBackToScripts() throws Exception {
+        GeneratorRunner runner = newRunner("wide");
+        assertTrue(runner.getWarnings().isEmpty());
+        // all three selective statements stay in the mapper, so no provider is generated
+        assertFalse(runner.hasJavaFile("WideSqlProvider.java"));
+
+        String mapper = runner.getJavaFile("WideMapper.java");
+        assertFalse(mapper.contains("Provider("));
+        int insert = mapper.indexOf("    int insert(Wide record);");
+        String script = mapper.substring(mapper.lastIndexOf("    @Insert({", insert), insert);
+        assertTrue(script, script.contains("        \"<if test=\\\"c70 != null\\\">\",\n"
+                + "        \"#{c70,jdbcType=VARCHAR},\",\n"
+                + "        \"</if>\",\n"));
+    }
+
+    @Test
+    public void testFixedShapeThresholdLeavesStatementsToTheMapper() throws Exception {
+        // insert has 7 optional columns (128 shapes), updateByPrimaryKey has 6 (64 shapes)
+        GeneratorRunner runner = newRunner("orders", "fixedShapeThreshold=100");
+        String provider = runner.getJavaFile("OrdersSqlProvider.java");
+        assertFalse(provider.contains("public String insert("));
+        assertTrue(provider.contains("public String updateByPrimaryKey("));
+
+        String mapper = runner.getJavaFile("OrdersMapper.java");
+        assertFalse(mapper.contains("@InsertProvider"));
+        assertTrue(mapper.contains("    @UpdateProvider(type=OrdersSqlProvider.class, method=\"updateByPrimaryKey\")\n"));
+    }
+
+    @Test
+    public void testInvalidFixedShapeThreshold() throws Exception {
+        try {
+            newRunner("orders", "fixedShapeThreshold=0");
+            fail("A threshold of 0 should be rejected");
+        } catch (InvalidConfigurationException e) {
+            assertEquals("Property fixedShapeThreshold in table orders must be a positive integer",
+                    e.getErrors().get(0));
+        }
+    }
+
+    private static GeneratorRunner newRunner(String tableName, String... properties) throws Exception {
+        GeneratorRunner runner = new GeneratorRunner("MyBatis3", "ANNOTATEDMAPPER");
+        runner.addTable(tableName, properties);
+        return runner.generate();
+    }
+}
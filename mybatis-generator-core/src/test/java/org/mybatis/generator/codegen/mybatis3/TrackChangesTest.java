@@ -0,0 +1,151 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorRunner.getElement;
+import static org.mybatis.generator.GeneratorRunner.invoke;
+
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.RecordingDataSource;
+
+public class TrackChangesTest {
+
+    @Test
+    public void testSettersMarkTheirBit() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addModelProperties("trackChanges=true");
+        runner.addTable("orders");
+        runner.generate();
+        assertTrue(runner.getWarnings().isEmpty());
+
+        Object record = runner.compile("Orders.java").loadClass("test.model.Orders").newInstance();
+        assertEquals(0L, invoke(record, "getChangedMask"));
+        // the primary key is not updated, it has no bit
+        invoke(record, "setId", 1L);
+        assertEquals(0L, invoke(record, "getChangedMask"));
+        invoke(record, "setCustomer", (Object) null);
+        invoke(record, "setQuantity", 3);
+        assertEquals(0x5L, invoke(record, "getChangedMask"));
+        invoke(record, "clearChanges");
+        assertEquals(0L, invoke(record, "getChangedMask"));
+    }
+
+    @Test
+    public void testXmlStatement() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "trackChanges=true");
+        runner.generate();
+
+        String element = getElement(runner.getXmlFile("OrdersMapper.xml"), "updateChangedByPrimaryKey");
+        // the empty mask still makes a valid statement
+        assertTrue(element.contains("      <if test=\"changedMask == 0\">\n        id = id\n      </if>\n"));
+        assertTrue(element.contains("      <if test=\"(changedMask &amp; 1) != 0\">\n"
+                + "        customer = #{customer,jdbcType=VARCHAR},\n      </if>\n"));
+        assertTrue(element.contains("      <if test=\"(changedMask &amp; 32) != 0\">\n"
+                + "        note = #{note,jdbcType=LONGVARCHAR},\n      </if>\n"));
+        assertTrue(element.endsWith("    where id = #{id,jdbcType=BIGINT}\n  </update>"));
+        assertTrue(runner.getJavaFile("OrdersMapper.java").contains("    int updateChangedByPrimaryKey(Orders record);\n"));
+    }
+
+    @Test
+    public void testProviderCachesOneStatementPerMask() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner("MyBatis3", "ANNOTATEDMAPPER");
+        runner.addTable("orders", "trackChanges=true");
+        runner.generate();
+        ClassLoader loader = runner.compile("OrdersSqlProvider.java", "Orders.java", "OrdersWhere.java");
+        Object provider = loader.loadClass("test.mapper.OrdersSqlProvider").newInstance();
+
+        Object record = loader.loadClass("test.model.Orders").newInstance();
+        Object sql = invoke(provider, "updateChangedByPrimaryKey", record);
+        assertEquals("update orders set id = id where id = #{id,jdbcType=BIGINT}", sql);
+
+        invoke(record, "setAmount", (Object) null);
+        invoke(record, "setNote", "n");
+        sql = invoke(provider, "updateChangedByPrimaryKey", record);
+        assertEquals("update orders set amount = #{amount,jdbcType=DECIMAL}, note = #{note,jdbcType=LONGVARCHAR}"
+                + " where id = #{id,jdbcType=BIGINT}", sql);
+        assertSame(sql, invoke(provider, "updateChangedByPrimaryKey", record));
+    }
+
+    @Test
+    public void testJdbcDaoWritesTheChangedColumns() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner("Jdbc", "JDBC");
+        runner.addTable("orders", "trackChanges=true");
+        runner.generate();
+        ClassLoader loader = runner.compile("OrdersDAO.java", "Orders.java", "OrdersWhere.java");
+        RecordingDataSource database = new RecordingDataSource();
+        Object dao = loader.loadClass("test.mapper.OrdersDAO").getConstructor(DataSource.class)
+                .newInstance(database.getDataSource());
+
+        // loaded records start clean
+        database.addRow(7L, "c1", null, 2, null, 1, null);
+        Object record = invoke(dao, "selectByPrimaryKey", 7L);
+        assertEquals(0L, invoke(record, "getChangedMask"));
+
+        assertEquals(1, invoke(dao, "updateChangedByPrimaryKey", record));
+        assertEquals("update orders set id = id where id = ?", database.getStatements().get(1));
+        assertEquals(Arrays.asList((Object) 7L), database.getParameters());
+
+        // a property set to null writes NULL
+        invoke(record, "setCustomer", (Object) null);
+        invoke(record, "setQuantity", 0);
+        invoke(dao, "updateChangedByPrimaryKey", record);
+        assertEquals("update orders set customer = ?, quantity = ? where id = ?", database.getStatements().get(2));
+        assertEquals(Arrays.asList(null, 0, 7L), database.getParameters());
+    }
+
+    @Test
+    public void testVersionColumnIsNotTracked() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "trackChanges=true", "versionColumn=version");
+        runner.generate();
+
+        String element = getElement(runner.getXmlFile("OrdersMapper.xml"), "updateChangedByPrimaryKey");
+        // the version is bumped and checked, never written from the record
+        assertTrue(element.contains("    <set>\n      version = version + 1,\n"));
+        assertTrue(element.endsWith("    where id = #{id,jdbcType=BIGINT}\n"
+                + "      and version = #{version,jdbcType=INTEGER}\n  </update>"));
+        assertTrue(element.contains("      <if test=\"(changedMask &amp; 16) != 0\">\n"
+                + "        note = #{note,jdbcType=LONGVARCHAR},\n      </if>\n"));
+    }
+
+    @Test
+    public void testIgnoredTables() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addModelProperties("trackChanges=true");
+        runner.addTable("wide");
+        runner.addTable("region", "immutable=true");
+        runner.addTable("country", "trackChanges=false");
+        runner.generate();
+
+        assertEquals(Arrays.asList("Property trackChanges of table wide will be ignored, the record has no"
+                + " updatable column, more than 64 of them, or keeps BLOB columns in a separate class"),
+                runner.getWarnings());
+        for (String name : new String[] { "Wide", "Region", "Country" }) {
+            assertFalse(name, runner.getJavaFile(name + ".java").contains("changedMask"));
+            assertFalse(name, runner.getXmlFile(name + "Mapper.xml").contains("updateChangedByPrimaryKey"));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mybatis.generator.GeneratorRunner.getElement;
+import static org.mybatis.generator.GeneratorRunner.getMethod;
+import static org.mybatis.generator.GeneratorRunner.invoke;
+
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.RecordingDataSource;
+
+public class VersionColumnTest {
+
+    @Test
+    public void testXmlStatements() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "versionColumn=version");
+        runner.generate();
+        assertTrue(runner.getWarnings().isEmpty());
+
+        String xml = runner.getXmlFile("OrdersMapper.xml");
+        String element = getElement(xml, "updateByPrimaryKey");
+        assertTrue(element.contains("    <set>\n      version = version + 1,\n"));
+        assertFalse(element.contains("version = #{version,jdbcType=INTEGER},"));
+        assertTrue(element.endsWith("    where id = #{id,jdbcType=BIGINT}\n"
+                + "      and version = #{version,jdbcType=INTEGER}\n  </update>"));
+
+        // a record without a version makes a bulk update
+        element = getElement(xml, "updateByWhere");
+        assertTrue(element.contains("    <set>\n      version = version + 1,\n"));
+        assertTrue(element.contains("      <if test=\"record.version != null\">\n"
+                + "        and version = #{record.version,jdbcType=INTEGER}\n      </if>\n"));
+
+        // upserts bump the version of an existing row instead of writing the one of the record
+        assertTrue(getElement(xml, "upsert").contains("on duplicate key update version = version + 1,"
+                + " customer = values(customer),"));
+    }
+
+    @Test
+    public void testMapperRequiresTheVersion() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "versionColumn=version");
+        runner.generate();
+
+        String mapper = runner.getJavaFile("OrdersMapper.java");
+        for (String name : new String[] { "updateByPrimaryKeyWithVersion", "updateByWhereWithVersion" }) {
+            assertTrue(name, getMethod(mapper, name).contains("        if (record.getVersion() == null) {\n"
+                    + "            throw new IllegalArgumentException(\"The version of the record is required\");\n"));
+        }
+        assertTrue(getMethod(mapper, "updateByWhereWithVersion").contains(
+                "        if (countByWhere(where) == 0) {\n            return OrdersUpdateResult.NOT_FOUND;\n"));
+        assertTrue(runner.hasJavaFile("OrdersUpdateResult.java"));
+    }
+
+    @Test
+    public void testJdbcUpdateResults() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner("Jdbc", "JDBC");
+        runner.addTable("orders", "versionColumn=version");
+        runner.generate();
+        ClassLoader loader = runner.compile("OrdersDAO.java", "OrdersUpdateResult.java", "Orders.java",
+                "OrdersWhere.java");
+        RecordingDataSource database = new RecordingDataSource();
+        Object dao = loader.loadClass("test.mapper.OrdersDAO").getConstructor(DataSource.class)
+                .newInstance(database.getDataSource());
+        Object record = loader.loadClass("test.model.Orders").newInstance();
+        invoke(record, "setId", 7L);
+
+        try {
+            invoke(dao, "updateByPrimaryKeyWithVersion", record);
+            fail("a record without a version should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("The version of the record is required", e.getMessage());
+        }
+        assertTrue(database.getStatements().isEmpty());
+
+        invoke(record, "setVersion", 3);
+        assertEquals("UPDATED", invoke(dao, "updateByPrimaryKeyWithVersion", record).toString());
+        assertEquals("update orders set version = version + 1, customer = ?, amount = ?, quantity = ?,"
+                + " created_at = ?, note = ? where id = ? and version = ?", database.getStatements().get(0));
+        assertEquals(Arrays.asList(null, null, null, null, null, 7L, 3), database.getParameters());
+        assertEquals(4, invoke(record, "getVersion"));
+
+        // nothing updated, the row is read again to tell the cases apart
+        database.setUpdateCount(0);
+        assertEquals("NOT_FOUND", invoke(dao, "updateByPrimaryKeyWithVersion", record).toString());
+        database.addRow(7L, null, null, null, null, 5, null);
+        assertEquals("CONFLICT", invoke(dao, "updateByPrimaryKeyWithVersion", record).toString());
+        assertEquals(4, invoke(record, "getVersion"));
+    }
+
+    @Test
+    public void testInvalidVersionColumns() throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addTable("orders", "versionColumn=customer");
+        runner.addTable("region", "versionColumn=id");
+        runner.addTable("country", "versionColumn=missing");
+        runner.generate();
+
+        String suffix = ", does not exist, is part of the primary key, is generated always or does not hold"
+                + " long or int values, updates of the table will not check a version";
+        assertEquals(Arrays.asList(
+                "Column customer, specified in property versionColumn of table orders" + suffix,
+                "Column id, specified in property versionColumn of table region" + suffix,
+                "Column missing, specified in property versionColumn of table country" + suffix),
+                runner.getWarnings());
+        for (String name : new String[] { "Orders", "Region", "Country" }) {
+            assertFalse(name, runner.getXmlFile(name + "Mapper.xml").contains(" + 1"));
+            assertFalse(name, runner.hasJavaFile(name + "UpdateResult.java"));
+        }
+    }
+}
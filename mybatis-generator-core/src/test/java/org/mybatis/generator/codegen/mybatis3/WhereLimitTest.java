@@ -0,0 +1,101 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.codegen.mybatis3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mybatis.generator.GeneratorRunner.getElement;
+import static org.mybatis.generator.GeneratorRunner.invoke;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+
+public class WhereLimitTest {
+
+    private GeneratorRunner runner;
+
+    @Before
+    public void setUp() throws Exception {
+        runner = new GeneratorRunner();
+        runner.addTable("orders");
+        runner.generate();
+    }
+
+    @Test
+    public void testSelectsBindLimitAndOffset() {
+        String xml = runner.getXmlFile("OrdersMapper.xml");
+        for (String id : new String[] { "selectByWhere", "selectByWhereWitchColumn",
+                "selectByWhereWithoutBLOBs", "selectByWhereCursor" }) {
+            String select = getElement(xml, id);
+            assertTrue(select, select.contains("<if test=\"where != null and where.limit != null\">\n"
+                    + "      limit #{where.limit}\n"
+                    + "      <if test=\"where.offset != null\">\n"
+                    + "        offset #{where.offset}\n"
+                    + "      </if>\n"
+                    + "    </if>\n"
+                    + "  </select>"));
+            assertTrue(select, !select.contains("${where.limit}"));
+        }
+    }
+
+    @Test
+    public void testPage() throws Exception {
+        Object where = newWhere();
+        assertNull(invoke(where, "getLimit"));
+        assertNull(invoke(where, "getOffset"));
+
+        assertTrue(where == invoke(where, "page", 3, 20));
+        assertEquals(20, invoke(where, "getLimit"));
+        assertEquals(40, invoke(where, "getOffset"));
+
+        invoke(where, "page", 1, 10);
+        assertEquals(10, invoke(where, "getLimit"));
+        assertEquals(0, invoke(where, "getOffset"));
+
+        invoke(where, "clear");
+        assertNull(invoke(where, "getLimit"));
+        assertNull(invoke(where, "getOffset"));
+    }
+
+    @Test
+    public void testPageRejectsInvalidArguments() throws Exception {
+        Object where = newWhere();
+        assertPageFails(where, 0, 10, "pageNum and pageSize must be positive: 0, 10");
+        assertPageFails(where, 1, -5, "pageNum and pageSize must be positive: 1, -5");
+        assertPageFails(where, Integer.MAX_VALUE, 2,
+                "The offset of page 2147483647 exceeds Integer.MAX_VALUE");
+        // the largest page whose offset still fits
+        invoke(where, "page", 1073741824, 2);
+        assertEquals(Integer.MAX_VALUE - 1, invoke(where, "getOffset"));
+    }
+
+    private Object newWhere() throws Exception {
+        return runner.compile("OrdersWhere.java").loadClass("test.model.OrdersWhere").newInstance();
+    }
+
+    private static void assertPageFails(Object where, int pageNum, int pageSize, String message)
+            throws Exception {
+        try {
+            invoke(where, "page", pageNum, pageSize);
+            fail("page(" + pageNum + ", " + pageSize + ") should fail");
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+}
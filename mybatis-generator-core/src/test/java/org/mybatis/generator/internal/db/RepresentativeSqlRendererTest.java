@@ -0,0 +1,139 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+public class RepresentativeSqlRendererTest {
+
+    @Test
+    public void testParametersBecomePlaceholders() {
+        XmlElement select = element("select",
+                text("select id, name from orders"),
+                text("where id = #{id,jdbcType=BIGINT} and name = #{name}"));
+        RepresentativeSqlRenderer renderer = new RepresentativeSqlRenderer(element("mapper"), "whereClause");
+
+        assertEquals("select id, name from orders where id = ? and name = ?", renderer.render(select));
+        assertEquals(Arrays.asList("BIGINT", null), renderer.getParameterJdbcTypes());
+        assertFalse(renderer.isWhereClauseIncluded());
+    }
+
+    @Test
+    public void testOptionalBlocksAreRendered() {
+        XmlElement choose = element("choose",
+                attribute(element("when", text("and state = #{state,jdbcType=INTEGER}")), "test", "state != null"),
+                element("otherwise", text("and state = 0")));
+        XmlElement where = element("where",
+                attribute(element("if", text("and name = #{name,jdbcType=VARCHAR}")), "test", "name != null"),
+                choose);
+        XmlElement select = element("select", text("select * from orders"), where);
+
+        RepresentativeSqlRenderer renderer = new RepresentativeSqlRenderer(element("mapper"), "whereClause");
+        assertEquals("select * from orders where name = ? and state = ?", renderer.render(select));
+        assertEquals(Arrays.asList("VARCHAR", "INTEGER"), renderer.getParameterJdbcTypes());
+    }
+
+    @Test
+    public void testSetTrimsTheLastComma() {
+        XmlElement set = element("set",
+                attribute(element("if", text("name = #{name},")), "test", "name != null"),
+                attribute(element("if", text("price = #{price},")), "test", "price != null"));
+        XmlElement update = element("update", text("update orders"), set, text("where id = #{id}"));
+
+        RepresentativeSqlRenderer renderer = new RepresentativeSqlRenderer(element("mapper"), "whereClause");
+        assertEquals("update orders set name = ?, price = ? where id = ?", renderer.render(update));
+    }
+
+    @Test
+    public void testForeachIsRenderedOnce() {
+        XmlElement foreach = attribute(attribute(attribute(element("foreach",
+                text("#{item,jdbcType=BIGINT}")), "collection", "keys"), "open", "("), "close", ")");
+        XmlElement delete = element("delete", text("delete from orders where id in"), foreach);
+
+        RepresentativeSqlRenderer renderer = new RepresentativeSqlRenderer(element("mapper"), "whereClause");
+        assertEquals("delete from orders where id in ( ? )", renderer.render(delete));
+        assertEquals(Arrays.asList("BIGINT"), renderer.getParameterJdbcTypes());
+    }
+
+    @Test
+    public void testSubstitutionIsDropped() {
+        XmlElement orderBy = attribute(element("if", text("order by ${orderBy}")), "test", "orderBy != null");
+        XmlElement select = element("select", text("select * from orders where id &gt; #{id}"), orderBy);
+
+        RepresentativeSqlRenderer renderer = new RepresentativeSqlRenderer(element("mapper"), "whereClause");
+        assertEquals("select * from orders where id > ?", renderer.render(select));
+
+        // the static part itself cannot be rendered
+        assertNull(renderer.render(element("select", text("select * from ${table}"))));
+    }
+
+    @Test
+    public void testShardedTableName() {
+        XmlElement select = element("select",
+                text("select * from ${@demo.OrderShardRouter@getTableName('orders', id)} where id = #{id}"));
+
+        RepresentativeSqlRenderer renderer = new RepresentativeSqlRenderer(element("mapper"), "whereClause");
+        renderer.setShardedTableName("demo.OrderShardRouter", "orders");
+        assertEquals("select * from orders where id = ?", renderer.render(select));
+    }
+
+    @Test
+    public void testIncludes() {
+        XmlElement fragment = attribute(element("sql",
+                attribute(element("if", text("and name = #{name}")), "test", "name != null")), "id", "whereClause");
+        XmlElement mapper = element("mapper", fragment);
+        XmlElement select = element("select", text("select * from orders"),
+                element("where", attribute(element("include"), "refid", "whereClause")));
+
+        RepresentativeSqlRenderer renderer = new RepresentativeSqlRenderer(mapper, "whereClause");
+        assertEquals("select * from orders where name = ?", renderer.render(select));
+        assertTrue(renderer.isWhereClauseIncluded());
+        assertNull(renderer.getUnresolvedFragmentId());
+
+        select = element("select", text("select * from orders"),
+                attribute(element("include"), "refid", "missing"));
+        assertNull(renderer.render(select));
+        assertEquals("missing", renderer.getUnresolvedFragmentId());
+    }
+
+    private static XmlElement element(String name, Element... children) {
+        XmlElement element = new XmlElement(name);
+        for (Element child : children) {
+            element.addElement(child);
+        }
+        return element;
+    }
+
+    private static XmlElement attribute(XmlElement element, String name, String value) {
+        element.addAttribute(new Attribute(name, value));
+        return element;
+    }
+
+    private static TextElement text(String content) {
+        return new TextElement(content);
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.IntrospectedTableMyBatis3Impl;
+
+public class StatementShapeCounterTest {
+
+    @Test
+    public void testIfElementsDoubleTheCount() {
+        XmlElement update = statement("update", "updateSelective", "update orders");
+        XmlElement set = new XmlElement("set");
+        set.addElement(ifElement("name != null", "name = #{name},"));
+        set.addElement(ifElement("price != null", "price = #{price},"));
+        set.addElement(ifElement("stock != null", "stock = #{stock},"));
+        update.addElement(set);
+        update.addElement(new TextElement("where id = #{id}"));
+
+        assertEquals("  updateSelective: SQL texts: 8", analyze(update).get(1));
+    }
+
+    @Test
+    public void testSameTestIsCountedOnce() {
+        XmlElement insert = statement("insert", "insertSelective", "insert into orders");
+        XmlElement columns = new XmlElement("trim");
+        columns.addElement(ifElement("name != null", "name,"));
+        columns.addElement(ifElement("price != null", "price,"));
+        insert.addElement(columns);
+        XmlElement values = new XmlElement("trim");
+        values.addElement(ifElement("name != null", "#{name},"));
+        values.addElement(ifElement("price  !=  null", "#{price},"));
+        insert.addElement(values);
+
+        assertEquals("  insertSelective: SQL texts: 4", analyze(insert).get(1));
+    }
+
+    @Test
+    public void testChooseCountsBranches() {
+        XmlElement select = statement("select", "selectByState", "select * from orders");
+        XmlElement choose = new XmlElement("choose");
+        choose.addElement(whenElement("state == 1", "where state = 1"));
+        choose.addElement(whenElement("state == 2", "where state = 2"));
+        select.addElement(choose);
+
+        // two branches and the case where none applies
+        assertEquals("  selectByState: SQL texts: 3", analyze(select).get(1));
+
+        XmlElement otherwise = new XmlElement("otherwise");
+        otherwise.addElement(new TextElement("where state = 0"));
+        choose.addElement(otherwise);
+        assertEquals("  selectByState: SQL texts: 3", analyze(select).get(1));
+    }
+
+    @Test
+    public void testIncludedFragmentsAreCounted() {
+        XmlElement fragment = new XmlElement("sql");
+        fragment.addAttribute(new Attribute("id", "whereClause"));
+        fragment.addElement(ifElement("name != null", "and name = #{name}"));
+        fragment.addElement(ifElement("price != null", "and price = #{price}"));
+
+        XmlElement select = statement("select", "selectByWhere", "select * from orders");
+        XmlElement where = new XmlElement("where");
+        XmlElement include = new XmlElement("include");
+        include.addAttribute(new Attribute("refid", "whereClause"));
+        where.addElement(include);
+        select.addElement(where);
+
+        assertEquals("  selectByWhere: SQL texts: 4", analyze(fragment, select).get(1));
+    }
+
+    @Test
+    public void testForeachAndSubstitutionAreMarked() {
+        XmlElement select = statement("select", "selectByPrimaryKeys", "select * from orders where id in");
+        XmlElement foreach = new XmlElement("foreach");
+        foreach.addAttribute(new Attribute("collection", "keys"));
+        foreach.addElement(new TextElement("#{item}"));
+        select.addElement(foreach);
+        assertEquals("  selectByPrimaryKeys: SQL texts per collection size: 1",
+                analyze(select).get(1));
+
+        select.addElement(ifElement("orderBy != null", "order by ${orderBy}"));
+        assertEquals("  selectByPrimaryKeys: SQL texts per collection size: 2, text substitution not counted",
+                analyze(select).get(1));
+    }
+
+    @Test
+    public void testWarningAboveThreshold() {
+        XmlElement update = statement("update", "updateSelective", "update orders");
+        update.addElement(ifElement("name != null", "set name = #{name}"));
+        update.addElement(ifElement("price != null", "set price = #{price}"));
+
+        List<String> warnings = new ArrayList<String>();
+        new StatementShapeCounter(warnings, 4).analyze(table(), document(update));
+        assertTrue(warnings.isEmpty());
+
+        new StatementShapeCounter(warnings, 3).analyze(table(), document(update));
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).contains("updateSelective"));
+    }
+
+    private static List<String> analyze(XmlElement... elements) {
+        StatementShapeCounter counter = new StatementShapeCounter(new ArrayList<String>(), Long.MAX_VALUE);
+        counter.analyze(table(), document(elements));
+        List<String> lines = new ArrayList<String>();
+        for (String line : counter.getReport().split("\n")) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private static IntrospectedTable table() {
+        IntrospectedTable introspectedTable = new IntrospectedTableMyBatis3Impl();
+        introspectedTable.setFullyQualifiedTable(new FullyQualifiedTable(null, null, "orders",
+                null, null, false, null, null, null, false, null));
+        return introspectedTable;
+    }
+
+    private static Document document(XmlElement... elements) {
+        XmlElement mapper = new XmlElement("mapper");
+        for (XmlElement element : elements) {
+            mapper.addElement(element);
+        }
+        Document document = new Document();
+        document.setRootElement(mapper);
+        return document;
+    }
+
+    private static XmlElement statement(String name, String id, String text) {
+        XmlElement statement = new XmlElement(name);
+        statement.addAttribute(new Attribute("id", id));
+        statement.addElement(new TextElement(text));
+        return statement;
+    }
+
+    private static XmlElement ifElement(String test, String text) {
+        XmlElement ifElement = new XmlElement("if");
+        ifElement.addAttribute(new Attribute("test", test));
+        ifElement.addElement(new TextElement(text));
+        return ifElement;
+    }
+
+    private static XmlElement whenElement(String test, String text) {
+        XmlElement whenElement = new XmlElement("when");
+        whenElement.addAttribute(new Attribute("test", test));
+        whenElement.addElement(new TextElement(text));
+        return whenElement;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.TableStatistics;
+
+public class TableStatisticsTest {
+
+    @Test
+    public void testStatisticsFromIndexInformation() throws Exception {
+        GeneratorRunner runner = generate("Fake");
+        assertTrue(runner.getWarnings().isEmpty());
+
+        IntrospectedTable orders = runner.getIntrospectedTable("orders");
+        assertEquals(1000L, orders.getEstimatedRowCount());
+        assertNull(orders.getStatistics().getAverageRowLength());
+        assertEquals(Long.valueOf(800L), orders.getIndexes().get(0).getCardinality());
+        assertEquals(Long.valueOf(800L), orders.getColumn("customer").getCardinality());
+        assertNull(orders.getColumn("note").getCardinality());
+
+        // every row has its own key in a unique index
+        assertEquals(50L, runner.getIntrospectedTable("region").getEstimatedRowCount());
+
+        // a secondary index does not tell the number of rows
+        IntrospectedTable orderItem = runner.getIntrospectedTable("order_item");
+        assertEquals(-1L, orderItem.getEstimatedRowCount());
+        assertNull(orderItem.getStatistics());
+        assertEquals(Long.valueOf(1000L), orderItem.getColumn("order_id").getCardinality());
+
+        // a cardinality of 0 means the driver keeps no statistics
+        IntrospectedTable stock = runner.getIntrospectedTable("stock");
+        assertEquals(-1L, stock.getEstimatedRowCount());
+        assertNull(stock.getIndexes().get(0).getCardinality());
+    }
+
+    @Test
+    public void testMySqlInformationSchema() throws Exception {
+        GeneratorRunner runner = generate("MySQL");
+        assertTrue(runner.getWarnings().isEmpty());
+
+        // information_schema replaces the estimate of the index information
+        TableStatistics statistics = runner.getIntrospectedTable("orders").getStatistics();
+        assertEquals(Long.valueOf(1200L), statistics.getRowCount());
+        assertEquals(Long.valueOf(150L), statistics.getAverageRowLength());
+        assertEquals(Long.valueOf(180000L), statistics.getDataLength());
+        assertEquals(Long.valueOf(32768L), statistics.getIndexLength());
+
+        statistics = runner.getIntrospectedTable("wide").getStatistics();
+        assertEquals(Long.valueOf(5000000L), statistics.getRowCount());
+        assertEquals(Long.valueOf(7000000000L), statistics.getDataLength());
+        assertNull(statistics.getIndexLength());
+
+        // tables missing from information_schema keep their estimates
+        assertEquals(50L, runner.getIntrospectedTable("region").getEstimatedRowCount());
+        assertEquals(-1L, runner.getIntrospectedTable("stock").getEstimatedRowCount());
+    }
+
+    private static GeneratorRunner generate(String productName) throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.getContext().getConnectionFactoryConfiguration().addProperty("productName", productName);
+        runner.addTable("orders");
+        runner.addTable("order_item");
+        runner.addTable("region");
+        runner.addTable("stock");
+        runner.addTable("wide");
+        return runner.generate();
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.rules;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+
+public class MutilCRUDModelRulesTest {
+
+    private static final String[] TABLES = { "orders", "order_item", "stock" };
+
+    private static final String[] MAPPERS = { "OrdersMapper", "OrderItemMapper", "StockMapper" };
+
+    @Test
+    public void testXmlStatementIdsAreUnique() throws Exception {
+        GeneratorRunner runner = newRunner("XMLMAPPER");
+        for (String mapper : MAPPERS) {
+            String xml = runner.getXmlFile(mapper + ".xml");
+            Set<String> ids = new HashSet<String>();
+            Matcher matcher = Pattern.compile("<(select|insert|update|delete) id=\"([^\"]*)\"").matcher(xml);
+            while (matcher.find()) {
+                assertTrue(mapper + " declares " + matcher.group(2) + " twice", ids.add(matcher.group(2)));
+            }
+            assertTrue(ids.contains("updateByWhere"));
+            // the example-style updates have no statement id in this model
+            assertFalse(ids.contains("null"));
+        }
+    }
+
+    @Test
+    public void testAnnotatedStatementsAreUnique() throws Exception {
+        GeneratorRunner runner = newRunner("ANNOTATEDMAPPER");
+        for (String mapper : MAPPERS) {
+            String java = runner.getJavaFile(mapper + ".java");
+            // the statements are the abstract methods, default methods are plain Java
+            Set<String> names = new HashSet<String>();
+            Matcher matcher = Pattern.compile("(?m)^    (?!default )\\w[\\w<>, ]* (\\w+)\\(.*\\);$").matcher(java);
+            while (matcher.find()) {
+                assertTrue(mapper + " declares " + matcher.group(1) + " twice", names.add(matcher.group(1)));
+            }
+            assertTrue(names.contains("updateByWhere"));
+            assertTrue(names.contains("selectByPrimaryKey"));
+            assertFalse(names.contains("null"));
+        }
+    }
+
+    private static GeneratorRunner newRunner(String clientType) throws Exception {
+        GeneratorRunner runner = new GeneratorRunner("MyBatis3", clientType);
+        for (String table : TABLES) {
+            runner.addTable(table);
+        }
+        return runner.generate();
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorRunner.getElement;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+
+public class CachePluginTest {
+
+    private GeneratorRunner runner;
+
+    @Before
+    public void setUp() {
+        runner = new GeneratorRunner();
+    }
+
+    @Test
+    public void testReferenceTablesHoldEveryRow() throws Exception {
+        runner.addPlugin(CachePlugin.class, "cache_autoProfile=true");
+        runner.addTable("country");
+        runner.addTable("region");
+        runner.generate();
+
+        assertEquals("<cache eviction=\"LRU\" readOnly=\"true\" size=\"264\" />", getCache("CountryMapper.xml"));
+        // the row count of region comes from its unique index
+        assertEquals("<cache eviction=\"LRU\" readOnly=\"true\" size=\"114\" />", getCache("RegionMapper.xml"));
+    }
+
+    @Test
+    public void testMediumTables() throws Exception {
+        runner.addPlugin(CachePlugin.class, "cache_autoProfile=true", "cache_referenceTableRows=100");
+        runner.addTable("orders");
+        runner.addTable("wide", "cache_largeTableRows=10000000", "cache_maxSize=100000");
+        runner.getContext().getConnectionFactoryConfiguration().addProperty("productName", "MySQL");
+        runner.generate();
+
+        // 1200 rows, the size does not drop below 256
+        String xml = runner.getXmlFile("OrdersMapper.xml");
+        assertEquals("<cache eviction=\"LRU\" size=\"256\" />", getCache("OrdersMapper.xml"));
+        assertFalse(xml.contains("useCache"));
+
+        // 5000000 rows, one entry per 100 rows
+        assertEquals("<cache eviction=\"LRU\" size=\"50000\" />", getCache("WideMapper.xml"));
+    }
+
+    @Test
+    public void testLargeTablesCacheOnlySingleRowLookups() throws Exception {
+        runner.addPlugin(CachePlugin.class, "cache_autoProfile=true", "cache_referenceTableRows=100",
+                "cache_largeTableRows=500");
+        runner.addTable("orders");
+        runner.generate();
+
+        String xml = runner.getXmlFile("OrdersMapper.xml");
+        assertEquals("<cache eviction=\"SOFT\" size=\"4096\" />", getCache("OrdersMapper.xml"));
+        for (String id : new String[] { "selectByPrimaryKey", "selectByUniqueKeyCustomer",
+                "countByWhere", "existsByWhere" }) {
+            assertFalse(id, getElement(xml, id).contains("useCache"));
+        }
+        for (String id : new String[] { "selectByWhere", "selectOneByWhere", "selectPageAfter",
+                "selectByPrimaryKeys" }) {
+            assertTrue(id, getElement(xml, id).contains(" useCache=\"false\">"));
+        }
+    }
+
+    @Test
+    public void testConfiguredPropertiesWin() throws Exception {
+        runner.addPlugin(CachePlugin.class, "cache_autoProfile=true", "cache_eviction=FIFO");
+        runner.addTable("country", "cache_size=10");
+        runner.generate();
+
+        assertEquals("<cache eviction=\"FIFO\" readOnly=\"true\" size=\"10\" />", getCache("CountryMapper.xml"));
+    }
+
+    @Test
+    public void testTablesWithoutStatisticsKeepTheDefaults() throws Exception {
+        runner.addPlugin(CachePlugin.class, "cache_autoProfile=true");
+        runner.addTable("wide");
+        runner.addTable("country", "cache_autoProfile=false");
+        runner.generate();
+
+        assertEquals("<cache />", getCache("WideMapper.xml"));
+        assertEquals("<cache />", getCache("CountryMapper.xml"));
+    }
+
+    @Test
+    public void testJoinedChildSharesTheParentCache() throws Exception {
+        runner.addPlugin(CachePlugin.class, "cache_autoProfile=true");
+        runner.addTable("orders", "joinChildren=order_item");
+        runner.addTable("order_item");
+        runner.addTable("country", "cache_ref=test.mapper.RegionMapper");
+        runner.generate();
+
+        assertEquals("<cache-ref namespace=\"test.mapper.OrdersMapper\" />", getCache("OrderItemMapper.xml"));
+        assertEquals("<cache eviction=\"LRU\" readOnly=\"true\" size=\"1064\" />", getCache("OrdersMapper.xml"));
+        assertEquals("<cache-ref namespace=\"test.mapper.RegionMapper\" />", getCache("CountryMapper.xml"));
+    }
+
+    @Test
+    public void testInvalidPropertyDisablesThePlugin() throws Exception {
+        runner.addPlugin(CachePlugin.class, "cache_autoProfile=true", "cache_maxSize=0");
+        runner.addTable("country");
+        runner.generate();
+
+        assertTrue(runner.getWarnings().toString(),
+                runner.getWarnings().contains("Property cache_maxSize of CachePlugin must be a positive integer"));
+        assertFalse(runner.getXmlFile("CountryMapper.xml").contains("<cache"));
+    }
+
+    private String getCache(String fileName) {
+        String xml = runner.getXmlFile(fileName);
+        int start = xml.indexOf("<cache");
+        assertTrue(fileName, start >= 0);
+        return xml.substring(start, xml.indexOf("/>", start) + 2);
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mybatis.generator.GeneratorRunner.getMethod;
+import static org.mybatis.generator.GeneratorRunner.invoke;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+
+public class PrimaryKeyCachePluginTest {
+
+    @Test
+    public void testMutatingMethodsInvalidate() throws Exception {
+        GeneratorRunner runner = newRunner("maxSize=100");
+        String facade = runner.getJavaFile("OrdersMapperCache.java");
+        assertTrue(facade.contains("public class OrdersMapperCache implements OrdersMapper {\n"));
+        assertTrue(facade.contains("    public static final int DEFAULT_MAX_SIZE = 100;\n"));
+
+        // the keys are known
+        assertTrue(getMethod(facade, "deleteByPrimaryKey").contains("        } finally {\n"
+                + "            cache.invalidate(id);\n"));
+        for (String name : new String[] { "insert", "insertNoCheck", "upsert", "updateByPrimaryKey" }) {
+            assertTrue(name, getMethod(facade, name).contains("            cache.invalidate(key(record));\n"));
+        }
+        assertTrue(getMethod(facade, "upsertBatch").contains("            for (Orders record : records) {\n"
+                + "                cache.invalidate(key(record));\n"));
+        // the keys are not known
+        for (String name : new String[] { "deleteByWhere", "updateByWhere" }) {
+            assertTrue(name, getMethod(facade, name).contains("            cache.invalidateAll();\n"));
+        }
+        // reads other than by primary key are not cached
+        assertEquals("    public Orders selectByUniqueKeyCustomer(String customer) {\n"
+                + "        return delegate.selectByUniqueKeyCustomer(customer);\n"
+                + "    }", getMethod(facade, "selectByUniqueKeyCustomer"));
+
+        // a load that raced with a write is not cached
+        assertTrue(getMethod(facade, "selectByPrimaryKey").contains("            long stamp = cache.stamp();\n"
+                + "            record = delegate.selectByPrimaryKey(id);\n"
+                + "            if (record != null) {\n"
+                + "                cache.put(key, record, stamp);\n"));
+    }
+
+    @Test
+    public void testCompositeKeys() throws Exception {
+        GeneratorRunner runner = newRunner();
+        String facade = runner.getJavaFile("StockMapperCache.java");
+        assertTrue(facade.contains("    public static final int DEFAULT_MAX_SIZE = 10000;\n"));
+        assertTrue(facade.contains("    public PrimaryKeyCache<List<Object>, Stock> getCache() {\n"));
+        assertTrue(getMethod(facade, "deleteByPrimaryKey").contains(
+                "            cache.invalidate(Arrays.<Object>asList(warehouseId, sku));\n"));
+    }
+
+    @Test
+    public void testCacheClassIsGeneratedOnce() throws Exception {
+        GeneratorRunner runner = newRunner("targetPackage=test.cache");
+        assertTrue(runner.hasJavaFile("OrdersMapperCache.java"));
+        assertTrue(runner.hasJavaFile("StockMapperCache.java"));
+        String facade = runner.getJavaFile("StockMapperCache.java");
+        assertTrue(facade.contains("import test.cache.PrimaryKeyCache;\n"));
+        assertTrue(runner.getJavaFile("PrimaryKeyCache.java").startsWith("package test.cache;\n"));
+    }
+
+    @Test
+    public void testPrimaryKeyCache() throws Exception {
+        Object cache = newCache(2);
+        assertNull(invoke(cache, "get", 1L));
+        invoke(cache, "put", 1L, "a", invoke(cache, "stamp"));
+        invoke(cache, "put", 2L, "b", invoke(cache, "stamp"));
+        assertEquals("a", invoke(cache, "get", 1L));
+
+        // 2 is the least recently used entry
+        invoke(cache, "put", 3L, "c", invoke(cache, "stamp"));
+        assertNull(invoke(cache, "get", 2L));
+        assertEquals("a", invoke(cache, "get", 1L));
+        assertEquals(2, invoke(cache, "size"));
+        assertEquals(1L, invoke(cache, "getEvictionCount"));
+        assertEquals(2L, invoke(cache, "getHitCount"));
+        assertEquals(2L, invoke(cache, "getMissCount"));
+
+        invoke(cache, "invalidate", 1L);
+        assertNull(invoke(cache, "get", 1L));
+        invoke(cache, "invalidateAll");
+        assertEquals(0, invoke(cache, "size"));
+    }
+
+    @Test
+    public void testLoadRacingWithWriteIsNotCached() throws Exception {
+        Object cache = newCache(10);
+        Object stamp = invoke(cache, "stamp");
+        // another thread writes the row while it is loaded
+        invoke(cache, "invalidate", 1L);
+        invoke(cache, "put", 1L, "stale", stamp);
+        assertNull(invoke(cache, "get", 1L));
+    }
+
+    @Test
+    public void testInvalidMaxSize() throws Exception {
+        try {
+            newCache(0);
+            fail("maxSize 0 should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("maxSize must be positive", e.getMessage());
+        }
+
+        GeneratorRunner runner = newRunner("maxSize=-1");
+        assertTrue(runner.getWarnings().toString(), runner.getWarnings()
+                .contains("Property maxSize of PrimaryKeyCachePlugin must be a positive integer"));
+        assertFalse(runner.hasJavaFile("OrdersMapperCache.java"));
+        assertFalse(runner.hasJavaFile("PrimaryKeyCache.java"));
+    }
+
+    private static GeneratorRunner newRunner(String... properties) throws Exception {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addPlugin(PrimaryKeyCachePlugin.class, properties);
+        runner.addTable("orders");
+        runner.addTable("stock");
+        return runner.generate();
+    }
+
+    private static Object newCache(int maxSize) throws Exception {
+        ClassLoader loader = newRunner().compile("PrimaryKeyCache.java");
+        try {
+            return loader.loadClass("test.mapper.PrimaryKeyCache").getConstructor(int.class).newInstance(maxSize);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+import org.mybatis.generator.RecordingDataSource;
+
+public class ReadWriteSplitPluginTest {
+
+    private RecordingDataSource primary;
+
+    private RecordingDataSource replica1;
+
+    private RecordingDataSource replica2;
+
+    @Before
+    public void setUp() {
+        primary = new RecordingDataSource();
+        replica1 = new RecordingDataSource();
+        replica2 = new RecordingDataSource();
+    }
+
+    @Test
+    public void testReadStatementsAreRegistered() throws Exception {
+        GeneratorRunner runner = newRunner("MyBatis3", "XMLMAPPER", "targetPackage=test.routing");
+        Class<?> statements = runner.compile("MapperStatements.java").loadClass("test.routing.MapperStatements");
+        Method isRead = statements.getMethod("isRead", String.class);
+        assertTrue((Boolean) isRead.invoke(null, "test.mapper.CountryMapper.selectByPrimaryKey"));
+        assertTrue((Boolean) isRead.invoke(null, "test.mapper.CountryMapper.countByWhere"));
+        assertFalse((Boolean) isRead.invoke(null, "test.mapper.CountryMapper.insert"));
+        assertFalse((Boolean) isRead.invoke(null, "test.mapper.CountryMapper.updateByPrimaryKey"));
+        // hand written statements use the primary
+        assertFalse((Boolean) isRead.invoke(null, "test.mapper.CountryMapper.selectReport"));
+
+        assertTrue(runner.getJavaFile("ReadWriteRoutingInterceptor.java").contains(
+                "        boolean previous = ReadWriteRouting.markRead(MapperStatements.isRead(statement.getId()));\n"));
+    }
+
+    @Test
+    public void testAnnotatedReadStatements() throws Exception {
+        GeneratorRunner runner = newRunner("MyBatis3", "ANNOTATEDMAPPER");
+        String statements = runner.getJavaFile("MapperStatements.java");
+        assertTrue(statements.contains("READ_STATEMENTS.add(\"test.mapper.CountryMapper.selectByWhere\");"));
+        assertFalse(statements.contains("test.mapper.CountryMapper.insert\""));
+        assertFalse(statements.contains("test.mapper.CountryMapper.updateByWhere\""));
+    }
+
+    @Test
+    public void testReadsGoToReplicasRoundRobin() throws Exception {
+        Class<?> routing = compileRouting();
+        DataSource dataSource = newDataSource(routing);
+
+        read(routing, dataSource, "select 1");
+        read(routing, dataSource, "select 2");
+        read(routing, dataSource, "select 3");
+        assertEquals(Arrays.asList("select 1", "select 3"), replica1.getStatements());
+        assertEquals(Arrays.asList("select 2"), replica2.getStatements());
+        assertTrue(primary.getStatements().isEmpty());
+
+        // without replicas the primary is used as it is
+        Method method = routing.getMethod("dataSource", DataSource.class, DataSource[].class);
+        assertSame(primary.getDataSource(), method.invoke(null, primary.getDataSource(), new DataSource[0]));
+    }
+
+    @Test
+    public void testWritesSwitchToThePrimary() throws Exception {
+        Class<?> routing = compileRouting();
+        Connection connection = newDataSource(routing).getConnection();
+        // nothing is acquired before the first statement
+        connection.setAutoCommit(true);
+        assertTrue(connection.getAutoCommit());
+
+        markRead(routing, true);
+        connection.prepareStatement("select 1");
+        markRead(routing, false);
+        connection.prepareStatement("update t set a = 1");
+        // reads after a write see the write
+        markRead(routing, true);
+        connection.prepareStatement("select 2");
+        markRead(routing, false);
+        connection.close();
+
+        assertEquals(Arrays.asList("select 1"), replica1.getStatements());
+        assertEquals(Arrays.asList("update t set a = 1", "select 2"), primary.getStatements());
+    }
+
+    @Test
+    public void testUsePrimary() throws Exception {
+        Class<?> routing = compileRouting();
+        DataSource dataSource = newDataSource(routing);
+        Method usePrimary = routing.getMethod("usePrimary", boolean.class);
+        assertFalse((Boolean) usePrimary.invoke(null, true));
+        try {
+            read(routing, dataSource, "select 1");
+        } finally {
+            assertTrue((Boolean) usePrimary.invoke(null, false));
+        }
+        read(routing, dataSource, "select 2");
+
+        assertEquals(Arrays.asList("select 1"), primary.getStatements());
+        assertEquals(Arrays.asList("select 2"), replica1.getStatements());
+    }
+
+    @Test
+    public void testTransactions() throws Exception {
+        Class<?> routing = compileRouting();
+        Connection connection = newDataSource(routing).getConnection();
+        connection.setAutoCommit(false);
+        markRead(routing, true);
+        connection.prepareStatement("select 1");
+        markRead(routing, false);
+        assertEquals(Arrays.asList("select 1"), primary.getStatements());
+        assertTrue(replica1.getStatements().isEmpty());
+
+        setUp();
+        routing = compileRouting("replicaReadsInTransaction=true");
+        connection = newDataSource(routing).getConnection();
+        connection.setAutoCommit(false);
+        markRead(routing, true);
+        connection.prepareStatement("select 1");
+        markRead(routing, false);
+        connection.prepareStatement("update t set a = 1");
+        assertEquals(Arrays.asList("select 1"), replica1.getStatements());
+        assertEquals(Arrays.asList("update t set a = 1"), primary.getStatements());
+    }
+
+    private static GeneratorRunner newRunner(String targetRuntime, String clientType, String... properties)
+            throws Exception {
+        GeneratorRunner runner = new GeneratorRunner(targetRuntime, clientType);
+        runner.addPlugin(ReadWriteSplitPlugin.class, properties);
+        runner.addTable("country");
+        return runner.generate();
+    }
+
+    private static Class<?> compileRouting(String... properties) throws Exception {
+        return newRunner("MyBatis3", "XMLMAPPER", properties).compile("ReadWriteRouting.java")
+                .loadClass("test.mapper.ReadWriteRouting");
+    }
+
+    private DataSource newDataSource(Class<?> routing) throws Exception {
+        Method method = routing.getMethod("dataSource", DataSource.class, DataSource[].class);
+        return (DataSource) method.invoke(null, primary.getDataSource(),
+                new DataSource[] { replica1.getDataSource(), replica2.getDataSource() });
+    }
+
+    /** Runs a statement the way the interceptor does for a read statement. */
+    private static void read(Class<?> routing, DataSource dataSource, String sql) throws Exception {
+        boolean previous = markRead(routing, true);
+        try {
+            Connection connection = dataSource.getConnection();
+            connection.prepareStatement(sql);
+            connection.close();
+        } finally {
+            markRead(routing, previous);
+        }
+    }
+
+    private static boolean markRead(Class<?> routing, boolean read) throws Exception {
+        Method method = routing.getDeclaredMethod("markRead", boolean.class);
+        method.setAccessible(true);
+        try {
+            return (Boolean) method.invoke(null, read);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorRunner.getMethod;
+import static org.mybatis.generator.GeneratorRunner.invoke;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.GeneratorRunner;
+
+public class ReferenceTableSnapshotPluginTest {
+
+    @Test
+    public void testSmallTablesGetSnapshots() throws Exception {
+        GeneratorRunner runner = newRunner();
+        runner.addTable("orders");
+        runner.addTable("country");
+        runner.addTable("region");
+        runner.addTable("wide");
+        runner.generate();
+
+        // orders has 1000 rows, wide has no statistics
+        assertTrue(runner.hasJavaFile("OrdersMapperSnapshot.java"));
+        assertTrue(runner.hasJavaFile("CountryMapperSnapshot.java"));
+        assertTrue(runner.hasJavaFile("RegionMapperSnapshot.java"));
+        assertFalse(runner.hasJavaFile("WideMapperSnapshot.java"));
+
+        // integral keys are looked up without boxing
+        String snapshot = runner.getJavaFile("RegionMapperSnapshot.java");
+        assertTrue(getMethod(snapshot, "get").startsWith("    public Region get(int id) {"));
+        assertTrue(snapshot.contains("        private final long[] keys;\n"));
+        snapshot = runner.getJavaFile("OrdersMapperSnapshot.java");
+        assertTrue(getMethod(snapshot, "get").startsWith("    public Orders get(long id) {"));
+        snapshot = runner.getJavaFile("CountryMapperSnapshot.java");
+        assertTrue(getMethod(snapshot, "get").startsWith("    public Country get(String code) {"));
+        assertTrue(snapshot.contains("        private final Map<Object, Country> map;\n"));
+    }
+
+    @Test
+    public void testTableProperties() throws Exception {
+        GeneratorRunner runner = newRunner("maxRows=100");
+        runner.addTable("orders");
+        runner.addTable("country", "snapshot=true");
+        runner.addTable("region", "snapshot=false");
+        runner.addTable("stock", "snapshot=true");
+        runner.generate();
+
+        assertFalse(runner.hasJavaFile("OrdersMapperSnapshot.java"));
+        assertTrue(runner.hasJavaFile("CountryMapperSnapshot.java"));
+        assertFalse(runner.hasJavaFile("RegionMapperSnapshot.java"));
+        assertEquals("    public Stock get(Integer warehouseId, String sku) {\n"
+                + "        return snapshot.get(Arrays.asList(warehouseId, sku));\n"
+                + "    }", getMethod(runner.getJavaFile("StockMapperSnapshot.java"), "get"));
+    }
+
+    @Test
+    public void testInvalidMaxRows() throws Exception {
+        GeneratorRunner runner = newRunner("maxRows=many");
+        runner.addTable("country");
+        runner.generate();
+
+        assertTrue(runner.getWarnings().toString(), runner.getWarnings()
+                .contains("Property maxRows of ReferenceTableSnapshotPlugin must be a positive integer"));
+        assertFalse(runner.hasJavaFile("CountryMapperSnapshot.java"));
+    }
+
+    @Test
+    public void testPrimitiveKeyLookup() throws Exception {
+        GeneratorRunner runner = newRunner();
+        runner.addTable("region");
+        runner.generate();
+        runner.addStub("test.mapper.RegionMapper", "package test.mapper;\n"
+                + "public interface RegionMapper {\n"
+                + "    java.util.List<test.model.Region> selectByWhere(test.model.RegionWhere where);\n"
+                + "}\n");
+        ClassLoader loader = runner.compile("RegionMapperSnapshot.java", "Region.java", "RegionWhere.java");
+        Class<?> recordType = loader.loadClass("test.model.Region");
+
+        // keys that differ by multiples of the table size collide and are probed
+        final List<Object> records = new ArrayList<Object>();
+        for (int id : new int[] { 1, 65, 129, -1, Integer.MAX_VALUE, Integer.MIN_VALUE }) {
+            Object record = recordType.newInstance();
+            invoke(record, "setId", id);
+            records.add(record);
+        }
+        // a row without a key can not be looked up
+        records.add(recordType.newInstance());
+
+        Class<?> mapperType = loader.loadClass("test.mapper.RegionMapper");
+        Object mapper = Proxy.newProxyInstance(loader, new Class<?>[] { mapperType }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return new ArrayList<Object>(records);
+            }
+        });
+        Object snapshot = loader.loadClass("test.mapper.RegionMapperSnapshot")
+                .getConstructor(mapperType).newInstance(mapper);
+
+        assertEquals(7, invoke(snapshot, "size"));
+        for (Object record : records.subList(0, 6)) {
+            assertSame(record, invoke(snapshot, "get", invoke(record, "getId")));
+        }
+        assertNull(invoke(snapshot, "get", 0));
+        assertNull(invoke(snapshot, "get", 193));
+
+        // a refresh replaces the whole snapshot
+        records.remove(0);
+        invoke(snapshot, "refresh");
+        assertNull(invoke(snapshot, "get", 1));
+        assertSame(records.get(0), invoke(snapshot, "get", 65));
+    }
+
+    private static GeneratorRunner newRunner(String... properties) {
+        GeneratorRunner runner = new GeneratorRunner();
+        runner.addPlugin(ReferenceTableSnapshotPlugin.class, properties);
+        return runner;
+    }
+}